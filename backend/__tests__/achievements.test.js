@@ -90,4 +90,35 @@ describe('Achievement Endpoints', () => {
         expect(nonExistentResponse.statusCode).toBe(404);
         expect(nonExistentResponse.body.error).toBe('Achievement not found');
     });
+
+    test('should unlock a batch of achievements in one request', async () => {
+        await request(app)
+            .post(`/api/users/${testUser.id}/achievements`)
+            .set('Authorization', `Bearer ${token}`)
+            .send({ achievement_name: 'Boss Slayer' });
+
+        const batchResponse = await request(app)
+            .post(`/api/users/${testUser.id}/achievements/batch`)
+            .set('Authorization', `Bearer ${token}`)
+            .send({ achievement_names: ['First Blood', 'Boss Slayer', 'First Blood', 'This achievement does not exist'] });
+
+        expect(batchResponse.statusCode).toBe(200);
+        expect(batchResponse.body.unlocked).toEqual(['First Blood']);
+        expect(batchResponse.body.already_unlocked).toEqual(['Boss Slayer']);
+        expect(batchResponse.body.not_found).toEqual(['This achievement does not exist']);
+
+        const getResponse = await request(app)
+            .get(`/api/users/${testUser.id}/achievements`);
+        const unlockedNames = getResponse.body.filter(a => a.unlocked).map(a => a.name).sort();
+        expect(unlockedNames).toEqual(['Boss Slayer', 'First Blood']);
+    });
+
+    test('should reject an empty batch', async () => {
+        const response = await request(app)
+            .post(`/api/users/${testUser.id}/achievements/batch`)
+            .set('Authorization', `Bearer ${token}`)
+            .send({ achievement_names: [] });
+
+        expect(response.statusCode).toBe(400);
+    });
 });
@@ -0,0 +1,64 @@
+const express = require('express');
+const request = require('supertest');
+const { idempotency } = require('../middleware/idempotency');
+
+describe('Idempotency Middleware Tests', () => {
+    let app;
+    let calls;
+    let release;
+    let status;
+
+    beforeEach(() => {
+        calls = 0;
+        status = 200;
+        let unblock;
+        release = new Promise((resolve) => { unblock = resolve; });
+        release.open = unblock;
+
+        app = express();
+        app.use((req, res, next) => {
+            req.user = { id: 1 };
+            next();
+        });
+        app.post('/write', idempotency, async (req, res) => {
+            calls++;
+            const call = calls;
+            // The first request stays in flight until the test lets it answer
+            if (call === 1) {
+                await release;
+            }
+            res.status(call === 1 ? status : 200).json({ call });
+        });
+    });
+
+    test('should answer overlapping requests with the same key once', async () => {
+        const first = request(app).post('/write').set('Idempotency-Key', 'overlap').then((r) => r);
+        await new Promise((resolve) => setTimeout(resolve, 50));
+        const second = request(app).post('/write').set('Idempotency-Key', 'overlap').then((r) => r);
+        await new Promise((resolve) => setTimeout(resolve, 50));
+        expect(calls).toBe(1);
+
+        release.open();
+        const [firstResponse, secondResponse] = await Promise.all([first, second]);
+        expect(calls).toBe(1);
+        expect(firstResponse.status).toBe(200);
+        expect(secondResponse.status).toBe(200);
+        expect(secondResponse.body).toEqual(firstResponse.body);
+        expect(secondResponse.headers['idempotent-replayed']).toBe('true');
+    });
+
+    test('should let a waiting request run when the first one fails', async () => {
+        status = 500;
+        const first = request(app).post('/write').set('Idempotency-Key', 'failed').then((r) => r);
+        await new Promise((resolve) => setTimeout(resolve, 50));
+        const second = request(app).post('/write').set('Idempotency-Key', 'failed').then((r) => r);
+        await new Promise((resolve) => setTimeout(resolve, 50));
+
+        release.open();
+        const [firstResponse, secondResponse] = await Promise.all([first, second]);
+        expect(calls).toBe(2);
+        expect(firstResponse.status).toBe(500);
+        expect(secondResponse.status).toBe(200);
+        expect(secondResponse.body).toEqual({ call: 2 });
+    });
+});
@@ -0,0 +1,123 @@
+const request = require('supertest');
+const bcrypt = require('bcrypt');
+const { app } = require('../server');
+const { initDb } = require('../db');
+const { stopCleanup } = require('../utils/deviceStore');
+
+const TEST_USERNAME = 'test_scores'; // a unique user for this test suite
+const TEST_PASSWORD = 'Password123!';
+
+let db;
+let testUser;
+let token;
+
+beforeAll(async () => {
+    db = await initDb();
+
+    let existingUser = await db.get('SELECT * FROM users WHERE username = ?', [TEST_USERNAME]);
+    if (!existingUser) {
+        const hashedPassword = await bcrypt.hash(TEST_PASSWORD, 10);
+        await db.run('INSERT INTO users (username, password) VALUES (?, ?)', [TEST_USERNAME, hashedPassword]);
+    }
+    testUser = await db.get('SELECT * FROM users WHERE username = ?', [TEST_USERNAME]);
+
+    const loginResponse = await request(app)
+        .post('/api/auth/login')
+        .send({ username: TEST_USERNAME, password: TEST_PASSWORD });
+    token = loginResponse.body.token;
+});
+
+afterAll(async () => {
+    if (db) {
+        await db.run('DELETE FROM scores WHERE user_id = ?', [testUser.id]);
+        await db.run('DELETE FROM leaderboard_weekly WHERE user_id = ?', [testUser.id]);
+        await db.run('DELETE FROM leaderboard_yearly WHERE user_id = ?', [testUser.id]);
+        await db.run('DELETE FROM users WHERE username = ?', [TEST_USERNAME]);
+        await db.close();
+    }
+    stopCleanup();
+});
+
+describe('Score Endpoints', () => {
+    test('should answer 304 when the leaderboard matches If-None-Match', async () => {
+        const first = await request(app).get('/api/scores');
+        expect(first.statusCode).toBe(200);
+        expect(first.headers['cache-control']).toBe('public, max-age=5');
+        expect(first.headers.etag).toBeDefined();
+
+        const second = await request(app)
+            .get('/api/scores')
+            .set('If-None-Match', first.headers.etag);
+        expect(second.statusCode).toBe(304);
+    });
+
+    test('should page through the leaderboard with cursors', async () => {
+        const full = await request(app).get('/api/scores').query({ limit: 100 });
+        expect(full.statusCode).toBe(200);
+
+        const paged = [];
+        let cursor;
+        do {
+            const query = cursor ? { limit: 3, cursor } : { limit: 3 };
+            const page = await request(app).get('/api/scores').query(query);
+            expect(page.statusCode).toBe(200);
+            expect(page.body.length).toBeLessThanOrEqual(3);
+            paged.push(...page.body);
+            cursor = page.headers['x-next-cursor'];
+        } while (cursor && paged.length < full.body.length);
+
+        const expected = full.body.slice(0, paged.length);
+        expect(paged.map(entry => entry.rank)).toEqual(expected.map((entry, index) => index + 1));
+        expect(paged.map(entry => [entry.username, entry.score])).toEqual(
+            expected.map(entry => [entry.username, entry.score])
+        );
+    });
+
+    test('should reject an invalid limit or cursor', async () => {
+        const badLimit = await request(app).get('/api/scores').query({ limit: 0 });
+        expect(badLimit.statusCode).toBe(400);
+
+        const badCursor = await request(app).get('/api/scores/yearly').query({ cursor: 'not-a-cursor' });
+        expect(badCursor.statusCode).toBe(400);
+    });
+
+    test('should show a new top score on every board at once', async () => {
+        const before = await request(app).get('/api/scores').query({ limit: 1 });
+        const topScore = before.body.length ? before.body[0].score : 0;
+
+        const update = await request(app)
+            .put(`/api/users/${testUser.id}/score`)
+            .set('Authorization', `Bearer ${token}`)
+            .send({ score: topScore + 1 });
+        expect(update.statusCode).toBe(200);
+
+        for (const path of ['/api/scores', '/api/scores/weekly', '/api/scores/yearly']) {
+            const after = await request(app)
+                .get(path)
+                .query({ limit: 1 })
+                .set('If-None-Match', before.headers.etag);
+            expect(after.statusCode).toBe(200);
+            expect(after.body[0]).toMatchObject({ rank: 1, username: TEST_USERNAME, score: topScore + 1 });
+        }
+    });
+
+    test('should serve the top of the leaderboard from memory', async () => {
+        const before = (await request(app).get('/api/scores/stats')).body;
+
+        const response = await request(app).get('/api/scores/weekly').query({ limit: 10 });
+        expect(response.statusCode).toBe(200);
+
+        const after = (await request(app).get('/api/scores/stats')).body;
+        expect(after.boards.weekly.hits).toBe(before.boards.weekly.hits + 1);
+        expect(after.boards.weekly.misses).toBe(before.boards.weekly.misses);
+        expect(after.latency.memory.count).toBe(before.latency.memory.count + 1);
+    });
+
+    test('should resend the leaderboard when the ETag is outdated', async () => {
+        const response = await request(app)
+            .get('/api/scores/weekly')
+            .set('If-None-Match', 'W/"outdated"');
+        expect(response.statusCode).toBe(200);
+        expect(Array.isArray(response.body)).toBe(true);
+    });
+});
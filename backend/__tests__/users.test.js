@@ -183,6 +183,30 @@ describe('PUT /api/users/:id/score', () => {
         // 5. Clean up the created user
         await db.run('DELETE FROM users WHERE id = ?', [otherUserId]);
     });
+
+    test('should apply a retried submission with the same Idempotency-Key only once', async () => {
+        await db.run('DELETE FROM scores WHERE user_id = ?', [testUser.id]);
+        const key = `score-${Date.now()}`;
+
+        const first = await request(app)
+            .put(`/api/users/${testUser.id}/score`)
+            .set('Authorization', `Bearer ${token}`)
+            .set('Idempotency-Key', key)
+            .send({ score: 300 });
+        const retry = await request(app)
+            .put(`/api/users/${testUser.id}/score`)
+            .set('Authorization', `Bearer ${token}`)
+            .set('Idempotency-Key', key)
+            .send({ score: 300 });
+
+        expect(first.statusCode).toBe(200);
+        expect(retry.statusCode).toBe(200);
+        expect(retry.headers['idempotent-replayed']).toBe('true');
+        expect(retry.body).toEqual(first.body);
+
+        const logged = await db.get('SELECT COUNT(*) as count FROM scores WHERE user_id = ?', [testUser.id]);
+        expect(logged.count).toBe(1);
+    });
 });
 
 describe('GET /api/users/:id/stats', () => {
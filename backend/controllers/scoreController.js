@@ -1,63 +1,60 @@
-const { getDb } = require('../db');
+const { getScoresPage } = require('../services/leaderboardService');
+const topScoresCache = require('../services/topScoresCache');
 
-const getAllScores = async (req, res) => {
-    const db = getDb();
-    try {
-        // Join scores and users tables to get username, score, and created_at, ordered by score descending, limit 100.
-        const scores = await db.all(`
-            SELECT u.username, s.score, s.created_at 
-            FROM scores s 
-            JOIN users u ON s.user_id = u.id
-            ORDER BY s.score DESC
-            LIMIT 100 
-        `);
-        res.json(scores);
-    } catch (error) {
-        console.error('Database error while fetching scores:', error);
-        res.status(500).json({ error: 'Server database error' });
-    }
-};
+// Leaderboards may be reused for a few seconds by browsers and proxies, then
+// are revalidated with their ETag. Pages read from memory carry an ETag made
+// from the version of their board, so a 304 for them costs nothing; Express
+// tags the others by hashing their body.
+const CACHE_CONTROL = 'public, max-age=5';
 
-const getWeeklyScores = async (req, res) => {
-    const db = getDb();
+// The body stays a plain array; the cursor of the next page, if there is
+// one, is sent in the X-Next-Cursor header.
+const sendScoresPage = (period, errorLabel) => async (req, res) => {
+    const started = process.hrtime.bigint();
     try {
-        // Get scores from the last 7 days
-        const scores = await db.all(`
-            SELECT u.username, s.score, s.created_at 
-            FROM scores s
-            JOIN users u ON s.user_id = u.id
-            WHERE s.created_at >= datetime('now', '-7 days')
-            ORDER BY s.score DESC
-            LIMIT 100 
-        `);
-        res.json(scores);
+        const result = await getScoresPage(period, { cursor: req.query.cursor, limit: req.query.limit });
+        if (result.status !== 200) {
+            return res.status(result.status).json({ error: result.message });
+        }
+        res.set('Cache-Control', CACHE_CONTROL);
+        if (result.next_cursor) {
+            res.set('X-Next-Cursor', result.next_cursor);
+        }
+        if (result.etag) {
+            res.set('ETag', result.etag);
+        }
+        if (result.etag && req.fresh) {
+            res.status(304).end();
+        } else {
+            res.json(result.scores);
+        }
+        if (res.statusCode === 304) {
+            topScoresCache.recordNotModified();
+        }
+        topScoresCache.recordLatency(result.source, Number(process.hrtime.bigint() - started) / 1e6);
     } catch (error) {
-        console.error('Database error while fetching weekly scores:', error);
+        console.error(`Database error while fetching ${errorLabel}:`, error);
         res.status(500).json({ error: 'Server database error' });
     }
 };
 
-const getYearlyScores = async (req, res) => {
-    const db = getDb();
-    try {
-        // Get scores from the last 1 year
-        const scores = await db.all(`
-            SELECT u.username, s.score, s.created_at 
-            FROM scores s
-            JOIN users u ON s.user_id = u.id
-            WHERE s.created_at >= datetime('now', '-365 days')
-            ORDER BY s.score DESC
-            LIMIT 100 
-        `);
-        res.json(scores);
-    } catch (error) {
-        console.error('Database error while fetching yearly scores:', error);
-        res.status(500).json({ error: 'Server database error' });
-    }
+const getAllScores = sendScoresPage('all', 'scores');
+
+// Scores from the last 7 days
+const getWeeklyScores = sendScoresPage('weekly', 'weekly scores');
+
+// Scores from the last 1 year
+const getYearlyScores = sendScoresPage('yearly', 'yearly scores');
+
+// Hit rates of the in-memory leaderboards and response times, for monitoring
+const getScoreStats = (req, res) => {
+    res.set('Cache-Control', 'no-store');
+    res.json(topScoresCache.stats());
 };
 
 module.exports = {
     getAllScores,
     getWeeklyScores,
     getYearlyScores,
+    getScoreStats,
 };
@@ -151,6 +151,54 @@ const unlockAchievement = async (req, res) => {
     }
 };
 
+// Largest number of achievements accepted in one batch
+const MAX_BATCH_ACHIEVEMENTS = 100;
+
+const unlockAchievements = async (req, res) => {
+    try {
+        const userIdFromParams = parseInt(req.params.id, 10);
+        const userIdFromToken = req.user.id;
+
+        if (isNaN(userIdFromParams)) {
+            return res.status(400).json({ error: 'Invalid user ID' });
+        }
+
+        const user = await getDb().get('SELECT id FROM users WHERE id = ?', [userIdFromParams]);
+        if (!user) {
+            return res.status(404).json({ error: 'User not found' });
+        }
+
+        // Authorization check
+        if (userIdFromParams !== userIdFromToken) {
+            return res.status(403).json({ error: 'Forbidden: You can only update your own achievements.' });
+        }
+
+        const { achievement_names } = req.body;
+
+        if (!Array.isArray(achievement_names) || achievement_names.length === 0
+            || achievement_names.length > MAX_BATCH_ACHIEVEMENTS
+            || !achievement_names.every(name => typeof name === 'string' && name)) {
+            return res.status(400).json({ error: `Between 1 and ${MAX_BATCH_ACHIEVEMENTS} achievement names are required` });
+        }
+
+        const result = await userService.unlockAchievements(userIdFromParams, achievement_names);
+
+        if (result.status === 404) {
+            return res.status(404).json({ error: result.message });
+        }
+        res.status(200).json({
+            message: result.message,
+            unlocked: result.unlocked,
+            already_unlocked: result.already_unlocked,
+            not_found: result.not_found
+        });
+
+    } catch (error) {
+        console.error('Error unlocking achievements:', error);
+        res.status(500).json({ error: 'Server database error' });
+    }
+};
+
 const updateScore = async (req, res) => {
     try {
         const userIdFromParams = parseInt(req.params.id, 10);
@@ -194,5 +242,6 @@ module.exports = {
     getUserStats,
     getUserAchievements,
     unlockAchievement,
+    unlockAchievements,
     updateScore
 };
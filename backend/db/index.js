@@ -224,6 +224,29 @@ async function initDb() {
             FOREIGN KEY (achievement_id) REFERENCES achievements(id),
             UNIQUE(user_id, achievement_id)
         );
+
+        -- Covers the leaderboard order, so pages are read from the index alone.
+        CREATE INDEX IF NOT EXISTS idx_scores_leaderboard
+            ON scores(score DESC, created_at, id, user_id);
+
+        -- Best scores of the last 7 and 365 days (see services/leaderboardService.js).
+        CREATE TABLE IF NOT EXISTS leaderboard_weekly(
+            id INTEGER PRIMARY KEY,
+            user_id INTEGER NOT NULL,
+            score INTEGER NOT NULL,
+            created_at DATETIME NOT NULL
+        );
+        CREATE INDEX IF NOT EXISTS idx_leaderboard_weekly
+            ON leaderboard_weekly(score DESC, created_at, id, user_id);
+
+        CREATE TABLE IF NOT EXISTS leaderboard_yearly(
+            id INTEGER PRIMARY KEY,
+            user_id INTEGER NOT NULL,
+            score INTEGER NOT NULL,
+            created_at DATETIME NOT NULL
+        );
+        CREATE INDEX IF NOT EXISTS idx_leaderboard_yearly
+            ON leaderboard_yearly(score DESC, created_at, id, user_id);
     `);
     
     // 기본 achievements 데이터 추가
@@ -231,6 +254,10 @@ async function initDb() {
     
     // 테스트 데이터 추가 (개발 환경에서만)
     await seedTestData();
+
+    // Required here, as the service itself requires this module.
+    const { rebuildLeaderboards } = require('../services/leaderboardService');
+    await rebuildLeaderboards(db);
     
     return db; // Return the database connection
 }
@@ -0,0 +1,70 @@
+/**
+ * Middleware making authenticated write requests safe to retry.
+ * A request carrying an `Idempotency-Key` header is answered once; a retry
+ * with the same key from the same user gets the stored response back
+ * instead of being applied again. A retry arriving while the first request
+ * is still running waits for its response. Keys are kept in memory for a day.
+ */
+
+// How long a stored response is kept (24 hours)
+const TTL_MS = 24 * 60 * 60 * 1000;
+// Upper bound on stored responses, the oldest are dropped first
+const MAX_ENTRIES = 10000;
+
+/**
+ * Stored responses, by user ID and key, in insertion order. A key whose
+ * first request is still running holds the promise settling when it ends.
+ * @type {Map<string, { status?: number, body?: any, pending?: Promise<void>, expiresAt: number }>}
+ */
+const responses = new Map();
+
+const idempotency = async (req, res, next) => {
+    const key = req.get('Idempotency-Key');
+    if (!key || !req.user) {
+        return next();
+    }
+
+    const storeKey = `${req.user.id}:${key}`;
+    let stored = responses.get(storeKey);
+    while (stored && stored.pending) {
+        await stored.pending;
+        stored = responses.get(storeKey);
+    }
+    if (stored && stored.expiresAt > Date.now()) {
+        res.set('Idempotent-Replayed', 'true');
+        return res.status(stored.status).json(stored.body);
+    }
+    responses.delete(storeKey);
+
+    // Reserve the key until this request has answered
+    let settle;
+    const reservation = { pending: new Promise((resolve) => { settle = resolve; }), expiresAt: Date.now() + TTL_MS };
+    responses.set(storeKey, reservation);
+    const release = () => {
+        // Nothing final was stored, a retry may run the request again
+        if (responses.get(storeKey) === reservation) {
+            responses.delete(storeKey);
+        }
+        settle();
+    };
+    res.once('finish', release);
+    res.once('close', release);
+
+    const json = res.json.bind(res);
+    res.json = (body) => {
+        // Only successful responses are final, errors may be retried
+        if (res.statusCode >= 200 && res.statusCode < 300) {
+            responses.delete(storeKey);
+            responses.set(storeKey, { status: res.statusCode, body, expiresAt: Date.now() + TTL_MS });
+            if (responses.size > MAX_ENTRIES) {
+                responses.delete(responses.keys().next().value);
+            }
+        }
+        return json(body);
+    };
+    next();
+};
+
+module.exports = {
+    idempotency,
+};
@@ -14,11 +14,35 @@ const { requireAuth } = require('../middleware/auth');
  * @swagger
  * /api/scores:
  *   get:
- *     summary: Retrieve a list of all scores (all-time)
+ *     summary: Retrieve a page of all scores (all-time)
  *     tags: [Scores]
+ *     parameters:
+ *       - in: query
+ *         name: limit
+ *         schema:
+ *           type: integer
+ *           minimum: 1
+ *           maximum: 100
+ *           default: 100
+ *         description: Number of scores per page
+ *       - in: query
+ *         name: cursor
+ *         schema:
+ *           type: string
+ *         description: X-Next-Cursor header of the previous page
+ *       - in: header
+ *         name: If-None-Match
+ *         schema:
+ *           type: string
+ *         description: ETag of a previously fetched list
  *     responses:
  *       200:
  *         description: A list of scores with usernames, ordered by score descending
+ *         headers:
+ *           X-Next-Cursor:
+ *             schema:
+ *               type: string
+ *             description: Cursor of the next page, absent on the last page
  *         content:
  *           application/json:
  *             schema:
@@ -26,12 +50,18 @@ const { requireAuth } = require('../middleware/auth');
  *               items:
  *                 type: object
  *                 properties:
+ *                   rank:
+ *                     type: integer
  *                   username:
  *                     type: string
  *                   score:
  *                     type: integer
  *                   created_at:
  *                     type: string
+ *       304:
+ *         description: The list has not changed since the given ETag
+ *       400:
+ *         description: Invalid limit or cursor
  *       500:
  *         description: Server database error
  */
@@ -41,11 +71,35 @@ router.get('/', scoreController.getAllScores);
  * @swagger
  * /api/scores/weekly:
  *   get:
- *     summary: Retrieve weekly high scores (last 7 days)
+ *     summary: Retrieve weekly high scores (last 7 days, best 1000)
  *     tags: [Scores]
+ *     parameters:
+ *       - in: query
+ *         name: limit
+ *         schema:
+ *           type: integer
+ *           minimum: 1
+ *           maximum: 100
+ *           default: 100
+ *         description: Number of scores per page
+ *       - in: query
+ *         name: cursor
+ *         schema:
+ *           type: string
+ *         description: X-Next-Cursor header of the previous page
+ *       - in: header
+ *         name: If-None-Match
+ *         schema:
+ *           type: string
+ *         description: ETag of a previously fetched list
  *     responses:
  *       200:
  *         description: A list of weekly scores with usernames, ordered by score descending
+ *         headers:
+ *           X-Next-Cursor:
+ *             schema:
+ *               type: string
+ *             description: Cursor of the next page, absent on the last page
  *         content:
  *           application/json:
  *             schema:
@@ -53,12 +107,18 @@ router.get('/', scoreController.getAllScores);
  *               items:
  *                 type: object
  *                 properties:
+ *                   rank:
+ *                     type: integer
  *                   username:
  *                     type: string
  *                   score:
  *                     type: integer
  *                   created_at:
  *                     type: string
+ *       304:
+ *         description: The list has not changed since the given ETag
+ *       400:
+ *         description: Invalid limit or cursor
  *       500:
  *         description: Server database error
  */
@@ -68,11 +128,35 @@ router.get('/weekly', scoreController.getWeeklyScores);
  * @swagger
  * /api/scores/yearly:
  *   get:
- *     summary: Retrieve yearly high scores (last 365 days)
+ *     summary: Retrieve yearly high scores (last 365 days, best 1000)
  *     tags: [Scores]
+ *     parameters:
+ *       - in: query
+ *         name: limit
+ *         schema:
+ *           type: integer
+ *           minimum: 1
+ *           maximum: 100
+ *           default: 100
+ *         description: Number of scores per page
+ *       - in: query
+ *         name: cursor
+ *         schema:
+ *           type: string
+ *         description: X-Next-Cursor header of the previous page
+ *       - in: header
+ *         name: If-None-Match
+ *         schema:
+ *           type: string
+ *         description: ETag of a previously fetched list
  *     responses:
  *       200:
  *         description: A list of yearly scores with usernames, ordered by score descending
+ *         headers:
+ *           X-Next-Cursor:
+ *             schema:
+ *               type: string
+ *             description: Cursor of the next page, absent on the last page
  *         content:
  *           application/json:
  *             schema:
@@ -80,16 +164,35 @@ router.get('/weekly', scoreController.getWeeklyScores);
  *               items:
  *                 type: object
  *                 properties:
+ *                   rank:
+ *                     type: integer
  *                   username:
  *                     type: string
  *                   score:
  *                     type: integer
  *                   created_at:
  *                     type: string
+ *       304:
+ *         description: The list has not changed since the given ETag
+ *       400:
+ *         description: Invalid limit or cursor
  *       500:
  *         description: Server database error
  */
 router.get('/yearly', scoreController.getYearlyScores);
 
+/**
+ * @swagger
+ * /api/scores/stats:
+ *   get:
+ *     summary: Counters of the in-memory leaderboards
+ *     description: Hit rate of each in-memory leaderboard, 304 count, and response time percentiles of the pages read from memory and from the database.
+ *     tags: [Scores]
+ *     responses:
+ *       200:
+ *         description: Current counters since the server started
+ */
+router.get('/stats', scoreController.getScoreStats);
+
 module.exports = router;
 
@@ -2,6 +2,7 @@ const express = require('express');
 const router = express.Router();
 const userController = require('../controllers/userController');
 const { requireAuth } = require('../middleware/auth');
+const { idempotency } = require('../middleware/idempotency');
 
 /**
  * @swagger
@@ -142,6 +143,12 @@ router.get('/:id/achievements', userController.getUserAchievements);
  *           type: integer
  *         required: true
  *         description: The user ID
+ *       - in: header
+ *         name: Idempotency-Key
+ *         schema:
+ *           type: string
+ *         required: false
+ *         description: Unique key of the submission; a retry with the same key is not applied twice
  *     requestBody:
  *       required: true
  *       content:
@@ -163,7 +170,50 @@ router.get('/:id/achievements', userController.getUserAchievements);
  *       500:
  *         description: Server database error
  */
-router.post('/:id/achievements', requireAuth, userController.unlockAchievement);
+router.post('/:id/achievements', requireAuth, idempotency, userController.unlockAchievement);
+
+/**
+ * @swagger
+ * /api/users/{id}/achievements/batch:
+ *   post:
+ *     summary: Unlock several achievements for a user in one statement
+ *     security:
+ *       - bearerAuth: []
+ *     tags: [Users]
+ *     parameters:
+ *       - in: path
+ *         name: id
+ *         schema:
+ *           type: integer
+ *         required: true
+ *         description: The user ID
+ *     requestBody:
+ *       required: true
+ *       content:
+ *         application/json:
+ *           schema:
+ *             type: object
+ *             properties:
+ *               achievement_names:
+ *                 type: array
+ *                 items:
+ *                   type: string
+ *                 maxItems: 100
+ *     responses:
+ *       200:
+ *         description: Achievements processed; lists the unlocked, already unlocked and unknown names
+ *       400:
+ *         description: Missing or invalid achievement names
+ *       401:
+ *         description: Unauthorized - No token provided
+ *       403:
+ *         description: Forbidden - Invalid token or trying to update another user's achievements
+ *       404:
+ *         description: User not found
+ *       500:
+ *         description: Server database error
+ */
+router.post('/:id/achievements/batch', requireAuth, userController.unlockAchievements);
 
 /**
  * @swagger
@@ -180,6 +230,12 @@ router.post('/:id/achievements', requireAuth, userController.unlockAchievement);
  *           type: integer
  *         required: true
  *         description: The user ID
+ *       - in: header
+ *         name: Idempotency-Key
+ *         schema:
+ *           type: string
+ *         required: false
+ *         description: Unique key of the submission; a retry with the same key is not applied twice
  *     requestBody:
  *       required: true
  *       content:
@@ -202,6 +258,6 @@ router.post('/:id/achievements', requireAuth, userController.unlockAchievement);
  *       500:
  *         description: Server database error
  */
-router.put('/:id/score', requireAuth, userController.updateScore);
+router.put('/:id/score', requireAuth, idempotency, userController.updateScore);
 
 module.exports = router;
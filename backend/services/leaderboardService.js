@@ -0,0 +1,211 @@
+const { getDb } = require('../db');
+const topScoresCache = require('./topScoresCache');
+
+// Scores are ranked by score, then by age (the older score first), then by id.
+// Pages are read with a keyset cursor on that order, so a page costs the same
+// whether it is the first or the thousandth: no OFFSET, no full scan.
+const ORDER = 'score DESC, created_at ASC, id ASC';
+
+const DEFAULT_PAGE_SIZE = 100;
+const MAX_PAGE_SIZE = 100;
+
+// Weekly and yearly boards are served from tables holding only the best
+// TOP_N scores of their window, kept up to date on every insert. They are
+// held whole in memory, so TOP_N is the size of the in-memory top.
+const TOP_N = topScoresCache.TOP_K;
+const WINDOWS = {
+    weekly: { table: 'leaderboard_weekly', modifier: '-7 days' },
+    yearly: { table: 'leaderboard_yearly', modifier: '-365 days' },
+};
+const SELECT_ROWS = 'SELECT s.id, u.username, s.score, s.created_at';
+
+const encodeCursor = (rank, row) =>
+    Buffer.from(JSON.stringify([rank, row.score, row.created_at, row.id])).toString('base64url');
+
+// Returns the position after which a page starts, or null if the cursor is malformed.
+const decodeCursor = (cursor) => {
+    try {
+        const [rank, score, createdAt, id] = JSON.parse(Buffer.from(cursor, 'base64url').toString('utf8'));
+        if (!Number.isInteger(rank) || rank < 0 || !Number.isInteger(score)
+            || typeof createdAt !== 'string' || !Number.isInteger(id)) {
+            return null;
+        }
+        return { rank, score, createdAt, id };
+    } catch (error) {
+        return null;
+    }
+};
+
+// Condition selecting the rows ranked after a cursor, and its parameters.
+// The leading "score <= ?" lets SQLite seek the index instead of scanning it.
+const after = (alias, position) => ({
+    sql: `${alias}.score <= ? AND (${alias}.score < ? OR (${alias}.score = ? AND (${alias}.created_at > ?
+        OR (${alias}.created_at = ? AND ${alias}.id > ?))))`,
+    params: [position.score, position.score, position.score, position.createdAt, position.createdAt, position.id],
+});
+
+// Fills a window table with the best scores of its window.
+async function fillWindow(db, window) {
+    await db.run(`
+        INSERT OR IGNORE INTO ${window.table} (id, user_id, score, created_at)
+        SELECT id, user_id, score, created_at
+        FROM scores
+        WHERE created_at >= datetime('now', '${window.modifier}')
+        ORDER BY ${ORDER}
+        LIMIT ${TOP_N}
+    `);
+}
+
+// Drops the scores ranked below TOP_N in a window table.
+async function trimWindow(db, window) {
+    await db.run(`
+        DELETE FROM ${window.table}
+        WHERE id IN (SELECT id FROM ${window.table} ORDER BY ${ORDER} LIMIT -1 OFFSET ${TOP_N})
+    `);
+}
+
+// Loads the in-memory copy of a window table.
+async function loadWindow(db, period) {
+    const rows = await db.all(`
+        ${SELECT_ROWS}
+        FROM ${WINDOWS[period].table} s
+        JOIN users u ON s.user_id = u.id
+        ORDER BY s.score DESC, s.created_at ASC, s.id ASC
+        LIMIT ${TOP_N}
+    `);
+    topScoresCache.load(period, rows, true);
+}
+
+// Scores leave a window as time passes, which no insert reports. Once the
+// in-memory copy of a window holds such a score, the window table is pruned,
+// refilled from the scores table and loaded again.
+async function pruneWindow(db, period) {
+    if (!topScoresCache.hasExpired(period)) {
+        return;
+    }
+    const window = WINDOWS[period];
+    await db.run(`DELETE FROM ${window.table} WHERE created_at < datetime('now', '${window.modifier}')`);
+    await fillWindow(db, window);
+    await trimWindow(db, window);
+    await loadWindow(db, period);
+}
+
+/**
+ * Rebuilds the weekly and yearly tables from the scores table, and loads
+ * the in-memory top of every leaderboard.
+ * Called once the database is opened, as scores may have been added without them.
+ */
+async function rebuildLeaderboards(db) {
+    for (const period of Object.keys(WINDOWS)) {
+        await db.run(`DELETE FROM ${WINDOWS[period].table}`);
+        await fillWindow(db, WINDOWS[period]);
+        await loadWindow(db, period);
+    }
+    const rows = await db.all(`
+        ${SELECT_ROWS}
+        FROM scores s
+        JOIN users u ON s.user_id = u.id
+        ORDER BY s.score DESC, s.created_at ASC, s.id ASC
+        LIMIT ${topScoresCache.TOP_K + 1}
+    `);
+    topScoresCache.load('all', rows, true);
+}
+
+/**
+ * Adds a newly logged score to the weekly and yearly tables and to the
+ * in-memory leaderboards it ranks in.
+ */
+async function recordScore(db, { id, userId, username, score, createdAt }) {
+    for (const window of Object.values(WINDOWS)) {
+        await db.run(
+            `INSERT OR IGNORE INTO ${window.table} (id, user_id, score, created_at) VALUES (?, ?, ?, ?)`,
+            [id, userId, score, createdAt]
+        );
+        await trimWindow(db, window);
+    }
+    topScoresCache.record({ id, username, score, created_at: createdAt });
+}
+
+/**
+ * Reads one page of a leaderboard, from memory if it is in the top, from
+ * the database otherwise.
+ * @param {string} period - 'all', 'weekly' or 'yearly'.
+ * @param {object} options - The cursor of the previous page, if any, and the page size.
+ * @returns {object} { status: 200, scores, next_cursor, source, etag } or { status: 400, message }.
+ *     The etag is only set for pages read from memory.
+ */
+async function getScoresPage(period, { cursor, limit } = {}) {
+    const db = getDb();
+
+    const pageSize = limit === undefined ? DEFAULT_PAGE_SIZE : Number(limit);
+    if (!Number.isInteger(pageSize) || pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+        return { status: 400, message: `limit must be an integer between 1 and ${MAX_PAGE_SIZE}` };
+    }
+    let position = null;
+    if (cursor !== undefined) {
+        position = decodeCursor(String(cursor));
+        if (!position) {
+            return { status: 400, message: 'Invalid cursor' };
+        }
+    }
+
+    const window = WINDOWS[period];
+    if (window) {
+        await pruneWindow(db, period);
+    }
+    const firstRank = position ? position.rank + 1 : 1;
+
+    const cached = topScoresCache.page(period, position, pageSize, cursor);
+    if (cached) {
+        return toPage(cached.rows, firstRank, cached.hasNext, 'memory', cached.etag);
+    }
+
+    const where = [];
+    const params = [];
+    if (window) {
+        where.push(`s.created_at >= datetime('now', '${window.modifier}')`);
+    }
+    if (position) {
+        const condition = after('s', position);
+        where.push(condition.sql);
+        params.push(...condition.params);
+    }
+
+    // One row more than the page tells if there is a next page.
+    const rows = await db.all(`
+        ${SELECT_ROWS}
+        FROM ${window ? window.table : 'scores'} s
+        JOIN users u ON s.user_id = u.id
+        ${where.length ? `WHERE ${where.join(' AND ')}` : ''}
+        ORDER BY s.score DESC, s.created_at ASC, s.id ASC
+        LIMIT ?
+    `, [...params, pageSize + 1]);
+
+    return toPage(rows.slice(0, pageSize), firstRank, rows.length > pageSize, 'database', null);
+}
+
+// Shapes the rows of a page for the response.
+function toPage(rows, firstRank, hasNext, source, etag) {
+    const scores = rows.map((row, index) => ({
+        rank: firstRank + index,
+        username: row.username,
+        score: row.score,
+        created_at: row.created_at,
+    }));
+    const last = rows[rows.length - 1];
+    return {
+        status: 200,
+        scores,
+        next_cursor: hasNext ? encodeCursor(firstRank + rows.length - 1, last) : null,
+        source,
+        etag,
+    };
+}
+
+module.exports = {
+    TOP_N,
+    MAX_PAGE_SIZE,
+    getScoresPage,
+    recordScore,
+    rebuildLeaderboards,
+};
@@ -0,0 +1,178 @@
+const { LatencyCounter } = require('../utils/latencyCounter');
+
+// In-memory copy of the top of each leaderboard, so that reading the first
+// pages costs no database I/O. It is loaded when the database is opened and
+// written through on every logged score; pages it cannot answer on its own
+// fall through to the database.
+const TOP_K = 1000;
+
+// Tells versions of this process apart from those of a previous one in ETags.
+const EPOCH = Date.now().toString(36);
+
+const DAY_MS = 24 * 60 * 60 * 1000;
+const WINDOW_DAYS = { weekly: 7, yearly: 365 };
+
+// A capped board is the whole leaderboard even when full: the weekly and
+// yearly leaderboards are themselves limited to their best scores.
+const newBoard = (capped) => ({
+    capped,
+    // Best scores first, in leaderboard order
+    rows: [],
+    // If rows holds every score of the board, not just its top
+    complete: false,
+    // Oldest created_at of the rows
+    oldest: null,
+    loaded: false,
+    // Bumped on every change, for ETags
+    version: 0,
+    hits: 0,
+    misses: 0,
+});
+
+const boards = { all: newBoard(false), weekly: newBoard(true), yearly: newBoard(true) };
+const latency = { memory: new LatencyCounter(), database: new LatencyCounter() };
+let notModified = 0;
+
+// Leaderboard order: score descending, then the older score, then the lower id.
+const compare = (a, b) =>
+    (b.score - a.score)
+    || (a.created_at < b.created_at ? -1 : a.created_at > b.created_at ? 1 : 0)
+    || (a.id - b.id);
+
+// Index of the first row ranked after a position.
+const indexAfter = (rows, position) => {
+    const key = { score: position.score, created_at: position.createdAt, id: position.id };
+    let low = 0;
+    let high = rows.length;
+    while (low < high) {
+        const middle = (low + high) >>> 1;
+        if (compare(rows[middle], key) <= 0) {
+            low = middle + 1;
+        } else {
+            high = middle;
+        }
+    }
+    return low;
+};
+
+// Start of a window, in the format of the created_at column (UTC).
+const windowStart = (period) =>
+    new Date(Date.now() - WINDOW_DAYS[period] * DAY_MS).toISOString().slice(0, 19).replace('T', ' ');
+
+/**
+ * Replaces a board with rows read from the database, best first.
+ * @param {boolean} complete - If the rows are the whole board.
+ */
+function load(period, rows, complete) {
+    const board = boards[period];
+    board.rows = rows.slice(0, TOP_K);
+    board.complete = board.capped || (complete && rows.length <= TOP_K);
+    board.oldest = board.rows.reduce(
+        (oldest, row) => (oldest === null || row.created_at < oldest ? row.created_at : oldest), null);
+    board.loaded = true;
+    board.version++;
+}
+
+/**
+ * Adds a newly logged score to the boards it ranks in.
+ * @param {object} row - { id, username, score, created_at }.
+ */
+function record(row) {
+    for (const period of Object.keys(boards)) {
+        const board = boards[period];
+        if (!board.loaded) {
+            continue;
+        }
+        const rows = board.rows;
+        if (rows.length >= TOP_K && compare(row, rows[rows.length - 1]) > 0) {
+            // Below the top: the board only knows it is not complete anymore
+            board.complete = board.capped;
+            continue;
+        }
+        let index = rows.length;
+        while (index > 0 && compare(row, rows[index - 1]) < 0) {
+            index--;
+        }
+        rows.splice(index, 0, row);
+        if (rows.length > TOP_K) {
+            rows.pop();
+            board.complete = board.capped;
+        }
+        if (board.oldest === null || row.created_at < board.oldest) {
+            board.oldest = row.created_at;
+        }
+        board.version++;
+    }
+}
+
+/**
+ * Checks if a window board holds scores that have left the window, in
+ * which case the window table must be pruned and the board loaded again.
+ */
+function hasExpired(period) {
+    const board = boards[period];
+    return board.loaded && board.oldest !== null && board.oldest < windowStart(period);
+}
+
+/**
+ * Reads a page from memory.
+ * @param {object|null} position - Decoded cursor of the previous page.
+ * @returns {object|null} { rows, hasNext, etag }, or null if the page is not all in memory.
+ */
+function page(period, position, pageSize, cursor) {
+    const board = boards[period];
+    const start = position ? indexAfter(board.rows, position) : 0;
+    const end = start + pageSize;
+    // One row past the page must be known to tell if there is a next page.
+    if (!board.loaded || (end >= board.rows.length && !board.complete)) {
+        board.misses++;
+        return null;
+    }
+    board.hits++;
+    return {
+        rows: board.rows.slice(start, end),
+        hasNext: board.rows.length > end,
+        etag: `W/"${EPOCH}.${period}.${board.version}.${pageSize}.${cursor || ''}"`,
+    };
+}
+
+/**
+ * Records the time taken to answer a leaderboard request.
+ * @param {string} source - 'memory' or 'database'.
+ */
+function recordLatency(source, ms) {
+    latency[source].record(ms);
+}
+
+function recordNotModified() {
+    notModified++;
+}
+
+/**
+ * Returns the counters of the boards, for monitoring.
+ */
+function stats() {
+    const result = { boards: {}, not_modified: notModified, latency };
+    for (const [period, board] of Object.entries(boards)) {
+        const reads = board.hits + board.misses;
+        result.boards[period] = {
+            entries: board.rows.length,
+            complete: board.complete,
+            hits: board.hits,
+            misses: board.misses,
+            hit_rate: reads === 0 ? 0 : Math.round(board.hits / reads * 1000) / 1000,
+        };
+    }
+    return result;
+}
+
+module.exports = {
+    TOP_K,
+    load,
+    record,
+    hasExpired,
+    page,
+    recordLatency,
+    recordNotModified,
+    stats,
+};
@@ -1,4 +1,5 @@
 const { getDb } = require('../db');
+const { recordScore } = require('./leaderboardService');
 
 async function getUserStats(userId) {
     const db = getDb();
@@ -94,10 +95,59 @@ async function unlockAchievement(userId, achievementName) {
     return { status: 200, message: 'Achievement unlocked successfully' };
 }
 
+async function unlockAchievements(userId, achievementNames) {
+    const db = getDb();
+
+    const user = await db.get('SELECT id FROM users WHERE id = ?', [userId]);
+    if (!user) {
+        return { status: 404, message: 'User not found' };
+    }
+
+    const names = [...new Set(achievementNames)];
+    const rows = await db.all(
+        `SELECT id, name FROM achievements WHERE name IN (${names.map(() => '?').join(',')})`,
+        names
+    );
+    const idsByName = new Map(rows.map(row => [row.name, row.id]));
+
+    const unlocked = [];
+    const alreadyUnlocked = [];
+    const notFound = [];
+    const dateString = new Date().toISOString().slice(0, 19).replace('T', ' ');
+
+    const found = names.filter(name => {
+        if (idsByName.has(name)) return true;
+        notFound.push(name);
+        return false;
+    });
+
+    // 한 문장으로 기록: 공유 연결에서 다른 요청과 트랜잭션이 섞이지 않는다
+    if (found.length > 0) {
+        const inserted = await db.all(
+            `INSERT OR IGNORE INTO user_achievements (user_id, achievement_id, unlocked_at) VALUES ${found.map(() => '(?, ?, ?)').join(', ')} RETURNING achievement_id`,
+            found.flatMap(name => [userId, idsByName.get(name), dateString])
+        );
+        const insertedIds = new Set(inserted.map(row => row.achievement_id));
+        for (const name of found) {
+            (insertedIds.has(idsByName.get(name)) ? unlocked : alreadyUnlocked).push(name);
+        }
+    }
+
+    console.log(`Unlocked ${unlocked.length} of ${names.length} achievements for user ${userId}`);
+
+    return {
+        status: 200,
+        message: 'Achievements processed',
+        unlocked,
+        already_unlocked: alreadyUnlocked,
+        not_found: notFound,
+    };
+}
+
 async function updateUserScore(userId, newScore) {
     const db = getDb();
 
-    const user = await db.get('SELECT max_score FROM users WHERE id = ?', [userId]);
+    const user = await db.get('SELECT username, max_score FROM users WHERE id = ?', [userId]);
 
     if (!user) {
         return { status: 404, message: 'User not found' };
@@ -117,10 +167,13 @@ async function updateUserScore(userId, newScore) {
     // scores 테이블에 현재 점수 기록
     const dateString = new Date().toISOString().slice(0, 19).replace('T', ' ');
     
-    await db.run(
+    const inserted = await db.run(
         'INSERT INTO scores (user_id, score, created_at) VALUES (?, ?, ?)',
         [userId, newScore, dateString]
     );
+    await recordScore(db, {
+        id: inserted.lastID, userId, username: user.username, score: newScore, createdAt: dateString,
+    });
     
     console.log(`Logged score ${newScore} for user ${userId}`);
 
@@ -130,5 +183,6 @@ async function updateUserScore(userId, newScore) {
 module.exports = {
     getUserStats,
     unlockAchievement,
+    unlockAchievements,
     updateUserScore,
 };
\ No newline at end of file
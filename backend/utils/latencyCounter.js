@@ -0,0 +1,59 @@
+/**
+ * Counts durations in buckets growing by a factor of 2^(1/4), so percentiles
+ * are within about 20% of the exact value whatever the range, in constant
+ * memory and without keeping samples.
+ */
+const BUCKETS_PER_DOUBLING = 4;
+const BUCKETS = 32 * BUCKETS_PER_DOUBLING; // 2^32 microseconds is over an hour
+
+class LatencyCounter {
+    constructor() {
+        this.counts = new Array(BUCKETS).fill(0);
+        this.count = 0;
+        this.max = 0;
+    }
+
+    /**
+     * Records one duration.
+     * @param {number} ms - Duration in milliseconds.
+     */
+    record(ms) {
+        const micros = Math.max(1, ms * 1000);
+        const bucket = Math.min(BUCKETS - 1, Math.floor(BUCKETS_PER_DOUBLING * Math.log2(micros)));
+        this.counts[bucket]++;
+        this.count++;
+        this.max = Math.max(this.max, ms);
+    }
+
+    /**
+     * Returns a percentile of the recorded durations, in milliseconds.
+     * @param {number} percentile - Between 0 and 100.
+     */
+    percentile(percentile) {
+        if (this.count === 0) {
+            return 0;
+        }
+        const rank = Math.max(1, Math.ceil(this.count * percentile / 100));
+        let seen = 0;
+        for (let bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += this.counts[bucket];
+            if (seen >= rank) {
+                // Upper bound of the bucket, capped at the largest duration
+                return Math.min(Math.pow(2, (bucket + 1) / BUCKETS_PER_DOUBLING) / 1000, this.max);
+            }
+        }
+        return this.max;
+    }
+
+    toJSON() {
+        const round = (ms) => Math.round(ms * 1000) / 1000;
+        return {
+            count: this.count,
+            p50_ms: round(this.percentile(50)),
+            p99_ms: round(this.percentile(99)),
+            max_ms: round(this.max),
+        };
+    }
+}
+
+module.exports = { LatencyCounter };
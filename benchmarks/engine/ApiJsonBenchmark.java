@@ -0,0 +1,108 @@
+package engine;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures binding a leaderboard response to scores, with the streaming
+ * JsonReader against the string splitting ApiClient used before it, which
+ * is kept here as the baseline.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ApiJsonBenchmark {
+
+    @Param({ "10", "1000" })
+    private int entries;
+
+    private String json;
+
+    @Setup
+    public void setUp() {
+        StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < entries; i++) {
+            if (i > 0)
+                builder.append(',');
+            builder.append("{\"username\":\"player").append(i)
+                    .append("\",\"score\":").append(100000 - i).append('}');
+        }
+        json = builder.append(']').toString();
+    }
+
+    @Benchmark
+    public List<Score> jsonReader() throws IOException {
+        return ApiClient.readScores(new JsonReader(new StringReader(json)));
+    }
+
+    @Benchmark
+    public List<Score> legacy() {
+        return parseScoreList(json);
+    }
+
+    /**
+     * ApiClient.parseScoreList as it was before JsonReader, logging removed.
+     */
+    private static List<Score> parseScoreList(String jsonArray) {
+        List<Score> scores = new ArrayList<>();
+        if (jsonArray == null || jsonArray.trim().isEmpty() || !jsonArray.startsWith("[") || !jsonArray.endsWith("]"))
+            return scores;
+        String innerContent = jsonArray.substring(1, jsonArray.length() - 1);
+        if (innerContent.isEmpty())
+            return scores;
+        for (String scoreStr : innerContent.split("\\},\\{")) {
+            String fullScoreObject = "{" + scoreStr + "}";
+            String username = parseJsonField(fullScoreObject, "username");
+            String scoreValue = parseJsonField(fullScoreObject, "score");
+            if (username != null && scoreValue != null) {
+                try {
+                    scores.add(new Score(username, Integer.parseInt(scoreValue.trim())));
+                } catch (NumberFormatException e) {
+                    // Skipped, as before.
+                }
+            }
+        }
+        return scores;
+    }
+
+    /**
+     * ApiClient.parseJsonField as it was before JsonReader, logging removed.
+     */
+    private static String parseJsonField(String json, String fieldName) {
+        try {
+            String key = "\"" + fieldName + "\":";
+            int keyIndex = json.indexOf(key);
+            if (keyIndex == -1)
+                return null;
+            int valueStartIndex = keyIndex + key.length();
+            if (json.charAt(valueStartIndex) == '"') {
+                valueStartIndex++;
+                return json.substring(valueStartIndex, json.indexOf('"', valueStartIndex));
+            }
+            int valueEndIndex = json.indexOf(',', valueStartIndex);
+            if (valueEndIndex == -1)
+                valueEndIndex = json.indexOf('}', valueStartIndex);
+            return json.substring(valueStartIndex, valueEndIndex).trim();
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
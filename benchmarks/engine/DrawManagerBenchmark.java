@@ -0,0 +1,56 @@
+package engine;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import engine.DrawManager.SpriteType;
+import entity.EnemyShip;
+import entity.Entity;
+import entity.Ship;
+import screen.Screen;
+
+/**
+ * Measures DrawManager.drawEntity into the offscreen back buffer, without a
+ * frame, for a small and a large sprite.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Benchmark)
+public class DrawManagerBenchmark {
+
+    private DrawManager drawManager;
+    private Entity enemyShip;
+    private Entity ship;
+
+    @Setup
+    public void setUp() {
+        drawManager = DrawManager.getInstance();
+        drawManager.initDrawing(new Screen(672, 780, 60));
+        enemyShip = new EnemyShip(100, 100, SpriteType.EnemyShipA1);
+        ship = new Ship(300, 600, java.awt.Color.GREEN);
+    }
+
+    @Benchmark
+    public void drawEnemyShip() {
+        drawManager.drawEntity(enemyShip, enemyShip.getPositionX(),
+                enemyShip.getPositionY());
+    }
+
+    @Benchmark
+    public void drawShip() {
+        drawManager.drawEntity(ship, ship.getPositionX(), ship.getPositionY());
+    }
+}
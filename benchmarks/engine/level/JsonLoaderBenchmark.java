@@ -0,0 +1,55 @@
+package engine.level;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures JsonLoader.parse on the shipped res/maps/maps.json, against
+ * LevelCompiler.read on its compiled form. The files are read once, only
+ * decoding is measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonLoaderBenchmark {
+
+    private String json;
+    private ByteBuffer compiled;
+
+    @Setup
+    public void setUp() throws IOException {
+        byte[] source = Files.readAllBytes(Paths.get("res/maps/maps.json"));
+        json = new String(source, StandardCharsets.UTF_8);
+        compiled = ByteBuffer.wrap(LevelCompiler.toBytes(JsonLoader.parse(json),
+                LevelCompiler.sourceHash(source)));
+    }
+
+    @Benchmark
+    public List<Level> parseMaps() throws IOException {
+        return JsonLoader.parse(json);
+    }
+
+    @Benchmark
+    public List<Level> readCompiled() throws IOException {
+        return LevelCompiler.read(compiled.duplicate());
+    }
+}
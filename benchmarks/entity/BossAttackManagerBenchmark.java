@@ -0,0 +1,73 @@
+package entity;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import audio.SoundManager;
+import engine.GameClock;
+import engine.GameRandom;
+
+/**
+ * Measures one BossAttackManager.processAttacks() per boss phase. Runs on
+ * the simulated clock, advanced by one frame per call, so the attack
+ * cooldowns fire as often as they do in game.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Benchmark)
+public class BossAttackManagerBenchmark {
+
+    private static final long FRAME_NANOS = 1000000000L / 60;
+
+    /** Boss phase, selected through the remaining health. */
+    @Param({"1", "2", "3"})
+    private int phase;
+
+    /** Boss difficulty. */
+    @Param({"1", "3"})
+    private int difficulty;
+
+    private BossAttackManager attackManager;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        GameClock.useSimulatedTime(1000);
+        SoundManager.cutAllSound();
+        GameRandom random = new GameRandom(1);
+        FinalBoss boss = new FinalBoss(224, 80, 448, 520, null, difficulty, random);
+        int damage = phase == 1 ? 0 : phase == 2
+                ? (int) (boss.getMaxHp() * (1 - FinalBoss.PHASE_2_HP_THRESHOLD)) + 1
+                : (int) (boss.getMaxHp() * (1 - FinalBoss.PHASE_3_HP_THRESHOLD)) + 1;
+        if (damage > 0)
+            boss.takeDamage(damage);
+        attackManager = new BossAttackManager(boss, random);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        GameClock.useSystemTime();
+    }
+
+    @Benchmark
+    public Set<BossAttack> processAttacks() {
+        GameClock.advance(FRAME_NANOS);
+        return attackManager.processAttacks();
+    }
+}
@@ -0,0 +1,57 @@
+package entity;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import engine.DrawManager.SpriteType;
+
+/**
+ * Measures Entity.collidesWith on a dense grid of enemy ships, every ship
+ * against every other, which is the worst case of the narrow phase.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CollisionBenchmark {
+
+    /** Ships per side of the grid. */
+    @Param({"8", "16", "32"})
+    private int side;
+
+    /** Distance between two ships, smaller than a ship so neighbours overlap. */
+    private static final int SPACING = 20;
+
+    private EnemyShip[] ships;
+
+    @Setup
+    public void setUp() {
+        ships = new EnemyShip[side * side];
+        for (int i = 0; i < ships.length; i++)
+            ships[i] = new EnemyShip((i % side) * SPACING, (i / side) * SPACING,
+                    SpriteType.EnemyShipA1);
+    }
+
+    @Benchmark
+    public int allPairs() {
+        int collisions = 0;
+        for (int i = 0; i < ships.length; i++)
+            for (int j = i + 1; j < ships.length; j++)
+                if (ships[i].collidesWith(ships[j]))
+                    collisions++;
+        return collisions;
+    }
+}
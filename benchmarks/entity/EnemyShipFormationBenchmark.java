@@ -0,0 +1,70 @@
+package entity;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import engine.Core;
+import engine.GameClock;
+import engine.GameRandom;
+import screen.Screen;
+
+/**
+ * Measures one EnemyShipFormation.update(), moving the whole formation on
+ * every call. Runs on the simulated clock, advanced by one frame per call.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Benchmark)
+public class EnemyShipFormationBenchmark {
+
+    private static final long FRAME_NANOS = 1000000000L / 60;
+
+    /** Ships per row of the formation. */
+    @Param({"5", "10", "20"})
+    private int width;
+
+    /** Rows of the formation. */
+    @Param({"4", "8", "20"})
+    private int height;
+
+    private EnemyShipFormation formation;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        GameClock.useSimulatedTime(1000);
+        // Wide formations turn on every move, keep their logs out of the timings
+        Core.getLogger().setLevel(java.util.logging.Level.WARNING);
+        formation = new EnemyShipFormation(
+                new engine.level.Level(1, width, height, 1, 1000),
+                new GameRandom(1));
+        formation.attach(new Screen(672, 780, 60));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        GameClock.useSystemTime();
+    }
+
+    @Benchmark
+    public EnemyShipFormation update() {
+        GameClock.advance(FRAME_NANOS);
+        formation.update();
+        return formation;
+    }
+}
@@ -0,0 +1,38 @@
+#!/bin/sh
+# Builds and runs the JMH benchmarks against the game sources.
+#
+# Usage: benchmarks/run.sh [JMH options]
+#   benchmarks/run.sh                      run every benchmark
+#   benchmarks/run.sh CollisionBenchmark   run the benchmarks matching a regex
+#   benchmarks/run.sh -f 1 -wi 3 -i 3      fewer iterations, for a quick look
+#
+# The JMH jars are downloaded once from Maven Central into benchmarks/lib.
+# Run from the repository root, JsonLoaderBenchmark reads res/maps/maps.json.
+
+set -e
+
+cd "$(dirname "$0")/.."
+
+JMH_VERSION=1.37
+MAVEN=https://repo1.maven.org/maven2
+LIB=benchmarks/lib
+OUT=benchmarks/bin
+
+mkdir -p "$LIB"
+for jar in \
+    org/openjdk/jmh/jmh-core/$JMH_VERSION/jmh-core-$JMH_VERSION.jar \
+    org/openjdk/jmh/jmh-generator-annprocess/$JMH_VERSION/jmh-generator-annprocess-$JMH_VERSION.jar \
+    net/sf/jopt-simple/jopt-simple/5.0.4/jopt-simple-5.0.4.jar \
+    org/apache/commons/commons-math3/3.6.1/commons-math3-3.6.1.jar; do
+    if [ ! -f "$LIB/$(basename "$jar")" ]; then
+        echo "Downloading $(basename "$jar")"
+        curl -sfL -o "$LIB/$(basename "$jar")" "$MAVEN/$jar"
+    fi
+done
+
+rm -rf "$OUT"
+mkdir -p "$OUT"
+javac -encoding UTF-8 -nowarn -d "$OUT" -cp "$LIB/*" \
+    $(find src benchmarks -name "*.java")
+
+java -cp "$OUT:res:$LIB/*" org.openjdk.jmh.Main "$@"
@@ -1,10 +1,13 @@
 package engine;
 
 import java.io.IOException;
-import java.net.URI;
-import java.net.http.HttpClient;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.StringReader;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
@@ -39,6 +42,14 @@ public class ApiClient {
     /** Singleton instance of the class. */
     private static ApiClient instance;
 
+    /** Transport shared by all the requests. */
+    private final HttpTransport transport = new HttpTransport(API_BASE_URL);
+
+    /** Outbox of the scores and achievements, created on first use. */
+    private SubmissionOutbox outbox;
+
+    /** Cache of the leaderboard, created on first use. */
+    private HighScoreCache highScoreCache;
 
     /**
      * Private constructor to prevent instantiation.
@@ -57,6 +68,48 @@ public class ApiClient {
         return instance;
     }
 
+    /**
+     * Returns the transport the requests are sent with.
+     *
+     * @return The shared transport, with its latency metrics.
+     */
+    public HttpTransport getTransport() {
+        return transport;
+    }
+
+    /**
+     * Returns the outbox the scores and achievements are sent through,
+     * starting it on first call. Submissions left by a previous run are
+     * sent again as soon as it starts.
+     *
+     * @return The shared outbox.
+     */
+    public synchronized SubmissionOutbox getOutbox() {
+        if (outbox == null) {
+            outbox = new SubmissionOutbox(Paths.get(SubmissionOutbox.DEFAULT_JOURNAL),
+                    transport, SubmissionOutbox.authSession(),
+                    SubmissionOutbox.DEFAULT_RETRY_DELAY,
+                    SubmissionOutbox.DEFAULT_COALESCE_DELAY);
+            // A new score may change the leaderboard, fetch it again.
+            outbox.setScoreListener(() -> getHighScoreCache().refresh());
+        }
+        return outbox;
+    }
+
+    /**
+     * Returns the cache the screens read the leaderboard from, loading the
+     * leaderboard of the previous run on first call.
+     *
+     * @return The shared leaderboard cache.
+     */
+    public synchronized HighScoreCache getHighScoreCache() {
+        if (highScoreCache == null) {
+            highScoreCache = new HighScoreCache(Paths.get(HighScoreCache.DEFAULT_FILE),
+                    transport, HighScoreCache.DEFAULT_TTL);
+        }
+        return highScoreCache;
+    }
+
     /**
      * Initiates the device authentication flow by requesting a code from the backend.
      * @return A DeviceAuthResponse object on success.
@@ -64,14 +117,12 @@ public class ApiClient {
      * @throws InterruptedException if the request is interrupted.
      */
     public DeviceAuthResponse initiateDeviceAuth() throws IOException, InterruptedException {
-        HttpClient client = HttpClient.newHttpClient();
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(API_BASE_URL + "/auth/device/initiate"))
+        HttpRequest request = transport.request("/auth/device/initiate")
                 .POST(HttpRequest.BodyPublishers.noBody()) // No body needed for this request
                 .build();
 
         Core.getLogger().info("Initiating device authentication flow...");
-        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        HttpResponse<String> response = transport.send("POST /auth/device/initiate", request);
 
         if (response.statusCode() != 200) {
             Core.getLogger().severe("Device auth initiation failed with status code: " + response.statusCode());
@@ -79,16 +130,7 @@ public class ApiClient {
         }
 
         Core.getLogger().info("Device auth initiated. Parsing response...");
-        String responseBody = response.body();
-
-        // Manual JSON parsing using existing helpers
-        String deviceCode = parseJsonField(responseBody, "deviceCode");
-        String userCode = parseJsonField(responseBody, "userCode");
-        String verificationUri = parseJsonField(responseBody, "verificationUri");
-        int expiresIn = Integer.parseInt(parseJsonField(responseBody, "expiresIn"));
-        int interval = Integer.parseInt(parseJsonField(responseBody, "interval"));
-
-        return new DeviceAuthResponse(deviceCode, userCode, verificationUri, expiresIn, interval);
+        return bind(response.body(), ApiClient::readDeviceAuth);
     }
 
     /**
@@ -100,15 +142,13 @@ public class ApiClient {
      * @throws InterruptedException if the request is interrupted.
      */
     public SessionConfirmationResponse initiateSessionConfirmation(String token) throws IOException, InterruptedException {
-        HttpClient client = HttpClient.newHttpClient();
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(API_BASE_URL + "/auth/session/initiate"))
+        HttpRequest request = transport.request("/auth/session/initiate")
                 .header("Authorization", "Bearer " + token)
                 .POST(HttpRequest.BodyPublishers.noBody())
                 .build();
 
         Core.getLogger().info("Initiating session confirmation flow...");
-        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        HttpResponse<String> response = transport.send("POST /auth/session/initiate", request);
 
         if (response.statusCode() != 200) {
             Core.getLogger().severe("Session confirmation initiation failed with status code: " + response.statusCode());
@@ -116,14 +156,7 @@ public class ApiClient {
         }
 
         Core.getLogger().info("Session confirmation initiated. Parsing response...");
-        String responseBody = response.body();
-
-        String confirmationCode = parseJsonField(responseBody, "confirmationCode");
-        String confirmationUri = parseJsonField(responseBody, "confirmationUri");
-        int expiresIn = Integer.parseInt(parseJsonField(responseBody, "expiresIn"));
-        int interval = Integer.parseInt(parseJsonField(responseBody, "interval"));
-
-        return new SessionConfirmationResponse(confirmationCode, confirmationUri, expiresIn, interval);
+        return bind(response.body(), ApiClient::readSessionConfirmation);
     }
 
     /**
@@ -134,27 +167,20 @@ public class ApiClient {
      * @throws InterruptedException if the request is interrupted.
      */
     public PollResponse pollForToken(String deviceCode) throws IOException, InterruptedException {
-        HttpClient client = HttpClient.newHttpClient();
         String jsonPayload = "{\"deviceCode\": \"" + deviceCode + "\"}";
 
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(API_BASE_URL + "/auth/device/token"))
+        HttpRequest request = transport.request("/auth/device/token")
                 .header("Content-Type", "application/json")
                 .POST(HttpRequest.BodyPublishers.ofString(jsonPayload))
                 .build();
         
-        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        HttpResponse<String> response = transport.send("POST /auth/device/token", request);
         
         switch (response.statusCode()) {
             case 200:
                 // Success case
                 Core.getLogger().info("Polling successful. Token received.");
-                String responseBody = response.body();
-                String token = parseJsonField(responseBody, "token");
-                String userJson = parseJsonObject(responseBody, "user");
-                int userId = Integer.parseInt(parseJsonField(userJson, "id"));
-                String parsedUsername = parseJsonField(userJson, "username");
-                LoginResponse loginResponse = new LoginResponse(token, userId, parsedUsername);
+                LoginResponse loginResponse = bind(response.body(), ApiClient::readLogin);
                 return new PollResponse(PollStatus.SUCCESS, loginResponse, null);
                 
             case 202:
@@ -165,7 +191,7 @@ public class ApiClient {
             default:
                 // Error case
                 Core.getLogger().severe("Polling failed with status code: " + response.statusCode());
-                String errorMessage = parseJsonField(response.body(), "error");
+                String errorMessage = readError(response.body());
                 if (errorMessage == null) {
                     errorMessage = "Polling failed with status: " + response.statusCode();
                 }
@@ -181,19 +207,17 @@ public class ApiClient {
      * @throws InterruptedException if the request is interrupted.
      */
     public SessionPollResponse pollSessionStatus(String confirmationCode) throws IOException, InterruptedException {
-        HttpClient client = HttpClient.newHttpClient();
         String jsonPayload = "{\"confirmationCode\": \"" + confirmationCode + "\"}";
 
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(API_BASE_URL + "/auth/session/status"))
+        HttpRequest request = transport.request("/auth/session/status")
                 .header("Content-Type", "application/json")
                 .POST(HttpRequest.BodyPublishers.ofString(jsonPayload))
                 .build();
         
-        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
-        String responseBody = response.body();
-        String statusString = parseJsonField(responseBody, "status");
-        String username = parseJsonField(responseBody, "username");
+        HttpResponse<String> response = transport.send("POST /auth/session/status", request);
+        StatusBody body = readStatusBody(response.body());
+        String statusString = body.status();
+        String username = body.username();
 
         if (response.statusCode() == 200 && statusString != null) {
             switch (statusString) {
@@ -212,7 +236,7 @@ public class ApiClient {
             }
         } else {
             Core.getLogger().severe("Session polling failed with status code: " + response.statusCode());
-            String errorMessage = parseJsonField(response.body(), "error");
+            String errorMessage = body.error();
             if (errorMessage == null) {
                 errorMessage = "Session polling failed with status: " + response.statusCode();
             }
@@ -228,18 +252,16 @@ public class ApiClient {
      * @throws InterruptedException if the request is interrupted.
      */
     public void confirmSession(String confirmationCode, String token) throws IOException, InterruptedException {
-        HttpClient client = HttpClient.newHttpClient();
         String jsonPayload = "{\"confirmationCode\": \"" + confirmationCode + "\"}";
 
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(API_BASE_URL + "/auth/session/confirm"))
+        HttpRequest request = transport.request("/auth/session/confirm")
                 .header("Content-Type", "application/json")
                 .header("Authorization", "Bearer " + token)
                 .POST(HttpRequest.BodyPublishers.ofString(jsonPayload))
                 .build();
 
         Core.getLogger().info("Sending session confirmation for code: " + confirmationCode);
-        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        HttpResponse<String> response = transport.send("POST /auth/session/confirm", request);
 
         if (response.statusCode() != 200) {
             Core.getLogger().severe("Session confirmation failed with status code: " + response.statusCode());
@@ -256,18 +278,16 @@ public class ApiClient {
      * @throws InterruptedException if the request is interrupted.
      */
     public void cancelSession(String confirmationCode, String token) throws IOException, InterruptedException {
-        HttpClient client = HttpClient.newHttpClient();
         String jsonPayload = "{\"confirmationCode\": \"" + confirmationCode + "\"}";
 
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(API_BASE_URL + "/auth/session/cancel"))
+        HttpRequest request = transport.request("/auth/session/cancel")
                 .header("Content-Type", "application/json")
                 .header("Authorization", "Bearer " + token)
                 .POST(HttpRequest.BodyPublishers.ofString(jsonPayload))
                 .build();
 
         Core.getLogger().info("Sending session cancellation for code: " + confirmationCode);
-        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        HttpResponse<String> response = transport.send("POST /auth/session/cancel", request);
 
         if (response.statusCode() != 200) {
             Core.getLogger().severe("Session cancellation failed with status code: " + response.statusCode());
@@ -285,17 +305,15 @@ public class ApiClient {
      * @throws InterruptedException if the request is interrupted.
      */
     public LoginResponse login(String username, String password) throws IOException, InterruptedException {
-        HttpClient client = HttpClient.newHttpClient();
         String jsonPayload = "{\"username\": \"" + username + "\", \"password\": \"" + password + "\"}";
 
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(API_BASE_URL + "/auth/login"))
+        HttpRequest request = transport.request("/auth/login")
                 .header("Content-Type", "application/json")
                 .POST(HttpRequest.BodyPublishers.ofString(jsonPayload))
                 .build();
 
         Core.getLogger().info("Attempting login for user: " + username);
-        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        HttpResponse<String> response = transport.send("POST /auth/login", request);
 
         if (response.statusCode() != 200) {
             Core.getLogger().severe("Login failed with status code: " + response.statusCode());
@@ -303,15 +321,7 @@ public class ApiClient {
         }
 
         Core.getLogger().info("Login successful. Parsing response...");
-        String responseBody = response.body();
-
-        // Manual JSON parsing
-        String token = parseJsonField(responseBody, "token");
-        String userJson = parseJsonObject(responseBody, "user");
-        int userId = Integer.parseInt(parseJsonField(userJson, "id"));
-        String parsedUsername = parseJsonField(userJson, "username");
-
-        return new LoginResponse(token, userId, parsedUsername);
+        return bind(response.body(), ApiClient::readLogin);
     }
 
     /**
@@ -328,16 +338,14 @@ public class ApiClient {
         int userId = authManager.getUserId();
         String token = authManager.getToken();
 
-        HttpClient client = HttpClient.newHttpClient();
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(API_BASE_URL + "/users/" + userId))
+        HttpRequest request = transport.request("/users/" + userId)
                 .header("Authorization", "Bearer " + token)
                 .GET()
                 .build();
 
         Core.getLogger().info("Validating token for user " + userId);
 
-        return client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+        return transport.sendAsync("GET /users/{id}", request)
                 .thenApply(response -> {
                     if (response.statusCode() == 200) {
                         Core.getLogger().info("Token is valid.");
@@ -356,7 +364,8 @@ public class ApiClient {
     }
 
     /**
-     * Saves the score by making a PUT request to the backend.
+     * Saves the score on the backend. The score is queued in the outbox and
+     * sent in the background, so it is not lost if the backend is down.
      * @param score The score to save.
      */
     public void saveScore(int score) {
@@ -373,41 +382,14 @@ public class ApiClient {
             return;
         }
 
-        try {
-            HttpClient client = HttpClient.newHttpClient();
-            String jsonPayload = "{\"score\": " + score + "}";
-
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(API_BASE_URL + "/users/" + userId + "/score"))
-                    .header("Content-Type", "application/json")
-                    .header("Authorization", "Bearer " + token)
-                    .PUT(HttpRequest.BodyPublishers.ofString(jsonPayload))
-                    .build();
-
-            Core.getLogger().info("Sending score " + score + " for user " + userId + " to the backend.");
-            client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
-                    .thenAccept(response -> {
-                        Core.getLogger().info("Save score response status code: " + response.statusCode());
-                        Core.getLogger().info("Save score response body: " + response.body());
-                        if (response.statusCode() == 401 || response.statusCode() == 403) {
-                            AuthManager.getInstance().invalidateSession();
-                        } else if (response.statusCode() != 200) {
-                            Core.getLogger().severe("Failed to save score. Status: " + response.statusCode() + ", Body: " + response.body());
-                        } else {
-                            Core.getLogger().info("Score " + score + " successfully saved to database for user " + userId);
-                        }
-                    }).exceptionally(e -> {
-                        Core.getLogger().severe("Failed to save score: " + e.getMessage());
-                        return null;
-                    });
-
-        } catch (Exception e) {
-            Core.getLogger().severe("Exception while trying to save score: " + e.getMessage());
-        }
+        Core.getLogger().info("Queueing score " + score + " for user " + userId + ".");
+        getOutbox().submit(userId, SubmissionOutbox.Kind.SCORE, Integer.toString(score));
     }
 
     /**
-     * Unlocks an achievement by making a POST request to the backend.
+     * Unlocks an achievement on the backend. The unlock is queued in the
+     * outbox and sent in the background, so it is not lost if the backend
+     * is down.
      * @param achievementName The name of the achievement to unlock.
      */
     public void unlockAchievement(String achievementName) {
@@ -424,37 +406,8 @@ public class ApiClient {
             return;
         }
 
-        try {
-            HttpClient client = HttpClient.newHttpClient();
-            String jsonPayload = "{\"achievement_name\": \"" + achievementName.replace("\"", "\\\"") + "\"}";
-
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(API_BASE_URL + "/users/" + userId + "/achievements"))
-                    .header("Content-Type", "application/json")
-                    .header("Authorization", "Bearer " + token)
-                    .POST(HttpRequest.BodyPublishers.ofString(jsonPayload))
-                    .build();
-
-            Core.getLogger().info("Unlocking achievement \"" + achievementName + "\" for user " + userId);
-            client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
-                    .thenAccept(response -> {
-                        Core.getLogger().info("Unlock achievement response status code: " + response.statusCode());
-                        Core.getLogger().info("Unlock achievement response body: " + response.body());
-                        if (response.statusCode() == 401 || response.statusCode() == 403) {
-                            AuthManager.getInstance().invalidateSession();
-                        } else if (response.statusCode() != 200) {
-                            Core.getLogger().severe("Failed to unlock achievement. Status: " + response.statusCode() + ", Body: " + response.body());
-                        } else {
-                            Core.getLogger().info("Achievement \"" + achievementName + "\" successfully unlocked for user " + userId);
-                        }
-                    }).exceptionally(e -> {
-                        Core.getLogger().severe("Failed to unlock achievement: " + e.getMessage());
-                        return null;
-                    });
-
-        } catch (Exception e) {
-            Core.getLogger().severe("Exception while trying to unlock achievement: " + e.getMessage());
-        }
+        Core.getLogger().info("Queueing achievement \"" + achievementName + "\" for user " + userId + ".");
+        getOutbox().submit(userId, SubmissionOutbox.Kind.ACHIEVEMENT, achievementName);
     }
 
     /**
@@ -474,22 +427,20 @@ public class ApiClient {
      * @throws IOException if the username is already taken.
      */
     public void register(String username, String password) throws IOException, InterruptedException {
-        HttpClient client = HttpClient.newHttpClient();
         String jsonPayload = "{\"username\": \"" + username.replace("\"", "\\\"") + "\", " +
                              "\"password\": \"" + password.replace("\"", "\\\"") + "\"}";
 
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(API_BASE_URL + "/auth/register"))
+        HttpRequest request = transport.request("/auth/register")
                 .header("Content-Type", "application/json")
                 .POST(HttpRequest.BodyPublishers.ofString(jsonPayload))
                 .build();
 
         Core.getLogger().info("Attempting to register user: " + username);
-        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        HttpResponse<String> response = transport.send("POST /auth/register", request);
 
         if (response.statusCode() != 201) {
             Core.getLogger().severe("Registration failed with status code: " + response.statusCode() + ", Body: " + response.body());
-            String errorMessage = parseJsonField(response.body(), "error");
+            String errorMessage = readError(response.body());
             if (errorMessage != null && !errorMessage.isEmpty()) {
                 throw new IOException(errorMessage);
             }
@@ -500,129 +451,239 @@ public class ApiClient {
     }
 
     /**
-     * Fetches the global high scores from the backend.
+     * Returns the pages of a leaderboard, fetched one at a time as they
+     * are iterated over.
+     * @param period The leaderboard to walk.
+     * @param pageSize The number of scores per page, up to LeaderboardPages.MAX_PAGE_SIZE.
+     * @return An iterator over the pages, best scores first.
+     */
+    public LeaderboardPages getLeaderboardPages(LeaderboardPages.Period period, int pageSize) {
+        return new LeaderboardPages(transport, period, pageSize);
+    }
+
+    /**
+     * Fetches the first page of the global high scores from the backend.
+     * The response is decoded as it arrives, without buffering the whole body.
      * @return A list of Score objects representing the leaderboard.
      * @throws IOException if the request fails.
      * @throws InterruptedException if the request is interrupted.
      */
     public List<Score> getHighScores() throws IOException, InterruptedException {
-        HttpClient client = HttpClient.newHttpClient();
 
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(API_BASE_URL + "/scores"))
+        HttpRequest request = transport.request("/scores")
                 .GET()
                 .build();
 
         Core.getLogger().info("Requesting high scores from backend.");
-        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
-
-        if (response.statusCode() != 200) {
-            Core.getLogger().severe("Failed to fetch high scores with status code: " + response.statusCode());
-            throw new IOException("Failed to fetch high scores: " + response.body());
+        HttpResponse<InputStream> response = transport.send("GET /scores", request,
+                HttpResponse.BodyHandlers.ofInputStream());
+
+        try (JsonReader reader = new JsonReader(new InputStreamReader(response.body(), StandardCharsets.UTF_8))) {
+            if (response.statusCode() != 200) {
+                Core.getLogger().severe("Failed to fetch high scores with status code: " + response.statusCode());
+                throw new IOException("Failed to fetch high scores: "
+                        + new String(response.body().readAllBytes(), StandardCharsets.UTF_8));
+            }
+            return readScores(reader);
         }
+    }
 
-        String responseBody = response.body();
-        return parseScoreList(responseBody);
+    /** Reads a value from a JSON document. */
+    @FunctionalInterface
+    interface Binder<T> {
+        T read(JsonReader reader) throws IOException;
+    }
+
+    /** Fields of a session status response. */
+    private record StatusBody(String status, String username, String error) {}
+
+    private static final String[] SCORE_FIELDS = { "username", "score" };
+    private static final String[] LOGIN_FIELDS = { "token", "user" };
+    private static final String[] USER_FIELDS = { "id", "username" };
+    private static final String[] DEVICE_AUTH_FIELDS = { "deviceCode", "userCode", "verificationUri", "expiresIn", "interval" };
+    private static final String[] SESSION_CONFIRMATION_FIELDS = { "confirmationCode", "confirmationUri", "expiresIn", "interval" };
+    private static final String[] STATUS_FIELDS = { "status", "username", "error" };
+    private static final String[] ERROR_FIELDS = { "error" };
+
+    /**
+     * Reads a value from a JSON string.
+     */
+    static <T> T bind(String json, Binder<T> binder) throws IOException {
+        return binder.read(new JsonReader(new StringReader(json)));
     }
 
     /**
-     * A very basic and brittle parser for a list of score objects from a JSON array.
-     * Assumes a format like: [{"username":"x","score":X},{"username":"y","score":Y}]
-     * @param jsonArray The JSON string representing the array of scores.
+     * Reads a leaderboard, an array like [{"username":"x","score":1}, ...].
+     * Members other than the username and score are skipped.
+     * @param reader The reader positioned before the array.
      * @return A List of Score objects.
+     * @throws IOException if the document is not an array of scores.
      */
-    private List<Score> parseScoreList(String jsonArray) {
+    static List<Score> readScores(JsonReader reader) throws IOException {
         List<Score> scores = new ArrayList<>();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            String username = null;
+            int score = 0;
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.selectName(SCORE_FIELDS)) {
+                    case 0: username = readNullableString(reader); break;
+                    case 1: score = reader.nextInt(); break;
+                    default: reader.skipValue(); break;
+                }
+            }
+            reader.endObject();
+            if (username != null) {
+                scores.add(new Score(username, score));
+            }
+        }
+        reader.endArray();
+        return scores;
+    }
 
-        if (jsonArray == null || jsonArray.trim().isEmpty() || !jsonArray.startsWith("[") || !jsonArray.endsWith("]")) {
-            Core.getLogger().warning("Invalid JSON array for scores: " + jsonArray);
-            return scores;
+    /**
+     * Reads a login response: {"token": "...", "user": {"id": 1, "username": "..."}}.
+     */
+    static LoginResponse readLogin(JsonReader reader) throws IOException {
+        String token = null;
+        int userId = 0;
+        String username = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.selectName(LOGIN_FIELDS)) {
+                case 0:
+                    token = readNullableString(reader);
+                    break;
+                case 1:
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        switch (reader.selectName(USER_FIELDS)) {
+                            case 0: userId = reader.nextInt(); break;
+                            case 1: username = readNullableString(reader); break;
+                            default: reader.skipValue(); break;
+                        }
+                    }
+                    reader.endObject();
+                    break;
+                default:
+                    reader.skipValue();
+                    break;
+            }
         }
+        reader.endObject();
+        if (token == null) {
+            throw new IOException("Login response has no token.");
+        }
+        return new LoginResponse(token, userId, username);
+    }
 
-        String innerContent = jsonArray.substring(1, jsonArray.length() - 1); // Remove outer []
-        if (innerContent.isEmpty()) { // Handle empty array
-            return scores;
+    /**
+     * Reads a device authentication response.
+     */
+    private static DeviceAuthResponse readDeviceAuth(JsonReader reader) throws IOException {
+        String deviceCode = null;
+        String userCode = null;
+        String verificationUri = null;
+        int expiresIn = 0;
+        int interval = 0;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.selectName(DEVICE_AUTH_FIELDS)) {
+                case 0: deviceCode = readNullableString(reader); break;
+                case 1: userCode = readNullableString(reader); break;
+                case 2: verificationUri = readNullableString(reader); break;
+                case 3: expiresIn = reader.nextInt(); break;
+                case 4: interval = reader.nextInt(); break;
+                default: reader.skipValue(); break;
+            }
         }
+        reader.endObject();
+        return new DeviceAuthResponse(deviceCode, userCode, verificationUri, expiresIn, interval);
+    }
 
-        // Split by "},{" to get individual score objects as strings
-        String[] scoreStrings = innerContent.split("\\},\\{");
-
-        for (String scoreStr : scoreStrings) {
-            // Reconstruct a valid JSON object string for parsing
-            String fullScoreObject = "{" + scoreStr + "}";
-            String username = parseJsonField(fullScoreObject, "username");
-            String scoreValue = parseJsonField(fullScoreObject, "score");
-            
-            if (username != null && scoreValue != null) {
-                try {
-                    scores.add(new Score(username, Integer.parseInt(scoreValue.trim())));
-                } catch (NumberFormatException e) {
-                    Core.getLogger().warning("Failed to parse score value: " + scoreValue + " from JSON object: " + fullScoreObject);
-                }
+    /**
+     * Reads a session confirmation response.
+     */
+    private static SessionConfirmationResponse readSessionConfirmation(JsonReader reader) throws IOException {
+        String confirmationCode = null;
+        String confirmationUri = null;
+        int expiresIn = 0;
+        int interval = 0;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.selectName(SESSION_CONFIRMATION_FIELDS)) {
+                case 0: confirmationCode = readNullableString(reader); break;
+                case 1: confirmationUri = readNullableString(reader); break;
+                case 2: expiresIn = reader.nextInt(); break;
+                case 3: interval = reader.nextInt(); break;
+                default: reader.skipValue(); break;
             }
         }
-        return scores;
+        reader.endObject();
+        return new SessionConfirmationResponse(confirmationCode, confirmationUri, expiresIn, interval);
     }
 
     /**
-     * A very basic and brittle parser for a string value from a JSON object.
-     * Assumes the value is a string enclosed in double quotes or a number/boolean.
+     * Reads the status, username and error of a session status response.
+     * A body that is not a JSON object gives empty fields.
      */
-    private String parseJsonField(String json, String fieldName) {
+    private static StatusBody readStatusBody(String json) {
         try {
-            String key = "\"" + fieldName + "\":";
-            int keyIndex = json.indexOf(key);
-            if (keyIndex == -1) return null;
-
-            int valueStartIndex = keyIndex + key.length();
-            char firstChar = json.charAt(valueStartIndex);
-
-            if (firstChar == '"') { // It's a string
-                valueStartIndex++; // Move past the opening quote
-                int valueEndIndex = json.indexOf('"', valueStartIndex);
-                return json.substring(valueStartIndex, valueEndIndex);
-            } else { // It's a number or boolean
-                int valueEndIndex = json.indexOf(',', valueStartIndex);
-                if (valueEndIndex == -1) { // It might be the last field
-                    valueEndIndex = json.indexOf('}', valueStartIndex);
+            return bind(json, reader -> {
+                String status = null;
+                String username = null;
+                String error = null;
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    switch (reader.selectName(STATUS_FIELDS)) {
+                        case 0: status = readNullableString(reader); break;
+                        case 1: username = readNullableString(reader); break;
+                        case 2: error = readNullableString(reader); break;
+                        default: reader.skipValue(); break;
+                    }
                 }
-                return json.substring(valueStartIndex, valueEndIndex).trim();
-            }
-        } catch (Exception e) {
-            Core.getLogger().severe("Failed to parse field '" + fieldName + "' from JSON: " + json);
-            return null;
+                reader.endObject();
+                return new StatusBody(status, username, error);
+            });
+        } catch (IOException e) {
+            Core.getLogger().warning("Failed to parse session status from: " + json);
+            return new StatusBody(null, null, null);
         }
     }
 
     /**
-     * A very basic and brittle parser for a nested JSON object.
+     * Reads the error message of an error response.
+     * @return The message, or null if the body has none.
      */
-    private String parseJsonObject(String json, String fieldName) {
+    private static String readError(String json) {
         try {
-            String key = "\"" + fieldName + "\":{";
-            int keyIndex = json.indexOf(key);
-            if (keyIndex == -1) return null;
-
-            int objectStartIndex = keyIndex + key.length() - 1;
-            int braceCount = 1;
-            int objectEndIndex = -1;
-
-            for (int i = objectStartIndex + 1; i < json.length(); i++) {
-                char c = json.charAt(i);
-                if (c == '{') {
-                    braceCount++;
-                } else if (c == '}') {
-                    braceCount--;
-                }
-                if (braceCount == 0) {
-                    objectEndIndex = i + 1;
-                    break;
+            return bind(json, reader -> {
+                String error = null;
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    if (reader.selectName(ERROR_FIELDS) == 0) {
+                        error = readNullableString(reader);
+                    } else {
+                        reader.skipValue();
+                    }
                 }
-            }
-            return json.substring(objectStartIndex, objectEndIndex);
-        } catch (Exception e) {
-            Core.getLogger().severe("Failed to parse object '" + fieldName + "' from JSON: " + json);
+                reader.endObject();
+                return error;
+            });
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Reads a string that may be null.
+     */
+    private static String readNullableString(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonReader.Token.NULL) {
+            reader.nextNull();
             return null;
         }
+        return reader.nextString();
     }
-}
\ No newline at end of file
+}
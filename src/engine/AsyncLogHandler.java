@@ -0,0 +1,183 @@
+package engine;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.ErrorManager;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+/**
+ * Writes log records to a file from a thread of its own, so logging never
+ * makes the game loop wait on the disk. Records are queued in a bounded ring
+ * buffer and formatted and written by the writer thread in batches, with one
+ * flush per batch. When the buffer is full, new records are dropped rather
+ * than blocking the caller, and the number of dropped records is written to
+ * the log once there is room again.
+ */
+public final class AsyncLogHandler extends Handler {
+
+	/** Default number of records the buffer holds. */
+	public static final int DEFAULT_CAPACITY = 8192;
+	/** Largest number of records written between two flushes. */
+	private static final int MAX_BATCH = 512;
+	/** Time between two checks of flush(), in nanoseconds. */
+	private static final long FLUSH_POLL_NANOS = 100000L;
+	/** Record asking the writer thread to stop. */
+	private static final LogRecord CLOSE = new LogRecord(Level.OFF, "");
+
+	/** Records waiting to be written. */
+	private final BlockingQueue<LogRecord> buffer;
+	/** File the records are written to. */
+	private final Writer out;
+	/** Thread writing the records. */
+	private final Thread writer;
+	/** Number of records dropped since the last report. */
+	private final AtomicLong dropped;
+	/** Number of records written, for flush() to wait on. */
+	private final AtomicLong written;
+	/** Number of records queued, for flush() to wait on. */
+	private final AtomicLong queued;
+	/** If the handler has been closed. */
+	private volatile boolean closed;
+
+	/**
+	 * Constructor, opens the file, replacing it, and starts the writer
+	 * thread.
+	 *
+	 * @param file
+	 *            File to write the records to.
+	 * @param capacity
+	 *            Number of records the buffer holds.
+	 * @throws IOException
+	 *             If the file cannot be opened.
+	 */
+	public AsyncLogHandler(final Path file, final int capacity)
+			throws IOException {
+		this.buffer = new ArrayBlockingQueue<>(capacity);
+		this.out = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+		this.dropped = new AtomicLong();
+		this.written = new AtomicLong();
+		this.queued = new AtomicLong();
+		setFormatter(new MinimalFormatter());
+		this.writer = new Thread(this::writeLoop, "async-log-writer");
+		this.writer.setDaemon(true);
+		this.writer.start();
+	}
+
+	/**
+	 * Queues a record, without waiting. Formatting is left to the writer
+	 * thread.
+	 *
+	 * @param record
+	 *            Record to log.
+	 */
+	@Override
+	public void publish(final LogRecord record) {
+		if (this.closed || !isLoggable(record))
+			return;
+		if (this.buffer.offer(record))
+			this.queued.incrementAndGet();
+		else
+			this.dropped.incrementAndGet();
+	}
+
+	/**
+	 * Waits, for a short while, until every record queued so far is on disk.
+	 */
+	@Override
+	public void flush() {
+		long target = this.queued.get();
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+		while (this.written.get() < target && this.writer.isAlive()
+				&& System.nanoTime() < deadline)
+			LockSupport.parkNanos(FLUSH_POLL_NANOS);
+	}
+
+	/**
+	 * Writes the records still queued and closes the file.
+	 */
+	@Override
+	public void close() {
+		if (this.closed)
+			return;
+		this.closed = true;
+		try {
+			this.buffer.put(CLOSE);
+			this.writer.join(TimeUnit.SECONDS.toMillis(2));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Getter for the number of records dropped because the buffer was full
+	 * and not reported in the log yet.
+	 *
+	 * @return Number of records dropped.
+	 */
+	public long getDroppedCount() {
+		return this.dropped.get();
+	}
+
+	/**
+	 * Writes the queued records in batches until closed.
+	 */
+	private void writeLoop() {
+		List<LogRecord> batch = new ArrayList<>(MAX_BATCH);
+		boolean running = true;
+		while (running) {
+			try {
+				batch.add(this.buffer.take());
+			} catch (InterruptedException e) {
+				running = false;
+			}
+			this.buffer.drainTo(batch, MAX_BATCH - batch.size());
+			for (LogRecord record : batch) {
+				if (record == CLOSE) {
+					running = false;
+					continue;
+				}
+				write(getFormatter().format(record));
+			}
+			long lost = this.dropped.getAndSet(0);
+			if (lost > 0)
+				write(getFormatter().format(new LogRecord(Level.WARNING, lost
+						+ " log records dropped, the log buffer was full")));
+			try {
+				this.out.flush();
+			} catch (IOException e) {
+				reportError(null, e, ErrorManager.FLUSH_FAILURE);
+			}
+			this.written.addAndGet(batch.size()
+					- (batch.contains(CLOSE) ? 1 : 0));
+			batch.clear();
+		}
+		try {
+			this.out.close();
+		} catch (IOException e) {
+			reportError(null, e, ErrorManager.CLOSE_FAILURE);
+		}
+	}
+
+	/**
+	 * Writes formatted text, reporting failures to the error manager.
+	 */
+	private void write(final String text) {
+		try {
+			this.out.write(text);
+		} catch (IOException e) {
+			reportError(null, e, ErrorManager.WRITE_FAILURE);
+		}
+	}
+}
@@ -0,0 +1,231 @@
+package engine;
+
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Composite;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.Stroke;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.logging.Logger;
+
+/**
+ * Keeps the back buffer the screens are drawn on alive between frames. The
+ * image and its graphics context are only reallocated when the requested
+ * size changes, and the heap allocated by the drawing thread between two
+ * frames is measured so the game loop can be checked to be garbage free.
+ */
+public final class BackBufferManager {
+
+	/** Frames between two allocation reports in the log. */
+	private static final int REPORT_INTERVAL = 600;
+
+	/** Application logger. */
+	private final Logger logger;
+	/** Thread bean used to read the bytes allocated by the drawing thread. */
+	private final com.sun.management.ThreadMXBean threadBean;
+
+	/** Reused buffer image. */
+	private BufferedImage image;
+	/** Graphics context of the buffer image. */
+	private Graphics2D graphics;
+	/** Stroke of a fresh graphics context. */
+	private Stroke defaultStroke;
+	/** Composite of a fresh graphics context. */
+	private Composite defaultComposite;
+	/** Transform of a fresh graphics context. */
+	private AffineTransform defaultTransform;
+	/** Rendering hints of a fresh graphics context. */
+	private RenderingHints defaultHints;
+
+	/** Number of times the buffer has been (re)allocated. */
+	private int bufferAllocations;
+	/** Frames started since the manager was created. */
+	private long frames;
+	/** Thread allocation counter at the start of the previous frame. */
+	private long lastAllocatedBytes = -1;
+	/** Bytes allocated by the drawing thread during the last full frame. */
+	private long lastFrameAllocatedBytes;
+	/** Bytes allocated since the last report. */
+	private long intervalAllocatedBytes;
+	/** Frames measured since the last report. */
+	private int intervalFrames;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param logger
+	 *            Logger the allocation reports are written to.
+	 */
+	BackBufferManager(final Logger logger) {
+		this.logger = logger;
+		ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		if (bean instanceof com.sun.management.ThreadMXBean
+				&& ((com.sun.management.ThreadMXBean) bean)
+						.isThreadAllocatedMemorySupported()) {
+			this.threadBean = (com.sun.management.ThreadMXBean) bean;
+			this.threadBean.setThreadAllocatedMemoryEnabled(true);
+		} else {
+			this.threadBean = null;
+		}
+	}
+
+	/**
+	 * Returns the buffer for a new frame, cleared to black. The previous
+	 * buffer is reused when it has the requested size.
+	 *
+	 * @param width
+	 *            Width of the frame.
+	 * @param height
+	 *            Height of the frame.
+	 * @return True if a new buffer had to be allocated.
+	 */
+	boolean beginFrame(final int width, final int height) {
+		recordFrameAllocation();
+
+		boolean reallocated = false;
+		if (this.image == null || this.image.getWidth() != width
+				|| this.image.getHeight() != height) {
+			allocate(width, height);
+			reallocated = true;
+		} else {
+			resetGraphics();
+		}
+
+		this.graphics.setColor(Color.BLACK);
+		this.graphics.fillRect(0, 0, width, height);
+		return reallocated;
+	}
+
+	/**
+	 * Creates the buffer and its graphics context for a given size.
+	 *
+	 * @param width
+	 *            Width of the buffer.
+	 * @param height
+	 *            Height of the buffer.
+	 */
+	private void allocate(final int width, final int height) {
+		if (this.graphics != null)
+			this.graphics.dispose();
+
+		this.image = new BufferedImage(width, height,
+				BufferedImage.TYPE_INT_RGB);
+		this.graphics = this.image.createGraphics();
+		this.defaultStroke = this.graphics.getStroke();
+		this.defaultComposite = this.graphics.getComposite();
+		this.defaultTransform = this.graphics.getTransform();
+		this.defaultHints = (RenderingHints) this.graphics.getRenderingHints()
+				.clone();
+		this.bufferAllocations++;
+
+		this.logger.info("Allocated " + width + "x" + height
+				+ " back buffer (" + this.bufferAllocations + " so far).");
+	}
+
+	/**
+	 * Restores the state a screen may have changed on the shared graphics
+	 * context during the previous frame.
+	 */
+	private void resetGraphics() {
+		this.graphics.setPaintMode();
+		this.graphics.setClip(null);
+		this.graphics.setStroke(this.defaultStroke);
+		this.graphics.setComposite(this.defaultComposite == null
+				? AlphaComposite.SrcOver : this.defaultComposite);
+		this.graphics.setTransform(this.defaultTransform);
+		this.graphics.setRenderingHints(this.defaultHints);
+	}
+
+	/**
+	 * Measures the heap allocated by the drawing thread since the previous
+	 * frame started, and periodically logs the average.
+	 */
+	private void recordFrameAllocation() {
+		this.frames++;
+		if (this.threadBean == null)
+			return;
+
+		long allocated = this.threadBean.getThreadAllocatedBytes(Thread
+				.currentThread().getId());
+		if (this.lastAllocatedBytes >= 0) {
+			this.lastFrameAllocatedBytes = allocated - this.lastAllocatedBytes;
+			this.intervalAllocatedBytes += this.lastFrameAllocatedBytes;
+			this.intervalFrames++;
+
+			if (this.intervalFrames >= REPORT_INTERVAL) {
+				this.logger.fine("Allocated " + (this.intervalAllocatedBytes
+						/ this.intervalFrames) + " bytes per frame over the last "
+						+ this.intervalFrames + " frames.");
+				this.intervalAllocatedBytes = 0;
+				this.intervalFrames = 0;
+			}
+		}
+		this.lastAllocatedBytes = allocated;
+	}
+
+	/**
+	 * Getter for the buffer image.
+	 *
+	 * @return Current buffer image, null before the first frame.
+	 */
+	BufferedImage getImage() {
+		return this.image;
+	}
+
+	/**
+	 * Getter for the graphics context of the buffer.
+	 *
+	 * @return Graphics context, null before the first frame.
+	 */
+	Graphics2D getGraphics() {
+		return this.graphics;
+	}
+
+	/**
+	 * Copies the current buffer, so it survives the next frames.
+	 *
+	 * @return Copy of the buffer, or null before the first frame.
+	 */
+	BufferedImage snapshot() {
+		if (this.image == null)
+			return null;
+		BufferedImage copy = new BufferedImage(this.image.getWidth(),
+				this.image.getHeight(), this.image.getType());
+		Graphics2D g = copy.createGraphics();
+		g.drawImage(this.image, 0, 0, null);
+		g.dispose();
+		return copy;
+	}
+
+	/**
+	 * Getter for the number of buffer allocations.
+	 *
+	 * @return Times the buffer has been allocated.
+	 */
+	public int getBufferAllocations() {
+		return this.bufferAllocations;
+	}
+
+	/**
+	 * Getter for the number of frames drawn.
+	 *
+	 * @return Frames started on this buffer manager.
+	 */
+	public long getFrames() {
+		return this.frames;
+	}
+
+	/**
+	 * Getter for the heap allocated by the drawing thread during the last
+	 * complete frame.
+	 *
+	 * @return Allocated bytes, or -1 if the JVM cannot measure it.
+	 */
+	public long getLastFrameAllocatedBytes() {
+		return this.threadBean == null ? -1 : this.lastFrameAllocatedBytes;
+	}
+}
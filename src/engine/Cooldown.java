@@ -16,6 +16,8 @@ public class Cooldown {
 	private int duration;
 	/** Beginning time. */
 	private long time;
+	/** Random numbers of the game, drawn for the variance. */
+	private final GameRandom random;
 
 	/**
 	 * Constructor, established the time until the action can be performed
@@ -29,6 +31,7 @@ public class Cooldown {
 		this.variance = 0;
 		this.duration = milliseconds;
 		this.time = 0;
+		this.random = null;
 	}
 
 	/**
@@ -39,11 +42,15 @@ public class Cooldown {
 	 *            Time until cooldown period is finished.
 	 * @param variance
 	 *            Variance in the cooldown period.
+	 * @param random
+	 *            Random numbers of the game.
 	 */
-	protected Cooldown(final int milliseconds, final int variance) {
+	protected Cooldown(final int milliseconds, final int variance,
+			final GameRandom random) {
 		this.milliseconds = milliseconds;
 		this.variance = variance;
 		this.time = 0;
+		this.random = random;
 	}
 
 	    /**
@@ -53,7 +60,7 @@ public class Cooldown {
 	     */
 	    public final boolean checkFinished() {
 	        if ((this.time == 0)
-	                || this.time + this.duration < System.currentTimeMillis())
+	                || this.time + this.duration < GameClock.currentTimeMillis())
 	            return true;
 	        return false;
 	    }
@@ -66,17 +73,18 @@ public class Cooldown {
 	        if (this.time == 0 || checkFinished()) {
 	            return 0;
 	        }
-	        long remaining = (this.time + this.duration) - System.currentTimeMillis();
+	        long remaining = (this.time + this.duration) - GameClock.currentTimeMillis();
 	        return remaining;
 	    }
 	/**
 	 * Restarts the cooldown.
 	 */
 	public final void reset() {
-		this.time = System.currentTimeMillis();
+		this.time = GameClock.currentTimeMillis();
 		if (this.variance != 0)
 			this.duration = (this.milliseconds - this.variance)
-					+ (int) (Math.random()
+					+ (int) (this.random
+							.stream(GameRandom.Stream.COOLDOWN).nextDouble()
 							* (this.milliseconds + this.variance));
 	}
 
@@ -1,8 +1,10 @@
 package engine;
 
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.logging.ConsoleHandler;
-import java.util.logging.FileHandler;
 import java.util.logging.Handler;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -39,18 +41,22 @@ public final class Core {
 
 			/** Width of current screen. */
 
-			private static final int WIDTH = 672;
+			static final int WIDTH = 672;
 
 			/** Height of current screen. */
 
-			private static final int HEIGHT = 780;
+			static final int HEIGHT = 780;
 	/** Max fps of current screen. */	
-	private static final int FPS = 60;
+	static final int FPS = 60;
 
 	/** Max lives. */
-	private static final int MAX_LIVES = 3;
+	static final int MAX_LIVES = 3;
 	/** Levels between extra life. */
-	private static final int EXTRA_LIFE_FRECUENCY = 3;
+	static final int EXTRA_LIFE_FRECUENCY = 3;
+	/** Start of the simulated clock of recorded levels. */
+	private static final long REPLAY_CLOCK_START = 1000;
+	/** Time given to the outbox to end its work on exit, in milliseconds. */
+	private static final long OUTBOX_CLOSE_TIMEOUT = 2000;
 
 	/** Frame to draw the screen on. */
 	private static Frame frame;
@@ -65,44 +71,88 @@ public final class Core {
 	private static Handler fileHandler;
 	/** Logger handler for printing to console. */
 	private static ConsoleHandler consoleHandler;
+	/** Directory to save a replay of every level to, null to not record. */
+	private static Path replayDirectory;
 
 
 	/**
 	 * Test implementation.
 	 * 
 	 * @param args
-	 *            Program args, ignored.
+	 *            Program args: --record DIR saves a replay of every level
+	 *            played into DIR, --profile FILE writes the tick timings
+	 *            to the CSV file FILE every second, --watch-levels FILE
+	 *            reloads the levels from the maps file FILE whenever it
+	 *            is saved, --log-json writes the log file as one JSON
+	 *            object per line, --verbose also logs the FINE messages
+	 *            of the game loop.
 	 */
 	public static void main(final String[] args) {
+		Path profileFile = null;
+		Path levelsFile = null;
+		boolean structuredLog = false;
+		boolean verbose = false;
+		for (int i = 0; i < args.length; i++)
+			if ("--record".equals(args[i]) && i + 1 < args.length)
+				replayDirectory = Paths.get(args[++i]);
+			else if ("--profile".equals(args[i]) && i + 1 < args.length)
+				profileFile = Paths.get(args[++i]);
+			else if ("--watch-levels".equals(args[i]) && i + 1 < args.length)
+				levelsFile = Paths.get(args[++i]);
+			else if ("--log-json".equals(args[i]))
+				structuredLog = true;
+			else if ("--verbose".equals(args[i]))
+				verbose = true;
+
 		try {
 			LOGGER.setUseParentHandlers(false);
 
-			fileHandler = new FileHandler("log");
-			fileHandler.setFormatter(new MinimalFormatter());
+			fileHandler = new AsyncLogHandler(Paths.get("log"),
+					AsyncLogHandler.DEFAULT_CAPACITY);
+			fileHandler.setFormatter(structuredLog ? new StructuredFormatter()
+					: new MinimalFormatter());
 
 			consoleHandler = new ConsoleHandler();
 			consoleHandler.setFormatter(new MinimalFormatter());
 
 			LOGGER.addHandler(fileHandler);
 			LOGGER.addHandler(consoleHandler);
-			LOGGER.setLevel(Level.ALL);
+			// Set on the logger, so FINE messages are not even built
+			LOGGER.setLevel(verbose ? Level.ALL : Level.INFO);
 
 		} catch (Exception e) {
 			// TODO handle exception
 			e.printStackTrace();
 		}
 
+		if (profileFile != null) {
+			try {
+				FrameProfiler.getInstance().writeCsv(profileFile);
+			} catch (IOException e) {
+				LOGGER.warning("Could not write profile: " + e.getMessage());
+			}
+		}
+
 		frame = new Frame(WIDTH, HEIGHT);
 		DrawManager.getInstance().setFrame(frame);
 		int width = frame.getWidth();
 		int height = frame.getHeight();
 
-		levelManager = new LevelManager();
+		levelManager = LevelManager.getInstance();
+		if (levelsFile != null) {
+			try {
+				levelManager.watch(levelsFile);
+			} catch (IOException e) {
+				LOGGER.warning("Could not watch levels: " + e.getMessage());
+			}
+		}
 		GameState gameState = new GameState(1, 0, MAX_LIVES, 0, 0, 0);
 
 		// Validate session on startup.
 		LOGGER.info("Validating session on startup...");
 		AuthManager.getInstance().validateSessionOnStartup().join();
+		// Resend the submissions a previous run could not deliver.
+		ApiClient.getInstance().getOutbox();
 
 		int returnCode;
 		if (AuthManager.getInstance().isLoggedIn()) {
@@ -222,6 +272,15 @@ public final class Core {
                             break;
                         }
 
+                        // A recorded level runs on the simulated clock, so
+                        // its cooldowns can be replayed tick for tick.
+                        ReplayRecorder replayRecorder = null;
+                        if (replayDirectory != null) {
+                            GameClock.useSimulatedTime(REPLAY_CLOCK_START);
+                            replayRecorder = new ReplayRecorder(gameState,
+                                    bonusLife, MAX_LIVES, width, height, FPS);
+                        }
+
                         // Start a new level
                         currentScreen = new GameScreen(
                                 gameState,
@@ -232,6 +291,8 @@ public final class Core {
                                 height,
                                 FPS
                         );
+                        if (replayRecorder != null)
+                            ((GameScreen) currentScreen).setReplayRecorder(replayRecorder);
 
                         LOGGER.info("Starting " + WIDTH + "x" + HEIGHT
                                 + " game screen at " + FPS + " fps.");
@@ -239,6 +300,10 @@ public final class Core {
                         // ① GameScreen 실행 → returnCode 받기
                         int gameScreenReturnCode = frame.setScreen(currentScreen);
                         LOGGER.info("Closing game screen.");
+                        if (replayRecorder != null) {
+                            GameClock.useSystemTime();
+                            saveReplay(replayRecorder.getReplay());
+                        }
 
                         // ② GameScreen에서 게임오버로 끝났으면 case 99로 이동
                         if (gameScreenReturnCode == 99) {
@@ -284,7 +349,8 @@ public final class Core {
                                     gameState.getLivesRemaining(),     // Keep remaining lives
                                     gameState.getBulletsShot(),        // Keep bullets fired
                                     gameState.getShipsDestroyed(),     // Keep ships destroyed
-                                    gameState.getCoin()                // Keep current coins
+                                    gameState.getCoin(),               // Keep current coins
+                                    gameState.getRandom().nextLevel()  // Seed the next level from this one
                             );
                         }
                     } while (gameState.getLivesRemaining() > 0);
@@ -334,11 +400,32 @@ public final class Core {
 
         } while (returnCode != 0);
 
+        FrameProfiler.getInstance().closeCsv();
+        ApiClient.getInstance().getOutbox().close(OUTBOX_CLOSE_TIMEOUT);
+        for (String line : ApiClient.getInstance().getTransport().getLatencySummary())
+            LOGGER.info("API latency " + line);
         fileHandler.flush();
         fileHandler.close();
         System.exit(0);
 	}
 
+	/**
+	 * Saves the replay of a level into the replay directory.
+	 * 
+	 * @param replay
+	 *            Replay to save, null if the level did not end.
+	 */
+	private static void saveReplay(final Replay replay) {
+		if (replay == null)
+			return;
+		try {
+			Path path = replay.saveInto(replayDirectory);
+			LOGGER.info("Saved replay to " + path);
+		} catch (IOException e) {
+			LOGGER.warning("Could not save replay: " + e.getMessage());
+		}
+	}
+
 	/**
 	 * Constructor, not called.
 	 */
@@ -400,10 +487,12 @@ public final class Core {
 	 *            Duration of the cooldown.
 	 * @param variance
 	 *            Variation in the cooldown duration.
+	 * @param random
+	 *            Random numbers of the game, drawn for the variation.
 	 * @return A new cooldown with variance.
 	 */
 	public static Cooldown getVariableCooldown(final int milliseconds,
-			final int variance) {
-		return new Cooldown(milliseconds, variance);
+			final int variance, final GameRandom random) {
+		return new Cooldown(milliseconds, variance, random);
 	}
 }
\ No newline at end of file
@@ -18,7 +18,6 @@ import java.util.logging.Logger;
 
 import entity.Entity;
 import entity.FinalBoss;
-import entity.Ship;
 import screen.CreditScreen;
 import screen.EasterEggScreen;
 import screen.Screen;
@@ -49,7 +48,7 @@ public final class DrawManager {
 		 */
 		SystemMessage(String message, long duration) {
 			this.message = message;
-			this.expiryTime = System.currentTimeMillis() + duration;
+			this.expiryTime = GameClock.currentTimeMillis() + duration;
 		}
 	}
 
@@ -67,6 +66,8 @@ public final class DrawManager {
 	private static Graphics backBufferGraphics;
 	/** Buffer image. */
 	private static BufferedImage backBuffer;
+	/** Keeps the buffer image alive between frames. */
+	private static final BackBufferManager backBufferManager = new BackBufferManager(logger);
 	/** Normal sized font. */
 	private static Font fontRegular;
 	/** Normal sized font properties. */
@@ -79,6 +80,10 @@ public final class DrawManager {
 	private static Font fontSmall;
 	/** Small sized font properties. */
 	private static FontMetrics fontSmallMetrics;
+	/** Monospaced font of the profiler overlay, so its columns line up. */
+	private static final Font PROFILER_FONT = new Font(Font.MONOSPACED, Font.PLAIN, 11);
+	/** Translucent background of the profiler overlay. */
+	private static final Color PROFILER_BACKGROUND = new Color(0, 0, 0, 180);
 
 	/** A thread-safe list to hold system messages. */
 	private static final List<SystemMessage> systemMessages = Collections.synchronizedList(new ArrayList<>());
@@ -88,6 +93,8 @@ public final class DrawManager {
 
 	/** Sprite types mapped to their images. */
 	private static Map<SpriteType, boolean[][]> spriteMap;
+	/** Sprites rasterized once per color and scale. */
+	private static SpriteCache spriteCache;
 
 	private float rainbowHue = 0.0f;
 	/**
@@ -180,6 +187,7 @@ public final class DrawManager {
 			spriteMap.put(SpriteType.BossLaser2, new boolean[50][40]);
 			spriteMap.put(SpriteType.BossLaser3, new boolean[50][40]);
 			fileManager.loadSprite(spriteMap);
+			spriteCache = new SpriteCache(spriteMap);
 			logger.info("Finished loading the sprites.");
 
 			fontRegular = fileManager.loadFont(14f);
@@ -219,7 +227,7 @@ public final class DrawManager {
 	 */
 	public void drawSystemMessages(final Screen screen) {
 		synchronized (systemMessages) {
-			long currentTime = System.currentTimeMillis();
+			long currentTime = GameClock.currentTimeMillis();
 			// Remove expired messages
 			systemMessages.removeIf(msg -> msg.expiryTime < currentTime);
 
@@ -242,6 +250,32 @@ public final class DrawManager {
 		}
 	}
 
+	/**
+	 * Draws the frame profiler figures in the top left corner, over the game.
+	 *
+	 * @param screen
+	 *            Screen to draw on.
+	 * @param lines
+	 *            Lines of text to draw.
+	 */
+	public void drawProfilerOverlay(final Screen screen, final String[] lines) {
+		backBufferGraphics.setFont(PROFILER_FONT);
+		FontMetrics metrics = backBufferGraphics.getFontMetrics();
+		int lineHeight = metrics.getHeight();
+		int width = 0;
+		for (String line : lines)
+			width = Math.max(width, metrics.stringWidth(line));
+
+		backBufferGraphics.setColor(PROFILER_BACKGROUND);
+		backBufferGraphics.fillRect(5, 45, width + 10, lines.length * lineHeight + 8);
+		backBufferGraphics.setColor(Color.GREEN);
+		int yPos = 49 + metrics.getAscent();
+		for (String line : lines) {
+			backBufferGraphics.drawString(line, 10, yPos);
+			yPos += lineHeight;
+		}
+	}
+
 	    /**
 	     * Returns the graphics context of the back buffer.
 	     * 
@@ -259,36 +293,62 @@ public final class DrawManager {
 	    public BufferedImage getBackBuffer() {
 	        return backBuffer;
 	    }
+
+	/**
+	 * Returns a copy of the back buffer. The back buffer itself is reused
+	 * every frame, so images kept beyond the current frame must be copied.
+	 *
+	 * @return Copy of the back buffer image.
+	 */
+	public BufferedImage captureBackBuffer() {
+		return backBufferManager.snapshot();
+	}
+
+	/**
+	 * Returns the manager of the back buffer, which reports buffer
+	 * allocations and heap allocated per frame.
+	 *
+	 * @return The back buffer manager.
+	 */
+	public BackBufferManager getBackBufferManager() {
+		return backBufferManager;
+	}
+
 	/**
 	 * Sets the frame to draw the image on.
 	 */
 	public void setFrame(final Frame currentFrame) {
 		frame = currentFrame;
+		if (graphics != null)
+			graphics.dispose();
+		graphics = null;
 	}
 
 	/**
 	 * First part of the drawing process.
 	 */
 	public void initDrawing(final Screen screen) {
-		backBuffer = new BufferedImage(screen.getWidth(), screen.getHeight(),
-				BufferedImage.TYPE_INT_RGB);
-
-		graphics = frame.getGraphics();
-		backBufferGraphics = backBuffer.getGraphics();
+		if (backBufferManager.beginFrame(screen.getWidth(), screen.getHeight())) {
+			backBuffer = backBufferManager.getImage();
+			backBufferGraphics = backBufferManager.getGraphics();
 
-		backBufferGraphics.setColor(Color.BLACK);
-		backBufferGraphics.fillRect(0, 0, screen.getWidth(), screen.getHeight());
+			fontRegularMetrics = backBufferGraphics.getFontMetrics(fontRegular);
+			fontBigMetrics = backBufferGraphics.getFontMetrics(fontBig);
+			fontSmallMetrics = backBufferGraphics.getFontMetrics(fontSmall);
+		}
 
-		fontRegularMetrics = backBufferGraphics.getFontMetrics(fontRegular);
-		fontBigMetrics = backBufferGraphics.getFontMetrics(fontBig);
-		fontSmallMetrics = backBufferGraphics.getFontMetrics(fontSmall);
+		if (graphics == null && frame != null)
+			graphics = frame.getGraphics();
 	}
 
 
 	/**
-	 * Draws the completed drawing on screen.
+	 * Draws the completed drawing on screen. Without a frame, as in headless
+	 * runs, the drawing stays in the offscreen back buffer.
 	 */
 	public void completeDrawing(final Screen screen) {
+		if (frame == null)
+			return;
 		graphics.drawImage(backBuffer, frame.getInsets().left,
 				frame.getInsets().top, frame);
 	}
@@ -297,12 +357,9 @@ public final class DrawManager {
 	 * Draws an entity.
 	 */
 	public void drawEntity(final Entity entity, final int positionX, final int positionY) {
-		boolean[][] image = spriteMap.get(entity.getSpriteType());
-		backBufferGraphics.setColor(entity.getColor());
-		for (int i = 0; i < image.length; i++)
-			for (int j = 0; j < image[i].length; j++)
-				if (image[i][j])
-					backBufferGraphics.drawRect(positionX + i * 2, positionY + j * 2, 1, 1);
+		BufferedImage image = spriteCache.get(entity.getSpriteType(), entity.getColor());
+		if (image != null)
+			backBufferGraphics.drawImage(image, positionX, positionY, null);
 
         if (entity instanceof FinalBoss) {
             backBufferGraphics.setColor(Color.RED);
@@ -310,6 +367,34 @@ public final class DrawManager {
         }
 	}
 
+	/**
+	 * Draws the sprites of a snapshot, in order, interpolated between the
+	 * start and the end of its tick.
+	 *
+	 * @param snapshot
+	 *            Snapshot to draw.
+	 * @param alpha
+	 *            Fraction of the next tick already elapsed, between 0 and 1.
+	 */
+	public void drawSnapshot(final RenderSnapshot snapshot, final float alpha) {
+		for (int i = 0; i < snapshot.count; i++) {
+			int positionX = snapshot.previousX[i] + Math.round(
+					(snapshot.positionX[i] - snapshot.previousX[i]) * alpha);
+			int positionY = snapshot.previousY[i] + Math.round(
+					(snapshot.positionY[i] - snapshot.previousY[i]) * alpha);
+			BufferedImage image = spriteCache.get(snapshot.spriteType[i],
+					snapshot.color[i]);
+			if (image != null)
+				backBufferGraphics.drawImage(image, positionX, positionY, null);
+			if (snapshot.outlined[i]) {
+				backBufferGraphics.setColor(Color.RED);
+				backBufferGraphics.drawRect(snapshot.positionX[i],
+						snapshot.positionY[i], snapshot.width[i],
+						snapshot.height[i]);
+			}
+		}
+	}
+
 	/**
 	 * Draws a sprite from its SpriteType at a given position and color.
 	 * @param spriteType The type of the sprite to draw.
@@ -318,42 +403,23 @@ public final class DrawManager {
 	 * @param color The color of the sprite.
 	 */
 	public void drawSprite(final SpriteType spriteType, final int positionX, final int positionY, final Color color) {
-		boolean[][] image = spriteMap.get(spriteType);
+		BufferedImage image = spriteCache.get(spriteType, color);
 		if (image == null) {
-			logger.warning("Sprite type not found: " + spriteType);
+			logger.warning(() -> "Sprite type not found: " + spriteType);
 			return;
 		}
-		backBufferGraphics.setColor(color);
-		for (int i = 0; i < image.length; i++)
-			for (int j = 0; j < image[i].length; j++)
-				if (image[i][j])
-					backBufferGraphics.drawRect(positionX + i * 2, positionY + j * 2, 1, 1);
+		backBufferGraphics.drawImage(image, positionX, positionY, null);
 	}
 
 	/**
 	 * Draws a scaled entity.
 	 */
 	public void drawScaledEntity(final Entity entity, final int positionX, final int positionY, float scale) {
-		boolean[][] image = spriteMap.get(entity.getSpriteType());
-		backBufferGraphics.setColor(entity.getColor());
-
 		if (scale <= 0) return; // Don't draw if invisible
 
-		// The original size of a "pixel" is 2.
-		float pixelSize = 2.0f * scale;
-		if (pixelSize < 1.0f) pixelSize = 1.0f; // Draw at least 1x1 pixels.
-
-		for (int i = 0; i < image.length; i++) {
-			for (int j = 0; j < image[i].length; j++) {
-				if (image[i][j]) {
-					backBufferGraphics.drawRect(
-						positionX + (int)(i * pixelSize), 
-						positionY + (int)(j * pixelSize), 
-						(int)Math.ceil(pixelSize), 
-						(int)Math.ceil(pixelSize));
-				}
-			}
-		}
+		BufferedImage image = spriteCache.getScaled(entity.getSpriteType(), entity.getColor(), scale);
+		if (image != null)
+			backBufferGraphics.drawImage(image, positionX, positionY, null);
 	}
 
 	/**
@@ -396,33 +462,44 @@ public final class DrawManager {
 	 * Draws number of remaining lives on screen.
 	 */
 	public void drawLives(final Screen screen, final int lives) {
+		drawLives(screen, lives, GameState.isInvincible());
+	}
+
+	/**
+	 * Draws number of remaining lives on screen, in rainbow colors while the
+	 * invincibility cheat is on.
+	 */
+	public void drawLives(final Screen screen, final int lives,
+			final boolean invincible) {
 		backBufferGraphics.setFont(fontRegular);
 		backBufferGraphics.setColor(Color.WHITE);
 		backBufferGraphics.drawString("Lives:", 23, 38);
-		Ship dummyShip = null;
-		if(GameState.isInvincible()){
+		Color livesColor;
+		if(invincible){
 			rainbowHue += 0.01f;
     		if (rainbowHue > 1.0f) {
         		rainbowHue -= 1.0f;
     		}
-    		Color dynamicRainbowColor = Color.getHSBColor(rainbowHue, 1.0f, 1.0f);
-			dummyShip = new Ship(0, 0, dynamicRainbowColor);
+			livesColor = Color.getHSBColor(rainbowHue, 1.0f, 1.0f);
 		}
 		else{
-			dummyShip = new Ship(0, 0, Color.green);
+			livesColor = Color.green;
 		}
 		
 		for (int i = 0; i < lives; i++)
-			drawEntity(dummyShip, 80 + 53 * i, 15);
+			drawSprite(SpriteType.Ship, 80 + 53 * i, 15, livesColor);
 	}
 
 	/**
 	 * Draws the items HUD.
+	 *
+	 * @param shieldLeft
+	 *            Fraction of the shield of the ship left, -1 if there is none.
 	 */
-	public void drawItemsHUD(final Screen screen) {
+	public void drawItemsHUD(final Screen screen, final double shieldLeft) {
 		ItemHUDManager itemHUD = ItemHUDManager.getInstance();
 		itemHUD.initialize(screen);
-		itemHUD.drawItems(screen, backBufferGraphics);
+		itemHUD.drawItems(screen, backBufferGraphics, shieldLeft);
 	}
 
     /**
@@ -630,6 +707,29 @@ public final class DrawManager {
         }
     }
 
+	/**
+	 * Draws whether the high scores are being fetched or could not be.
+	 *
+	 * @param screen
+	 *            Screen to draw on.
+	 * @param loading
+	 *            If newer scores are being fetched.
+	 * @param failed
+	 *            If the last fetch failed.
+	 */
+	public void drawHighScoreStatus(final Screen screen, final boolean loading,
+			final boolean failed) {
+		String status;
+		if (loading)
+			status = "Loading...";
+		else if (failed)
+			status = "Offline, scores may be out of date";
+		else
+			return;
+		backBufferGraphics.setColor(Color.GRAY);
+		drawCenteredRegularString(screen, status, screen.getHeight() - 50);
+	}
+
     public void drawAchievements(final Screen screen, final List<Achievement> achievements) {
         backBufferGraphics.setColor(Color.GREEN);
         drawCenteredBigString(screen, "Achievements", screen.getHeight() / 8);
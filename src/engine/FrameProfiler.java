@@ -0,0 +1,373 @@
+package engine;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Measures where the time of a game tick goes. Each phase of the tick is
+ * timed into a histogram; once per second the histograms are summed up,
+ * together with the garbage collections and the bytes allocated by the game
+ * thread, for the on-screen overlay and, if enabled, a CSV file. While
+ * neither the overlay nor the CSV file is on, timing costs one check.
+ *
+ * Phases are timed in laps:
+ *
+ * <pre>
+ * long time = profiler.start();
+ * handleInput();
+ * time = profiler.lap(FrameProfiler.Phase.INPUT, time);
+ * </pre>
+ *
+ * Everything runs on the game thread but the drawing, which may be timed
+ * on the render thread through lapDraw().
+ */
+public final class FrameProfiler {
+
+	/**
+	 * Phases of a game tick.
+	 */
+	public enum Phase {
+		/** Reading the keyboard and moving the ship. */
+		INPUT,
+		/** Enemies, bosses, bullets and items moving and shooting. */
+		LOGIC,
+		/** Removing items that left the screen. */
+		ITEMS,
+		/** Collision detection and its effects. */
+		COLLISIONS,
+		/** Removing bullets that left the screen. */
+		BULLETS,
+		/** Checking if the level is over. */
+		STATUS,
+		/** Drawing the frame, on the render thread if there is one. */
+		DRAW,
+		/** Whole game tick, drawing excluded. */
+		TICK
+	}
+
+	/** Length of a measuring window, in nanoseconds. */
+	private static final long WINDOW_NANOS = 1000000000L;
+	/** Nanoseconds in one microsecond. */
+	private static final long NANOS_PER_MICROSECOND = 1000L;
+	/** Header of the CSV file. */
+	private static final String CSV_HEADER = "time_ms,phase,count,mean_ns,"
+			+ "p50_ns,p99_ns,max_ns,gc_count,gc_ms,allocated_bytes";
+
+	/** Application logger. */
+	private static final Logger LOGGER = Core.getLogger();
+
+	/** Singleton instance of the class. */
+	private static final FrameProfiler INSTANCE = new FrameProfiler();
+
+	/** Histograms of the current window, indexed by Phase ordinal. */
+	private final LatencyHistogram[] histograms;
+	/** Garbage collectors of the virtual machine. */
+	private final List<GarbageCollectorMXBean> collectors;
+	/** Thread bean, if it can measure allocations. */
+	private final com.sun.management.ThreadMXBean allocationBean;
+
+	/** If the overlay is shown. */
+	private boolean overlayVisible;
+	/** CSV file the windows are written to, if any. */
+	private BufferedWriter csv;
+	/** If any measuring is on. */
+	private volatile boolean enabled;
+
+	/** Start of the current window. */
+	private long windowStart;
+	/** Garbage collections before the current window. */
+	private long windowCollections;
+	/** Garbage collection time before the current window, in ms. */
+	private long windowCollectionMillis;
+	/** Bytes allocated by the game thread before the current window. */
+	private long windowAllocatedBytes;
+	/** Lines of the overlay, summing up the last window. */
+	private String[] overlayLines;
+
+	/**
+	 * Private constructor.
+	 */
+	private FrameProfiler() {
+		Phase[] phases = Phase.values();
+		this.histograms = new LatencyHistogram[phases.length];
+		for (int i = 0; i < phases.length; i++)
+			this.histograms[i] = new LatencyHistogram();
+		this.collectors = ManagementFactory.getGarbageCollectorMXBeans();
+
+		ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+		com.sun.management.ThreadMXBean allocationBean = null;
+		if (threadBean instanceof com.sun.management.ThreadMXBean) {
+			allocationBean = (com.sun.management.ThreadMXBean) threadBean;
+			if (!allocationBean.isThreadAllocatedMemorySupported())
+				allocationBean = null;
+			else if (!allocationBean.isThreadAllocatedMemoryEnabled())
+				allocationBean.setThreadAllocatedMemoryEnabled(true);
+		}
+		this.allocationBean = allocationBean;
+		this.overlayLines = new String[] { "Profiling..." };
+	}
+
+	/**
+	 * Returns shared instance of FrameProfiler.
+	 *
+	 * @return Shared instance of FrameProfiler.
+	 */
+	public static FrameProfiler getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Starts timing a tick.
+	 *
+	 * @return Start time to pass to lap(), 0 while measuring is off.
+	 */
+	public long start() {
+		return this.enabled ? System.nanoTime() : 0;
+	}
+
+	/**
+	 * Ends the timing of a phase.
+	 *
+	 * @param phase
+	 *            Phase that just ended.
+	 * @param since
+	 *            Start of the phase, as returned by start() or lap().
+	 * @return Start time of the next phase.
+	 */
+	public long lap(final Phase phase, final long since) {
+		if (!this.enabled || since == 0)
+			return 0;
+		long now = System.nanoTime();
+		this.histograms[phase.ordinal()].record(now - since);
+		return now;
+	}
+
+	/**
+	 * Ends the timing of a frame drawn. Unlike lap(), it can be called from
+	 * any thread.
+	 *
+	 * @param since
+	 *            Start of the drawing, as returned by start().
+	 */
+	public void lapDraw(final long since) {
+		if (!this.enabled || since == 0)
+			return;
+		long nanos = System.nanoTime() - since;
+		LatencyHistogram histogram = this.histograms[Phase.DRAW.ordinal()];
+		synchronized (histogram) {
+			histogram.record(nanos);
+		}
+	}
+
+	/**
+	 * Ends the timing of a tick, and closes the window once it is over.
+	 *
+	 * @param tickStart
+	 *            Start of the tick, as returned by start().
+	 */
+	public void endTick(final long tickStart) {
+		if (!this.enabled || tickStart == 0)
+			return;
+		long now = System.nanoTime();
+		this.histograms[Phase.TICK.ordinal()].record(now - tickStart);
+		if (now - this.windowStart >= WINDOW_NANOS)
+			closeWindow(now);
+	}
+
+	/**
+	 * Shows or hides the overlay.
+	 */
+	public void toggleOverlay() {
+		this.overlayVisible = !this.overlayVisible;
+		updateEnabled();
+	}
+
+	/**
+	 * Checks if the overlay is shown.
+	 *
+	 * @return True if the overlay should be drawn.
+	 */
+	public boolean isOverlayVisible() {
+		return this.overlayVisible;
+	}
+
+	/**
+	 * Getter for the overlay text.
+	 *
+	 * @return Lines summing up the last window.
+	 */
+	public String[] getOverlayLines() {
+		return this.overlayLines;
+	}
+
+	/**
+	 * Writes a summary of every window to a CSV file from now on.
+	 *
+	 * @param path
+	 *            File to write, replaced if it exists.
+	 * @throws IOException
+	 *             In case of writing problems.
+	 */
+	public void writeCsv(final Path path) throws IOException {
+		closeCsv();
+		this.csv = Files.newBufferedWriter(path, StandardCharsets.UTF_8);
+		this.csv.write(CSV_HEADER);
+		this.csv.newLine();
+		updateEnabled();
+	}
+
+	/**
+	 * Stops writing the CSV file.
+	 */
+	public void closeCsv() {
+		if (this.csv == null)
+			return;
+		try {
+			this.csv.close();
+		} catch (IOException e) {
+			LOGGER.warning("Could not close the profile: " + e.getMessage());
+		}
+		this.csv = null;
+		updateEnabled();
+	}
+
+	/**
+	 * Turns measuring on while the overlay or the CSV file needs it, and
+	 * starts a new window when it is turned on.
+	 */
+	private void updateEnabled() {
+		boolean enabled = this.overlayVisible || this.csv != null;
+		if (enabled && !this.enabled)
+			startWindow(System.nanoTime());
+		this.enabled = enabled;
+	}
+
+	/**
+	 * Sums up the current window and starts the next one.
+	 */
+	private void closeWindow(final long now) {
+		long collections = collectionCount();
+		long collectionMillis = collectionMillis();
+		long allocated = allocatedBytes();
+		long windowCollections = collections - this.windowCollections;
+		long windowCollectionMillis = collectionMillis - this.windowCollectionMillis;
+		long windowAllocated = allocated - this.windowAllocatedBytes;
+
+		synchronized (this.histograms[Phase.DRAW.ordinal()]) {
+			summarizeWindow(windowCollections, windowCollectionMillis,
+					windowAllocated);
+			startWindow(now);
+		}
+	}
+
+	/**
+	 * Writes the overlay lines and the CSV rows of the current window. The
+	 * drawing may be timed meanwhile, so the caller holds its histogram.
+	 */
+	private void summarizeWindow(final long windowCollections,
+			final long windowCollectionMillis, final long windowAllocated) {
+		Phase[] phases = Phase.values();
+		String[] lines = new String[phases.length + 2];
+		lines[0] = String.format("%-10s %5s %7s %7s %7s", "phase (us)", "n",
+				"p50", "p99", "max");
+		for (int i = 0; i < phases.length; i++) {
+			LatencyHistogram histogram = this.histograms[i];
+			lines[i + 1] = String.format("%-10s %5d %7d %7d %7d",
+					phases[i].name().toLowerCase(), histogram.getCount(),
+					histogram.getPercentile(50) / NANOS_PER_MICROSECOND,
+					histogram.getPercentile(99) / NANOS_PER_MICROSECOND,
+					histogram.getMax() / NANOS_PER_MICROSECOND);
+		}
+		lines[phases.length + 1] = String.format("gc %d (%d ms)  alloc %d KB",
+				windowCollections, windowCollectionMillis, windowAllocated / 1024);
+		this.overlayLines = lines;
+
+		if (this.csv != null)
+			writeWindow(phases, windowCollections, windowCollectionMillis,
+					windowAllocated);
+	}
+
+	/**
+	 * Writes one CSV row per phase for the current window.
+	 */
+	private void writeWindow(final Phase[] phases, final long collections,
+			final long collectionMillis, final long allocated) {
+		long time = System.currentTimeMillis();
+		try {
+			for (int i = 0; i < phases.length; i++) {
+				LatencyHistogram histogram = this.histograms[i];
+				StringBuilder row = new StringBuilder();
+				row.append(time).append(',').append(phases[i].name().toLowerCase())
+						.append(',').append(histogram.getCount())
+						.append(',').append(histogram.getMean())
+						.append(',').append(histogram.getPercentile(50))
+						.append(',').append(histogram.getPercentile(99))
+						.append(',').append(histogram.getMax()).append(',');
+				if (phases[i] == Phase.TICK)
+					row.append(collections).append(',').append(collectionMillis)
+							.append(',').append(allocated);
+				else
+					row.append(",,");
+				this.csv.write(row.toString());
+				this.csv.newLine();
+			}
+			this.csv.flush();
+		} catch (IOException e) {
+			LOGGER.warning("Could not write the profile: " + e.getMessage());
+			closeCsv();
+		}
+	}
+
+	/**
+	 * Empties the histograms and remembers the counters at the window start.
+	 */
+	private void startWindow(final long now) {
+		for (LatencyHistogram histogram : this.histograms) {
+			synchronized (histogram) {
+				histogram.reset();
+			}
+		}
+		this.windowStart = now;
+		this.windowCollections = collectionCount();
+		this.windowCollectionMillis = collectionMillis();
+		this.windowAllocatedBytes = allocatedBytes();
+	}
+
+	/**
+	 * Returns the garbage collections since the virtual machine started.
+	 */
+	private long collectionCount() {
+		long count = 0;
+		for (GarbageCollectorMXBean collector : this.collectors)
+			count += Math.max(0, collector.getCollectionCount());
+		return count;
+	}
+
+	/**
+	 * Returns the garbage collection time since the virtual machine started.
+	 */
+	private long collectionMillis() {
+		long millis = 0;
+		for (GarbageCollectorMXBean collector : this.collectors)
+			millis += Math.max(0, collector.getCollectionTime());
+		return millis;
+	}
+
+	/**
+	 * Returns the bytes allocated by the calling thread, 0 if unknown.
+	 */
+	private long allocatedBytes() {
+		if (this.allocationBean == null)
+			return 0;
+		return this.allocationBean.getThreadAllocatedBytes(
+				Thread.currentThread().getId());
+	}
+}
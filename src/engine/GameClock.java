@@ -0,0 +1,100 @@
+package engine;
+
+/**
+ * Time source of the game logic. Cooldowns, timers and timed effects read
+ * the time from here instead of from the system, so a headless run can
+ * replace the wall clock with a simulated one that only advances when a
+ * tick is stepped. Unless a simulated clock is installed, the system time
+ * is returned.
+ */
+public final class GameClock {
+
+	/** Nanoseconds in one millisecond. */
+	private static final long NANOS_PER_MILLISECOND = 1000000L;
+
+	/** If the simulated time is used instead of the system time. */
+	private static volatile boolean simulated;
+	/** Current simulated time, in nanoseconds. */
+	private static volatile long simulatedNanos;
+
+	/**
+	 * Constructor, not called.
+	 */
+	private GameClock() {
+
+	}
+
+	/**
+	 * Returns the current time in milliseconds.
+	 * 
+	 * @return Simulated time if installed, System.currentTimeMillis()
+	 *         otherwise.
+	 */
+	public static long currentTimeMillis() {
+		if (simulated)
+			return simulatedNanos / NANOS_PER_MILLISECOND;
+		return System.currentTimeMillis();
+	}
+
+	/**
+	 * Returns the current value of the high resolution time source.
+	 * 
+	 * @return Simulated time if installed, System.nanoTime() otherwise.
+	 */
+	public static long nanoTime() {
+		if (simulated)
+			return simulatedNanos;
+		return System.nanoTime();
+	}
+
+	/**
+	 * Replaces the system time with a simulated clock.
+	 * 
+	 * @param startMillis
+	 *            Initial time of the simulated clock, in milliseconds. Must be
+	 *            positive, as cooldowns take a time of 0 as never started.
+	 */
+	public static void useSimulatedTime(final long startMillis) {
+		simulatedNanos = startMillis * NANOS_PER_MILLISECOND;
+		simulated = true;
+	}
+
+	/**
+	 * Replaces the system time with a simulated clock, starting at an exact
+	 * time. Cooldowns round the time down to milliseconds, so a recorded
+	 * session must be replayed from the same nanosecond.
+	 * 
+	 * @param startNanos
+	 *            Initial time of the simulated clock, in nanoseconds.
+	 */
+	public static void useSimulatedNanoTime(final long startNanos) {
+		simulatedNanos = startNanos;
+		simulated = true;
+	}
+
+	/**
+	 * Goes back to the system time.
+	 */
+	public static void useSystemTime() {
+		simulated = false;
+	}
+
+	/**
+	 * Advances the simulated clock.
+	 * 
+	 * @param nanos
+	 *            Nanoseconds to advance.
+	 */
+	public static void advance(final long nanos) {
+		simulatedNanos += nanos;
+	}
+
+	/**
+	 * Checks if the simulated clock is installed.
+	 * 
+	 * @return True if the simulated time is in use.
+	 */
+	public static boolean isSimulated() {
+		return simulated;
+	}
+}
@@ -0,0 +1,93 @@
+package engine;
+
+import java.util.SplittableRandom;
+
+/**
+ * Random number service of one game. Every subsystem draws from its own
+ * stream, split from a single seed, so a game is reproduced exactly by
+ * starting it again with the same seed, and drawing more numbers in one
+ * subsystem does not shift the numbers of another.
+ *
+ * The service is carried by GameState, each level getting a new one seeded
+ * from the previous level's, so a single level can also be replayed from
+ * its own seed. The game screen hands it to what it creates, such as the
+ * formations, the bosses and the cooldowns with variance.
+ */
+public final class GameRandom {
+
+	/**
+	 * Subsystems with a stream of their own.
+	 */
+	public enum Stream {
+		/** Variance of the cooldowns. */
+		COOLDOWN,
+		/** Choice of the enemy ship that shoots. */
+		ENEMY_FIRE,
+		/** Attack patterns of the bosses. */
+		BOSS,
+		/** Item drops and item types. */
+		ITEM_DROP,
+		/** Starfields and other effects with no effect on the game. */
+		EFFECTS,
+		/** Seeds of the following levels. */
+		LEVEL
+	}
+
+	/** Seed of all the streams. */
+	private final long seed;
+	/** One generator per subsystem, indexed by Stream ordinal. */
+	private final SplittableRandom[] streams;
+
+	/**
+	 * Constructor, seeds the streams from the system time.
+	 */
+	public GameRandom() {
+		this(System.nanoTime());
+	}
+
+	/**
+	 * Constructor, seeds the streams from a given seed.
+	 *
+	 * @param seed
+	 *            Seed of the game.
+	 */
+	public GameRandom(final long seed) {
+		this.seed = seed;
+		SplittableRandom root = new SplittableRandom(seed);
+		Stream[] values = Stream.values();
+		this.streams = new SplittableRandom[values.length];
+		for (int i = 0; i < values.length; i++)
+			this.streams[i] = root.split();
+	}
+
+	/**
+	 * Returns the generator of a subsystem. Generators are not thread safe,
+	 * they are meant to be used from the game thread.
+	 *
+	 * @param stream
+	 *            Subsystem drawing the numbers.
+	 * @return Generator of the subsystem.
+	 */
+	public SplittableRandom stream(final Stream stream) {
+		return this.streams[stream.ordinal()];
+	}
+
+	/**
+	 * Creates the service of the next level. Its seed depends only on the
+	 * seed of this one, so each level can be started again on its own.
+	 *
+	 * @return New service, seeded from this one.
+	 */
+	public GameRandom nextLevel() {
+		return new GameRandom(stream(Stream.LEVEL).nextLong());
+	}
+
+	/**
+	 * Getter for the seed.
+	 *
+	 * @return Seed the streams were split from.
+	 */
+	public long getSeed() {
+		return this.seed;
+	}
+}
@@ -20,6 +20,8 @@ public class GameState {
 	private int shipsDestroyed;
     /** Current coin. */
     private int coin;
+	/** Random number service of the game. */
+	private final GameRandom random;
 
 
 
@@ -56,12 +58,40 @@ public class GameState {
 	public GameState(final int level, final int score,
 			final int livesRemaining, final int bulletsShot,
 			final int shipsDestroyed, final int coin) {
+		this(level, score, livesRemaining, bulletsShot, shipsDestroyed, coin,
+				new GameRandom());
+	}
+
+	/**
+	 * Constructor that keeps the random number service of the game, for the
+	 * state carried from one level to the next.
+	 * 
+	 * @param level
+	 *            Current game level.
+	 * @param score
+	 *            Current score.
+	 * @param livesRemaining
+	 *            Lives currently remaining.
+	 * @param bulletsShot
+	 *            Bullets shot until now.
+	 * @param shipsDestroyed
+	 *            Ships destroyed until now.
+	 * @param coin
+	 *            Current coin.
+	 * @param random
+	 *            Random number service of the game.
+	 */
+	public GameState(final int level, final int score,
+			final int livesRemaining, final int bulletsShot,
+			final int shipsDestroyed, final int coin,
+			final GameRandom random) {
 		this.level = level;
 		this.score = score;
 		this.livesRemaining = livesRemaining;
 		this.bulletsShot = bulletsShot;
         this.shipsDestroyed = shipsDestroyed;
         this.coin = coin;
+		this.random = random;
 		    }
 
     /**
@@ -118,6 +148,13 @@ public class GameState {
 		return shipsDestroyed;
 	}
 
+	/**
+	 * @return the random number service of the game
+	 */
+	public final GameRandom getRandom() {
+		return random;
+	}
+
     public final int getCoin() { return coin; }
 
 	public final boolean deductCoins(final int amount) {
@@ -0,0 +1,344 @@
+package engine;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.SplittableRandom;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import audio.SoundManager;
+import engine.level.LevelManager;
+import screen.GameScreen;
+
+/**
+ * Runs the game without a display, as fast as the game logic allows. Game
+ * screens are stepped one tick at a time on a simulated clock, with the
+ * keyboard driven by a ScriptedInput, and a new game is started whenever one
+ * ends. Frames are drawn to the offscreen back buffer only when asked to.
+ * Each game is seeded from the seed of the run, so two runs with the same
+ * seed and script play the same games. With --record, a replay of every
+ * level is saved, to be checked later with ReplayPlayer. With --profile,
+ * the time taken by each phase of the ticks is written to a CSV file.
+ * With --updates, the enemy formations are updated serially, in parallel
+ * or, by default, in parallel when there is enough work; the games played
+ * are the same in every mode.
+ * 
+ * Usage: HeadlessSimulator [--ticks N] [--script SCRIPT] [--seed SEED]
+ * [--record DIR] [--profile FILE] [--updates serial|auto|parallel]
+ * [--render] [--verbose]
+ */
+public final class HeadlessSimulator {
+
+	/** Ticks simulated when not specified. */
+	private static final long DEFAULT_TICKS = 100000;
+	/** Nanoseconds in one second. */
+	private static final long NANOS_PER_SECOND = 1000000000L;
+	/** Start of the simulated clock, cooldowns treat a time of 0 as unset. */
+	private static final long CLOCK_START = 1000;
+
+	/** Application logger. */
+	private static final Logger LOGGER = Core.getLogger();
+
+	/** Levels to play. */
+	private final LevelManager levelManager;
+	/** Input fed to the screens. */
+	private final ScriptedInput script;
+	/** If the ticks are also drawn offscreen. */
+	private final boolean render;
+	/** Seed of the run. */
+	private final long seed;
+	/** Source of the seed of each game. */
+	private final SplittableRandom gameSeeds;
+	/** Directory to save a replay of every level to, null to not record. */
+	private Path replayDirectory;
+	/** Recorder of the current level, if recording. */
+	private ReplayRecorder replayRecorder;
+
+	/** Game screen being stepped. */
+	private GameScreen screen;
+	/** State of the current game. */
+	private GameState gameState;
+
+	/** Ticks simulated. */
+	private long ticks;
+	/** Levels started. */
+	private int levelsStarted;
+	/** Levels cleared. */
+	private int levelsCleared;
+	/** Games lost. */
+	private int gamesOver;
+	/** Games won by clearing the last level. */
+	private int gamesWon;
+	/** Best final score among the finished games. */
+	private int bestScore;
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param levelManager
+	 *            Levels to play.
+	 * @param script
+	 *            Input fed to the screens.
+	 * @param render
+	 *            If the ticks are also drawn offscreen.
+	 */
+	public HeadlessSimulator(final LevelManager levelManager,
+			final ScriptedInput script, final boolean render) {
+		this(levelManager, script, render, System.nanoTime());
+	}
+
+	/**
+	 * Constructor, with a fixed seed.
+	 * 
+	 * @param levelManager
+	 *            Levels to play.
+	 * @param script
+	 *            Input fed to the screens.
+	 * @param render
+	 *            If the ticks are also drawn offscreen.
+	 * @param seed
+	 *            Seed of the run.
+	 */
+	public HeadlessSimulator(final LevelManager levelManager,
+			final ScriptedInput script, final boolean render, final long seed) {
+		this.levelManager = levelManager;
+		this.script = script;
+		this.render = render;
+		this.seed = seed;
+		this.gameSeeds = new SplittableRandom(seed);
+	}
+
+	/**
+	 * Runs the simulator from the command line.
+	 * 
+	 * @param args
+	 *            Program args, see the class documentation.
+	 */
+	public static void main(final String[] args) {
+		System.setProperty("java.awt.headless", "true");
+
+		long ticks = DEFAULT_TICKS;
+		String script = ScriptedInput.DEFAULT_SCRIPT;
+		long seed = System.nanoTime();
+		Path replayDirectory = null;
+		Path profileFile = null;
+		TickScheduler.Mode updates = TickScheduler.Mode.AUTO;
+		boolean render = false;
+		boolean verbose = false;
+		for (int i = 0; i < args.length; i++) {
+			if ("--ticks".equals(args[i]) && i + 1 < args.length)
+				ticks = Long.parseLong(args[++i]);
+			else if ("--script".equals(args[i]) && i + 1 < args.length)
+				script = args[++i];
+			else if ("--seed".equals(args[i]) && i + 1 < args.length)
+				seed = Long.parseLong(args[++i]);
+			else if ("--record".equals(args[i]) && i + 1 < args.length)
+				replayDirectory = Paths.get(args[++i]);
+			else if ("--profile".equals(args[i]) && i + 1 < args.length)
+				profileFile = Paths.get(args[++i]);
+			else if ("--updates".equals(args[i]) && i + 1 < args.length)
+				updates = parseUpdates(args[++i]);
+			else if ("--render".equals(args[i]))
+				render = true;
+			else if ("--verbose".equals(args[i]))
+				verbose = true;
+			else
+				usage();
+		}
+		if (updates == null)
+			usage();
+
+		if (!verbose)
+			LOGGER.setLevel(Level.WARNING);
+		SoundManager.cutAllSound();
+		TickScheduler.getInstance().setMode(updates);
+
+		HeadlessSimulator simulator = new HeadlessSimulator(LevelManager.getInstance(),
+				ScriptedInput.parse(script), render, seed);
+		simulator.setReplayDirectory(replayDirectory);
+		if (profileFile != null) {
+			try {
+				FrameProfiler.getInstance().writeCsv(profileFile);
+			} catch (IOException e) {
+				System.err.println("Could not write " + profileFile + ": "
+						+ e.getMessage());
+				System.exit(2);
+			}
+		}
+		long start = System.nanoTime();
+		simulator.run(ticks);
+		long elapsed = System.nanoTime() - start;
+		FrameProfiler.getInstance().closeCsv();
+
+		System.out.println(simulator.report(elapsed));
+		System.exit(0);
+	}
+
+	/**
+	 * Parses a way of running the formation updates.
+	 * 
+	 * @param name
+	 *            Name of the mode, in any case.
+	 * @return Mode, null if there is none with that name.
+	 */
+	private static TickScheduler.Mode parseUpdates(final String name) {
+		for (TickScheduler.Mode mode : TickScheduler.Mode.values())
+			if (mode.name().equalsIgnoreCase(name))
+				return mode;
+		return null;
+	}
+
+	/**
+	 * Prints the usage and exits.
+	 */
+	private static void usage() {
+		System.err.println("Usage: HeadlessSimulator [--ticks N] "
+				+ "[--script SCRIPT] [--seed SEED] [--record DIR] "
+				+ "[--profile FILE] [--updates serial|auto|parallel] "
+				+ "[--render] [--verbose]");
+		System.exit(2);
+	}
+
+	/**
+	 * Saves a replay of every level from now on.
+	 * 
+	 * @param replayDirectory
+	 *            Directory to save the replays into, null to stop recording.
+	 */
+	public void setReplayDirectory(final Path replayDirectory) {
+		this.replayDirectory = replayDirectory;
+	}
+
+	/**
+	 * Simulates a number of ticks on a simulated clock.
+	 * 
+	 * @param count
+	 *            Ticks to simulate.
+	 */
+	public void run(final long count) {
+		final long tickNanos = NANOS_PER_SECOND / Core.FPS;
+		boolean wasSimulated = GameClock.isSimulated();
+		if (!wasSimulated)
+			GameClock.useSimulatedTime(CLOCK_START);
+
+		try {
+			InputManager inputManager = Core.getInputManager();
+			for (long i = 0; i < count; i++) {
+				if (this.screen == null)
+					startLevel();
+
+				this.script.apply(inputManager, this.ticks);
+				if (!this.screen.step(this.render))
+					finishLevel();
+				GameClock.advance(tickNanos);
+				this.ticks++;
+			}
+		} finally {
+			if (!wasSimulated)
+				GameClock.useSystemTime();
+		}
+	}
+
+	/**
+	 * Starts the level of the current game state, or a new game if there is
+	 * none.
+	 */
+	private void startLevel() {
+		if (this.gameState == null)
+			this.gameState = new GameState(1, 0, Core.MAX_LIVES, 0, 0, 0,
+					new GameRandom(this.gameSeeds.nextLong()));
+
+		boolean bonusLife = this.gameState.getLevel()
+				% Core.EXTRA_LIFE_FRECUENCY == 0
+				&& this.gameState.getLivesRemaining() < Core.MAX_LIVES;
+		this.screen = new GameScreen(this.gameState,
+				this.levelManager.getLevel(this.gameState.getLevel()),
+				bonusLife, Core.MAX_LIVES, Core.WIDTH, Core.HEIGHT, Core.FPS);
+		if (this.replayDirectory != null) {
+			this.replayRecorder = new ReplayRecorder(this.gameState, bonusLife,
+					Core.MAX_LIVES, Core.WIDTH, Core.HEIGHT, Core.FPS);
+			this.screen.setReplayRecorder(this.replayRecorder);
+		}
+		this.screen.initialize();
+		this.levelsStarted++;
+	}
+
+	/**
+	 * Moves on after the current screen finished: to the next level if it was
+	 * cleared, or to a new game if it was lost or was the last level.
+	 */
+	private void finishLevel() {
+		GameState state = this.screen.getGameState();
+		this.screen = null;
+		if (this.replayRecorder != null) {
+			try {
+				this.replayRecorder.getReplay().saveInto(this.replayDirectory);
+			} catch (IOException e) {
+				LOGGER.warning("Could not save replay: " + e.getMessage());
+			}
+			this.replayRecorder = null;
+		}
+
+		if (state.getLivesRemaining() <= 0) {
+			this.gamesOver++;
+			endGame(state);
+			return;
+		}
+
+		this.levelsCleared++;
+		if (this.levelManager.getLevel(state.getLevel() + 1) == null) {
+			this.gamesWon++;
+			endGame(state);
+			return;
+		}
+
+		this.gameState = new GameState(state.getLevel() + 1, state.getScore(),
+				state.getLivesRemaining(), state.getBulletsShot(),
+				state.getShipsDestroyed(), state.getCoin(),
+				state.getRandom().nextLevel());
+	}
+
+	/**
+	 * Records the result of a finished game.
+	 */
+	private void endGame(final GameState state) {
+		this.bestScore = Math.max(this.bestScore, state.getScore());
+		this.gameState = null;
+	}
+
+	/**
+	 * Summarizes the simulation.
+	 * 
+	 * @param elapsedNanos
+	 *            Wall clock time taken by the simulation.
+	 * @return Human readable report.
+	 */
+	public String report(final long elapsedNanos) {
+		double seconds = elapsedNanos / (double) NANOS_PER_SECOND;
+		return String.format("Simulated %d ticks (%.1f game seconds) in %.2f s: "
+				+ "%.0f ticks/s. Levels started %d, cleared %d; games lost %d, "
+				+ "won %d; best score %d. Seed %d.", this.ticks, this.ticks
+				/ (double) Core.FPS, seconds, this.ticks / Math.max(seconds,
+				1e-9), this.levelsStarted, this.levelsCleared, this.gamesOver,
+				this.gamesWon, this.bestScore, this.seed);
+	}
+
+	/**
+	 * Getter for the number of simulated ticks.
+	 * 
+	 * @return Ticks simulated so far.
+	 */
+	public long getTicks() {
+		return this.ticks;
+	}
+
+	/**
+	 * Getter for the number of levels started.
+	 * 
+	 * @return Levels started so far.
+	 */
+	public int getLevelsStarted() {
+		return this.levelsStarted;
+	}
+}
@@ -0,0 +1,350 @@
+package engine;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.logging.Logger;
+
+/**
+ * Keeps the global leaderboard, so screens can show it without waiting for
+ * the backend. The last leaderboard fetched is kept in memory and in a file,
+ * and served at once even when it is stale; a stale leaderboard is fetched
+ * again in the background, the backend answering 304 Not Modified when the
+ * ETag it had sent still matches. Fetching never blocks the caller: screens
+ * read the current snapshot every frame and pick up the new one when it
+ * arrives.
+ *
+ * The file holds an "etag" line, a "fetched" line with the time of the last
+ * fetch, then one "name score" line per score, the name being URL encoded.
+ */
+public final class HighScoreCache {
+
+	/** Default cache file, in the working directory. */
+	public static final String DEFAULT_FILE = "highscores.cache";
+	/** Default time a leaderboard stays fresh, in milliseconds. */
+	public static final long DEFAULT_TTL = 60 * 1000;
+	/** Time to wait before fetching again after a failure, in milliseconds. */
+	private static final long RETRY_DELAY = 5 * 1000;
+	/** Endpoint of the leaderboard. */
+	private static final String ENDPOINT = "/scores";
+
+	/** Application logger. */
+	private static final Logger LOGGER = Core.getLogger();
+
+	/** Cache file. */
+	private final Path file;
+	/** Transport the leaderboard is fetched with. */
+	private final HttpTransport transport;
+	/** Time a leaderboard stays fresh, in milliseconds. */
+	private final long ttl;
+	/** Thread reading the file and fetching. */
+	private final ExecutorService executor;
+
+	/** Current leaderboard. */
+	private volatile Snapshot snapshot;
+	/** ETag of the current leaderboard, if the backend sent one. */
+	private String etag;
+	/** Time of the last fetch attempt, in milliseconds. */
+	private long attemptedAt;
+	/** If a fetch is queued or running. */
+	private boolean fetching;
+	/** If the cache file has been read, or found missing. */
+	private volatile boolean loaded;
+
+	/**
+	 * A leaderboard, as known at some point. Immutable.
+	 */
+	public static final class Snapshot {
+		/** Scores, best first. */
+		private final List<Score> scores;
+		/** Time the scores were fetched, in milliseconds, 0 if never. */
+		private final long fetchedAt;
+		/** If newer scores are being fetched. */
+		private final boolean loading;
+		/** If the last fetch failed. */
+		private final boolean failed;
+
+		/**
+		 * Constructor.
+		 */
+		private Snapshot(final List<Score> scores, final long fetchedAt,
+				final boolean loading, final boolean failed) {
+			this.scores = scores;
+			this.fetchedAt = fetchedAt;
+			this.loading = loading;
+			this.failed = failed;
+		}
+
+		/**
+		 * Getter for the scores.
+		 *
+		 * @return Unmodifiable list of scores, empty if none is known.
+		 */
+		public List<Score> getScores() {
+			return this.scores;
+		}
+
+		/**
+		 * Getter for the time the scores were fetched.
+		 *
+		 * @return Time in milliseconds since the epoch, 0 if never.
+		 */
+		public long getFetchedAt() {
+			return this.fetchedAt;
+		}
+
+		/**
+		 * Checks if newer scores are being fetched.
+		 *
+		 * @return True while a fetch is queued or running.
+		 */
+		public boolean isLoading() {
+			return this.loading;
+		}
+
+		/**
+		 * Checks if the last fetch failed.
+		 *
+		 * @return True if the scores may be out of date.
+		 */
+		public boolean isFailed() {
+			return this.failed;
+		}
+
+		/**
+		 * Returns a copy with other flags.
+		 */
+		private Snapshot with(final boolean loading, final boolean failed) {
+			return new Snapshot(this.scores, this.fetchedAt, loading, failed);
+		}
+	}
+
+	/**
+	 * Constructor, starts reading the cache file.
+	 *
+	 * @param file
+	 *            Cache file, created on the first fetch.
+	 * @param transport
+	 *            Transport to fetch the leaderboard with.
+	 * @param ttl
+	 *            Time a leaderboard stays fresh, in milliseconds.
+	 */
+	public HighScoreCache(final Path file, final HttpTransport transport,
+			final long ttl) {
+		this.file = file;
+		this.transport = transport;
+		this.ttl = ttl;
+		this.snapshot = new Snapshot(Collections.emptyList(), 0, false, false);
+		this.executor = Executors.newSingleThreadExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "high-score-cache");
+			thread.setDaemon(true);
+			return thread;
+		});
+		this.executor.execute(() -> {
+			load();
+			this.loaded = true;
+		});
+	}
+
+	/**
+	 * Returns the current leaderboard. Never blocks.
+	 *
+	 * @return Current snapshot.
+	 */
+	public Snapshot getSnapshot() {
+		return this.snapshot;
+	}
+
+	/**
+	 * Fetches the leaderboard in the background if it is stale, so it is
+	 * fresh by the time a screen shows it. Until the cache file is read, the
+	 * check waits for it, so a fresh file is not fetched again.
+	 */
+	public void prefetch() {
+		if (!this.loaded) {
+			this.executor.execute(this::prefetch);
+			return;
+		}
+		long now = System.currentTimeMillis();
+		synchronized (this) {
+			if (this.fetching
+					|| now - this.snapshot.fetchedAt < this.ttl
+					|| now - this.attemptedAt < RETRY_DELAY)
+				return;
+			startFetch(now);
+		}
+	}
+
+	/**
+	 * Fetches the leaderboard in the background, fresh or not.
+	 */
+	public void refresh() {
+		synchronized (this) {
+			if (!this.fetching)
+				startFetch(System.currentTimeMillis());
+		}
+	}
+
+	/**
+	 * Waits for the queued work to finish. Used by the tests.
+	 *
+	 * @param timeoutMillis
+	 *            Longest time to wait, in milliseconds.
+	 * @return True if nothing was left running.
+	 * @throws InterruptedException
+	 *             If the wait is interrupted.
+	 */
+	boolean awaitIdle(final long timeoutMillis) throws InterruptedException {
+		try {
+			this.executor.submit(() -> { }).get(timeoutMillis, TimeUnit.MILLISECONDS);
+			return true;
+		} catch (ExecutionException | TimeoutException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Marks a fetch as started and queues it.
+	 */
+	private void startFetch(final long now) {
+		this.fetching = true;
+		this.attemptedAt = now;
+		this.snapshot = this.snapshot.with(true, this.snapshot.failed);
+		this.executor.execute(this::fetch);
+	}
+
+	/**
+	 * Fetches the leaderboard, asking the backend to answer 304 if it has
+	 * not changed.
+	 */
+	private void fetch() {
+		String etag;
+		synchronized (this) {
+			etag = this.etag;
+		}
+		HttpRequest.Builder builder = this.transport.request(ENDPOINT).GET();
+		if (etag != null)
+			builder.header("If-None-Match", etag);
+
+		Snapshot fetched = null;
+		String fetchedEtag = etag;
+		try {
+			HttpResponse<InputStream> response = this.transport.send(
+					"GET " + ENDPOINT, builder.build(),
+					HttpResponse.BodyHandlers.ofInputStream());
+			try (JsonReader reader = new JsonReader(new InputStreamReader(
+					response.body(), StandardCharsets.UTF_8))) {
+				long now = System.currentTimeMillis();
+				if (response.statusCode() == 304) {
+					fetched = new Snapshot(this.snapshot.scores, now, false, false);
+				} else if (response.statusCode() == 200) {
+					fetched = new Snapshot(Collections.unmodifiableList(
+							ApiClient.readScores(reader)), now, false, false);
+					fetchedEtag = response.headers().firstValue("ETag").orElse(null);
+				} else {
+					LOGGER.warning("Couldn't fetch high scores, status "
+							+ response.statusCode());
+				}
+			}
+		} catch (IOException e) {
+			LOGGER.warning("Couldn't fetch high scores: " + e.getMessage());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+
+		synchronized (this) {
+			this.fetching = false;
+			if (fetched == null) {
+				this.snapshot = this.snapshot.with(false, true);
+				return;
+			}
+			this.etag = fetchedEtag;
+			this.snapshot = fetched;
+		}
+		save(fetched, fetchedEtag);
+	}
+
+	/**
+	 * Reads the cache file, unless a fetch has already brought newer scores.
+	 */
+	private void load() {
+		String etag = null;
+		long fetchedAt = 0;
+		List<Score> scores = new ArrayList<>();
+		try (BufferedReader reader = Files.newBufferedReader(this.file,
+				StandardCharsets.UTF_8)) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				String[] fields = line.split(" ");
+				if (fields.length != 2)
+					continue;
+				if ("etag".equals(fields[0]))
+					etag = "-".equals(fields[1]) ? null
+							: URLDecoder.decode(fields[1], StandardCharsets.UTF_8);
+				else if ("fetched".equals(fields[0]))
+					fetchedAt = Long.parseLong(fields[1]);
+				else
+					scores.add(new Score(URLDecoder.decode(fields[0],
+							StandardCharsets.UTF_8), Integer.parseInt(fields[1])));
+			}
+		} catch (NoSuchFileException e) {
+			return;
+		} catch (IOException | IllegalArgumentException e) {
+			LOGGER.warning("Ignoring unreadable high score cache: " + e.getMessage());
+			return;
+		}
+
+		synchronized (this) {
+			if (this.snapshot.fetchedAt != 0)
+				return;
+			this.etag = etag;
+			this.snapshot = new Snapshot(Collections.unmodifiableList(scores),
+					fetchedAt, this.snapshot.loading, this.snapshot.failed);
+		}
+	}
+
+	/**
+	 * Writes a leaderboard to the cache file, replacing it at once.
+	 */
+	private void save(final Snapshot saved, final String etag) {
+		Path temporary = this.file.resolveSibling(this.file.getFileName() + ".tmp");
+		try {
+			try (BufferedWriter out = Files.newBufferedWriter(temporary,
+					StandardCharsets.UTF_8)) {
+				out.write("etag " + (etag == null ? "-"
+						: URLEncoder.encode(etag, StandardCharsets.UTF_8)));
+				out.newLine();
+				out.write("fetched " + saved.fetchedAt);
+				out.newLine();
+				for (Score score : saved.scores) {
+					out.write(URLEncoder.encode(score.getName(), StandardCharsets.UTF_8)
+							+ " " + score.getScore());
+					out.newLine();
+				}
+			}
+			Files.move(temporary, this.file, StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			LOGGER.warning("Couldn't write the high score cache: " + e.getMessage());
+		}
+	}
+}
@@ -0,0 +1,181 @@
+package engine;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends the requests of the ApiClient. A single HttpClient is shared by all
+ * the requests, so connections to the backend are kept alive and reused, or
+ * multiplexed when the backend speaks HTTP/2, instead of a new connection
+ * and thread pool being made for every call. The client runs on a small
+ * pool of daemon threads, requests have a connect and a response timeout,
+ * and the latency of every endpoint is measured.
+ */
+public final class HttpTransport {
+
+	/** Time allowed to open a connection. */
+	public static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(5);
+	/** Time allowed for a response to arrive. */
+	public static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+	/** Threads handling the responses. */
+	private static final int THREADS = 2;
+	/** Nanoseconds in one millisecond. */
+	private static final long NANOS_PER_MILLISECOND = 1000000L;
+
+	/** Base URL the request paths are relative to. */
+	private final String baseUrl;
+	/** Threads of the client. */
+	private final ExecutorService executor;
+	/** Client shared by all the requests. */
+	private final HttpClient client;
+	/** Latencies of each endpoint, sorted by endpoint. */
+	private final Map<String, LatencyHistogram> latencies;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param baseUrl
+	 *            Base URL the request paths are relative to.
+	 */
+	public HttpTransport(final String baseUrl) {
+		this.baseUrl = baseUrl;
+		AtomicInteger threadCount = new AtomicInteger();
+		this.executor = new ThreadPoolExecutor(THREADS, THREADS, 60,
+				TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+					Thread thread = new Thread(runnable,
+							"http-transport-" + threadCount.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				});
+		((ThreadPoolExecutor) this.executor).allowCoreThreadTimeOut(true);
+		this.client = HttpClient.newBuilder()
+				.version(HttpClient.Version.HTTP_2)
+				.connectTimeout(CONNECT_TIMEOUT)
+				.executor(this.executor)
+				.build();
+		this.latencies = new TreeMap<>();
+	}
+
+	/**
+	 * Starts building a request.
+	 *
+	 * @param path
+	 *            Path of the endpoint, relative to the base URL.
+	 * @return Request builder with the URI and timeout set.
+	 */
+	public HttpRequest.Builder request(final String path) {
+		return HttpRequest.newBuilder()
+				.uri(URI.create(this.baseUrl + path))
+				.timeout(REQUEST_TIMEOUT);
+	}
+
+	/**
+	 * Sends a request and waits for the response.
+	 *
+	 * @param endpoint
+	 *            Name the latency is measured under.
+	 * @param request
+	 *            Request to send.
+	 * @return Response, with the body as a string.
+	 * @throws IOException
+	 *             If the request fails or times out.
+	 * @throws InterruptedException
+	 *             If the wait is interrupted.
+	 */
+	public HttpResponse<String> send(final String endpoint,
+			final HttpRequest request) throws IOException, InterruptedException {
+		return send(endpoint, request, HttpResponse.BodyHandlers.ofString());
+	}
+
+	/**
+	 * Sends a request and waits for the response, handing its body to a
+	 * given handler. With a streaming handler, the latency measured is that
+	 * of the response headers.
+	 *
+	 * @param <T>
+	 *            Type of the body.
+	 * @param endpoint
+	 *            Name the latency is measured under.
+	 * @param request
+	 *            Request to send.
+	 * @param handler
+	 *            Handler of the response body.
+	 * @return Response.
+	 * @throws IOException
+	 *             If the request fails or times out.
+	 * @throws InterruptedException
+	 *             If the wait is interrupted.
+	 */
+	public <T> HttpResponse<T> send(final String endpoint,
+			final HttpRequest request, final HttpResponse.BodyHandler<T> handler)
+			throws IOException, InterruptedException {
+		long start = System.nanoTime();
+		try {
+			return this.client.send(request, handler);
+		} finally {
+			recordLatency(endpoint, System.nanoTime() - start);
+		}
+	}
+
+	/**
+	 * Sends a request without waiting for the response.
+	 *
+	 * @param endpoint
+	 *            Name the latency is measured under.
+	 * @param request
+	 *            Request to send.
+	 * @return Response to come, with the body as a string.
+	 */
+	public CompletableFuture<HttpResponse<String>> sendAsync(
+			final String endpoint, final HttpRequest request) {
+		long start = System.nanoTime();
+		return this.client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+				.whenComplete((response, error) ->
+						recordLatency(endpoint, System.nanoTime() - start));
+	}
+
+	/**
+	 * Sums up the latencies measured so far.
+	 *
+	 * @return One line per endpoint, with its request count and latency
+	 *         percentiles in milliseconds.
+	 */
+	public List<String> getLatencySummary() {
+		List<String> lines = new ArrayList<>();
+		synchronized (this.latencies) {
+			for (Map.Entry<String, LatencyHistogram> entry : this.latencies.entrySet()) {
+				LatencyHistogram histogram = entry.getValue();
+				lines.add(String.format("%s: %d requests, p50 %d ms, p99 %d ms, "
+						+ "max %d ms", entry.getKey(), histogram.getCount(),
+						histogram.getPercentile(50) / NANOS_PER_MILLISECOND,
+						histogram.getPercentile(99) / NANOS_PER_MILLISECOND,
+						histogram.getMax() / NANOS_PER_MILLISECOND));
+			}
+		}
+		return lines;
+	}
+
+	/**
+	 * Records the latency of one request.
+	 */
+	private void recordLatency(final String endpoint, final long nanos) {
+		synchronized (this.latencies) {
+			this.latencies.computeIfAbsent(endpoint, key -> new LatencyHistogram())
+					.record(nanos);
+		}
+	}
+}
@@ -95,6 +95,20 @@ public final class InputManager implements KeyListener {
         return keys[keyCode];
     }
 
+    /**
+     * Sets the state of a key directly, for input that does not come from
+     * the keyboard, such as scripted or replayed input.
+     * 
+     * @param keyCode
+     *            Key number to change.
+     * @param pressed
+     *            New key state.
+     */
+    public void setKeyState(final int keyCode, final boolean pressed) {
+        if (keyCode >= 0 && keyCode < NUM_KEYS)
+            keys[keyCode] = pressed;
+    }
+
     /**
      * Changes the state of the key to pressed.
      * 
@@ -0,0 +1,105 @@
+package engine;
+
+/**
+ * Input a game tick runs with, latched from the InputManager once at the
+ * start of the tick. Key and mouse events keep arriving on the event thread
+ * while the tick runs, so the tick, and the recording of its input, read
+ * only this copy: an event landing mid-tick is then seen by the next tick,
+ * both live and in the replay.
+ */
+public final class InputSnapshot {
+
+	/** Number of key codes tracked. */
+	private static final int NUM_KEYS = 256;
+
+	/** Key states of the tick. */
+	private final boolean[] keys;
+	/** Mouse X-coordinate of the tick. */
+	private int mouseX;
+	/** Mouse Y-coordinate of the tick. */
+	private int mouseY;
+	/** Mouse button state of the tick. */
+	private boolean mousePressed;
+
+	/**
+	 * Constructor, with no key or button pressed.
+	 */
+	public InputSnapshot() {
+		this.keys = new boolean[NUM_KEYS];
+	}
+
+	/**
+	 * Copies the current keyboard and mouse state.
+	 *
+	 * @param inputManager
+	 *            Input manager the events arrive in.
+	 */
+	public void latch(final InputManager inputManager) {
+		for (int key = 0; key < NUM_KEYS; key++)
+			this.keys[key] = inputManager.isKeyDown(key);
+		this.mouseX = InputManager.getMouseX();
+		this.mouseY = InputManager.getMouseY();
+		this.mousePressed = InputManager.isMousePressed();
+	}
+
+	/**
+	 * Checks if a key is pressed in this tick.
+	 *
+	 * @param keyCode
+	 *            Key number to check.
+	 * @return Key state.
+	 */
+	public boolean isKeyDown(final int keyCode) {
+		return this.keys[keyCode];
+	}
+
+	/**
+	 * Sets the state of a key, for replayed input.
+	 *
+	 * @param keyCode
+	 *            Key number to change.
+	 * @param pressed
+	 *            New key state.
+	 */
+	public void setKeyState(final int keyCode, final boolean pressed) {
+		if (keyCode >= 0 && keyCode < NUM_KEYS)
+			this.keys[keyCode] = pressed;
+	}
+
+	/**
+	 * Sets the state of the mouse, for replayed input.
+	 *
+	 * @param x
+	 *            New X-coordinate.
+	 * @param y
+	 *            New Y-coordinate.
+	 * @param pressed
+	 *            New state of the primary button.
+	 */
+	public void setMouseState(final int x, final int y, final boolean pressed) {
+		this.mouseX = x;
+		this.mouseY = y;
+		this.mousePressed = pressed;
+	}
+
+	/**
+	 * @return The X-coordinate of the mouse in this tick.
+	 */
+	public int getMouseX() {
+		return this.mouseX;
+	}
+
+	/**
+	 * @return The Y-coordinate of the mouse in this tick.
+	 */
+	public int getMouseY() {
+		return this.mouseY;
+	}
+
+	/**
+	 * @return True if the primary mouse button is pressed in this tick.
+	 */
+	public boolean isMousePressed() {
+		return this.mousePressed;
+	}
+}
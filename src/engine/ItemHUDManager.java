@@ -15,12 +15,13 @@ import java.util.Map;
 import entity.Ship;
 import entity.ShopItem;
 import entity.DropItem;
-import screen.GameScreen;
 import screen.Screen;
 
 /**
  * Manages the display of items in the HUD, including tooltips and visual effects.
  * It handles both permanent shop upgrades and temporary dropped items in a unified way.
+ * Items are added on the game thread and drawn on the render thread, so the
+ * public methods are synchronized.
  *
  * @author Team 8 - HUD Implementation (Refactored)
  */
@@ -54,11 +55,11 @@ public class ItemHUDManager {
 
         public ActiveItemInfo(DisplayableItem item) {
             this.item = item;
-            this.displayStartTime = System.currentTimeMillis();
+            this.displayStartTime = GameClock.currentTimeMillis();
         }
 
         public boolean isExpired() {
-            return System.currentTimeMillis() - displayStartTime > DROPPED_ITEM_DISPLAY_DURATION;
+            return GameClock.currentTimeMillis() - displayStartTime > DROPPED_ITEM_DISPLAY_DURATION;
         }
     }
 
@@ -77,12 +78,12 @@ public class ItemHUDManager {
         return instance;
     }
 
-    public void initialize(Screen screen) {
+    public synchronized void initialize(Screen screen) {
         int totalFixedWidth = permanentItems.size() * ITEM_SQUARE_SIZE + (permanentItems.size() - 1) * SQUARE_SPACING;
         this.startX = screen.getWidth() - totalFixedWidth - 20;
     }
 
-    public void addActiveItem(DisplayableItem item) {
+    public synchronized void addActiveItem(DisplayableItem item) {
         cleanupExpiredItems();
         if (activeItems.size() < MAX_DYNAMIC_ITEMS) {
             activeItems.add(new ActiveItemInfo(item));
@@ -100,11 +101,11 @@ public class ItemHUDManager {
      * Triggers a visual flash effect on a specific item in the HUD.
      * @param item The item to flash.
      */
-    public void triggerFlash(DisplayableItem item) {
+    public synchronized void triggerFlash(DisplayableItem item) {
         flashTimers.put(item, FLASH_DURATION_FRAMES);
     }
 
-    public void update(int mouseX, int mouseY) {
+    public synchronized void update(int mouseX, int mouseY) {
         // Update hover state
         this.hoveredItem = null;
         for (int i = 0; i < itemRects.size(); i++) {
@@ -129,14 +130,38 @@ public class ItemHUDManager {
         }
     }
 
-    public void drawItems(Screen screen, Graphics graphics) {
+    /**
+     * Returns how much of the shield of a ship is left, for drawItems(). Read
+     * on the game thread, so the HUD can be drawn on another one.
+     *
+     * @param ship The player ship, or null.
+     * @return Fraction of the shield left, or -1 if the ship has none.
+     */
+    public static double getShieldLeft(Ship ship) {
+        if (ship == null || !ship.isInvincible()) {
+            return -1;
+        }
+        Cooldown shieldCooldown = ship.getShieldCooldown();
+        int totalDuration = shieldCooldown.getDuration();
+        long remaining = shieldCooldown.getRemainingMilliseconds();
+        return (totalDuration > 0) ? (double)remaining / (double)totalDuration : 0;
+    }
+
+    /**
+     * Draws the item squares and the tooltip of the hovered one.
+     *
+     * @param screen     Screen to draw on.
+     * @param graphics   Graphics to draw with.
+     * @param shieldLeft Fraction of the shield left, -1 if there is none.
+     */
+    public synchronized void drawItems(Screen screen, Graphics graphics, double shieldLeft) {
         cleanupExpiredItems();
         itemRects.clear();
         rectItems.clear();
 
         int x = startX;
         for (DisplayableItem item : permanentItems) {
-            drawItemSquare(screen, graphics, x, PERMANENT_ITEMS_Y, item);
+            drawItemSquare(graphics, x, PERMANENT_ITEMS_Y, item, shieldLeft);
             Rectangle rect = new Rectangle(x, PERMANENT_ITEMS_Y, ITEM_SQUARE_SIZE, ITEM_SQUARE_SIZE);
             itemRects.add(rect);
             rectItems.add(item);
@@ -148,7 +173,7 @@ public class ItemHUDManager {
             int currentX = x + i * (ITEM_SQUARE_SIZE + SQUARE_SPACING);
             if (i < activeItems.size()) {
                 ActiveItemInfo itemInfo = activeItems.get(i);
-                drawItemSquare(screen, graphics, currentX, ACTIVE_ITEMS_Y, itemInfo.item);
+                drawItemSquare(graphics, currentX, ACTIVE_ITEMS_Y, itemInfo.item, shieldLeft);
                 Rectangle rect = new Rectangle(currentX, ACTIVE_ITEMS_Y, ITEM_SQUARE_SIZE, ITEM_SQUARE_SIZE);
                 itemRects.add(rect);
                 rectItems.add(itemInfo.item);
@@ -162,7 +187,7 @@ public class ItemHUDManager {
         }
     }
 
-    private void drawItemSquare(Screen screen, Graphics graphics, int x, int y, DisplayableItem item) {
+    private void drawItemSquare(Graphics graphics, int x, int y, DisplayableItem item, double shieldLeft) {
         int level = 0;
         boolean isActive = false;
 
@@ -192,13 +217,9 @@ public class ItemHUDManager {
         }
 
         // Cooldown VFX
-        if (item == DropItem.ItemType.Shield && screen instanceof GameScreen) {
-            Ship ship = ((GameScreen) screen).getShip();
-            if (ship != null && ship.isInvincible()) {
-                Cooldown shieldCooldown = ship.getShieldCooldown();
-                int totalDuration = shieldCooldown.getDuration();
-                long remaining = shieldCooldown.getRemainingMilliseconds();
-                double percent = (totalDuration > 0) ? (double)remaining / (double)totalDuration : 0;
+        if (item == DropItem.ItemType.Shield) {
+            if (shieldLeft >= 0) {
+                double percent = shieldLeft;
 
                 Graphics2D g2d = (Graphics2D) graphics.create();
                 g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
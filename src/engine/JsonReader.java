@@ -0,0 +1,696 @@
+package engine;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+/**
+ * Pull parser reading a JSON document one token at a time from a stream.
+ * Only a small buffer of the input is held, so documents of any size are
+ * read in constant memory, and values are decoded straight from the buffer:
+ * numbers are parsed without going through a String, and names can be
+ * matched against the expected ones without allocating.
+ *
+ * <pre>
+ * reader.beginObject();
+ * while (reader.hasNext()) {
+ *     switch (reader.selectName(NAMES)) {
+ *         case 0: name = reader.nextString(); break;
+ *         case 1: score = reader.nextInt(); break;
+ *         default: reader.skipValue(); break;
+ *     }
+ * }
+ * reader.endObject();
+ * </pre>
+ */
+public final class JsonReader implements Closeable {
+
+	/**
+	 * Kinds of tokens.
+	 */
+	public enum Token {
+		/** Start of an object. */
+		BEGIN_OBJECT,
+		/** End of an object. */
+		END_OBJECT,
+		/** Start of an array. */
+		BEGIN_ARRAY,
+		/** End of an array. */
+		END_ARRAY,
+		/** Name of an object member. */
+		NAME,
+		/** String value. */
+		STRING,
+		/** Number value. */
+		NUMBER,
+		/** true or false. */
+		BOOLEAN,
+		/** null. */
+		NULL,
+		/** End of the document. */
+		END_DOCUMENT
+	}
+
+	/** Characters read from the stream at a time. */
+	private static final int BUFFER_SIZE = 1024;
+
+	/** Before the top level value. */
+	private static final int EMPTY_DOCUMENT = 0;
+	/** After the top level value. */
+	private static final int NONEMPTY_DOCUMENT = 1;
+	/** In an array, before its first value. */
+	private static final int EMPTY_ARRAY = 2;
+	/** In an array, after a value. */
+	private static final int NONEMPTY_ARRAY = 3;
+	/** In an object, before its first member. */
+	private static final int EMPTY_OBJECT = 4;
+	/** In an object, after a name. */
+	private static final int DANGLING_NAME = 5;
+	/** In an object, after a value. */
+	private static final int NONEMPTY_OBJECT = 6;
+
+	/** Stream the document is read from. */
+	private final Reader in;
+	/** Characters read from the stream. */
+	private final char[] buffer;
+	/** Position of the next character in the buffer. */
+	private int position;
+	/** Number of characters in the buffer. */
+	private int limit;
+	/** Characters read before the buffer. */
+	private long offset;
+	/** Line being read, from 1. */
+	private int line;
+	/** Offset of the first character of the line being read. */
+	private long lineStart;
+	/** Line of the last token peeked. */
+	private int tokenLine;
+	/** Column of the last token peeked. */
+	private int tokenColumn;
+
+	/** Scopes being read, innermost last. */
+	private int[] scopes;
+	/** Number of scopes being read. */
+	private int depth;
+	/** Next token, if it has been peeked. */
+	private Token peeked;
+	/** Text of the last string, name or number read, reused. */
+	private final StringBuilder text;
+	/** If the last whole number parsed fits in a long. */
+	private boolean fitsLong;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param in
+	 *            Stream to read the document from.
+	 */
+	public JsonReader(final Reader in) {
+		this.in = in;
+		this.buffer = new char[BUFFER_SIZE];
+		this.scopes = new int[16];
+		this.scopes[this.depth++] = EMPTY_DOCUMENT;
+		this.text = new StringBuilder();
+		this.line = 1;
+	}
+
+	/**
+	 * Returns the kind of the next token, without reading it.
+	 *
+	 * @return Kind of the next token.
+	 * @throws IOException
+	 *             If the stream fails or the document is malformed.
+	 */
+	public Token peek() throws IOException {
+		if (this.peeked != null)
+			return this.peeked;
+
+		int c;
+		switch (this.scopes[this.depth - 1]) {
+		case EMPTY_DOCUMENT:
+			this.scopes[this.depth - 1] = NONEMPTY_DOCUMENT;
+			break;
+		case NONEMPTY_DOCUMENT:
+			if (nextNonWhitespace() != -1)
+				throw syntaxError("Expected the end of the document");
+			return this.peeked = Token.END_DOCUMENT;
+		case EMPTY_ARRAY:
+			this.scopes[this.depth - 1] = NONEMPTY_ARRAY;
+			c = nextNonWhitespace();
+			if (c == ']')
+				return this.peeked = Token.END_ARRAY;
+			unread(c);
+			break;
+		case NONEMPTY_ARRAY:
+			c = nextNonWhitespace();
+			if (c == ']')
+				return this.peeked = Token.END_ARRAY;
+			if (c != ',')
+				throw syntaxError("Expected ',' or ']'");
+			break;
+		case EMPTY_OBJECT:
+		case NONEMPTY_OBJECT:
+			c = nextNonWhitespace();
+			if (c == '}')
+				return this.peeked = Token.END_OBJECT;
+			if (this.scopes[this.depth - 1] == NONEMPTY_OBJECT) {
+				if (c != ',')
+					throw syntaxError("Expected ',' or '}'");
+				c = nextNonWhitespace();
+			}
+			markToken();
+			if (c != '"')
+				throw syntaxError("Expected a name");
+			this.scopes[this.depth - 1] = DANGLING_NAME;
+			return this.peeked = Token.NAME;
+		case DANGLING_NAME:
+			if (nextNonWhitespace() != ':')
+				throw syntaxError("Expected ':'");
+			this.scopes[this.depth - 1] = NONEMPTY_OBJECT;
+			break;
+		default:
+			throw new IllegalStateException();
+		}
+
+		c = nextNonWhitespace();
+		markToken();
+		switch (c) {
+		case '{':
+			return this.peeked = Token.BEGIN_OBJECT;
+		case '[':
+			return this.peeked = Token.BEGIN_ARRAY;
+		case '"':
+			return this.peeked = Token.STRING;
+		case 't':
+		case 'f':
+			this.position--;
+			return this.peeked = Token.BOOLEAN;
+		case 'n':
+			this.position--;
+			return this.peeked = Token.NULL;
+		default:
+			if (c == '-' || (c >= '0' && c <= '9')) {
+				this.position--;
+				return this.peeked = Token.NUMBER;
+			}
+			throw syntaxError("Expected a value");
+		}
+	}
+
+	/**
+	 * Checks if the current object or array has more elements.
+	 *
+	 * @return False at the end of the object, array or document.
+	 * @throws IOException
+	 *             If the stream fails or the document is malformed.
+	 */
+	public boolean hasNext() throws IOException {
+		Token token = peek();
+		return token != Token.END_OBJECT && token != Token.END_ARRAY
+				&& token != Token.END_DOCUMENT;
+	}
+
+	/**
+	 * Reads the start of an object.
+	 *
+	 * @throws IOException
+	 *             If the next token is not the start of an object.
+	 */
+	public void beginObject() throws IOException {
+		expect(Token.BEGIN_OBJECT);
+		push(EMPTY_OBJECT);
+	}
+
+	/**
+	 * Reads the end of an object.
+	 *
+	 * @throws IOException
+	 *             If the next token is not the end of an object.
+	 */
+	public void endObject() throws IOException {
+		expect(Token.END_OBJECT);
+		this.depth--;
+	}
+
+	/**
+	 * Reads the start of an array.
+	 *
+	 * @throws IOException
+	 *             If the next token is not the start of an array.
+	 */
+	public void beginArray() throws IOException {
+		expect(Token.BEGIN_ARRAY);
+		push(EMPTY_ARRAY);
+	}
+
+	/**
+	 * Reads the end of an array.
+	 *
+	 * @throws IOException
+	 *             If the next token is not the end of an array.
+	 */
+	public void endArray() throws IOException {
+		expect(Token.END_ARRAY);
+		this.depth--;
+	}
+
+	/**
+	 * Reads the name of an object member.
+	 *
+	 * @return Name of the member.
+	 * @throws IOException
+	 *             If the next token is not a name.
+	 */
+	public String nextName() throws IOException {
+		expect(Token.NAME);
+		readQuoted();
+		return this.text.toString();
+	}
+
+	/**
+	 * Reads the name of an object member and looks it up among the expected
+	 * ones, without allocating.
+	 *
+	 * @param names
+	 *            Expected names.
+	 * @return Index of the name, or -1 if it is not expected.
+	 * @throws IOException
+	 *             If the next token is not a name.
+	 */
+	public int selectName(final String[] names) throws IOException {
+		expect(Token.NAME);
+		readQuoted();
+		for (int i = 0; i < names.length; i++)
+			if (names[i].contentEquals(this.text))
+				return i;
+		return -1;
+	}
+
+	/**
+	 * Reads a string value. Numbers are returned as written.
+	 *
+	 * @return The string.
+	 * @throws IOException
+	 *             If the next token is not a string or a number.
+	 */
+	public String nextString() throws IOException {
+		Token token = peek();
+		this.peeked = null;
+		if (token == Token.STRING)
+			readQuoted();
+		else if (token == Token.NUMBER)
+			readNumber();
+		else
+			throw syntaxError("Expected a string but was " + token);
+		return this.text.toString();
+	}
+
+	/**
+	 * Reads a number value, as a Long if it is a whole number that fits, as
+	 * a Double otherwise.
+	 *
+	 * @return The number.
+	 * @throws IOException
+	 *             If the next token is not a number.
+	 */
+	public Number nextNumber() throws IOException {
+		expect(Token.NUMBER);
+		if (readNumber()) {
+			long value = parseLong();
+			if (this.fitsLong)
+				return value;
+		}
+		return parseDouble();
+	}
+
+	/**
+	 * Reads a whole number value.
+	 *
+	 * @return The number.
+	 * @throws IOException
+	 *             If the next token is not a number fitting in a long.
+	 */
+	public long nextLong() throws IOException {
+		expect(Token.NUMBER);
+		if (readNumber()) {
+			long value = parseLong();
+			if (this.fitsLong)
+				return value;
+		}
+		double value = parseDouble();
+		if (value != (long) value)
+			throw syntaxError("Expected a whole number but was " + this.text);
+		return (long) value;
+	}
+
+	/**
+	 * Reads a whole number value.
+	 *
+	 * @return The number.
+	 * @throws IOException
+	 *             If the next token is not a number fitting in an int.
+	 */
+	public int nextInt() throws IOException {
+		long value = nextLong();
+		if (value != (int) value)
+			throw syntaxError("Expected an int but was " + value);
+		return (int) value;
+	}
+
+	/**
+	 * Reads a number value.
+	 *
+	 * @return The number.
+	 * @throws IOException
+	 *             If the next token is not a number.
+	 */
+	public double nextDouble() throws IOException {
+		expect(Token.NUMBER);
+		readNumber();
+		return parseDouble();
+	}
+
+	/**
+	 * Reads a boolean value.
+	 *
+	 * @return The boolean.
+	 * @throws IOException
+	 *             If the next token is not true or false.
+	 */
+	public boolean nextBoolean() throws IOException {
+		expect(Token.BOOLEAN);
+		if (read() == 't') {
+			readLiteral("rue");
+			return true;
+		}
+		readLiteral("alse");
+		return false;
+	}
+
+	/**
+	 * Reads a null value.
+	 *
+	 * @throws IOException
+	 *             If the next token is not null.
+	 */
+	public void nextNull() throws IOException {
+		expect(Token.NULL);
+		readLiteral("null");
+	}
+
+	/**
+	 * Skips the next value, with everything it contains.
+	 *
+	 * @throws IOException
+	 *             If the stream fails or the document is malformed.
+	 */
+	public void skipValue() throws IOException {
+		int skipDepth = 0;
+		do {
+			switch (peek()) {
+			case BEGIN_OBJECT:
+				beginObject();
+				skipDepth++;
+				break;
+			case BEGIN_ARRAY:
+				beginArray();
+				skipDepth++;
+				break;
+			case END_OBJECT:
+				endObject();
+				skipDepth--;
+				break;
+			case END_ARRAY:
+				endArray();
+				skipDepth--;
+				break;
+			case NAME:
+			case STRING:
+				this.peeked = null;
+				readQuoted();
+				break;
+			case NUMBER:
+				this.peeked = null;
+				readNumber();
+				break;
+			case BOOLEAN:
+				nextBoolean();
+				break;
+			case NULL:
+				nextNull();
+				break;
+			default:
+				throw syntaxError("Expected a value");
+			}
+		} while (skipDepth > 0);
+	}
+
+	/**
+	 * Getter for the line of the last name or value peeked.
+	 *
+	 * @return Line, from 1.
+	 */
+	public int getLine() {
+		return this.tokenLine;
+	}
+
+	/**
+	 * Getter for the column of the last name or value peeked.
+	 *
+	 * @return Column, from 1.
+	 */
+	public int getColumn() {
+		return this.tokenColumn;
+	}
+
+	/**
+	 * Closes the stream.
+	 *
+	 * @throws IOException
+	 *             If the stream fails to close.
+	 */
+	@Override
+	public void close() throws IOException {
+		this.in.close();
+	}
+
+	/**
+	 * Reads the next token, checking its kind.
+	 */
+	private void expect(final Token expected) throws IOException {
+		Token token = peek();
+		if (token != expected)
+			throw syntaxError("Expected " + expected + " but was " + token);
+		this.peeked = null;
+	}
+
+	/**
+	 * Remembers the location of the character just read, the first of the
+	 * next token.
+	 */
+	private void markToken() {
+		this.tokenLine = this.line;
+		this.tokenColumn = (int) (this.offset + this.position - this.lineStart);
+	}
+
+	/**
+	 * Enters an object or array.
+	 */
+	private void push(final int scope) {
+		if (this.depth == this.scopes.length)
+			this.scopes = Arrays.copyOf(this.scopes, this.depth * 2);
+		this.scopes[this.depth++] = scope;
+	}
+
+	/**
+	 * Reads a string whose opening quote has been read into the text.
+	 */
+	private void readQuoted() throws IOException {
+		this.text.setLength(0);
+		while (true) {
+			// Copies the run of plain characters left in the buffer at once.
+			int start = this.position;
+			int end = start;
+			while (end < this.limit) {
+				char plain = this.buffer[end];
+				if (plain == '"' || plain == '\\')
+					break;
+				end++;
+			}
+			this.text.append(this.buffer, start, end - start);
+			this.position = end;
+
+			int c = read();
+			if (c == '"')
+				return;
+			if (c == -1)
+				throw syntaxError("Unclosed string");
+			if (c != '\\') {
+				this.text.append((char) c);
+				continue;
+			}
+			c = read();
+			switch (c) {
+			case 'b': this.text.append('\b'); break;
+			case 'f': this.text.append('\f'); break;
+			case 'n': this.text.append('\n'); break;
+			case 'r': this.text.append('\r'); break;
+			case 't': this.text.append('\t'); break;
+			case 'u':
+				int code = 0;
+				for (int i = 0; i < 4; i++) {
+					int digit = Character.digit(read(), 16);
+					if (digit < 0)
+						throw syntaxError("Invalid unicode escape");
+					code = code * 16 + digit;
+				}
+				this.text.append((char) code);
+				break;
+			case -1:
+				throw syntaxError("Unclosed string");
+			default:
+				this.text.append((char) c);
+				break;
+			}
+		}
+	}
+
+	/**
+	 * Reads a number into the text.
+	 *
+	 * @return True if it is written as a whole number.
+	 */
+	private boolean readNumber() throws IOException {
+		this.text.setLength(0);
+		boolean whole = true;
+		while (true) {
+			// Copies the run of digits left in the buffer at once.
+			int start = this.position;
+			int end = start;
+			while (end < this.limit && this.buffer[end] >= '0' && this.buffer[end] <= '9')
+				end++;
+			this.text.append(this.buffer, start, end - start);
+			this.position = end;
+
+			int c = read();
+			if (c == '-' || c == '+' || (c >= '0' && c <= '9')) {
+				this.text.append((char) c);
+			} else if (c == '.' || c == 'e' || c == 'E') {
+				this.text.append((char) c);
+				whole = false;
+			} else {
+				unread(c);
+				return whole;
+			}
+		}
+	}
+
+	/**
+	 * Parses the whole number in the text without allocating, setting
+	 * fitsLong.
+	 *
+	 * @return The number, if it fits in a long.
+	 */
+	private long parseLong() throws IOException {
+		this.fitsLong = false;
+		int length = this.text.length();
+		boolean negative = length > 0 && this.text.charAt(0) == '-';
+		int start = negative ? 1 : 0;
+		if (start == length)
+			throw syntaxError("Invalid number " + this.text);
+		long value = 0;
+		for (int i = start; i < length; i++) {
+			int digit = this.text.charAt(i) - '0';
+			if (digit < 0 || digit > 9)
+				throw syntaxError("Invalid number " + this.text);
+			// Accumulated negatively, so Long.MIN_VALUE fits.
+			if (value < (Long.MIN_VALUE + digit) / 10)
+				return 0;
+			value = value * 10 - digit;
+		}
+		if (!negative) {
+			if (value == Long.MIN_VALUE)
+				return 0;
+			value = -value;
+		}
+		this.fitsLong = true;
+		return value;
+	}
+
+	/**
+	 * Parses the number in the text.
+	 */
+	private double parseDouble() throws IOException {
+		try {
+			return Double.parseDouble(this.text.toString());
+		} catch (NumberFormatException e) {
+			throw syntaxError("Invalid number " + this.text);
+		}
+	}
+
+	/**
+	 * Reads the expected characters of a literal.
+	 */
+	private void readLiteral(final String literal) throws IOException {
+		for (int i = 0; i < literal.length(); i++)
+			if (read() != literal.charAt(i))
+				throw syntaxError("Invalid literal");
+	}
+
+	/**
+	 * Reads the next character that is not whitespace.
+	 *
+	 * @return The character, or -1 at the end of the stream.
+	 */
+	private int nextNonWhitespace() throws IOException {
+		int c;
+		do {
+			c = read();
+			if (c == '\n') {
+				this.line++;
+				this.lineStart = this.offset + this.position;
+			}
+		} while (c == ' ' || c == '\n' || c == '\r' || c == '\t');
+		return c;
+	}
+
+	/**
+	 * Reads the next character. The last character read can be read again
+	 * by stepping the position back.
+	 *
+	 * @return The character, or -1 at the end of the stream.
+	 */
+	private int read() throws IOException {
+		if (this.position == this.limit) {
+			this.offset += this.limit;
+			this.position = 0;
+			this.limit = 0;
+			int count;
+			do {
+				count = this.in.read(this.buffer, 0, this.buffer.length);
+			} while (count == 0);
+			if (count < 0)
+				return -1;
+			this.limit = count;
+		}
+		return this.buffer[this.position++];
+	}
+
+	/**
+	 * Steps back over the last character read, unless it was the end of the
+	 * stream.
+	 */
+	private void unread(final int c) {
+		if (c != -1)
+			this.position--;
+	}
+
+	/**
+	 * Creates an exception locating a syntax error.
+	 */
+	private IOException syntaxError(final String message) {
+		return new IOException(message + " at line " + this.line + ", column "
+				+ (this.offset + this.position - this.lineStart));
+	}
+}
@@ -0,0 +1,128 @@
+package engine;
+
+import java.util.Arrays;
+
+/**
+ * Histogram of durations in nanoseconds, with buckets that grow with the
+ * value: every power of two is split in 16 buckets, so any percentile is
+ * within about 6% of the exact value. Recording does not allocate.
+ */
+public final class LatencyHistogram {
+
+	/** Bits of the value kept below its highest bit. */
+	private static final int SUB_BUCKET_BITS = 4;
+	/** Buckets per power of two. */
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	/** Buckets needed to cover every positive long. */
+	private static final int BUCKETS = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+	/** Number of values in each bucket. */
+	private final long[] counts;
+	/** Number of values recorded. */
+	private long count;
+	/** Sum of the values recorded. */
+	private long sum;
+	/** Largest value recorded. */
+	private long max;
+
+	/**
+	 * Constructor.
+	 */
+	public LatencyHistogram() {
+		this.counts = new long[BUCKETS];
+	}
+
+	/**
+	 * Records a duration.
+	 *
+	 * @param nanos
+	 *            Duration in nanoseconds, negative values count as 0.
+	 */
+	public void record(final long nanos) {
+		long value = Math.max(0, nanos);
+		this.counts[bucketOf(value)]++;
+		this.count++;
+		this.sum += value;
+		if (value > this.max)
+			this.max = value;
+	}
+
+	/**
+	 * Returns a percentile of the recorded durations.
+	 *
+	 * @param percentile
+	 *            Percentile, between 0 and 100.
+	 * @return Upper bound of the bucket holding the percentile, capped at the
+	 *         largest value, or 0 if nothing was recorded.
+	 */
+	public long getPercentile(final double percentile) {
+		if (this.count == 0)
+			return 0;
+		long rank = Math.max(1, (long) Math.ceil(this.count * percentile / 100.0));
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += this.counts[i];
+			if (seen >= rank)
+				return Math.min(upperBoundOf(i), this.max);
+		}
+		return this.max;
+	}
+
+	/**
+	 * Getter for the number of recorded durations.
+	 *
+	 * @return Number of values recorded.
+	 */
+	public long getCount() {
+		return this.count;
+	}
+
+	/**
+	 * Returns the mean of the recorded durations.
+	 *
+	 * @return Mean in nanoseconds, 0 if nothing was recorded.
+	 */
+	public long getMean() {
+		return this.count == 0 ? 0 : this.sum / this.count;
+	}
+
+	/**
+	 * Getter for the largest recorded duration.
+	 *
+	 * @return Largest value in nanoseconds.
+	 */
+	public long getMax() {
+		return this.max;
+	}
+
+	/**
+	 * Forgets every recorded duration.
+	 */
+	public void reset() {
+		Arrays.fill(this.counts, 0);
+		this.count = 0;
+		this.sum = 0;
+		this.max = 0;
+	}
+
+	/**
+	 * Returns the bucket of a value.
+	 */
+	private static int bucketOf(final long value) {
+		if (value < SUB_BUCKETS)
+			return (int) value;
+		int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+		return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+	}
+
+	/**
+	 * Returns the largest value of a bucket.
+	 */
+	private static long upperBoundOf(final int bucket) {
+		if (bucket < SUB_BUCKETS)
+			return bucket;
+		int shift = bucket / SUB_BUCKETS - 1;
+		long base = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+		return base + (1L << shift) - 1;
+	}
+}
@@ -0,0 +1,152 @@
+package engine;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Walks a leaderboard of the backend page by page, each page being fetched
+ * when it is asked for. The backend sends, with every page but the last,
+ * the cursor the next page starts after, so a page deep down the
+ * leaderboard costs the backend no more than the first one.
+ *
+ * <pre>
+ * LeaderboardPages pages = ApiClient.getInstance()
+ * 		.getLeaderboardPages(LeaderboardPages.Period.WEEKLY, 50);
+ * while (pages.hasNext())
+ * 	show(pages.next());
+ * </pre>
+ *
+ * Requests are made on the calling thread; a failed one is thrown as an
+ * UncheckedIOException, and can be retried by calling next() again.
+ */
+public final class LeaderboardPages implements Iterator<List<Score>> {
+
+	/**
+	 * Leaderboards of the backend.
+	 */
+	public enum Period {
+		/** Every score ever logged. */
+		ALL_TIME("/scores"),
+		/** Best scores of the last 7 days. */
+		WEEKLY("/scores/weekly"),
+		/** Best scores of the last 365 days. */
+		YEARLY("/scores/yearly");
+
+		/** Path of the leaderboard. */
+		private final String path;
+
+		/**
+		 * Constructor.
+		 */
+		Period(final String path) {
+			this.path = path;
+		}
+	}
+
+	/** Largest number of scores the backend sends in a page. */
+	public static final int MAX_PAGE_SIZE = 100;
+	/** Header holding the cursor of the next page. */
+	private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+	/** Transport the pages are fetched with. */
+	private final HttpTransport transport;
+	/** Leaderboard walked. */
+	private final Period period;
+	/** Number of scores per page. */
+	private final int pageSize;
+	/** Cursor of the next page, null for the first one. */
+	private String cursor;
+	/** If the last page has been read. */
+	private boolean done;
+
+	/**
+	 * Constructor. Nothing is fetched until the first page is asked for.
+	 *
+	 * @param transport
+	 *            Transport to fetch the pages with.
+	 * @param period
+	 *            Leaderboard to walk.
+	 * @param pageSize
+	 *            Number of scores per page, up to MAX_PAGE_SIZE.
+	 */
+	public LeaderboardPages(final HttpTransport transport, final Period period,
+			final int pageSize) {
+		if (pageSize < 1 || pageSize > MAX_PAGE_SIZE)
+			throw new IllegalArgumentException("Page size must be between 1 and "
+					+ MAX_PAGE_SIZE + ": " + pageSize);
+		this.transport = transport;
+		this.period = period;
+		this.pageSize = pageSize;
+	}
+
+	/**
+	 * Checks if there are more pages. Only known once a page has been read:
+	 * the first page is always there, and is empty for an empty leaderboard.
+	 *
+	 * @return False once the last page has been read.
+	 */
+	@Override
+	public boolean hasNext() {
+		return !this.done;
+	}
+
+	/**
+	 * Fetches the next page.
+	 *
+	 * @return Scores of the page, best first.
+	 * @throws NoSuchElementException
+	 *             If the last page has been read.
+	 * @throws UncheckedIOException
+	 *             If the request fails or is interrupted.
+	 */
+	@Override
+	public List<Score> next() {
+		if (this.done)
+			throw new NoSuchElementException();
+		try {
+			return fetch();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new UncheckedIOException(new InterruptedIOException(
+					"Interrupted while fetching a leaderboard page"));
+		}
+	}
+
+	/**
+	 * Fetches the page after the cursor, and moves the cursor past it.
+	 */
+	private List<Score> fetch() throws IOException, InterruptedException {
+		String query = "?limit=" + this.pageSize;
+		if (this.cursor != null)
+			query += "&cursor=" + URLEncoder.encode(this.cursor, StandardCharsets.UTF_8);
+		HttpRequest request = this.transport.request(this.period.path + query)
+				.GET()
+				.build();
+		HttpResponse<InputStream> response = this.transport.send(
+				"GET " + this.period.path, request,
+				HttpResponse.BodyHandlers.ofInputStream());
+
+		try (JsonReader reader = new JsonReader(new InputStreamReader(
+				response.body(), StandardCharsets.UTF_8))) {
+			if (response.statusCode() != 200)
+				throw new IOException("Failed to fetch a page of " + this.period.path
+						+ ", status " + response.statusCode());
+			List<Score> scores = ApiClient.readScores(reader);
+			this.cursor = response.headers().firstValue(NEXT_CURSOR_HEADER).orElse(null);
+			this.done = this.cursor == null;
+			return scores;
+		}
+	}
+}
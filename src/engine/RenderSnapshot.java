@@ -0,0 +1,162 @@
+package engine;
+
+import java.awt.Color;
+import java.util.Arrays;
+
+import engine.DrawManager.SpriteType;
+import entity.Entity;
+import entity.FinalBoss;
+
+/**
+ * What a tick left on screen, copied out of the entities so it can be drawn
+ * on another thread while the next tick runs. Holds one sprite per entity
+ * drawn, in drawing order, with its position at the start and at the end of
+ * the tick so the drawing can interpolate between them.
+ *
+ * Snapshots are reused from frame to frame through a TripleBuffer: the game
+ * thread clears and fills one, then publishes it, and from then on only
+ * the render thread reads it. Arrays only grow, so a running game fills its
+ * snapshots without allocating.
+ */
+public class RenderSnapshot {
+
+	/** Number of sprites a new snapshot has room for. */
+	private static final int INITIAL_CAPACITY = 256;
+
+	/** Number of sprites held. */
+	int count;
+	/** Position of each sprite in the X axis at the start of the tick. */
+	int[] previousX;
+	/** Position of each sprite in the Y axis at the start of the tick. */
+	int[] previousY;
+	/** Position of each sprite in the X axis at the end of the tick. */
+	int[] positionX;
+	/** Position of each sprite in the Y axis at the end of the tick. */
+	int[] positionY;
+	/** Width of each sprite, for its outline. */
+	int[] width;
+	/** Height of each sprite, for its outline. */
+	int[] height;
+	/** If each sprite is outlined, as the final boss is. */
+	boolean[] outlined;
+	/** Type of each sprite. */
+	SpriteType[] spriteType;
+	/** Color of each sprite. */
+	Color[] color;
+
+	/** Number of the tick captured, 0 if none was. */
+	private long tick;
+	/** System time at which the tick was captured, in nanoseconds. */
+	private long captureNanos;
+
+	/**
+	 * Constructor, with an empty snapshot of no tick.
+	 */
+	public RenderSnapshot() {
+		this.previousX = new int[INITIAL_CAPACITY];
+		this.previousY = new int[INITIAL_CAPACITY];
+		this.positionX = new int[INITIAL_CAPACITY];
+		this.positionY = new int[INITIAL_CAPACITY];
+		this.width = new int[INITIAL_CAPACITY];
+		this.height = new int[INITIAL_CAPACITY];
+		this.outlined = new boolean[INITIAL_CAPACITY];
+		this.spriteType = new SpriteType[INITIAL_CAPACITY];
+		this.color = new Color[INITIAL_CAPACITY];
+	}
+
+	/**
+	 * Empties the snapshot, to capture a new tick.
+	 *
+	 * @param tick
+	 *            Number of the tick about to be captured, from 1.
+	 */
+	public final void clear(final long tick) {
+		Arrays.fill(this.spriteType, 0, this.count, null);
+		Arrays.fill(this.color, 0, this.count, null);
+		this.count = 0;
+		this.tick = tick;
+		this.captureNanos = System.nanoTime();
+	}
+
+	/**
+	 * Adds an entity drawn where it is, without interpolation.
+	 *
+	 * @param entity
+	 *            Entity to draw.
+	 */
+	public final void add(final Entity entity) {
+		add(entity, entity.getPositionX(), entity.getPositionY());
+	}
+
+	/**
+	 * Adds an entity moving every tick, drawn between where it was at the
+	 * start of the tick and where it is now.
+	 *
+	 * @param entity
+	 *            Entity to draw.
+	 */
+	public final void addMoving(final Entity entity) {
+		add(entity, entity.getInterpolatedX(0f), entity.getInterpolatedY(0f));
+	}
+
+	/**
+	 * Adds an entity, moving from a given position to its current one.
+	 */
+	private void add(final Entity entity, final int fromX, final int fromY) {
+		if (this.count == this.spriteType.length)
+			grow();
+		int i = this.count++;
+		this.previousX[i] = fromX;
+		this.previousY[i] = fromY;
+		this.positionX[i] = entity.getPositionX();
+		this.positionY[i] = entity.getPositionY();
+		this.width[i] = entity.getWidth();
+		this.height[i] = entity.getHeight();
+		this.outlined[i] = entity instanceof FinalBoss;
+		this.spriteType[i] = entity.getSpriteType();
+		this.color[i] = entity.getColor();
+	}
+
+	/**
+	 * Doubles the room for sprites.
+	 */
+	private void grow() {
+		int capacity = this.spriteType.length * 2;
+		this.previousX = Arrays.copyOf(this.previousX, capacity);
+		this.previousY = Arrays.copyOf(this.previousY, capacity);
+		this.positionX = Arrays.copyOf(this.positionX, capacity);
+		this.positionY = Arrays.copyOf(this.positionY, capacity);
+		this.width = Arrays.copyOf(this.width, capacity);
+		this.height = Arrays.copyOf(this.height, capacity);
+		this.outlined = Arrays.copyOf(this.outlined, capacity);
+		this.spriteType = Arrays.copyOf(this.spriteType, capacity);
+		this.color = Arrays.copyOf(this.color, capacity);
+	}
+
+	/**
+	 * Getter for the number of sprites.
+	 *
+	 * @return Number of sprites held.
+	 */
+	public final int getCount() {
+		return this.count;
+	}
+
+	/**
+	 * Getter for the number of the tick captured.
+	 *
+	 * @return Number of the tick, 0 if the snapshot was never filled.
+	 */
+	public final long getTick() {
+		return this.tick;
+	}
+
+	/**
+	 * Getter for the time the tick was captured at.
+	 *
+	 * @return System time of the capture, in nanoseconds.
+	 */
+	public final long getCaptureNanos() {
+		return this.captureNanos;
+	}
+}
@@ -0,0 +1,133 @@
+package engine;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Draws the snapshots published by the game thread, on a thread of its own,
+ * so slow drawing never holds back the game logic. Once per frame it takes
+ * the latest snapshot from a TripleBuffer and draws it, interpolated by the
+ * time passed since its tick was captured. If no tick was captured since
+ * the last frame, the same snapshot is drawn again, further along.
+ *
+ * @param <T>
+ *            Type of the snapshots.
+ */
+public final class RenderThread<T extends RenderSnapshot> {
+
+	/**
+	 * Draws one snapshot.
+	 *
+	 * @param <T>
+	 *            Type of the snapshots.
+	 */
+	public interface Renderer<T> {
+		/**
+		 * Draws a snapshot.
+		 *
+		 * @param snapshot
+		 *            Snapshot to draw.
+		 * @param alpha
+		 *            Fraction of the next tick already elapsed, between 0
+		 *            and 1.
+		 */
+		void render(T snapshot, float alpha);
+	}
+
+	/** Nanoseconds in one second. */
+	private static final long NANOS_PER_SECOND = 1000000000L;
+
+	/** Application logger. */
+	private static final Logger LOGGER = Core.getLogger();
+
+	/** Snapshots published by the game thread. */
+	private final TripleBuffer<T> snapshots;
+	/** Draws the snapshots. */
+	private final Renderer<T> renderer;
+	/** Length of a tick and of a frame, in nanoseconds. */
+	private final long frameNanos;
+	/** Thread drawing the snapshots. */
+	private final Thread thread;
+	/** If the thread should keep drawing. */
+	private volatile boolean running;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param snapshots
+	 *            Snapshots published by the game thread.
+	 * @param renderer
+	 *            Draws the snapshots.
+	 * @param fps
+	 *            Ticks per second of the game, and frames per second drawn.
+	 */
+	public RenderThread(final TripleBuffer<T> snapshots,
+			final Renderer<T> renderer, final int fps) {
+		this.snapshots = snapshots;
+		this.renderer = renderer;
+		this.frameNanos = NANOS_PER_SECOND / fps;
+		this.thread = new Thread(this::renderLoop, "render");
+		this.thread.setDaemon(true);
+	}
+
+	/**
+	 * Starts drawing.
+	 */
+	public void start() {
+		this.running = true;
+		this.thread.start();
+	}
+
+	/**
+	 * Stops drawing, returning once the frame being drawn, if any, is done.
+	 */
+	public void stop() {
+		this.running = false;
+		LockSupport.unpark(this.thread);
+		try {
+			this.thread.join(TimeUnit.SECONDS.toMillis(1));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Checks if the thread is still drawing. It stops on its own if drawing a
+	 * frame fails, leaving the drawing to the caller.
+	 *
+	 * @return True until stopped or failed.
+	 */
+	public boolean isAlive() {
+		return this.thread.isAlive();
+	}
+
+	/**
+	 * Draws one frame per frame time until stopped.
+	 */
+	private void renderLoop() {
+		long next = System.nanoTime();
+		while (this.running) {
+			T snapshot = this.snapshots.acquire();
+			if (snapshot.getTick() > 0) {
+				float alpha = (float) (System.nanoTime()
+						- snapshot.getCaptureNanos()) / this.frameNanos;
+				try {
+					this.renderer.render(snapshot, Math.min(1f, alpha));
+				} catch (RuntimeException e) {
+					LOGGER.log(Level.SEVERE, "Rendering failed, stopping the "
+							+ "render thread", e);
+					return;
+				}
+			}
+
+			next += this.frameNanos;
+			long sleep = next - System.nanoTime();
+			if (sleep > 0)
+				LockSupport.parkNanos(sleep);
+			else
+				next = System.nanoTime();
+		}
+	}
+}
@@ -0,0 +1,338 @@
+package engine;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Recording of one game screen session: what is needed to start the level
+ * again exactly as it was played, the input changes of every tick, and the
+ * outcome to check a playback against.
+ *
+ * The binary format is a "INVR" magic, a version, the fixed size header
+ * fields, then the input events. Each event is a tick delta, then either a
+ * key code and its new state or a mouse position and button state.
+ */
+public final class Replay {
+
+	/** First bytes of a replay file, "INVR". */
+	private static final int MAGIC = 0x494E5652;
+	/** Version of the file format. */
+	private static final int VERSION = 1;
+
+	/** Event kind for a key being released. */
+	static final int KEY_RELEASED = 0;
+	/** Event kind for a key being pressed. */
+	static final int KEY_PRESSED = 1;
+	/** Event kind for a change of the mouse state. */
+	static final int MOUSE = 2;
+
+	/** Cheats enabled, bit for invincibility. */
+	static final int CHEAT_INVINCIBLE = 1;
+	/** Cheats enabled, bit for infinite lives. */
+	static final int CHEAT_INFINITE_LIVES = 2;
+	/** Cheats enabled, bit for the maximum score. */
+	static final int CHEAT_MAX_SCORE = 4;
+	/** Cheats enabled, bit for weaker enemies. */
+	static final int CHEAT_DECREASE_ENEMY_POWER = 8;
+	/** Cheats enabled, bit for unlimited coins. */
+	static final int CHEAT_UNLIMITED_COINS = 16;
+
+	/** Width of the game screen. */
+	final int width;
+	/** Height of the game screen. */
+	final int height;
+	/** Frames per second the session was played at. */
+	final int fps;
+	/** Seed of the game random number service at the start of the level. */
+	final long seed;
+	/** Simulated clock at the start of the level, in nanoseconds. */
+	final long clockStart;
+	/** Number of the level played. */
+	final int level;
+	/** Score at the start of the level. */
+	final int score;
+	/** Lives at the start of the level, before any bonus life. */
+	final int lives;
+	/** Bullets shot before the level. */
+	final int bulletsShot;
+	/** Ships destroyed before the level. */
+	final int shipsDestroyed;
+	/** Coins at the start of the level. */
+	final int coin;
+	/** If a bonus life was given at the start of the level. */
+	final boolean bonusLife;
+	/** Maximum number of lives. */
+	final int maxLives;
+	/** Shop upgrade levels: multi shot, rapid fire, penetration, bullet speed, ship speed. */
+	final int[] upgrades;
+	/** Cheats enabled, as CHEAT_ bits. */
+	final int cheats;
+	/** Input events, encoded. */
+	final byte[] events;
+	/** Number of ticks the session lasted. */
+	final long ticks;
+	/** Score at the end of the session. */
+	final int finalScore;
+	/** Lives at the end of the session. */
+	final int finalLives;
+
+	/**
+	 * Constructor.
+	 */
+	Replay(final int width, final int height, final int fps, final long seed,
+			final long clockStart, final int level, final int score, final int lives,
+			final int bulletsShot, final int shipsDestroyed, final int coin,
+			final boolean bonusLife, final int maxLives, final int[] upgrades,
+			final int cheats, final byte[] events,
+			final long ticks, final int finalScore, final int finalLives) {
+		this.width = width;
+		this.height = height;
+		this.fps = fps;
+		this.seed = seed;
+		this.clockStart = clockStart;
+		this.level = level;
+		this.score = score;
+		this.lives = lives;
+		this.bulletsShot = bulletsShot;
+		this.shipsDestroyed = shipsDestroyed;
+		this.coin = coin;
+		this.bonusLife = bonusLife;
+		this.maxLives = maxLives;
+		this.upgrades = upgrades;
+		this.cheats = cheats;
+		this.events = events;
+		this.ticks = ticks;
+		this.finalScore = finalScore;
+		this.finalLives = finalLives;
+	}
+
+	/**
+	 * Writes the replay.
+	 *
+	 * @param output
+	 *            Stream to write to, left open.
+	 * @throws IOException
+	 *             In case of writing problems.
+	 */
+	public void write(final OutputStream output) throws IOException {
+		DataOutputStream data = new DataOutputStream(output);
+		data.writeInt(MAGIC);
+		data.writeShort(VERSION);
+		data.writeShort(this.width);
+		data.writeShort(this.height);
+		data.writeShort(this.fps);
+		data.writeLong(this.seed);
+		data.writeLong(this.clockStart);
+		data.writeInt(this.level);
+		data.writeInt(this.score);
+		data.writeInt(this.lives);
+		data.writeInt(this.bulletsShot);
+		data.writeInt(this.shipsDestroyed);
+		data.writeInt(this.coin);
+		data.writeBoolean(this.bonusLife);
+		data.writeInt(this.maxLives);
+		data.writeByte(this.upgrades.length);
+		for (int upgrade : this.upgrades)
+			data.writeByte(upgrade);
+		data.writeInt(this.cheats);
+		data.writeLong(this.ticks);
+		data.writeInt(this.finalScore);
+		data.writeInt(this.finalLives);
+		data.writeInt(this.events.length);
+		data.write(this.events);
+		data.flush();
+	}
+
+	/**
+	 * Reads a replay.
+	 *
+	 * @param input
+	 *            Stream to read from, left open.
+	 * @return Replay read.
+	 * @throws IOException
+	 *             In case of reading problems, or if the data is not a replay
+	 *             of a supported version.
+	 */
+	public static Replay read(final InputStream input) throws IOException {
+		DataInputStream data = new DataInputStream(input);
+		if (data.readInt() != MAGIC)
+			throw new IOException("Not a replay file.");
+		int version = data.readUnsignedShort();
+		if (version != VERSION)
+			throw new IOException("Unsupported replay version " + version + ".");
+
+		int width = data.readUnsignedShort();
+		int height = data.readUnsignedShort();
+		int fps = data.readUnsignedShort();
+		long seed = data.readLong();
+		long clockStart = data.readLong();
+		int level = data.readInt();
+		int score = data.readInt();
+		int lives = data.readInt();
+		int bulletsShot = data.readInt();
+		int shipsDestroyed = data.readInt();
+		int coin = data.readInt();
+		boolean bonusLife = data.readBoolean();
+		int maxLives = data.readInt();
+		int[] upgrades = new int[data.readUnsignedByte()];
+		for (int i = 0; i < upgrades.length; i++)
+			upgrades[i] = data.readUnsignedByte();
+		int cheats = data.readInt();
+		long ticks = data.readLong();
+		int finalScore = data.readInt();
+		int finalLives = data.readInt();
+		byte[] events = new byte[data.readInt()];
+		data.readFully(events);
+
+		return new Replay(width, height, fps, seed, clockStart, level, score, lives,
+				bulletsShot, shipsDestroyed, coin, bonusLife, maxLives, upgrades, cheats,
+				events, ticks, finalScore, finalLives);
+	}
+
+	/**
+	 * Saves the replay to a file.
+	 *
+	 * @param path
+	 *            File to write.
+	 * @throws IOException
+	 *             In case of writing problems.
+	 */
+	public void save(final Path path) throws IOException {
+		try (OutputStream output = new BufferedOutputStream(
+				Files.newOutputStream(path))) {
+			write(output);
+		}
+	}
+
+	/**
+	 * Saves the replay into a directory, named after its level and seed.
+	 *
+	 * @param directory
+	 *            Directory to write into, created if missing.
+	 * @return File written.
+	 * @throws IOException
+	 *             In case of writing problems.
+	 */
+	public Path saveInto(final Path directory) throws IOException {
+		Files.createDirectories(directory);
+		Path path = directory.resolve("level" + this.level + "-"
+				+ Long.toHexString(this.seed) + ".replay");
+		save(path);
+		return path;
+	}
+
+	/**
+	 * Loads a replay from a file.
+	 *
+	 * @param path
+	 *            File to read.
+	 * @return Replay read.
+	 * @throws IOException
+	 *             In case of reading problems.
+	 */
+	public static Replay load(final Path path) throws IOException {
+		try (InputStream input = new BufferedInputStream(
+				Files.newInputStream(path))) {
+			return read(input);
+		}
+	}
+
+	/**
+	 * Creates the game state the session started from.
+	 *
+	 * @return Game state with a random number service seeded as recorded.
+	 */
+	public GameState createGameState() {
+		return new GameState(this.level, this.score, this.lives,
+				this.bulletsShot, this.shipsDestroyed, this.coin,
+				new GameRandom(this.seed));
+	}
+
+	/**
+	 * Getter for the level number.
+	 *
+	 * @return Number of the level played.
+	 */
+	public int getLevel() {
+		return this.level;
+	}
+
+	/**
+	 * Getter for the bonus life.
+	 *
+	 * @return True if a bonus life was given at the start of the level.
+	 */
+	public boolean hasBonusLife() {
+		return this.bonusLife;
+	}
+
+	/**
+	 * Getter for the maximum number of lives.
+	 *
+	 * @return Maximum number of lives.
+	 */
+	public int getMaxLives() {
+		return this.maxLives;
+	}
+
+	/**
+	 * Getter for the screen width.
+	 *
+	 * @return Width of the game screen.
+	 */
+	public int getWidth() {
+		return this.width;
+	}
+
+	/**
+	 * Getter for the screen height.
+	 *
+	 * @return Height of the game screen.
+	 */
+	public int getHeight() {
+		return this.height;
+	}
+
+	/**
+	 * Getter for the frame rate.
+	 *
+	 * @return Frames per second the session was played at.
+	 */
+	public int getFps() {
+		return this.fps;
+	}
+
+	/**
+	 * Getter for the length of the session.
+	 *
+	 * @return Number of ticks the session lasted.
+	 */
+	public long getTicks() {
+		return this.ticks;
+	}
+
+	/**
+	 * Getter for the final score.
+	 *
+	 * @return Score at the end of the session.
+	 */
+	public int getFinalScore() {
+		return this.finalScore;
+	}
+
+	/**
+	 * Getter for the final lives.
+	 *
+	 * @return Lives at the end of the session.
+	 */
+	public int getFinalLives() {
+		return this.finalLives;
+	}
+}
@@ -0,0 +1,301 @@
+package engine;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import audio.SoundManager;
+import engine.level.LevelManager;
+import entity.ShopItem;
+import screen.GameScreen;
+
+/**
+ * Plays a Replay back: feeds the recorded input to a game screen started
+ * from the recorded state, then checks that the session ended the same way.
+ * Playback runs either at real speed in a frame, or headless as fast as the
+ * game logic allows.
+ *
+ * Usage: ReplayPlayer FILE [--headless] [--render] [--verbose]
+ */
+public final class ReplayPlayer {
+
+	/** Nanoseconds in one second. */
+	private static final long NANOS_PER_SECOND = 1000000000L;
+	/** Number of key codes tracked. */
+	private static final int NUM_KEYS = 256;
+
+	/** Application logger. */
+	private static final Logger LOGGER = Core.getLogger();
+
+	/** Recording played back. */
+	private final Replay replay;
+	/** Key states as of the last applied event. */
+	private final boolean[] keys;
+	/** Mouse X-coordinate as of the last applied event. */
+	private int mouseX;
+	/** Mouse Y-coordinate as of the last applied event. */
+	private int mouseY;
+	/** Mouse button state as of the last applied event. */
+	private boolean mousePressed;
+	/** Position of the next event in the encoded events. */
+	private int position;
+	/** Tick of the next event, -1 when there are no more. */
+	private long nextEventTick;
+
+	/** If the session has ended. */
+	private boolean finished;
+	/** Number of ticks the playback lasted. */
+	private long ticks;
+	/** Score at the end of the playback. */
+	private int finalScore;
+	/** Lives at the end of the playback. */
+	private int finalLives;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param replay
+	 *            Recording to play back.
+	 */
+	public ReplayPlayer(final Replay replay) {
+		this.replay = replay;
+		this.keys = new boolean[NUM_KEYS];
+		this.nextEventTick = replay.events.length > 0 ? readVarInt() : -1;
+	}
+
+	/**
+	 * Runs a replay from the command line.
+	 *
+	 * @param args
+	 *            Program args, see the class documentation.
+	 */
+	public static void main(final String[] args) {
+		String file = null;
+		boolean headless = false;
+		boolean render = false;
+		boolean verbose = false;
+		for (int i = 0; i < args.length; i++) {
+			if ("--headless".equals(args[i]))
+				headless = true;
+			else if ("--render".equals(args[i]))
+				render = true;
+			else if ("--verbose".equals(args[i]))
+				verbose = true;
+			else if (file == null && !args[i].startsWith("--"))
+				file = args[i];
+			else
+				exitWithUsage();
+		}
+		if (file == null)
+			exitWithUsage();
+
+		if (headless)
+			System.setProperty("java.awt.headless", "true");
+		if (!verbose)
+			LOGGER.setLevel(Level.WARNING);
+		SoundManager.cutAllSound();
+
+		Replay replay;
+		try {
+			replay = Replay.load(Paths.get(file));
+		} catch (IOException e) {
+			System.err.println("Could not read " + file + ": " + e.getMessage());
+			System.exit(2);
+			return;
+		}
+
+		ReplayPlayer player = new ReplayPlayer(replay);
+		long start = System.nanoTime();
+		if (headless) {
+			player.runHeadless(LevelManager.getInstance(), render);
+		} else {
+			Frame frame = new Frame(Core.WIDTH, Core.HEIGHT);
+			DrawManager.getInstance().setFrame(frame);
+			player.runInFrame(frame, LevelManager.getInstance());
+		}
+		long elapsed = System.nanoTime() - start;
+
+		System.out.println(player.report(elapsed));
+		System.exit(player.isVerified() ? 0 : 1);
+	}
+
+	/**
+	 * Prints the command line usage and exits.
+	 */
+	private static void exitWithUsage() {
+		System.err.println("Usage: ReplayPlayer FILE [--headless] "
+				+ "[--render] [--verbose]");
+		System.exit(2);
+	}
+
+	/**
+	 * Plays the replay back headless, as fast as possible, on the simulated
+	 * clock.
+	 *
+	 * @param levelManager
+	 *            Levels to load the recorded level from.
+	 * @param render
+	 *            If the ticks are also drawn offscreen.
+	 */
+	public void runHeadless(final LevelManager levelManager, final boolean render) {
+		final long tickNanos = NANOS_PER_SECOND / this.replay.fps;
+		// A replay that never ends on its own is cut once it runs past the
+		// recording, so a diverging playback cannot loop forever.
+		final long maxTicks = this.replay.ticks * 2 + this.replay.fps * 60L;
+		boolean wasSimulated = GameClock.isSimulated();
+		GameClock.useSimulatedNanoTime(this.replay.clockStart);
+		try {
+			GameScreen screen = createScreen(levelManager);
+			screen.initialize();
+			for (long i = 0; i < maxTicks && screen.step(render); i++)
+				GameClock.advance(tickNanos);
+		} finally {
+			if (!wasSimulated)
+				GameClock.useSystemTime();
+		}
+	}
+
+	/**
+	 * Plays the replay back at real speed in a frame, on the simulated clock
+	 * driven by the screen's fixed timestep.
+	 *
+	 * @param frame
+	 *            Frame to show the game on.
+	 * @param levelManager
+	 *            Levels to load the recorded level from.
+	 */
+	public void runInFrame(final Frame frame, final LevelManager levelManager) {
+		GameClock.useSimulatedNanoTime(this.replay.clockStart);
+		try {
+			frame.setScreen(createScreen(levelManager));
+		} finally {
+			GameClock.useSystemTime();
+		}
+	}
+
+	/**
+	 * Creates the game screen of the recorded session, with the recorded
+	 * upgrades and cheats, fed by this player.
+	 */
+	private GameScreen createScreen(final LevelManager levelManager) {
+		int[] upgrades = this.replay.upgrades;
+		ShopItem.setMultiShotLevel(upgrades[0]);
+		ShopItem.setRapidFireLevel(upgrades[1]);
+		ShopItem.setPenetrationLevel(upgrades[2]);
+		ShopItem.setBulletSpeedLevel(upgrades[3]);
+		ShopItem.setSHIPSPEED(upgrades[4]);
+
+		int cheats = this.replay.cheats;
+		GameState.setInvincible((cheats & Replay.CHEAT_INVINCIBLE) != 0);
+		GameState.setInfiniteLives((cheats & Replay.CHEAT_INFINITE_LIVES) != 0);
+		GameState.setMaxScoreActive((cheats & Replay.CHEAT_MAX_SCORE) != 0);
+		GameState.setDecreaseEnemyPower(
+				(cheats & Replay.CHEAT_DECREASE_ENEMY_POWER) != 0);
+		GameState.setUnlimitedCoins((cheats & Replay.CHEAT_UNLIMITED_COINS) != 0);
+
+		GameScreen screen = new GameScreen(this.replay.createGameState(),
+				levelManager.getLevel(this.replay.level), this.replay.bonusLife,
+				this.replay.maxLives, this.replay.width, this.replay.height,
+				this.replay.fps);
+		screen.setReplayPlayer(this);
+		return screen;
+	}
+
+	/**
+	 * Sets the recorded input state for a tick about to be run.
+	 *
+	 * @param input
+	 *            Input the tick runs with.
+	 * @param tick
+	 *            Number of the tick, counted from the start of the session.
+	 */
+	public void apply(final InputSnapshot input, final long tick) {
+		while (this.nextEventTick >= 0 && this.nextEventTick <= tick) {
+			int kind = this.replay.events[this.position++];
+			if (kind == Replay.MOUSE) {
+				int x = readVarInt();
+				int y = readVarInt();
+				this.mouseX = (x >>> 1) ^ -(x & 1);
+				this.mouseY = (y >>> 1) ^ -(y & 1);
+				this.mousePressed = this.replay.events[this.position++] != 0;
+			} else {
+				int key = this.replay.events[this.position++] & 0xFF;
+				this.keys[key] = kind == Replay.KEY_PRESSED;
+			}
+			this.nextEventTick = this.position < this.replay.events.length
+					? this.nextEventTick + readVarInt() : -1;
+		}
+
+		// The whole state is set every tick, so keys pressed on a real
+		// keyboard during playback are overridden.
+		for (int key = 0; key < NUM_KEYS; key++)
+			input.setKeyState(key, this.keys[key]);
+		input.setMouseState(this.mouseX, this.mouseY, this.mousePressed);
+	}
+
+	/**
+	 * Ends the playback.
+	 *
+	 * @param ticks
+	 *            Number of ticks the session lasted.
+	 * @param finalScore
+	 *            Score at the end of the session.
+	 * @param finalLives
+	 *            Lives at the end of the session.
+	 */
+	public void finish(final long ticks, final int finalScore,
+			final int finalLives) {
+		this.finished = true;
+		this.ticks = ticks;
+		this.finalScore = finalScore;
+		this.finalLives = finalLives;
+	}
+
+	/**
+	 * Checks if the playback ended exactly as the recording.
+	 *
+	 * @return True if the session ended on the same tick with the same score
+	 *         and lives.
+	 */
+	public boolean isVerified() {
+		return this.finished && this.ticks == this.replay.ticks
+				&& this.finalScore == this.replay.finalScore
+				&& this.finalLives == this.replay.finalLives;
+	}
+
+	/**
+	 * Summarizes the playback.
+	 *
+	 * @param elapsedNanos
+	 *            Wall clock time taken by the playback.
+	 * @return Human readable report.
+	 */
+	public String report(final long elapsedNanos) {
+		double seconds = elapsedNanos / (double) NANOS_PER_SECOND;
+		if (!this.finished)
+			return String.format("Replay of level %d did not end, recorded "
+					+ "%d ticks: NOT VERIFIED.", this.replay.level,
+					this.replay.ticks);
+		return String.format("Replayed level %d in %.2f s: %d ticks, score %d, "
+				+ "lives %d; recorded %d ticks, score %d, lives %d: %s.",
+				this.replay.level, seconds, this.ticks, this.finalScore,
+				this.finalLives, this.replay.ticks, this.replay.finalScore,
+				this.replay.finalLives, isVerified() ? "verified" : "NOT VERIFIED");
+	}
+
+	/**
+	 * Reads a number written in 7 bit groups, low group first.
+	 */
+	private int readVarInt() {
+		int value = 0;
+		int shift = 0;
+		byte b;
+		do {
+			b = this.replay.events[this.position++];
+			value |= (b & 0x7F) << shift;
+			shift += 7;
+		} while ((b & 0x80) != 0);
+		return value;
+	}
+}
@@ -0,0 +1,181 @@
+package engine;
+
+import java.io.ByteArrayOutputStream;
+
+import entity.ShopItem;
+
+/**
+ * Records the input of a game screen session, tick by tick, into a Replay.
+ * Only changes are stored: a key that is held for a whole level costs two
+ * events. The session must run on the simulated clock and start with a
+ * fresh random number service, so that playing the input back from the same
+ * time and seed reproduces it exactly.
+ */
+public final class ReplayRecorder {
+
+	/** Number of key codes tracked. */
+	private static final int NUM_KEYS = 256;
+
+	/** Game state the session started from. */
+	private final GameState startState;
+	/** If a bonus life was given at the start of the level. */
+	private final boolean bonusLife;
+	/** Maximum number of lives. */
+	private final int maxLives;
+	/** Width of the game screen. */
+	private final int width;
+	/** Height of the game screen. */
+	private final int height;
+	/** Frames per second of the session. */
+	private final int fps;
+	/** Shop upgrade levels at the start of the session. */
+	private final int[] upgrades;
+	/** Cheats enabled at the start of the session. */
+	private final int cheats;
+	/** Simulated clock at the start of the session, in nanoseconds. */
+	private final long clockStart;
+
+	/** Encoded input events. */
+	private final ByteArrayOutputStream events;
+	/** Key states as of the last recorded tick. */
+	private final boolean[] keys;
+	/** Mouse X-coordinate as of the last recorded tick. */
+	private int mouseX;
+	/** Mouse Y-coordinate as of the last recorded tick. */
+	private int mouseY;
+	/** Mouse button state as of the last recorded tick. */
+	private boolean mousePressed;
+	/** Tick of the last recorded event. */
+	private long lastEventTick;
+
+	/** Recording, once the session is over. */
+	private Replay replay;
+
+	/**
+	 * Constructor, starts a recording. The simulated clock must already be
+	 * installed.
+	 *
+	 * @param gameState
+	 *            Game state the session starts from.
+	 * @param bonusLife
+	 *            If a bonus life is given at the start of the level.
+	 * @param maxLives
+	 *            Maximum number of lives.
+	 * @param width
+	 *            Width of the game screen.
+	 * @param height
+	 *            Height of the game screen.
+	 * @param fps
+	 *            Frames per second of the session.
+	 */
+	public ReplayRecorder(final GameState gameState, final boolean bonusLife,
+			final int maxLives, final int width, final int height,
+			final int fps) {
+		this.startState = gameState;
+		this.bonusLife = bonusLife;
+		this.maxLives = maxLives;
+		this.width = width;
+		this.height = height;
+		this.fps = fps;
+		this.upgrades = new int[] { ShopItem.getMultiShotLevel(),
+				ShopItem.getRapidFireLevel(), ShopItem.getPenetrationLevel(),
+				ShopItem.getBulletSpeedLevel(), ShopItem.getShipSpeedLevel() };
+		this.cheats = (GameState.isInvincible() ? Replay.CHEAT_INVINCIBLE : 0)
+				| (GameState.isInfiniteLives() ? Replay.CHEAT_INFINITE_LIVES : 0)
+				| (GameState.isMaxScoreActive() ? Replay.CHEAT_MAX_SCORE : 0)
+				| (GameState.isDecreaseEnemyPower()
+						? Replay.CHEAT_DECREASE_ENEMY_POWER : 0)
+				| (GameState.isUnlimitedCoins() ? Replay.CHEAT_UNLIMITED_COINS : 0);
+
+		this.clockStart = GameClock.nanoTime();
+
+		this.events = new ByteArrayOutputStream();
+		this.keys = new boolean[NUM_KEYS];
+	}
+
+	/**
+	 * Records the input state a tick is about to run with. The tick must
+	 * read the same snapshot, not the live input, for the replay to match.
+	 *
+	 * @param input
+	 *            Input the tick runs with.
+	 * @param tick
+	 *            Number of the tick, counted from the start of the session.
+	 */
+	public void record(final InputSnapshot input, final long tick) {
+		for (int key = 0; key < NUM_KEYS; key++) {
+			boolean pressed = input.isKeyDown(key);
+			if (pressed != this.keys[key]) {
+				this.keys[key] = pressed;
+				writeTick(tick);
+				this.events.write(pressed ? Replay.KEY_PRESSED : Replay.KEY_RELEASED);
+				this.events.write(key);
+			}
+		}
+
+		int x = input.getMouseX();
+		int y = input.getMouseY();
+		boolean pressed = input.isMousePressed();
+		if (x != this.mouseX || y != this.mouseY || pressed != this.mousePressed) {
+			this.mouseX = x;
+			this.mouseY = y;
+			this.mousePressed = pressed;
+			writeTick(tick);
+			this.events.write(Replay.MOUSE);
+			writeVarInt((x << 1) ^ (x >> 31));
+			writeVarInt((y << 1) ^ (y >> 31));
+			this.events.write(pressed ? 1 : 0);
+		}
+	}
+
+	/**
+	 * Ends the recording.
+	 *
+	 * @param ticks
+	 *            Number of ticks the session lasted.
+	 * @param finalScore
+	 *            Score at the end of the session.
+	 * @param finalLives
+	 *            Lives at the end of the session.
+	 */
+	public void finish(final long ticks, final int finalScore,
+			final int finalLives) {
+		GameState state = this.startState;
+		this.replay = new Replay(this.width, this.height, this.fps,
+				state.getRandom().getSeed(), this.clockStart, state.getLevel(),
+				state.getScore(), state.getLivesRemaining(),
+				state.getBulletsShot(), state.getShipsDestroyed(),
+				state.getCoin(), this.bonusLife, this.maxLives, this.upgrades,
+				this.cheats, this.events.toByteArray(), ticks, finalScore,
+				finalLives);
+	}
+
+	/**
+	 * Getter for the recording.
+	 *
+	 * @return Recording of the session, null until the session is over.
+	 */
+	public Replay getReplay() {
+		return this.replay;
+	}
+
+	/**
+	 * Writes the delta to the tick of a new event.
+	 */
+	private void writeTick(final long tick) {
+		writeVarInt((int) (tick - this.lastEventTick));
+		this.lastEventTick = tick;
+	}
+
+	/**
+	 * Writes a non negative number in 7 bit groups, low group first.
+	 */
+	private void writeVarInt(final int value) {
+		int rest = value;
+		while ((rest & ~0x7F) != 0) {
+			this.events.write((rest & 0x7F) | 0x80);
+			rest >>>= 7;
+		}
+		this.events.write(rest);
+	}
+}
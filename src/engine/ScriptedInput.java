@@ -0,0 +1,134 @@
+package engine;
+
+import java.awt.event.KeyEvent;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Drives the keyboard state from a looping script instead of a player. A
+ * script is a comma separated list of steps, each holding a set of keys for
+ * a number of ticks, such as "SPACE+A:40,SPACE+D:40". Key names are the
+ * KeyEvent constants without their VK_ prefix; a step with no keys, such as
+ * ":30", releases every key.
+ */
+public final class ScriptedInput {
+
+	/** Script strafing left and right while shooting. */
+	public static final String DEFAULT_SCRIPT = "SPACE+A:40,SPACE:20,SPACE+D:40,SPACE:20";
+
+	/** Keys held in each step. */
+	private final int[][] stepKeys;
+	/** First tick of each step, relative to the start of the loop. */
+	private final int[] stepStarts;
+	/** Every key used by the script. */
+	private final int[] usedKeys;
+	/** Ticks in one loop of the script. */
+	private final int period;
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param stepKeys
+	 *            Key codes held in each step.
+	 * @param stepTicks
+	 *            Number of ticks of each step, at least 1.
+	 */
+	public ScriptedInput(final int[][] stepKeys, final int[] stepTicks) {
+		if (stepKeys.length == 0 || stepKeys.length != stepTicks.length)
+			throw new IllegalArgumentException("A script needs one duration per step.");
+
+		this.stepKeys = stepKeys;
+		this.stepStarts = new int[stepTicks.length];
+		List<Integer> keys = new ArrayList<Integer>();
+		int ticks = 0;
+		for (int i = 0; i < stepKeys.length; i++) {
+			if (stepTicks[i] < 1)
+				throw new IllegalArgumentException("Step " + i + " lasts less than a tick.");
+			this.stepStarts[i] = ticks;
+			ticks += stepTicks[i];
+			for (int key : stepKeys[i])
+				if (!keys.contains(key))
+					keys.add(key);
+		}
+		this.period = ticks;
+		this.usedKeys = new int[keys.size()];
+		for (int i = 0; i < this.usedKeys.length; i++)
+			this.usedKeys[i] = keys.get(i);
+	}
+
+	/**
+	 * Parses a script.
+	 * 
+	 * @param script
+	 *            Script text, such as "SPACE+A:40,SPACE+D:40".
+	 * @return Scripted input.
+	 */
+	public static ScriptedInput parse(final String script) {
+		String[] steps = script.split(",");
+		int[][] stepKeys = new int[steps.length][];
+		int[] stepTicks = new int[steps.length];
+
+		for (int i = 0; i < steps.length; i++) {
+			String step = steps[i].trim();
+			int colon = step.lastIndexOf(':');
+			if (colon < 0)
+				throw new IllegalArgumentException("Missing tick count in step '" + step + "'.");
+			try {
+				stepTicks[i] = Integer.parseInt(step.substring(colon + 1).trim());
+			} catch (NumberFormatException e) {
+				throw new IllegalArgumentException("Invalid tick count in step '" + step + "'.");
+			}
+
+			String keys = step.substring(0, colon).trim();
+			if (keys.isEmpty()) {
+				stepKeys[i] = new int[0];
+				continue;
+			}
+			String[] names = keys.split("\\+");
+			stepKeys[i] = new int[names.length];
+			for (int j = 0; j < names.length; j++)
+				stepKeys[i][j] = keyCode(names[j].trim());
+		}
+		return new ScriptedInput(stepKeys, stepTicks);
+	}
+
+	/**
+	 * Looks a key code up by name.
+	 */
+	private static int keyCode(final String name) {
+		try {
+			return KeyEvent.class.getField("VK_" + name.toUpperCase()).getInt(null);
+		} catch (ReflectiveOperationException e) {
+			throw new IllegalArgumentException("Unknown key '" + name + "'.");
+		}
+	}
+
+	/**
+	 * Sets the keyboard state for a tick.
+	 * 
+	 * @param inputManager
+	 *            Input manager the screens read the keys from.
+	 * @param tick
+	 *            Number of the tick about to be run.
+	 */
+	public void apply(final InputManager inputManager, final long tick) {
+		int offset = (int) (tick % this.period);
+		int step = this.stepStarts.length - 1;
+		while (this.stepStarts[step] > offset)
+			step--;
+
+		for (int key : this.usedKeys)
+			inputManager.setKeyState(key, false);
+		for (int key : this.stepKeys[step])
+			inputManager.setKeyState(key, true);
+	}
+
+	/**
+	 * Getter for the length of the script.
+	 * 
+	 * @return Ticks in one loop of the script.
+	 */
+	public int getPeriod() {
+		return this.period;
+	}
+}
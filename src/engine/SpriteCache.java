@@ -0,0 +1,213 @@
+package engine;
+
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import engine.DrawManager.SpriteType;
+
+/**
+ * Caches sprites rasterized from their pixel masks, one image per sprite
+ * type, color and scale, so drawing a sprite costs a single drawImage call
+ * instead of one drawRect per lit pixel. The least recently used images are
+ * evicted once the cache is full, which bounds the memory taken by sprites
+ * drawn in ever-changing colors, such as the rainbow lives of the
+ * invincibility cheat.
+ */
+final class SpriteCache {
+
+	/** Maximum number of rasterized sprites kept. */
+	private static final int MAX_ENTRIES = 256;
+	/** Steps per unit of scale, scales are rounded to the nearest step. */
+	private static final int SCALE_STEPS = 16;
+	/** Scale steps standing for the natural size of a sprite. */
+	private static final int NATURAL_SIZE = 0;
+
+	/**
+	 * Identifies a rasterized sprite.
+	 */
+	private static final class Key {
+		/** Sprite type. */
+		private SpriteType spriteType;
+		/** Color as ARGB. */
+		private int argb;
+		/** Scale in steps of 1 / SCALE_STEPS, or NATURAL_SIZE. */
+		private int scaleSteps;
+
+		/**
+		 * Sets all fields of the key.
+		 *
+		 * @return This key.
+		 */
+		private Key set(final SpriteType spriteType, final int argb,
+				final int scaleSteps) {
+			this.spriteType = spriteType;
+			this.argb = argb;
+			this.scaleSteps = scaleSteps;
+			return this;
+		}
+
+		@Override
+		public boolean equals(final Object other) {
+			if (!(other instanceof Key))
+				return false;
+			Key key = (Key) other;
+			return this.spriteType == key.spriteType && this.argb == key.argb
+					&& this.scaleSteps == key.scaleSteps;
+		}
+
+		@Override
+		public int hashCode() {
+			return (this.spriteType.ordinal() * 31 + this.argb) * 31
+					+ this.scaleSteps;
+		}
+	}
+
+	/** Pixel masks of the sprites. */
+	private final Map<SpriteType, boolean[][]> spriteMap;
+	/** Rasterized sprites, in access order. */
+	private final LinkedHashMap<Key, BufferedImage> images;
+	/** Key reused for lookups, so cache hits do not allocate. */
+	private final Key probe = new Key();
+	/** Graphics configuration of the screen, null when headless. */
+	private final GraphicsConfiguration graphicsConfiguration;
+
+	/** Number of lookups served from the cache. */
+	private long hits;
+	/** Number of lookups that had to rasterize the sprite. */
+	private long misses;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param spriteMap
+	 *            Pixel masks of the sprites, by sprite type.
+	 */
+	SpriteCache(final Map<SpriteType, boolean[][]> spriteMap) {
+		this.spriteMap = spriteMap;
+		this.images = new LinkedHashMap<Key, BufferedImage>(MAX_ENTRIES, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(final Map.Entry<Key, BufferedImage> eldest) {
+				return size() > MAX_ENTRIES;
+			}
+		};
+		this.graphicsConfiguration = GraphicsEnvironment.isHeadless() ? null
+				: GraphicsEnvironment.getLocalGraphicsEnvironment()
+						.getDefaultScreenDevice().getDefaultConfiguration();
+	}
+
+	/**
+	 * Returns the sprite rasterized at its natural size, two screen pixels
+	 * per sprite pixel.
+	 *
+	 * @param spriteType
+	 *            Sprite to rasterize.
+	 * @param color
+	 *            Color of the lit pixels.
+	 * @return Rasterized sprite, or null if the sprite type is unknown.
+	 */
+	BufferedImage get(final SpriteType spriteType, final Color color) {
+		return get(spriteType, color, NATURAL_SIZE);
+	}
+
+	/**
+	 * Returns the sprite rasterized at a given scale.
+	 *
+	 * @param spriteType
+	 *            Sprite to rasterize.
+	 * @param color
+	 *            Color of the lit pixels.
+	 * @param scale
+	 *            Scale of the sprite, 1 being its natural size.
+	 * @return Rasterized sprite, or null if the sprite type is unknown.
+	 */
+	BufferedImage getScaled(final SpriteType spriteType, final Color color,
+			final float scale) {
+		return get(spriteType, color, Math.max(1, Math.round(scale * SCALE_STEPS)));
+	}
+
+	/**
+	 * Looks a sprite up, rasterizing it on a miss.
+	 */
+	private BufferedImage get(final SpriteType spriteType, final Color color,
+			final int scaleSteps) {
+		BufferedImage image = this.images.get(this.probe.set(spriteType,
+				color.getRGB(), scaleSteps));
+		if (image != null) {
+			this.hits++;
+			return image;
+		}
+
+		boolean[][] mask = this.spriteMap.get(spriteType);
+		if (mask == null || mask.length == 0)
+			return null;
+
+		this.misses++;
+		image = rasterize(mask, color, scaleSteps);
+		this.images.put(new Key().set(spriteType, color.getRGB(), scaleSteps), image);
+		return image;
+	}
+
+	/**
+	 * Draws a pixel mask into a new transparent image, with the same pixel
+	 * layout as drawing it rectangle by rectangle on screen.
+	 */
+	private BufferedImage rasterize(final boolean[][] mask, final Color color,
+			final int scaleSteps) {
+		float pixelSize;
+		int rectSize;
+		if (scaleSteps == NATURAL_SIZE) {
+			pixelSize = 2.0f;
+			rectSize = 1;
+		} else {
+			pixelSize = 2.0f * scaleSteps / SCALE_STEPS;
+			if (pixelSize < 1.0f)
+				pixelSize = 1.0f;
+			rectSize = (int) Math.ceil(pixelSize);
+		}
+
+		int width = (int) ((mask.length - 1) * pixelSize) + rectSize + 1;
+		int height = (int) ((mask[0].length - 1) * pixelSize) + rectSize + 1;
+
+		BufferedImage image = this.graphicsConfiguration != null
+				? this.graphicsConfiguration.createCompatibleImage(width, height,
+						Transparency.TRANSLUCENT)
+				: new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+		Graphics2D g = image.createGraphics();
+		g.setComposite(AlphaComposite.Src);
+		g.setColor(color);
+		for (int i = 0; i < mask.length; i++)
+			for (int j = 0; j < mask[i].length; j++)
+				if (mask[i][j])
+					g.drawRect((int) (i * pixelSize), (int) (j * pixelSize),
+							rectSize, rectSize);
+		g.dispose();
+		return image;
+	}
+
+	/**
+	 * Getter for the number of cache hits.
+	 *
+	 * @return Lookups served from the cache.
+	 */
+	long getHits() {
+		return this.hits;
+	}
+
+	/**
+	 * Getter for the number of cache misses.
+	 *
+	 * @return Lookups that rasterized a sprite.
+	 */
+	long getMisses() {
+		return this.misses;
+	}
+}
@@ -0,0 +1,71 @@
+package engine;
+
+import java.util.logging.Formatter;
+import java.util.logging.LogRecord;
+
+/**
+ * Formats log records as JSON, one object per line, for tools to read the
+ * log: the time in milliseconds since the epoch, the level, the logger, the
+ * id of the thread and the message.
+ *
+ * <pre>
+ * {"time":1700000000000,"level":"INFO","logger":"Core","thread":1,"message":"Level finished."}
+ * </pre>
+ */
+public class StructuredFormatter extends Formatter {
+
+	/** System line separator. */
+	private static final String LINE_SEPARATOR = System
+			.getProperty("line.separator");
+
+	@Override
+	public final String format(final LogRecord logRecord) {
+		StringBuilder output = new StringBuilder(128)
+				.append("{\"time\":").append(logRecord.getMillis())
+				.append(",\"level\":\"").append(logRecord.getLevel().getName())
+				.append("\",\"logger\":");
+		appendString(output, logRecord.getLoggerName());
+		output.append(",\"thread\":").append(logRecord.getLongThreadID())
+				.append(",\"message\":");
+		appendString(output, formatMessage(logRecord));
+		return output.append('}').append(LINE_SEPARATOR).toString();
+	}
+
+	/**
+	 * Appends a JSON string, or null.
+	 */
+	private static void appendString(final StringBuilder output,
+			final String value) {
+		if (value == null) {
+			output.append("null");
+			return;
+		}
+		output.append('"');
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			switch (c) {
+			case '"':
+				output.append("\\\"");
+				break;
+			case '\\':
+				output.append("\\\\");
+				break;
+			case '\n':
+				output.append("\\n");
+				break;
+			case '\r':
+				output.append("\\r");
+				break;
+			case '\t':
+				output.append("\\t");
+				break;
+			default:
+				if (c < 0x20)
+					output.append(String.format("\\u%04x", (int) c));
+				else
+					output.append(c);
+			}
+		}
+		output.append('"');
+	}
+}
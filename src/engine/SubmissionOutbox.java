@@ -0,0 +1,561 @@
+package engine;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Delivers scores and achievement unlocks to the backend in the background,
+ * surviving a slow or unreachable backend and restarts of the game.
+ *
+ * Submissions are written to an append-only journal before they are sent,
+ * and marked done in it once the backend has accepted them. Pending
+ * submissions are sent in batches over the shared transport, achievements
+ * unlocked close together going in a single request. Failed ones are
+ * retried with exponential backoff, a score carrying the same idempotency
+ * key on every attempt so the backend logs it only once. On startup,
+ * whatever the journal still holds is sent again. All the work is done on
+ * a thread of its own: submitting never blocks the caller.
+ *
+ * Journal lines are "A key userId kind value" for a new submission and
+ * "D key" for a delivered one, the value being URL encoded.
+ */
+public final class SubmissionOutbox {
+
+	/** Kinds of submissions. */
+	public enum Kind {
+		/** Score at the end of a game. */
+		SCORE,
+		/** Name of an unlocked achievement. */
+		ACHIEVEMENT
+	}
+
+	/**
+	 * Credentials of the submissions.
+	 */
+	public interface Session {
+
+		/**
+		 * Returns the token to send the submissions of a user with.
+		 *
+		 * @param userId
+		 *            User the submissions belong to.
+		 * @return Token, or null while that user is not logged in.
+		 */
+		String getToken(int userId);
+
+		/**
+		 * Called when the backend rejects a token.
+		 */
+		void invalidate();
+	}
+
+	/** Default journal file, in the working directory. */
+	public static final String DEFAULT_JOURNAL = "outbox.journal";
+	/** Default delay before the first retry, in milliseconds. */
+	public static final long DEFAULT_RETRY_DELAY = 1000;
+	/** Longest delay between retries, in milliseconds. */
+	private static final long MAX_RETRY_DELAY = 5 * 60 * 1000;
+	/** Default time achievements wait for the next ones, in milliseconds. */
+	public static final long DEFAULT_COALESCE_DELAY = 2000;
+	/** Largest number of requests sent at once. */
+	private static final int BATCH_SIZE = 16;
+	/** Largest number of achievements in one request. */
+	private static final int MAX_ACHIEVEMENTS_PER_REQUEST = 100;
+
+	/** Application logger. */
+	private static final Logger LOGGER = Core.getLogger();
+
+	/** Journal file. */
+	private final Path journal;
+	/** Transport the submissions are sent with. */
+	private final HttpTransport transport;
+	/** Credentials of the submissions. */
+	private final Session session;
+	/** Delay before the first retry, in milliseconds. */
+	private final long retryDelay;
+	/** Time achievements wait for the next ones, in milliseconds. */
+	private final long coalesceDelay;
+	/** Thread doing all the work. */
+	private final ScheduledExecutorService executor;
+
+	/** Submissions not yet delivered, by key, oldest first. */
+	private final Map<String, Entry> pending;
+	/** Writer appending to the journal. */
+	private BufferedWriter writer;
+	/** Lines written to the journal since it was last emptied. */
+	private int journalLines;
+	/** Flushes that failed in a row. */
+	private int failures;
+	/** Next flush, if one is scheduled. */
+	private ScheduledFuture<?> scheduledFlush;
+	/** If the scheduled flush is a retry after a failure. */
+	private boolean backingOff;
+	/** Called on the outbox thread whenever a score is delivered, if set. */
+	private volatile Runnable scoreListener;
+
+	/**
+	 * A submission.
+	 */
+	private static final class Entry {
+		/** Idempotency key. */
+		private final String key;
+		/** User the submission belongs to. */
+		private final int userId;
+		/** Kind of submission. */
+		private final Kind kind;
+		/** Score or achievement name. */
+		private final String value;
+
+		/**
+		 * Constructor.
+		 */
+		private Entry(final String key, final int userId, final Kind kind,
+				final String value) {
+			this.key = key;
+			this.userId = userId;
+			this.kind = kind;
+			this.value = value;
+		}
+	}
+
+	/**
+	 * Constructor, starts sending the submissions left in the journal.
+	 *
+	 * @param journal
+	 *            Journal file, created if missing.
+	 * @param transport
+	 *            Transport to send the submissions with.
+	 * @param session
+	 *            Credentials of the submissions.
+	 * @param retryDelay
+	 *            Delay before the first retry, in milliseconds; the delay
+	 *            doubles with each failure.
+	 * @param coalesceDelay
+	 *            Time an achievement waits for the next ones before being
+	 *            sent with them, in milliseconds.
+	 */
+	public SubmissionOutbox(final Path journal, final HttpTransport transport,
+			final Session session, final long retryDelay,
+			final long coalesceDelay) {
+		this.journal = journal;
+		this.transport = transport;
+		this.session = session;
+		this.retryDelay = retryDelay;
+		this.coalesceDelay = coalesceDelay;
+		this.pending = new LinkedHashMap<>();
+		this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "submission-outbox");
+			thread.setDaemon(true);
+			return thread;
+		});
+		this.executor.execute(() -> {
+			recover();
+			flush();
+		});
+	}
+
+	/**
+	 * Returns a session backed by the AuthManager.
+	 *
+	 * @return Session of the logged in user.
+	 */
+	public static Session authSession() {
+		return new Session() {
+			@Override
+			public String getToken(final int userId) {
+				AuthManager authManager = AuthManager.getInstance();
+				if (!authManager.isLoggedIn() || authManager.getUserId() != userId)
+					return null;
+				String token = authManager.getToken();
+				return token == null || token.isEmpty() ? null : token;
+			}
+
+			@Override
+			public void invalidate() {
+				AuthManager.getInstance().invalidateSession();
+			}
+		};
+	}
+
+	/**
+	 * Queues a submission. Returns at once, the submission being journaled
+	 * and sent in the background.
+	 *
+	 * @param userId
+	 *            User the submission belongs to.
+	 * @param kind
+	 *            Kind of submission.
+	 * @param value
+	 *            Score or achievement name.
+	 */
+	public void submit(final int userId, final Kind kind, final String value) {
+		Entry entry = new Entry(UUID.randomUUID().toString(), userId, kind, value);
+		this.executor.execute(() -> {
+			append("A " + entry.key + " " + entry.userId + " " + entry.kind.name()
+					+ " " + URLEncoder.encode(entry.value, StandardCharsets.UTF_8));
+			this.pending.put(entry.key, entry);
+			// A score ends the game, and goes out at once along with the
+			// achievements waiting for it. Achievements wait a little for
+			// the next ones, to be sent together.
+			if (kind == Kind.SCORE)
+				flushNow();
+			else if (this.scheduledFlush == null)
+				this.scheduledFlush = this.executor.schedule(this::flush,
+						this.coalesceDelay, TimeUnit.MILLISECONDS);
+		});
+	}
+
+	/**
+	 * Sends the queued submissions without waiting for more, as at the end
+	 * of a level or once a user logs in. Returns at once.
+	 */
+	public void send() {
+		this.executor.execute(this::flushNow);
+	}
+
+	/**
+	 * Sets what to do whenever a score is delivered, such as refreshing the
+	 * leaderboard. Runs on the outbox thread, so it must not block.
+	 *
+	 * @param listener
+	 *            Called after each delivered score, null for nothing.
+	 */
+	public void setScoreListener(final Runnable listener) {
+		this.scoreListener = listener;
+	}
+
+	/**
+	 * Returns the number of submissions not yet delivered.
+	 *
+	 * @return Pending submissions, once the queued work is done.
+	 */
+	public int getPendingCount() {
+		try {
+			return this.executor.submit(this.pending::size).get();
+		} catch (Exception e) {
+			return -1;
+		}
+	}
+
+	/**
+	 * Stops sending, and compacts the journal. Submissions not delivered yet
+	 * stay in it for the next start.
+	 *
+	 * @param timeoutMillis
+	 *            Time left to the work under way to end.
+	 */
+	public void close(final long timeoutMillis) {
+		this.executor.execute(() -> {
+			if (this.scheduledFlush != null)
+				this.scheduledFlush.cancel(false);
+			if (this.journalLines > this.pending.size())
+				rewriteJournal();
+			try {
+				if (this.writer != null)
+					this.writer.close();
+			} catch (IOException e) {
+				LOGGER.warning("Could not close the outbox journal: " + e.getMessage());
+			}
+			this.writer = null;
+		});
+		this.executor.shutdown();
+		try {
+			this.executor.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Reads the submissions left in the journal, and rewrites it with only
+	 * those.
+	 */
+	private void recover() {
+		try (BufferedReader reader = Files.newBufferedReader(this.journal,
+				StandardCharsets.UTF_8)) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				String[] fields = line.split(" ");
+				try {
+					if ("A".equals(fields[0]) && fields.length == 5) {
+						Entry entry = new Entry(fields[1], Integer.parseInt(fields[2]),
+								Kind.valueOf(fields[3]),
+								URLDecoder.decode(fields[4], StandardCharsets.UTF_8));
+						if (entry.kind == Kind.SCORE)
+							Integer.parseInt(entry.value);
+						this.pending.put(entry.key, entry);
+					}
+					else if ("D".equals(fields[0]) && fields.length == 2)
+						this.pending.remove(fields[1]);
+					else
+						LOGGER.warning("Skipping outbox journal line: " + line);
+				} catch (IllegalArgumentException e) {
+					LOGGER.warning("Skipping outbox journal line: " + line);
+				}
+			}
+		} catch (NoSuchFileException e) {
+			// Nothing left from a previous run.
+		} catch (IOException e) {
+			LOGGER.warning("Could not read the outbox journal: " + e.getMessage());
+		}
+		if (!this.pending.isEmpty())
+			LOGGER.info("Resending " + this.pending.size()
+					+ " submissions left from a previous run.");
+		rewriteJournal();
+	}
+
+	/**
+	 * Replaces the journal with the pending submissions only.
+	 */
+	private void rewriteJournal() {
+		try {
+			if (this.writer != null)
+				this.writer.close();
+			Path temporary = this.journal.resolveSibling(
+					this.journal.getFileName() + ".tmp");
+			try (BufferedWriter out = Files.newBufferedWriter(temporary,
+					StandardCharsets.UTF_8)) {
+				for (Entry entry : this.pending.values()) {
+					out.write("A " + entry.key + " " + entry.userId + " "
+							+ entry.kind.name() + " "
+							+ URLEncoder.encode(entry.value, StandardCharsets.UTF_8));
+					out.newLine();
+				}
+			}
+			Files.move(temporary, this.journal, StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+			this.journalLines = this.pending.size();
+			this.writer = Files.newBufferedWriter(this.journal,
+					StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+		} catch (IOException e) {
+			LOGGER.warning("Could not write the outbox journal: " + e.getMessage());
+			this.writer = null;
+		}
+	}
+
+	/**
+	 * Appends a line to the journal.
+	 */
+	private void append(final String line) {
+		if (this.writer == null)
+			return;
+		try {
+			this.writer.write(line);
+			this.writer.newLine();
+			this.writer.flush();
+			this.journalLines++;
+		} catch (IOException e) {
+			LOGGER.warning("Could not write the outbox journal: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Sends the pending submissions of the logged in user, a batch of
+	 * requests at a time, and schedules a retry if any is left.
+	 */
+	private void flush() {
+		this.scheduledFlush = null;
+		boolean failed = false;
+		boolean sent = true;
+		while (!failed && sent) {
+			List<List<Entry>> batch = nextBatch();
+			List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+			for (List<Entry> request : batch)
+				responses.add(send(request, this.session.getToken(request.get(0).userId)));
+			sent = !batch.isEmpty();
+
+			for (int i = 0; i < batch.size(); i++) {
+				List<Entry> request = batch.get(i);
+				String description = describe(request);
+				int status;
+				try {
+					status = responses.get(i).join().statusCode();
+				} catch (Exception e) {
+					LOGGER.warning("Could not send " + description + ": "
+							+ e.getMessage());
+					failed = true;
+					continue;
+				}
+				if (status >= 200 && status < 300) {
+					LOGGER.info("Delivered " + description + ".");
+					done(request);
+					Runnable listener = this.scoreListener;
+					if (listener != null && request.get(0).kind == Kind.SCORE)
+						listener.run();
+				} else if (status == 401 || status == 403) {
+					LOGGER.warning("Backend rejected the token for " + description
+							+ ", waiting for a new login.");
+					this.session.invalidate();
+					failed = true;
+				} else if (status == 408 || status == 429 || status >= 500) {
+					LOGGER.warning("Backend could not take " + description
+							+ ", status " + status + ".");
+					failed = true;
+				} else {
+					LOGGER.severe("Backend refused " + description + ", status "
+							+ status + ", dropping it.");
+					done(request);
+				}
+			}
+		}
+
+		if (failed) {
+			this.failures++;
+			scheduleRetry();
+		} else {
+			// What is left belongs to users not logged in, and goes out once
+			// they are, through send().
+			this.failures = 0;
+			this.backingOff = false;
+			if (this.journalLines > this.pending.size())
+				rewriteJournal();
+		}
+	}
+
+	/**
+	 * Groups the pending submissions of the logged in users into requests:
+	 * one per score, and one per user for all of their achievements.
+	 *
+	 * @return Submissions of each request, at most BATCH_SIZE requests.
+	 */
+	private List<List<Entry>> nextBatch() {
+		List<List<Entry>> batch = new ArrayList<>();
+		Map<Integer, List<Entry>> achievements = new HashMap<>();
+		for (Entry entry : this.pending.values()) {
+			if (this.session.getToken(entry.userId) == null)
+				continue;
+			if (entry.kind == Kind.ACHIEVEMENT) {
+				List<Entry> request = achievements.get(entry.userId);
+				if (request != null && request.size() < MAX_ACHIEVEMENTS_PER_REQUEST) {
+					request.add(entry);
+					continue;
+				}
+				if (batch.size() == BATCH_SIZE)
+					break;
+				request = new ArrayList<>();
+				request.add(entry);
+				achievements.put(entry.userId, request);
+				batch.add(request);
+			} else {
+				if (batch.size() == BATCH_SIZE)
+					break;
+				List<Entry> request = new ArrayList<>(1);
+				request.add(entry);
+				batch.add(request);
+			}
+		}
+		return batch;
+	}
+
+	/**
+	 * Schedules the next flush, with a delay doubling with each failure and
+	 * a random part so clients do not retry in step.
+	 */
+	private void scheduleRetry() {
+		if (this.executor.isShutdown())
+			return;
+		int doublings = Math.min(Math.max(0, this.failures - 1), 20);
+		long delay = Math.min(MAX_RETRY_DELAY, this.retryDelay << doublings);
+		delay = delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+		this.backingOff = true;
+		this.scheduledFlush = this.executor.schedule(this::flush, delay,
+				TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Sends the pending submissions now, unless backing off after a failure.
+	 */
+	private void flushNow() {
+		if (this.backingOff)
+			return;
+		if (this.scheduledFlush != null)
+			this.scheduledFlush.cancel(false);
+		flush();
+	}
+
+	/**
+	 * Marks the submissions of a request delivered.
+	 */
+	private void done(final List<Entry> request) {
+		for (Entry entry : request) {
+			this.pending.remove(entry.key);
+			append("D " + entry.key);
+		}
+	}
+
+	/**
+	 * Sends the submissions of one request. A score carries its idempotency
+	 * key; achievements go in a single batch request, which needs none since
+	 * unlocking an achievement twice has no effect.
+	 */
+	private CompletableFuture<HttpResponse<String>> send(final List<Entry> request,
+			final String token) {
+		Entry first = request.get(0);
+		HttpRequest.Builder builder;
+		String endpoint;
+		if (first.kind == Kind.SCORE) {
+			endpoint = "PUT /users/{id}/score";
+			builder = this.transport.request("/users/" + first.userId + "/score")
+					.header("Idempotency-Key", first.key)
+					.PUT(HttpRequest.BodyPublishers.ofString(
+							"{\"score\": " + Integer.parseInt(first.value) + "}"));
+		} else {
+			StringBuilder names = new StringBuilder();
+			for (Entry entry : request) {
+				if (names.length() > 0)
+					names.append(", ");
+				names.append('"').append(entry.value.replace("\\", "\\\\")
+						.replace("\"", "\\\"")).append('"');
+			}
+			endpoint = "POST /users/{id}/achievements/batch";
+			builder = this.transport.request("/users/" + first.userId
+					+ "/achievements/batch")
+					.POST(HttpRequest.BodyPublishers.ofString(
+							"{\"achievement_names\": [" + names + "]}"));
+		}
+		return this.transport.sendAsync(endpoint, builder
+				.header("Content-Type", "application/json")
+				.header("Authorization", "Bearer " + token)
+				.build());
+	}
+
+	/**
+	 * Describes the submissions of a request for the log.
+	 */
+	private static String describe(final List<Entry> request) {
+		Entry first = request.get(0);
+		if (first.kind == Kind.SCORE)
+			return "score " + first.value + " of user " + first.userId;
+		StringBuilder names = new StringBuilder();
+		for (Entry entry : request) {
+			if (names.length() > 0)
+				names.append(", ");
+			names.append(entry.value);
+		}
+		return "achievements " + names + " of user " + first.userId;
+	}
+}
@@ -0,0 +1,170 @@
+package engine;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+
+/**
+ * Runs the independent updates of a game tick, such as those of the enemy
+ * formations, on the cores of the machine. Each item is updated by exactly
+ * one task and the tick only goes on once every task is done, so the result
+ * is the same whether the items were updated in parallel or one after
+ * another.
+ *
+ * Updates run this way must only touch their own item: anything drawing
+ * from the shared random streams, or adding to shared lists such as the
+ * bullets, stays on the game thread after the parallel part, in item order.
+ *
+ * Spreading a few small items across threads costs more than it saves, so
+ * by default items are only updated in parallel when there is enough work
+ * for it to pay off.
+ */
+public final class TickScheduler {
+
+	/**
+	 * Ways of running the updates.
+	 */
+	public enum Mode {
+		/** One after another, on the game thread. */
+		SERIAL,
+		/** In parallel once there is enough work. */
+		AUTO,
+		/** Always in parallel, to check that it changes nothing. */
+		PARALLEL
+	}
+
+	/**
+	 * Amount of work, in ships, from which updating in parallel pays off.
+	 * Waking the pool costs a few microseconds, about as long as moving a
+	 * couple thousand ships.
+	 */
+	public static final int PARALLEL_THRESHOLD = 2048;
+
+	/** Singleton instance of the class. */
+	private static TickScheduler instance;
+
+	/** Pool running the updates. */
+	private final ForkJoinPool pool;
+	/** Way of running the updates. */
+	private volatile Mode mode;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param pool
+	 *            Pool running the updates.
+	 * @param mode
+	 *            Way of running the updates.
+	 */
+	public TickScheduler(final ForkJoinPool pool, final Mode mode) {
+		this.pool = pool;
+		this.mode = mode;
+	}
+
+	/**
+	 * Returns the shared instance, running on the common pool.
+	 *
+	 * @return Shared instance of the class.
+	 */
+	public static synchronized TickScheduler getInstance() {
+		if (instance == null)
+			instance = new TickScheduler(ForkJoinPool.commonPool(), Mode.AUTO);
+		return instance;
+	}
+
+	/**
+	 * Changes the way of running the updates.
+	 *
+	 * @param mode
+	 *            New way of running the updates.
+	 */
+	public void setMode(final Mode mode) {
+		this.mode = mode;
+	}
+
+	/**
+	 * Getter for the way of running the updates.
+	 *
+	 * @return Way of running the updates.
+	 */
+	public Mode getMode() {
+		return this.mode;
+	}
+
+	/**
+	 * Updates every item, returning once all of them are updated. If an
+	 * update throws, the exception is thrown again here.
+	 *
+	 * @param <T>
+	 *            Type of the items.
+	 * @param items
+	 *            Items to update.
+	 * @param update
+	 *            Update of one item, touching nothing but that item.
+	 * @param work
+	 *            Estimate of the work, in ships.
+	 */
+	public <T> void runAll(final List<T> items, final Consumer<? super T> update,
+			final int work) {
+		int size = items.size();
+		if (!isParallel(size, work)) {
+			for (int i = 0; i < size; i++)
+				update.accept(items.get(i));
+			return;
+		}
+		this.pool.invoke(new Batch<T>(items, update, 0, size));
+	}
+
+	/**
+	 * Checks if updates are worth running in parallel.
+	 */
+	private boolean isParallel(final int size, final int work) {
+		switch (this.mode) {
+		case PARALLEL:
+			return size > 1;
+		case AUTO:
+			return size > 1 && work >= PARALLEL_THRESHOLD
+					&& this.pool.getParallelism() > 1;
+		default:
+			return false;
+		}
+	}
+
+	/**
+	 * Updates a range of items, splitting it in halves down to one item per
+	 * task.
+	 */
+	private static final class Batch<T> extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		/** Items to update. */
+		private final List<T> items;
+		/** Update of one item. */
+		private final Consumer<? super T> update;
+		/** First item of the range. */
+		private final int from;
+		/** Item after the last one of the range. */
+		private final int to;
+
+		Batch(final List<T> items, final Consumer<? super T> update,
+				final int from, final int to) {
+			this.items = items;
+			this.update = update;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (this.to - this.from == 1) {
+				this.update.accept(this.items.get(this.from));
+				return;
+			}
+			int middle = (this.from + this.to) >>> 1;
+			invokeAll(new Batch<T>(this.items, this.update, this.from, middle),
+					new Batch<T>(this.items, this.update, middle, this.to));
+		}
+	}
+}
@@ -0,0 +1,86 @@
+package engine;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Hands values over from one writer thread to one reader thread without
+ * either ever waiting for the other. Of its three buffers, the writer owns
+ * one and fills it, the reader owns another and reads it, and the third is
+ * the latest one published. Publishing swaps the writer's buffer with the
+ * published one, and the reader swaps its own with the published one when
+ * a newer one is there; both swaps are a single atomic exchange.
+ *
+ * The reader always gets the latest published buffer, skipping the ones it
+ * was too slow to see. Buffers are reused, so the writer must fill every
+ * part of its buffer before publishing it, and the reader must not keep a
+ * buffer once it acquires the next one.
+ *
+ * @param <T>
+ *            Type of the buffers.
+ */
+public final class TripleBuffer<T> {
+
+	/** Bits of the shared state holding the index of a buffer. */
+	private static final int INDEX = 0x3;
+	/** Bit of the shared state set while the reader has not seen it. */
+	private static final int FRESH = 0x4;
+
+	/** The three buffers. */
+	private final Object[] buffers;
+	/** Index of the published buffer, with the FRESH bit. */
+	private final AtomicInteger published;
+	/** Index of the buffer owned by the writer. */
+	private int back;
+	/** Index of the buffer owned by the reader. */
+	private int front;
+
+	/**
+	 * Constructor, creating the three buffers.
+	 *
+	 * @param factory
+	 *            Creates one buffer.
+	 */
+	public TripleBuffer(final Supplier<T> factory) {
+		this.buffers = new Object[] { factory.get(), factory.get(),
+				factory.get() };
+		this.front = 0;
+		this.published = new AtomicInteger(1);
+		this.back = 2;
+	}
+
+	/**
+	 * Returns the buffer to fill, owned by the writer until published. Only
+	 * called from the writer thread.
+	 *
+	 * @return Buffer to write to.
+	 */
+	@SuppressWarnings("unchecked")
+	public T getBack() {
+		return (T) this.buffers[this.back];
+	}
+
+	/**
+	 * Publishes the buffer filled since the last call, making it the one the
+	 * reader gets next, and hands the writer another buffer. Only called from
+	 * the writer thread.
+	 */
+	public void publish() {
+		this.back = this.published.getAndSet(this.back | FRESH) & INDEX;
+	}
+
+	/**
+	 * Returns the latest published buffer, owned by the reader until the
+	 * next call. If nothing was published since the last call, the same
+	 * buffer is returned again. Only called from the reader thread.
+	 *
+	 * @return Latest buffer, or one never written to if nothing was ever
+	 *         published.
+	 */
+	@SuppressWarnings("unchecked")
+	public T acquire() {
+		if ((this.published.get() & FRESH) != 0)
+			this.front = this.published.getAndSet(this.front) & INDEX;
+		return (T) this.buffers[this.front];
+	}
+}
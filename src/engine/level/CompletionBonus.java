@@ -5,6 +5,13 @@ import java.util.Map;
 public class CompletionBonus {
     private int currency;
 
+    /**
+     * Constructor for levels read from a compiled file.
+     */
+    CompletionBonus(int currency) {
+        this.currency = currency;
+    }
+
     public CompletionBonus(Map<String, Object> map) {
         this.currency = ((Number) map.get("currency")).intValue();
     }
@@ -6,6 +6,14 @@ public class EnemyType {
     private String type;
     private int count;
 
+    /**
+     * Constructor for levels read from a compiled file.
+     */
+    EnemyType(String type, int count) {
+        this.type = type;
+        this.count = count;
+    }
+
     public EnemyType(Map<String, Object> map) {
         this.type = (String) map.get("type");
         this.count = ((Number) map.get("count")).intValue();
@@ -8,6 +8,16 @@ public class ItemDrop {
     private String itemId;
     private double dropChance;
 
+    /**
+     * Constructor for levels read from a compiled file.
+     */
+    ItemDrop(String enemyType, String bossId, String itemId, double dropChance) {
+        this.enemyType = enemyType;
+        this.bossId = bossId;
+        this.itemId = itemId;
+        this.dropChance = dropChance;
+    }
+
     public ItemDrop(Map<String, Object> map) {
         this.enemyType = (String) map.get("enemyType");
         this.bossId = (String) map.get("bossId");
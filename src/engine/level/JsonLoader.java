@@ -1,222 +1,176 @@
 package engine.level;
 
 import java.io.IOException;
+import java.io.StringReader;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+
+import engine.JsonReader;
 
 /**
  * A simple, dependency-free JSON parser specifically designed to load level data
  * from the game's map file. This avoids the need for external libraries like Gson,
  * which is beneficial for large teams where managing dependencies is complex.
  *
- * NOTE: This is not a full-featured JSON parser. It is brittle and will likely
- * fail if the JSON structure deviates from the expected format in maps.json.
+ * The document is read with engine.JsonReader into plain maps, lists, strings,
+ * numbers (Long or Double) and booleans, which Level then reads its fields from.
  */
 @SuppressWarnings("unchecked")
 public class JsonLoader {
 
-    private final String json;
-    private int at;
-    private char ch;
+    /** Fields of an enemy formation Level reads as numbers. */
+    private static final String[] FORMATION_NUMBERS = {
+            "formationWidth", "formationHeight", "baseSpeed", "shootingFrecuency" };
 
-    private JsonLoader(String json) {
-        this.json = json;
-        this.at = 0;
-        this.ch = json.length() > 0 ? json.charAt(0) : '\0';
+    private JsonLoader() {
     }
 
     /**
      * Public entry point to parse the level data from a JSON string.
+     * Every level is checked before it is built, and a level missing a required
+     * field is reported with the line and column it starts at.
      * @param jsonContent The raw string content of the JSON file.
-     * @return A list of Level objects.
-     * @throws IOException if parsing fails.
+     * @return A list of Level objects, in file order.
+     * @throws IOException if parsing or validation fails.
      */
     public static List<Level> parse(String jsonContent) throws IOException {
-        try {
-            Map<String, Object> root = (Map<String, Object>) new JsonLoader(jsonContent).parseValue();
-            if (root == null || !root.containsKey("levels")) {
+        List<Level> levels = null;
+        try (JsonReader reader = new JsonReader(new StringReader(jsonContent))) {
+            if (reader.peek() != JsonReader.Token.BEGIN_OBJECT) {
                 throw new IOException("JSON root must be an object with a 'levels' key.");
             }
-            List<Map<String, Object>> levelMaps = (List<Map<String, Object>>) root.get("levels");
-
-            List<Level> levels = new ArrayList<>();
-            for (Map<String, Object> map : levelMaps) {
-                levels.add(new Level(map));
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if (!"levels".equals(reader.nextName())) {
+                    reader.skipValue();
+                    continue;
+                }
+                levels = new ArrayList<>();
+                Set<Integer> numbers = new HashSet<>();
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    reader.peek();
+                    String location = "line " + reader.getLine() + ", column " + reader.getColumn();
+                    Object value = parseValue(reader);
+                    if (!(value instanceof Map)) {
+                        throw new IOException("Level at " + location + " must be an object.");
+                    }
+                    Map<String, Object> map = (Map<String, Object>) value;
+                    String error = validate(map);
+                    if (error == null && !numbers.add(((Number) map.get("level")).intValue())) {
+                        error = "duplicate level number";
+                    }
+                    if (error != null) {
+                        throw new IOException("Level " + map.get("level") + " at " + location + ": " + error);
+                    }
+                    levels.add(new Level(map));
+                }
+                reader.endArray();
             }
-            return levels;
-        } catch (Exception e) {
+            reader.endObject();
+        } catch (IOException | RuntimeException e) {
             // Wrap parsing exceptions into IOException to signal failure to the caller.
             throw new IOException("Failed to parse JSON: " + e.getMessage(), e);
         }
-    }
-
-    private char next() {
-        if (++at >= json.length()) {
-            ch = '\0'; // End of file
-            return ch;
+        if (levels == null) {
+            throw new IOException("JSON root must be an object with a 'levels' key.");
         }
-        ch = json.charAt(at);
-        return ch;
+        return levels;
     }
 
-    private void skipWhitespace() {
-        while (ch != '\0' && ch <= ' ') {
-            next();
+    /**
+     * Checks that a level has the fields Level reads without checking them.
+     * @param map The level, as parsed.
+     * @return What is wrong with the level, or null if nothing is.
+     */
+    private static String validate(Map<String, Object> map) {
+        if (!(map.get("level") instanceof Number)) {
+            return "'level' must be a number";
         }
-    }
-
-    private Object parseValue() {
-        skipWhitespace();
-        switch (ch) {
-            case '{':
-                return parseObject();
-            case '[':
-                return parseArray();
-            case '"':
-                return parseString();
-            case 't':
-            case 'f':
-                return parseBoolean();
-            case 'n':
-                return parseNull();
-            default:
-                if (ch == '-' || (ch >= '0' && ch <= '9')) {
-                    return parseNumber();
+        Object formation = map.get("enemyFormation");
+        if (formation != null) {
+            if (!(formation instanceof Map)) {
+                return "'enemyFormation' must be an object";
+            }
+            for (String key : FORMATION_NUMBERS) {
+                if (!(((Map<String, Object>) formation).get(key) instanceof Number)) {
+                    return "'enemyFormation." + key + "' must be a number";
                 }
-                throw new RuntimeException("Unexpected character: " + ch);
-        }
-    }
-
-    private Map<String, Object> parseObject() {
-        Map<String, Object> object = new LinkedHashMap<>();
-        if (ch != '{') throw new RuntimeException("Object must start with '{'");
-        next(); // consume '{'
-        skipWhitespace();
-
-        if (ch == '}') {
-            next(); // consume '}'
-            return object; // empty object
-        }
-
-        while (ch != '\0') {
-            String key = parseString();
-            skipWhitespace();
-            if (ch != ':') throw new RuntimeException("Expected ':' after key in object");
-            next(); // consume ':'
-            
-            object.put(key, parseValue());
-            skipWhitespace();
-
-            if (ch == '}') {
-                next(); // consume '}'
-                return object;
             }
-            if (ch != ',') throw new RuntimeException("Expected ',' or '}' in object");
-            next(); // consume ','
-            skipWhitespace();
         }
-        throw new RuntimeException("Unclosed object");
-    }
-
-    private List<Object> parseArray() {
-        List<Object> array = new ArrayList<>();
-        if (ch != '[') throw new RuntimeException("Array must start with '['");
-        next(); // consume '['
-        skipWhitespace();
-
-        if (ch == ']') {
-            next(); // consume ']'
-            return array; // empty array
+        String error = validateList(map, "enemyTypes", "count");
+        if (error == null) {
+            error = validateList(map, "itemDrops", "dropChance");
         }
-
-        while (ch != '\0') {
-            array.add(parseValue());
-            skipWhitespace();
-
-            if (ch == ']') {
-                next(); // consume ']'
-                return array;
-            }
-            if (ch != ',') throw new RuntimeException("Expected ',' or ']' in array");
-            next(); // consume ','
-            skipWhitespace();
+        if (error != null) {
+            return error;
         }
-        throw new RuntimeException("Unclosed array");
-    }
-
-    private String parseString() {
-        if (ch != '"') throw new RuntimeException("String must start with '\"'");
-        StringBuilder sb = new StringBuilder();
-        next(); // consume '"'
-        while (ch != '\0' && ch != '"') {
-            if (ch == '\\') {
-                next(); // consume '\'backslash
-                // Handle basic escape sequences
-                switch (ch) {
-                    case '"': sb.append('"'); break;
-                    case '\\': sb.append('\\'); break;
-                    case '/': sb.append('/'); break;
-                    case 'b': sb.append('\b'); break;
-                    case 'f': sb.append('\f'); break;
-                    case 'n': sb.append('\n'); break;
-                    case 'r': sb.append('\r'); break;
-                    case 't': sb.append('\t'); break;
-                    default: sb.append(ch); break;
-                }
-            } else {
-                sb.append(ch);
-            }
-            next();
+        Object bonus = map.get("completionBonus");
+        if (bonus != null && !(bonus instanceof Map
+                && ((Map<String, Object>) bonus).get("currency") instanceof Number)) {
+            return "'completionBonus.currency' must be a number";
         }
-        if (ch != '"') throw new RuntimeException("Unclosed string");
-        next(); // consume '"'
-        return sb.toString();
+        return null;
     }
 
-    private Number parseNumber() {
-        StringBuilder sb = new StringBuilder();
-        boolean isDouble = false;
-        while (ch == '-' || (ch >= '0' && ch <= '9') || ch == '.') {
-            if (ch == '.') {
-                isDouble = true;
-            }
-            sb.append(ch);
-            next();
+    /**
+     * Checks that an optional list field holds objects with a number field.
+     */
+    private static String validateList(Map<String, Object> map, String key, String numberKey) {
+        Object list = map.get(key);
+        if (list == null) {
+            return null;
         }
-        String numberStr = sb.toString();
-        try {
-            if (isDouble) {
-                return Double.parseDouble(numberStr);
-            } else {
-                return Long.parseLong(numberStr); // Use Long to avoid overflow, then cast later
-            }
-        } catch (NumberFormatException e) {
-            throw new RuntimeException("Invalid number format: " + numberStr);
+        if (!(list instanceof List)) {
+            return "'" + key + "' must be an array";
         }
-    }
-
-    private Boolean parseBoolean() {
-        skipWhitespace();
-        String boolStr = "";
-        if (ch == 't') {
-            for (int i = 0; i < 4; i++) { boolStr += ch; if (i < 3) next(); }
-            if (boolStr.equals("true")) { next(); return true; }
-        } else if (ch == 'f') {
-            for (int i = 0; i < 5; i++) { boolStr += ch; if (i < 4) next(); }
-            if (boolStr.equals("false")) { next(); return false; }
+        List<Object> entries = (List<Object>) list;
+        for (int i = 0; i < entries.size(); i++) {
+            Object entry = entries.get(i);
+            if (!(entry instanceof Map && ((Map<String, Object>) entry).get(numberKey) instanceof Number)) {
+                return "'" + key + "[" + i + "]." + numberKey + "' must be a number";
+            }
         }
-        throw new RuntimeException("Invalid boolean literal");
+        return null;
     }
 
-    private Object parseNull() {
-        skipWhitespace();
-        String nullStr = "";
-        if (ch == 'n') {
-            for (int i = 0; i < 4; i++) { nullStr += ch; if (i < 3) next(); }
-            if (nullStr.equals("null")) { next(); return null; }
+    /**
+     * Reads the next value, recursing into objects and arrays.
+     */
+    private static Object parseValue(JsonReader reader) throws IOException {
+        switch (reader.peek()) {
+            case BEGIN_OBJECT:
+                Map<String, Object> object = new LinkedHashMap<>();
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    String key = reader.nextName();
+                    object.put(key, parseValue(reader));
+                }
+                reader.endObject();
+                return object;
+            case BEGIN_ARRAY:
+                List<Object> array = new ArrayList<>();
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    array.add(parseValue(reader));
+                }
+                reader.endArray();
+                return array;
+            case STRING:
+                return reader.nextString();
+            case NUMBER:
+                return reader.nextNumber(); // Long when whole, cast later
+            case BOOLEAN:
+                return reader.nextBoolean();
+            case NULL:
+                reader.nextNull();
+                return null;
+            default:
+                throw new IOException("Unexpected " + reader.peek());
         }
-        throw new RuntimeException("Invalid null literal");
     }
 }
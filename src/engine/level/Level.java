@@ -1,6 +1,7 @@
 package engine.level;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
@@ -9,6 +10,9 @@ import java.util.Map;
  */
 public class Level {
 
+    // Levels are shared by every screen through LevelManager, so they are never
+    // changed once built.
+
     // Simple fields for backward compatibility with hardcoded levels
     private int level;
     private int formationWidth;
@@ -43,6 +47,26 @@ public class Level {
         this.shootingFrecuency = shootingFrecuency;
     }
 
+    /**
+     * Constructor for levels read from a compiled file, every field given as
+     * it was written.
+     */
+    Level(int level, int formationWidth, int formationHeight, int baseSpeed, int shootingFrecuency,
+            String levelName, String specialGimmick, String unlockCondition, String bossId,
+            String achievementTrigger, LevelEnemyFormation enemyFormation, List<EnemyType> enemyTypes,
+            List<ItemDrop> itemDrops, CompletionBonus completionBonus) {
+        this(level, formationWidth, formationHeight, baseSpeed, shootingFrecuency);
+        this.levelName = levelName;
+        this.specialGimmick = specialGimmick;
+        this.unlockCondition = unlockCondition;
+        this.bossId = bossId;
+        this.achievementTrigger = achievementTrigger;
+        this.enemyFormation = enemyFormation;
+        this.enemyTypes = enemyTypes == null ? null : Collections.unmodifiableList(enemyTypes);
+        this.itemDrops = itemDrops == null ? null : Collections.unmodifiableList(itemDrops);
+        this.completionBonus = completionBonus;
+    }
+
     /**
      * Constructor for creating from a map (e.g., from JSON).
      * @param map The map containing level data.
@@ -61,16 +85,18 @@ public class Level {
             this.enemyFormation = new LevelEnemyFormation((Map<String, Object>) map.get("enemyFormation"));
         }
         if (map.get("enemyTypes") != null) {
-            this.enemyTypes = new ArrayList<>();
+            List<EnemyType> enemyTypes = new ArrayList<>();
             for (Map<String, Object> enemyTypeMap : (List<Map<String, Object>>) map.get("enemyTypes")) {
-                this.enemyTypes.add(new EnemyType(enemyTypeMap));
+                enemyTypes.add(new EnemyType(enemyTypeMap));
             }
+            this.enemyTypes = Collections.unmodifiableList(enemyTypes);
         }
         if (map.get("itemDrops") != null) {
-            this.itemDrops = new ArrayList<>();
+            List<ItemDrop> itemDrops = new ArrayList<>();
             for (Map<String, Object> itemDropMap : (List<Map<String, Object>>) map.get("itemDrops")) {
-                this.itemDrops.add(new ItemDrop(itemDropMap));
+                itemDrops.add(new ItemDrop(itemDropMap));
             }
+            this.itemDrops = Collections.unmodifiableList(itemDrops);
         }
         this.bossId = (String) map.get("bossId");
 
@@ -0,0 +1,353 @@
+package engine.level;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Compiles levels into a compact binary file, and reads them back without
+ * any JSON parsing. JSON stays the format levels are written in; the compiled
+ * file is built from it for release, and read through a memory mapped buffer
+ * when it is a plain file.
+ *
+ * The file is big endian: the magic number and format version, the hash of
+ * the JSON file it was compiled from, the number of levels, then every level
+ * in order. A string is its UTF-8 length, -1 for null, followed by its bytes.
+ * Lists are their size followed by their entries. The hash lets the game
+ * notice a compiled file left behind by an edit of the JSON file.
+ *
+ * <pre>
+ * java -cp bin engine.level.LevelCompiler res/maps/maps.json bin/maps/maps.bin
+ * </pre>
+ */
+public final class LevelCompiler {
+
+    /** First bytes of a compiled file, "INVL". */
+    public static final int MAGIC = 0x494E564C;
+    /** Version of the format, bumped on every change of the layout. */
+    public static final short VERSION = 2;
+
+    /** Bits of the flags byte telling which optional parts a level has. */
+    private static final int HAS_FORMATION = 1;
+    private static final int HAS_ENEMY_TYPES = 2;
+    private static final int HAS_ITEM_DROPS = 4;
+    private static final int HAS_COMPLETION_BONUS = 8;
+
+    /** Smallest encoded size of each kind of list entry, its strings all null. */
+    private static final int MIN_LEVEL_BYTES = 5 * Integer.BYTES + 1 + 5 * Integer.BYTES;
+    private static final int MIN_ENEMY_TYPE_BYTES = 2 * Integer.BYTES;
+    private static final int MIN_ITEM_DROP_BYTES = 3 * Integer.BYTES + Double.BYTES;
+
+    private LevelCompiler() {
+    }
+
+    /**
+     * Compiles a maps file.
+     *
+     * @param args The JSON file to read and the compiled file to write.
+     * @throws IOException if the JSON file is invalid or a file cannot be accessed.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: LevelCompiler MAPS_JSON OUTPUT");
+            System.exit(2);
+        }
+        byte[] source = Files.readAllBytes(Paths.get(args[0]));
+        List<Level> levels = JsonLoader.parse(new String(source, StandardCharsets.UTF_8));
+        Path output = Paths.get(args[1]);
+        if (output.getParent() != null) {
+            Files.createDirectories(output.getParent());
+        }
+        Files.write(output, toBytes(levels, sourceHash(source)));
+        System.out.println("Compiled " + levels.size() + " levels into " + output);
+    }
+
+    /**
+     * Hashes a JSON file, to tell which one a compiled file was built from.
+     *
+     * @param source The bytes of the JSON file.
+     * @return The CRC-32 of the bytes.
+     */
+    public static long sourceHash(byte[] source) {
+        CRC32 crc = new CRC32();
+        crc.update(source);
+        return crc.getValue();
+    }
+
+    /**
+     * Encodes levels in the compiled format.
+     *
+     * @param levels The levels to encode.
+     * @param sourceHash The hash of the JSON file they were parsed from.
+     * @return The content of a compiled file.
+     */
+    public static byte[] toBytes(List<Level> levels, long sourceHash) {
+        Writer out = new Writer();
+        out.buffer.putInt(MAGIC);
+        out.buffer.putShort(VERSION);
+        out.buffer.putLong(sourceHash);
+        out.buffer.putInt(levels.size());
+        for (Level level : levels) {
+            writeLevel(out, level);
+        }
+        byte[] bytes = new byte[out.buffer.position()];
+        out.buffer.flip().get(bytes);
+        return bytes;
+    }
+
+    /**
+     * Reads a compiled file, whatever JSON file it was built from.
+     *
+     * @param url Location of the file, as given by a class loader.
+     * @return The levels, in file order.
+     * @throws IOException if the file cannot be read or is not a compiled file of this version.
+     */
+    public static List<Level> read(URL url) throws IOException {
+        return read(url, null);
+    }
+
+    /**
+     * Reads a compiled file, mapping it into memory when it is a plain file.
+     *
+     * @param url Location of the file, as given by a class loader.
+     * @param sourceHash The hash of the JSON file it must have been built
+     *                   from, or null to accept any.
+     * @return The levels, in file order.
+     * @throws IOException if the file cannot be read, is not a compiled file of this version, or
+     *                     was built from another JSON file.
+     */
+    public static List<Level> read(URL url, Long sourceHash) throws IOException {
+        if ("file".equals(url.getProtocol())) {
+            try (FileChannel channel = FileChannel.open(Paths.get(url.toURI()), StandardOpenOption.READ)) {
+                return read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), sourceHash);
+            } catch (URISyntaxException e) {
+                throw new IOException("Invalid compiled levels location: " + url, e);
+            }
+        }
+        try (InputStream in = url.openStream()) {
+            return read(ByteBuffer.wrap(in.readAllBytes()), sourceHash);
+        }
+    }
+
+    /**
+     * Decodes levels in the compiled format, whatever JSON file they were
+     * built from.
+     *
+     * @param buffer The content of a compiled file, from its position.
+     * @return The levels, in file order.
+     * @throws IOException if the content is not a compiled file of this version.
+     */
+    public static List<Level> read(ByteBuffer buffer) throws IOException {
+        return read(buffer, null);
+    }
+
+    /**
+     * Decodes levels in the compiled format.
+     *
+     * @param buffer The content of a compiled file, from its position.
+     * @param sourceHash The hash of the JSON file it must have been built
+     *                   from, or null to accept any.
+     * @return The levels, in file order.
+     * @throws IOException if the content is not a compiled file of this version, or was built
+     *                     from another JSON file.
+     */
+    public static List<Level> read(ByteBuffer buffer, Long sourceHash) throws IOException {
+        try {
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not a compiled levels file");
+            }
+            short version = buffer.getShort();
+            if (version != VERSION) {
+                throw new IOException("Compiled levels version " + version + ", expected " + VERSION);
+            }
+            long hash = buffer.getLong();
+            if (sourceHash != null && hash != sourceHash) {
+                throw new IOException("Compiled from another version of the maps file");
+            }
+            int count = getCount(buffer, MIN_LEVEL_BYTES);
+            List<Level> levels = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                levels.add(readLevel(buffer));
+            }
+            return levels;
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new IOException("Truncated or corrupt compiled levels file", e);
+        }
+    }
+
+    private static void writeLevel(Writer out, Level level) {
+        LevelEnemyFormation formation = level.getEnemyFormation();
+        List<EnemyType> enemyTypes = level.getEnemyTypes();
+        List<ItemDrop> itemDrops = level.getItemDrops();
+        CompletionBonus bonus = level.getCompletionBonus();
+
+        out.ensure(5 * Integer.BYTES + 1);
+        out.buffer.putInt(level.getLevel());
+        out.buffer.putInt(level.getFormationWidth());
+        out.buffer.putInt(level.getFormationHeight());
+        out.buffer.putInt(level.getBaseSpeed());
+        out.buffer.putInt(level.getShootingFrecuency());
+        out.buffer.put((byte) ((formation != null ? HAS_FORMATION : 0)
+                | (enemyTypes != null ? HAS_ENEMY_TYPES : 0)
+                | (itemDrops != null ? HAS_ITEM_DROPS : 0)
+                | (bonus != null ? HAS_COMPLETION_BONUS : 0)));
+        out.putString(level.getLevelName());
+        out.putString(level.getSpecialGimmick());
+        out.putString(level.getUnlockCondition());
+        out.putString(level.getBossId());
+        out.putString(level.getAchievementTrigger());
+
+        if (formation != null) {
+            out.putString(formation.getFormationType());
+            out.ensure(4 * Integer.BYTES);
+            out.buffer.putInt(formation.getFormationWidth());
+            out.buffer.putInt(formation.getFormationHeight());
+            out.buffer.putInt(formation.getBaseSpeed());
+            out.buffer.putInt(formation.getShootingFrecuency());
+        }
+        if (enemyTypes != null) {
+            out.putInt(enemyTypes.size());
+            for (EnemyType enemyType : enemyTypes) {
+                out.putString(enemyType.getType());
+                out.putInt(enemyType.getCount());
+            }
+        }
+        if (itemDrops != null) {
+            out.putInt(itemDrops.size());
+            for (ItemDrop itemDrop : itemDrops) {
+                out.putString(itemDrop.getEnemyType());
+                out.putString(itemDrop.getBossId());
+                out.putString(itemDrop.getItemId());
+                out.ensure(Double.BYTES);
+                out.buffer.putDouble(itemDrop.getDropChance());
+            }
+        }
+        if (bonus != null) {
+            out.putInt(bonus.getCurrency());
+        }
+    }
+
+    private static Level readLevel(ByteBuffer in) throws IOException {
+        int number = in.getInt();
+        int formationWidth = in.getInt();
+        int formationHeight = in.getInt();
+        int baseSpeed = in.getInt();
+        int shootingFrecuency = in.getInt();
+        int flags = in.get();
+        String levelName = getString(in);
+        String specialGimmick = getString(in);
+        String unlockCondition = getString(in);
+        String bossId = getString(in);
+        String achievementTrigger = getString(in);
+
+        LevelEnemyFormation formation = null;
+        if ((flags & HAS_FORMATION) != 0) {
+            formation = new LevelEnemyFormation(getString(in), in.getInt(), in.getInt(),
+                    in.getInt(), in.getInt());
+        }
+        List<EnemyType> enemyTypes = null;
+        if ((flags & HAS_ENEMY_TYPES) != 0) {
+            int count = getCount(in, MIN_ENEMY_TYPE_BYTES);
+            enemyTypes = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                enemyTypes.add(new EnemyType(getString(in), in.getInt()));
+            }
+        }
+        List<ItemDrop> itemDrops = null;
+        if ((flags & HAS_ITEM_DROPS) != 0) {
+            int count = getCount(in, MIN_ITEM_DROP_BYTES);
+            itemDrops = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                itemDrops.add(new ItemDrop(getString(in), getString(in), getString(in), in.getDouble()));
+            }
+        }
+        CompletionBonus bonus = null;
+        if ((flags & HAS_COMPLETION_BONUS) != 0) {
+            bonus = new CompletionBonus(in.getInt());
+        }
+        return new Level(number, formationWidth, formationHeight, baseSpeed, shootingFrecuency,
+                levelName, specialGimmick, unlockCondition, bossId, achievementTrigger,
+                formation, enemyTypes, itemDrops, bonus);
+    }
+
+    /**
+     * Reads the entry count of a list, rejecting one the rest of the buffer
+     * cannot hold before anything is allocated for it.
+     */
+    private static int getCount(ByteBuffer in, int minEntryBytes) throws IOException {
+        int count = in.getInt();
+        if (count < 0 || count > in.remaining() / minEntryBytes) {
+            throw new IOException("Corrupt compiled levels file: " + count + " entries in "
+                    + in.remaining() + " bytes");
+        }
+        return count;
+    }
+
+    /**
+     * Reads a string, decoding it straight from the buffer.
+     */
+    private static String getString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        if (length > in.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        if (in.hasArray()) {
+            String value = new String(in.array(), in.arrayOffset() + in.position(), length,
+                    StandardCharsets.UTF_8);
+            in.position(in.position() + length);
+            return value;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Growable output buffer.
+     */
+    private static final class Writer {
+        private ByteBuffer buffer = ByteBuffer.allocate(4096);
+
+        /** Makes room for a number of bytes. */
+        private void ensure(int bytes) {
+            if (buffer.remaining() < bytes) {
+                ByteBuffer larger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2,
+                        buffer.position() + bytes));
+                buffer.flip();
+                larger.put(buffer);
+                buffer = larger;
+            }
+        }
+
+        private void putInt(int value) {
+            ensure(Integer.BYTES);
+            buffer.putInt(value);
+        }
+
+        private void putString(String value) {
+            if (value == null) {
+                putInt(-1);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            ensure(Integer.BYTES + bytes.length);
+            buffer.putInt(bytes.length);
+            buffer.put(bytes);
+        }
+    }
+}
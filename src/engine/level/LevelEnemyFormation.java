@@ -9,6 +9,18 @@ public class LevelEnemyFormation {
     private int baseSpeed;
     private int shootingFrecuency;
 
+    /**
+     * Constructor for levels read from a compiled file.
+     */
+    LevelEnemyFormation(String formationType, int formationWidth, int formationHeight,
+            int baseSpeed, int shootingFrecuency) {
+        this.formationType = formationType;
+        this.formationWidth = formationWidth;
+        this.formationHeight = formationHeight;
+        this.baseSpeed = baseSpeed;
+        this.shootingFrecuency = shootingFrecuency;
+    }
+
     public LevelEnemyFormation(Map<String, Object> map) {
         this.formationType = (String) map.get("formationType");
         this.formationWidth = ((Number) map.get("formationWidth")).intValue();
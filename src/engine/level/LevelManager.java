@@ -1,55 +1,178 @@
 package engine.level;
 
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
+import java.net.URL;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.logging.Logger;
 
-public class LevelManager {
+import engine.Core;
 
-    private List<Level> levels;
+/**
+ * Registry of the levels of the game, shared by every screen. The levels are
+ * read once, the first time the registry is asked for, from the maps.bin
+ * resource built by LevelCompiler if there is one and it was built from the
+ * maps.json resource next to it, from maps.json otherwise.
+ * The list and the levels are read only, so any thread may use them
+ * without locking.
+ *
+ * In development the registry can watch a maps file on disk: whenever it is
+ * saved it is parsed and validated in the background, and if it is valid the
+ * new levels replace the old ones all at once. Screens read the levels when a
+ * level starts, so the game picks the change up at the next level.
+ */
+public final class LevelManager {
 
-    public LevelManager() {
-        loadLevels();
+    /** Resource the levels are read from. */
+    private static final String RESOURCE = "maps/maps.json";
+    /** Compiled levels, read instead of the JSON resource when present. */
+    private static final String COMPILED_RESOURCE = "maps/maps.bin";
+    /** Nanoseconds in one microsecond. */
+    private static final long NANOS_PER_MICROSECOND = 1000L;
+    /** Time to wait for an editor to finish saving before reading the file, in milliseconds. */
+    private static final long SETTLE_DELAY = 100;
+
+    /** Singleton instance of the class. */
+    private static LevelManager instance;
+
+    /** Current levels, replaced as a whole on reload. */
+    private volatile Levels current;
+    /** Thread watching the maps file, if any. */
+    private Thread watcher;
+
+    /**
+     * A set of levels, as parsed from one version of the maps file. Immutable.
+     */
+    private static final class Levels {
+        /** Levels, in file order. */
+        private final List<Level> list;
+        /** Levels by level number. */
+        private final Map<Integer, Level> byNumber;
+        /** Time taken to read and parse them, in nanoseconds. */
+        private final long loadNanos;
+        /** Document they were parsed from, null if not read from JSON. */
+        private final String source;
+
+        /**
+         * Constructor.
+         */
+        private Levels(List<Level> list, long loadNanos, String source) {
+            Map<Integer, Level> byNumber = new HashMap<>();
+            for (Level level : list) {
+                byNumber.putIfAbsent(level.getLevel(), level);
+            }
+            this.list = Collections.unmodifiableList(new ArrayList<>(list));
+            this.byNumber = byNumber;
+            this.loadNanos = loadNanos;
+            this.source = source;
+        }
     }
 
     /**
-     * Loads the levels from the maps.json resource file.
+     * Constructor.
      */
-    private void loadLevels() {
-        try (InputStream inputStream = LevelManager.class.getClassLoader().getResourceAsStream("maps/maps.json")) {
-            if (inputStream == null) {
-                throw new IOException("Cannot find resource file: maps/maps.json");
+    private LevelManager(Levels levels) {
+        this.current = levels;
+    }
+
+    /**
+     * Returns the shared instance, loading the levels on the first call.
+     *
+     * @return Shared instance.
+     */
+    public static synchronized LevelManager getInstance() {
+        if (instance == null) {
+            instance = load();
+        }
+        return instance;
+    }
+
+    /**
+     * Builds a registry from a JSON document, without touching the shared
+     * instance.
+     *
+     * @param jsonContent The raw string content of a maps file.
+     * @return Registry of the levels of the document.
+     * @throws IOException if parsing or validation fails.
+     */
+    public static LevelManager fromJson(String jsonContent) throws IOException {
+        long start = System.nanoTime();
+        List<Level> levels = JsonLoader.parse(jsonContent);
+        return new LevelManager(new Levels(levels, System.nanoTime() - start, jsonContent));
+    }
+
+    /**
+     * Loads the levels from the compiled resource, or from the maps.json
+     * resource file if there is none, it cannot be read or it was compiled
+     * from another maps.json.
+     */
+    private static LevelManager load() {
+        Logger logger = Core.getLogger();
+        long start = System.nanoTime();
+        byte[] source = null;
+        try (InputStream inputStream = LevelManager.class.getClassLoader().getResourceAsStream(RESOURCE)) {
+            if (inputStream != null) {
+                source = inputStream.readAllBytes();
+            }
+        } catch (IOException e) {
+            logger.warning("Failed to read " + RESOURCE + ": " + e.getMessage());
+        }
+        URL compiled = LevelManager.class.getClassLoader().getResource(COMPILED_RESOURCE);
+        if (compiled != null) {
+            try {
+                // Without the JSON resource there is nothing the compiled one could be stale against
+                List<Level> levels = LevelCompiler.read(compiled,
+                        source != null ? LevelCompiler.sourceHash(source) : null);
+                long loadNanos = System.nanoTime() - start;
+                logger.info("Loaded " + levels.size() + " levels from " + COMPILED_RESOURCE + " in "
+                        + loadNanos / NANOS_PER_MICROSECOND + " us");
+                return new LevelManager(new Levels(levels, loadNanos, null));
+            } catch (IOException e) {
+                logger.warning("Ignoring " + COMPILED_RESOURCE + ": " + e.getMessage());
+                start = System.nanoTime();
             }
-            
-            String jsonContent;
-            try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
-                jsonContent = reader.lines().collect(Collectors.joining("\n"));
+        }
+        try {
+            if (source == null) {
+                throw new IOException("Cannot find resource file: " + RESOURCE);
             }
-            
-            this.levels = JsonLoader.parse(jsonContent);
+
+            String jsonContent = new String(source, StandardCharsets.UTF_8);
+            List<Level> levels = JsonLoader.parse(jsonContent);
+            long loadNanos = System.nanoTime() - start;
+            logger.info("Loaded " + levels.size() + " levels from " + RESOURCE + " in "
+                    + loadNanos / NANOS_PER_MICROSECOND + " us");
+            return new LevelManager(new Levels(levels, loadNanos, jsonContent));
 
         } catch (Exception e) {
-            System.err.println("Failed to load levels from JSON resource: " + e.getMessage());
-            System.err.println("Falling back to hardcoded levels.");
-            e.printStackTrace();
-            
+            logger.severe("Failed to load levels from JSON resource: " + e.getMessage()
+                    + ". Falling back to hardcoded levels.");
+
             // If loading from JSON fails, use hardcoded levels as a fallback.
-            this.levels = new ArrayList<>();
-            this.levels.add(new Level(1, 5, 4, 60, 2000));
-            this.levels.add(new Level(2, 5, 5, 50, 2500));
-            this.levels.add(new Level(3, 6, 5, 40, 1500));
-            this.levels.add(new Level(4, 6, 6, 30, 1500));
-            this.levels.add(new Level(5, 7, 6, 20, 1000));
-            this.levels.add(new Level(6, 7, 7, 10, 1000));
-            this.levels.add(new Level(7, 8, 7, 2, 500));
+            List<Level> levels = new ArrayList<>();
+            levels.add(new Level(1, 5, 4, 60, 2000));
+            levels.add(new Level(2, 5, 5, 50, 2500));
+            levels.add(new Level(3, 6, 5, 40, 1500));
+            levels.add(new Level(4, 6, 6, 30, 1500));
+            levels.add(new Level(5, 7, 6, 20, 1000));
+            levels.add(new Level(6, 7, 7, 10, 1000));
+            levels.add(new Level(7, 8, 7, 2, 500));
+            return new LevelManager(new Levels(levels, System.nanoTime() - start, null));
         }
     }
-    
+
     /**
      * Gets the settings for a specific level.
      *
@@ -57,16 +180,15 @@ public class LevelManager {
      * @return The Level object for the specified level number, or null if not found.
      */
     public Level getLevel(int levelNumber) {
-        if (levels == null) {
-            return null;
-        }
+        return current.byNumber.get(levelNumber);
+    }
 
-        for (Level level : levels) {
-            if (level.getLevel() == levelNumber) {
-                return level;
-            }
-        }
-        return null;
+    /**
+     * Returns every level, in file order.
+     * @return Unmodifiable list of the levels.
+     */
+    public List<Level> getLevels() {
+        return current.list;
     }
 
     /**
@@ -74,9 +196,100 @@ public class LevelManager {
      * @return The number of levels.
      */
     public int getNumberOfLevels() {
-        if (this.levels == null) {
-            return 0;
+        return current.list.size();
+    }
+
+    /**
+     * Returns the time taken to read and parse the current levels.
+     * @return Time in nanoseconds.
+     */
+    public long getLoadNanos() {
+        return current.loadNanos;
+    }
+
+    /**
+     * Starts reloading the levels from a maps file whenever it changes, for
+     * development. The file is read once at once. A version of the file that
+     * fails to parse or validate is logged and ignored, the levels in use
+     * staying as they were. Does nothing if a file is already watched.
+     *
+     * @param file The maps file to watch.
+     * @throws IOException if the directory of the file cannot be watched.
+     */
+    public synchronized void watch(Path file) throws IOException {
+        if (watcher != null) {
+            return;
+        }
+        Path absolute = file.toAbsolutePath();
+        WatchService service = absolute.getFileSystem().newWatchService();
+        try {
+            absolute.getParent().register(service, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            service.close();
+            throw e;
+        }
+        reload(absolute);
+        watcher = new Thread(() -> watchLoop(service, absolute), "level-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+        Core.getLogger().info("Watching " + absolute + " for level changes");
+    }
+
+    /**
+     * Waits for changes of the watched file and reloads it, until interrupted.
+     */
+    private void watchLoop(WatchService service, Path file) {
+        try (service) {
+            while (true) {
+                WatchKey key = service.take();
+                boolean changed = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    changed |= event.kind() == StandardWatchEventKinds.OVERFLOW
+                            || file.getFileName().equals(event.context());
+                }
+                key.reset();
+                if (!changed) {
+                    continue;
+                }
+                // Editors often save in several writes: let them finish, and
+                // drop the events of the writes that follow.
+                Thread.sleep(SETTLE_DELAY);
+                WatchKey pending;
+                while ((pending = service.poll()) != null) {
+                    pending.pollEvents();
+                    pending.reset();
+                }
+                reload(file);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // Closed while waiting: nothing left to watch
+        } catch (IOException e) {
+            Core.getLogger().warning("Stopped watching " + file + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Parses the maps file and, if it is valid and has changed, swaps its
+     * levels in.
+     */
+    private void reload(Path file) {
+        Logger logger = Core.getLogger();
+        long start = System.nanoTime();
+        try {
+            String jsonContent = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+            if (jsonContent.equals(current.source)) {
+                return;
+            }
+            List<Level> levels = JsonLoader.parse(jsonContent);
+            long loadNanos = System.nanoTime() - start;
+            current = new Levels(levels, loadNanos, jsonContent);
+            logger.info("Reloaded " + levels.size() + " levels from " + file + " in "
+                    + loadNanos / NANOS_PER_MICROSECOND + " us");
+        } catch (IOException e) {
+            logger.warning("Keeping the current levels, " + file + " is invalid: " + e.getMessage());
         }
-        return this.levels.size();
     }
-}
\ No newline at end of file
+}
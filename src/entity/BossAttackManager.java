@@ -1,15 +1,18 @@
 package entity;
 
 import java.awt.Color;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Set;
 import engine.Cooldown;
 import engine.Core;
+import engine.GameRandom;
 
 public class BossAttackManager {
 
     /**  Reference to the Final Boss entity */
     private FinalBoss boss;
+    /** Random numbers of the game */
+    private final GameRandom random;
 
     /** Cool time for shoot1 pattern */
     private int shoot1Cooldowntime;
@@ -49,8 +52,9 @@ public class BossAttackManager {
     private LaserPattern laserOption;
     
     /** basic attribute of boss attack manager */
-    public BossAttackManager(FinalBoss boss) {
+    public BossAttackManager(FinalBoss boss, GameRandom random) {
         this.boss = boss;
+        this.random = random;
         this.initializeCooldowns();
     }
     
@@ -92,7 +96,7 @@ public class BossAttackManager {
 
     /** process attack logic of final boss */
     public Set<BossAttack> processAttacks() {
-        Set<BossAttack> attacks = new HashSet<>();
+        Set<BossAttack> attacks = new LinkedHashSet<>();
 
         if(boss.getHealPoint() > boss.getMaxHp()*FinalBoss.PHASE_2_HP_THRESHOLD) {
             if (this.difficulty == 1) {
@@ -121,7 +125,7 @@ public class BossAttackManager {
     public Set<BossBullet> shoot1(){
         if(this.shootCooldown1.checkFinished() && (this.laserOption == LaserPattern.IDLE || this.laserOption == LaserPattern.NONE)) {
             this.shootCooldown1.reset();
-            Set<BossBullet> bullets = new HashSet<>();
+            Set<BossBullet> bullets = new LinkedHashSet<>();
             int arr[] = {0,1,-1,2,-2};
             for (int i : arr){
                 BossBullet bullet = new BossBullet(boss.getPositionX() + boss.getWidth() / 2 - 3,boss.getPositionY() + boss.getHeight(), i,4,6,10,Color.yellow);
@@ -136,8 +140,9 @@ public class BossAttackManager {
     public Set<BossBullet> shoot2() {
         if (this.shootCooldown2.checkFinished()) {
             this.shootCooldown2.reset();
-            Set<BossBullet> bullets = new HashSet<>();
-            int randomX = (int) (Math.random() * boss.getScreenWidth());
+            Set<BossBullet> bullets = new LinkedHashSet<>();
+            int randomX = (int) (this.random.stream(GameRandom.Stream.BOSS)
+                    .nextDouble() * boss.getScreenWidth());
             BossBullet bullet = new BossBullet(randomX, 1, 0, 2,6,10,Color.yellow);
             bullets.add(bullet);
             return bullets;
@@ -147,7 +152,7 @@ public class BossAttackManager {
     
     /** third shooting pattern of final boss */
     public Set<BossBullet> shoot3() {
-        Set<BossBullet> bullets = new HashSet<>();
+        Set<BossBullet> bullets = new LinkedHashSet<>();
         if (this.shootCooldown3.checkFinished()) {
             this.shootCooldown3.reset();
                 BossBullet bullet1 = new BossBullet(boss.getPositionX() + boss.getWidth() / 2 - 3 + 70, boss.getPositionY(), 0, 5,6,10,Color.blue);
@@ -162,7 +167,7 @@ public class BossAttackManager {
     public Set<BossBullet> shoot4(){
         if(this.shootCooldown4.checkFinished() && this.laserDuration.checkFinished()){
             this.shootCooldown4.reset();
-            Set<BossBullet> bullets = new HashSet<>();
+            Set<BossBullet> bullets = new LinkedHashSet<>();
             int bulletCount = 12;
             int speed;
             if (this.difficulty == 3) {
@@ -188,7 +193,7 @@ public class BossAttackManager {
 
     /** Laser firing pattern of final boss */
     public Set<BossLaser> laserShoot() {
-        Set<BossLaser> lasers = new HashSet<>();
+        Set<BossLaser> lasers = new LinkedHashSet<>();
 
         switch (this.laserOption) {
             case IDLE:
@@ -2,6 +2,7 @@ package entity;
 
 import engine.Cooldown;
 import engine.Core;
+import engine.GameRandom;
 
 public class BossMovementManager {
 
@@ -9,6 +10,8 @@ public class BossMovementManager {
     private FinalBoss boss;
     /**  Reference to the Player Ship entity */
     private Ship player;
+    /** Random numbers of the game */
+    private final GameRandom random;
 
     /** Horizontal speed for zigzag moving */
     private int zigzagSpeed;
@@ -57,9 +60,10 @@ public class BossMovementManager {
     private DashPattern dashOption;
 
     /** basic attribute of boss movement manager */
-    public BossMovementManager(FinalBoss boss, Ship player) {
+    public BossMovementManager(FinalBoss boss, Ship player, GameRandom random) {
         this.boss = boss;
         this.player = player;
+        this.random = random;
         initializeMovement();
     }
 
@@ -184,8 +188,8 @@ public class BossMovementManager {
             boss.move(-shakeOffX, -shakeOffY);
 
             int shakeAmount = 2;
-            this.shakeOffX = java.util.concurrent.ThreadLocalRandom.current().nextInt(-1, 2) * shakeAmount;
-            this.shakeOffY = java.util.concurrent.ThreadLocalRandom.current().nextInt(-1, 2) * shakeAmount;
+            this.shakeOffX = this.random.stream(GameRandom.Stream.BOSS).nextInt(-1, 2) * shakeAmount;
+            this.shakeOffY = this.random.stream(GameRandom.Stream.BOSS).nextInt(-1, 2) * shakeAmount;
 
             boss.move(this.shakeOffX, this.shakeOffY);
         }
@@ -28,6 +28,8 @@ public class Bullet extends Entity {
 	private int penetrationCount;
 	/** Number of possible penetrations */
 	private int maxPenetration;
+	/** Slot of the bullet in its pool, maintained by BulletPool. */
+	int poolIndex;
 
 
 	/**
@@ -1,29 +1,42 @@
 package entity;
 
-import java.util.HashSet;
-import java.util.Set;
-
 /**
- * Implements a pool of recyclable bullets.
+ * Implements a bounded pool of recyclable bullets. Every bullet is created
+ * up front in one array: the first part of the array holds the live bullets
+ * and the rest is the free list, so taking a bullet out of the pool, giving
+ * it back and iterating over the live ones never allocate. Releasing a
+ * bullet swaps the last live bullet into its slot.
  * 
  * @author <a href="mailto:RobertoIA1987@gmail.com">Roberto Izquierdo Amo</a>
  * 
  */
 public final class BulletPool {
 
-	/** Set of already created bullets. */
-	private static Set<Bullet> pool = new HashSet<Bullet>();
+	/** Bullets of the pool, live ones first. */
+	private final Bullet[] bullets;
+	/** Number of live bullets. */
+	private int liveCount;
+	/** Highest number of bullets live at the same time. */
+	private int highWaterMark;
+	/** Number of requests refused because the pool was exhausted. */
+	private int rejectedCount;
 
 	/**
-	 * Constructor, not called.
+	 * Constructor, creates every bullet of the pool.
+	 * 
+	 * @param capacity
+	 *            Maximum number of bullets live at the same time.
 	 */
-	private BulletPool() {
-
+	public BulletPool(final int capacity) {
+		this.bullets = new Bullet[capacity];
+		for (int i = 0; i < capacity; i++) {
+			this.bullets[i] = new Bullet(0, 0, 0);
+			this.bullets[i].poolIndex = i;
+		}
 	}
 
 	/**
-	 * Returns a bullet from the pool if one is available, a new one if there
-	 * isn't.
+	 * Takes a bullet from the free list and makes it live.
 	 * 
 	 * @param positionX
 	 *            Requested position of the bullet in the X axis.
@@ -32,33 +45,120 @@ public final class BulletPool {
 	 * @param speed
 	 *            Requested speed of the bullet, positive or negative depending
 	 *            on direction - positive is down.
-	 * @return Requested bullet.
+	 * @return Requested bullet, or null if every bullet is already live.
 	 */
-	public static Bullet getBullet(final int positionX,
-			final int positionY, final int speed) {
-		Bullet bullet;
-		if (!pool.isEmpty()) {
-			bullet = pool.iterator().next();
-			pool.remove(bullet);
-			bullet.setPositionX(positionX - bullet.getWidth() / 2);
-			bullet.setPositionY(positionY);
-			bullet.setSpeed(speed);
-			bullet.resetPenetration();
-			bullet.setSprite();
-		} else {
-			bullet = new Bullet(positionX, positionY, speed);
-			bullet.setPositionX(positionX - bullet.getWidth() / 2);
+	public Bullet getBullet(final int positionX, final int positionY,
+			final int speed) {
+		if (this.liveCount == this.bullets.length) {
+			this.rejectedCount++;
+			return null;
 		}
+
+		Bullet bullet = this.bullets[this.liveCount++];
+		if (this.liveCount > this.highWaterMark)
+			this.highWaterMark = this.liveCount;
+
+		bullet.setPositionX(positionX - bullet.getWidth() / 2);
+		bullet.setPositionY(positionY);
+		bullet.setSpeed(speed);
+		bullet.setOwnerId(null);
+		bullet.resetPenetration();
+		bullet.setSprite();
+		bullet.storePreviousPosition();
 		return bullet;
 	}
 
 	/**
-	 * Adds one or more bullets to the list of available ones.
+	 * Returns a live bullet to the free list. The last live bullet takes its
+	 * place, so when iterating by index the same index has to be visited
+	 * again.
+	 * 
+	 * @param index
+	 *            Index of the live bullet to release.
+	 */
+	public void release(final int index) {
+		int last = --this.liveCount;
+		Bullet released = this.bullets[index];
+		Bullet moved = this.bullets[last];
+
+		this.bullets[index] = moved;
+		moved.poolIndex = index;
+		this.bullets[last] = released;
+		released.poolIndex = last;
+	}
+
+	/**
+	 * Returns a live bullet to the free list.
 	 * 
 	 * @param bullet
-	 *            Bullets to recycle.
+	 *            Live bullet to release.
+	 */
+	public void release(final Bullet bullet) {
+		if (bullet.poolIndex < this.liveCount
+				&& this.bullets[bullet.poolIndex] == bullet)
+			release(bullet.poolIndex);
+	}
+
+	/**
+	 * Returns every live bullet to the free list.
+	 */
+	public void releaseAll() {
+		this.liveCount = 0;
+	}
+
+	/**
+	 * Getter for a live bullet.
+	 * 
+	 * @param index
+	 *            Index of the bullet, between 0 and size() - 1.
+	 * @return Live bullet.
+	 */
+	public Bullet get(final int index) {
+		return this.bullets[index];
+	}
+
+	/**
+	 * Getter for the number of live bullets.
+	 * 
+	 * @return Live bullets.
+	 */
+	public int size() {
+		return this.liveCount;
+	}
+
+	/**
+	 * Getter for the number of bullets in the free list.
+	 * 
+	 * @return Free bullets.
+	 */
+	public int getFreeCount() {
+		return this.bullets.length - this.liveCount;
+	}
+
+	/**
+	 * Getter for the highest number of bullets live at the same time.
+	 * 
+	 * @return High-water mark of live bullets.
+	 */
+	public int getHighWaterMark() {
+		return this.highWaterMark;
+	}
+
+	/**
+	 * Getter for the number of requests refused on an exhausted pool.
+	 * 
+	 * @return Refused requests.
+	 */
+	public int getRejectedCount() {
+		return this.rejectedCount;
+	}
+
+	/**
+	 * Getter for the capacity of the pool.
+	 * 
+	 * @return Maximum number of live bullets.
 	 */
-	public static void recycle(final Set<Bullet> bullet) {
-		pool.addAll(bullet);
+	public int getCapacity() {
+		return this.bullets.length;
 	}
 }
@@ -1,11 +1,11 @@
 package entity;
 
 import engine.DisplayableItem;
+import engine.GameClock;
+import engine.GameRandom;
 import engine.ItemRarity;
 import engine.DrawManager.SpriteType;
 
-import java.util.Random;
-
 public class DropItem extends Entity {
 
     /**
@@ -34,7 +34,6 @@ public class DropItem extends Entity {
         }
 
         private static final ItemType[] VALUES = values();
-        private static final Random RANDOM = new Random();
         private static final int TOTAL_WEIGHT;
 
         static {
@@ -47,10 +46,12 @@ public class DropItem extends Entity {
 
         /**
          * Selects a random ItemType based on its weight.
+         * @param random Random numbers of the game.
          * @return A randomly selected ItemType.
          */
-        public static ItemType selectItemType() {
-            int randomWeight = RANDOM.nextInt(TOTAL_WEIGHT);
+        public static ItemType selectItemType(final GameRandom random) {
+            int randomWeight = random
+                    .stream(GameRandom.Stream.ITEM_DROP).nextInt(TOTAL_WEIGHT);
             int cumulativeWeight = 0;
 
             for (ItemType type : VALUES) {
@@ -101,6 +102,8 @@ public class DropItem extends Entity {
     private int speed;
     /** Type of the item. */
     private ItemType itemType;
+    /** Slot of the item in its pool, maintained by ItemPool. */
+    int poolIndex;
 
     public DropItem(final int positionX, final int positionY, final int speed, final ItemType itemType) {
         super(positionX, positionY, 5 * 2, 5 * 2, itemType.rarity.getColor());
@@ -134,7 +137,14 @@ public class DropItem extends Entity {
      * @param durationMillis Freeze duration in milliseconds.
      */
     public static void applyTimeFreezeItem(int durationMillis) {
-        freezeEndTime = System.currentTimeMillis() + durationMillis;
+        freezeEndTime = GameClock.currentTimeMillis() + durationMillis;
+    }
+
+    /**
+     * Ends the time freeze effect, so it does not carry over to a new level.
+     */
+    public static void clearTimeFreeze() {
+        freezeEndTime = 0;
     }
 
     /**
@@ -142,10 +152,10 @@ public class DropItem extends Entity {
      * @return True if enemies should be frozen, false otherwise.
      */
     public static boolean isTimeFreezeActive() {
-        if (freezeEndTime > 0 && System.currentTimeMillis() < freezeEndTime) {
+        if (freezeEndTime > 0 && GameClock.currentTimeMillis() < freezeEndTime) {
             return true;
         }
-        if (freezeEndTime > 0 && System.currentTimeMillis() >= freezeEndTime) {
+        if (freezeEndTime > 0 && GameClock.currentTimeMillis() >= freezeEndTime) {
             freezeEndTime = 0;
         }
         return false;
@@ -179,11 +189,12 @@ public class DropItem extends Entity {
     /**
      * Returns a random item type based on a given probability.
      * @param proba The probability (0.0 to 1.0) of returning an item.
+     * @param random Random numbers of the game.
      * @return A random ItemType or null.
      */
-    public static ItemType getRandomItemType(final double proba) {
-        if (Math.random() < proba){
-            return ItemType.selectItemType();
+    public static ItemType getRandomItemType(final double proba, final GameRandom random) {
+        if (random.stream(GameRandom.Stream.ITEM_DROP).nextDouble() < proba){
+            return ItemType.selectItemType(random);
         }
         else {
             return null;
@@ -48,6 +48,11 @@ public class EnemyShip extends Entity implements Collidable {
 	/** Special enemy X_SPEED variable **/
 	private int X_SPEED = 0;
 
+	/** Formation storage this ship is a view of, null if none. */
+	FormationStore store;
+	/** Slot of the ship in its formation storage. */
+	int slot;
+
 	/**
 	 * Constructor, establishes the ship's properties.
 	 * 
@@ -117,6 +122,10 @@ public class EnemyShip extends Entity implements Collidable {
 	 *            Distance to move in the Y axis.
 	 */
 	public final void move(final int distanceX, final int distanceY) {
+		if (this.store != null) {
+			this.store.move(this.slot, distanceX, distanceY);
+			return;
+		}
 		this.positionX += distanceX;
 		this.positionY += distanceY;
 	}
@@ -127,29 +136,33 @@ public class EnemyShip extends Entity implements Collidable {
 	public final void update() {
 		if (this.animationCooldown.checkFinished()) {
 			this.animationCooldown.reset();
+			this.spriteType = nextFrame(this.spriteType);
+		}
+	}
 
-			switch (this.spriteType) {
-			case EnemyShipA1:
-				this.spriteType = SpriteType.EnemyShipA2;
-				break;
-			case EnemyShipA2:
-				this.spriteType = SpriteType.EnemyShipA1;
-				break;
-			case EnemyShipB1:
-				this.spriteType = SpriteType.EnemyShipB2;
-				break;
-			case EnemyShipB2:
-				this.spriteType = SpriteType.EnemyShipB1;
-				break;
-			case EnemyShipC1:
-				this.spriteType = SpriteType.EnemyShipC2;
-				break;
-			case EnemyShipC2:
-				this.spriteType = SpriteType.EnemyShipC1;
-				break;
-			default:
-				break;
-			}
+	/**
+	 * Gives the animation frame following a sprite.
+	 *
+	 * @param spriteType
+	 *            Current sprite.
+	 * @return Next sprite, the same one if it is not animated.
+	 */
+	static SpriteType nextFrame(final SpriteType spriteType) {
+		switch (spriteType) {
+		case EnemyShipA1:
+			return SpriteType.EnemyShipA2;
+		case EnemyShipA2:
+			return SpriteType.EnemyShipA1;
+		case EnemyShipB1:
+			return SpriteType.EnemyShipB2;
+		case EnemyShipB2:
+			return SpriteType.EnemyShipB1;
+		case EnemyShipC1:
+			return SpriteType.EnemyShipC2;
+		case EnemyShipC2:
+			return SpriteType.EnemyShipC1;
+		default:
+			return spriteType;
 		}
 	}
 
@@ -161,6 +174,8 @@ public class EnemyShip extends Entity implements Collidable {
         if (!this.isDestroyed) {
 			super.destroy();
             this.spriteType = SpriteType.Explosion;
+			if (this.store != null)
+				this.store.destroyed(this.slot);
 			if(GameState.isDecreaseEnemyPower()){
 				SoundManager.stop("sfx/meow.wav");
             	SoundManager.play("sfx/meow.wav");
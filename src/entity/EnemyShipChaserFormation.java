@@ -7,7 +7,7 @@ import java.util.List;
 import java.util.logging.Logger;
 
 import engine.Core;
-import engine.DrawManager;
+import engine.RenderSnapshot;
 import engine.level.Level;
 import screen.Screen;
 /**
@@ -17,8 +17,6 @@ public class EnemyShipChaserFormation implements Iterable<Chaser> {
 
     /** Logger for debugging. */
     private Logger logger;
-    /** DrawManager for drawing entities. */
-    private DrawManager drawManager;
     /** Screen reference (currently unused, but good practice like other formations). */
 
     /** List of active Chaser enemies. */
@@ -36,7 +34,6 @@ public class EnemyShipChaserFormation implements Iterable<Chaser> {
      */
     public EnemyShipChaserFormation(Level level, int screenWidth, Ship p1Ship) {
         this.logger = Core.getLogger();
-        this.drawManager = Core.getDrawManager();
         this.chasers = new ArrayList<>();
 
         int currentLevel = level.getLevel();
@@ -85,11 +82,12 @@ public class EnemyShipChaserFormation implements Iterable<Chaser> {
     }
 
     /**
-     * Draws all active Chasers.
+     * Adds all active Chasers to the snapshot of the tick.
+     * @param snapshot Snapshot to add the Chasers to.
      */
-    public final void draw() {
+    public final void capture(final RenderSnapshot snapshot) {
         for (Chaser chaser : this.chasers) {
-            drawManager.drawEntity(chaser, chaser.getPositionX(), chaser.getPositionY());
+            snapshot.add(chaser);
         }
     }
 
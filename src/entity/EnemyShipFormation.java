@@ -1,18 +1,17 @@
 package entity;
 
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Set;
 import java.util.logging.Logger;
 import java.awt.Color;
 
 import screen.Screen;
 import engine.Cooldown;
 import engine.Core;
-import engine.DrawManager;
+import engine.RenderSnapshot;
 import engine.DrawManager.SpriteType;
+import engine.GameRandom;
 import engine.GameSettings;
 import engine.level.Level;
 /**
@@ -44,17 +43,24 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
 
 	/** Minimum speed allowed. */
 	private static final int MINIMUM_SPEED = 10;
+	/** Time between animation frames of the ships, in milliseconds. */
+	private static final int ANIMATION_INTERVAL = 500;
 
-	/** DrawManager instance. */
-	private DrawManager drawManager;
-	/** Application logger. */
+	/**
+	 * Application logger. Events happening every few frames are logged at
+	 * FINE, with their messages only built if they are logged.
+	 */
 	private Logger logger;
 	/** Screen to draw ships on. */
 	private Screen screen;
-    /** List of enemy ships forming the formation. */
-	private List<List<EnemyShip>> enemyShips;
+	/** Ships forming the formation, column by column. */
+	private FormationStore store;
+	/** Cooldown between animation frames of the ships. */
+	private Cooldown animationCooldown;
 	/** Minimum time between shots. */
 	private Cooldown shootingCooldown;
+	/** Random numbers of the game. */
+	private final GameRandom random;
 	/** Number of ships in the formation - horizontally. */
 	private int nShipsWide;
 	/** Number of ships in the formation - vertically. */
@@ -115,11 +121,13 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
 	 * 
 	 * @param gameSettings
 	 *            Current game settings.
+	 * @param random
+	 *            Random numbers of the game.
 	 */
-	public EnemyShipFormation(final GameSettings gameSettings) {
-		this.drawManager = Core.getDrawManager();
+	public EnemyShipFormation(final GameSettings gameSettings,
+			final GameRandom random) {
 		this.logger = Core.getLogger();
-		this.enemyShips = new ArrayList<List<EnemyShip>>();
+		this.random = random;
 		this.currentDirection = Direction.DOWN_RIGHT;
 		this.movementInterval = 0;
 		this.nShipsWide = gameSettings.getFormationWidth();
@@ -137,11 +145,10 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
 		this.logger.info("Initializing " + nShipsWide + "x" + nShipsHigh
 				+ " ship formation in (" + positionX + "," + positionY + ")");
 
-		// Each sub-list is a column on the formation.
-		for (int i = 0; i < this.nShipsWide; i++)
-			this.enemyShips.add(new ArrayList<EnemyShip>());
+		this.store = new FormationStore(this.nShipsWide, this.nShipsHigh);
+		this.animationCooldown = Core.getCooldown(ANIMATION_INTERVAL);
 
-		for (List<EnemyShip> column : this.enemyShips) {
+		for (int column = 0; column < this.nShipsWide; column++) {
 			for (int i = 0; i < this.nShipsHigh; i++) {
 				if (i / (float) this.nShipsHigh < PROPORTION_C)
 					spriteType = SpriteType.EnemyShipC1;
@@ -151,34 +158,34 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
 				else
 					spriteType = SpriteType.EnemyShipA1;
 
-				column.add(new EnemyShip((SEPARATION_DISTANCE 
-						* this.enemyShips.indexOf(column))
-								+ positionX, (SEPARATION_DISTANCE * i)
+				this.store.add(column, i, new EnemyShip((SEPARATION_DISTANCE
+						* column) + positionX, (SEPARATION_DISTANCE * i)
 								+ positionY, spriteType));
 				this.shipCount++;
 			}
 		}
 
-		this.shipWidth = this.enemyShips.get(0).get(0).getWidth();
-		this.shipHeight = this.enemyShips.get(0).get(0).getHeight();
+		this.shipWidth = this.store.ships[0].getWidth();
+		this.shipHeight = this.store.ships[0].getHeight();
 
 		this.width = (this.nShipsWide - 1) * SEPARATION_DISTANCE
 				+ this.shipWidth;
 		this.height = (this.nShipsHigh - 1) * SEPARATION_DISTANCE
 				+ this.shipHeight;
 
-		for (List<EnemyShip> column : this.enemyShips)
-			this.shooters.add(column.get(column.size() - 1));
+		for (int column = 0; column < this.nShipsWide; column++)
+			this.shooters.add(this.store.ships[(column + 1) * this.nShipsHigh - 1]);
 	}
 
     /**
      * Constructor that uses Level directly (without GameSettings).
      * @param level Current level data.
+     * @param random Random numbers of the game.
      */
-    public EnemyShipFormation(final Level level,final int offsetX, final int offsetY,final Direction initialDirection) {
-        this.drawManager = Core.getDrawManager();
+    public EnemyShipFormation(final Level level,final int offsetX, final int offsetY,final Direction initialDirection,
+            final GameRandom random) {
         this.logger = Core.getLogger();
-        this.enemyShips = new ArrayList<List<EnemyShip>>();
+        this.random = random;
         this.currentDirection = initialDirection;
         this.movementInterval = 0;
 
@@ -195,16 +202,15 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
         this.logger.info("Initializing " + nShipsWide + "x" + nShipsHigh
                 + " ship formation in (" + positionX + "," + positionY + ")");
 
-        // Each sub-list is a column on the formation.
-        for (int i = 0; i < this.nShipsWide; i++)
-            this.enemyShips.add(new ArrayList<EnemyShip>());
+        this.store = new FormationStore(this.nShipsWide, this.nShipsHigh);
+        this.animationCooldown = Core.getCooldown(ANIMATION_INTERVAL);
 
         final int cells = this.nShipsWide * this.nShipsHigh;
         List<SpriteType> spriteQueue = buildLayeredQueueFromLevel(level, this.nShipsWide, this.nShipsHigh);
         boolean useQueue = (spriteQueue != null && spriteQueue.size() == cells);
         int qIndex = 0;
 
-        for (List<EnemyShip> column : this.enemyShips) {
+        for (int column = 0; column < this.nShipsWide; column++) {
             for (int i = 0; i < this.nShipsHigh; i++) {
                 SpriteType chosen;
                 if (useQueue) {
@@ -219,25 +225,25 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
                         chosen = SpriteType.EnemyShipA1;
                 }
 
-                column.add(new EnemyShip(
-                        (SEPARATION_DISTANCE * this.enemyShips.indexOf(column)) + positionX,
+                this.store.add(column, i, new EnemyShip(
+                        (SEPARATION_DISTANCE * column) + positionX,
                         (SEPARATION_DISTANCE * i) + positionY,
                         chosen));
                 this.shipCount++;
             }
         }
 
-        this.shipWidth = this.enemyShips.get(0).get(0).getWidth();
-        this.shipHeight = this.enemyShips.get(0).get(0).getHeight();
+        this.shipWidth = this.store.ships[0].getWidth();
+        this.shipHeight = this.store.ships[0].getHeight();
 
         this.width = (this.nShipsWide - 1) * SEPARATION_DISTANCE + this.shipWidth;
         this.height = (this.nShipsHigh - 1) * SEPARATION_DISTANCE + this.shipHeight;
 
-        for (List<EnemyShip> column : this.enemyShips)
-            this.shooters.add(column.get(column.size() - 1));
+        for (int column = 0; column < this.nShipsWide; column++)
+            this.shooters.add(this.store.ships[(column + 1) * this.nShipsHigh - 1]);
     }
-	public EnemyShipFormation(final Level level) {
-		this(level, 0, 0, Direction.DOWN_RIGHT);
+	public EnemyShipFormation(final Level level, final GameRandom random) {
+		this(level, 0, 0, Direction.DOWN_RIGHT, random);
 	}
 
 	/**
@@ -251,25 +257,25 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
 	}
 
 	/**
-	 * Draws every individual component of the formation.
+	 * Adds every individual component of the formation to the snapshot of
+	 * the tick.
+	 *
+	 * @param snapshot
+	 *            Snapshot to add the ships to.
 	 */
-	public final void draw() {
-		for (List<EnemyShip> column : this.enemyShips)
-			for (EnemyShip enemyShip : column)
-				drawManager.drawEntity(enemyShip, enemyShip.getPositionX(),
-						enemyShip.getPositionY());
+	public final void capture(final RenderSnapshot snapshot) {
+		FormationStore ships = this.store;
+		for (int slot = 0; slot < ships.ships.length; slot++)
+			if (ships.present[slot])
+				snapshot.add(ships.ships[slot]);
 	}
 
 	/**
-	 * Updates the position of the ships.
+	 * Updates the position of the ships. Touches nothing but the formation
+	 * and its ships, and draws no random numbers, so different formations
+	 * can be updated in parallel.
 	 */
 	public final void update() {
-		if(this.shootingCooldown == null) {
-			this.shootingCooldown = Core.getVariableCooldown(shootingInterval,
-					shootingVariance);
-			this.shootingCooldown.reset();
-		}
-
 		cleanUp();
 
 		updateMovementSpeed(); // Call the new method
@@ -289,19 +295,17 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
 	 * Removes enemy ships that have finished their explosion animation from the formation.
 	 */
 	private void cleanupExplodedShips() {
-		List<EnemyShip> destroyed;
-		for (List<EnemyShip> column : this.enemyShips) {
-			destroyed = new ArrayList<EnemyShip>();
-			for (EnemyShip ship : column) {
-				if (ship != null && ship.isExplosionFinished()) {
-					destroyed.add(ship);
-					this.logger.info("Removed enemy "
-							+ column.indexOf(ship) + " from column "
-							+ this.enemyShips.indexOf(column));
-				}
+		FormationStore ships = this.store;
+		for (int slot = 0; ships.exploding > 0 && slot < ships.ships.length; slot++) {
+			if (ships.present[slot] && !ships.alive[slot]
+					&& ships.ships[slot].isExplosionFinished()) {
+				final int column = slot / ships.rows;
+				final int row = slot % ships.rows;
+				this.logger.fine(() -> "Removed enemy " + row
+						+ " from column " + column);
+				if (ships.remove(slot))
+					this.logger.fine(() -> "Removed column " + column);
 			}
-
-			column.removeAll(destroyed);
 		}
 	}
 
@@ -331,11 +335,11 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
 		positionX += movementX;
 		positionY += movementY;
 
-		for (List<EnemyShip> column : this.enemyShips)
-			for (EnemyShip enemyShip : column) {
-				enemyShip.move(movementX, movementY);
-				enemyShip.update();
-			}
+		this.store.moveAll(movementX, movementY);
+		if (this.animationCooldown.checkFinished()) {
+			this.animationCooldown.reset();
+			this.store.animateAll();
+		}
 	}
 
 	/**
@@ -353,46 +357,46 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
 		if (currentDirection == Direction.DOWN_RIGHT) {
 			if (isAtBottom && isAtRightSide) {
 				currentDirection = Direction.UP_LEFT;
-				this.logger.info("Formation now moving up-left (hit corner)");
+				this.logger.fine("Formation now moving up-left (hit corner)");
 			} else if (isAtBottom) {
 				currentDirection = Direction.UP_RIGHT;
-				this.logger.info("Formation now moving up-right (hit bottom)");
+				this.logger.fine("Formation now moving up-right (hit bottom)");
 			} else if (isAtRightSide) {
 				currentDirection = Direction.DOWN_LEFT;
-				this.logger.info("Formation now moving down-left (hit right wall)");
+				this.logger.fine("Formation now moving down-left (hit right wall)");
 			}
 		} else if (currentDirection == Direction.DOWN_LEFT) {
 			if (isAtBottom && isAtLeftSide) {
 				currentDirection = Direction.UP_RIGHT;
-				this.logger.info("Formation now moving up-right (hit corner)");
+				this.logger.fine("Formation now moving up-right (hit corner)");
 			} else if (isAtBottom) {
 				currentDirection = Direction.UP_LEFT;
-				this.logger.info("Formation now moving up-left (hit bottom)");
+				this.logger.fine("Formation now moving up-left (hit bottom)");
 			} else if (isAtLeftSide) {
 				currentDirection = Direction.DOWN_RIGHT;
-				this.logger.info("Formation now moving down-right (hit left wall)");
+				this.logger.fine("Formation now moving down-right (hit left wall)");
 			}
 		} else if (currentDirection == Direction.UP_RIGHT) {
 			if (isAtTop && isAtRightSide) {
 				currentDirection = Direction.DOWN_LEFT;
-				this.logger.info("Formation now moving down-left (hit corner)");
+				this.logger.fine("Formation now moving down-left (hit corner)");
 			} else if (isAtTop) {
 				currentDirection = Direction.DOWN_RIGHT;
-				this.logger.info("Formation now moving down-right (back to top)");
+				this.logger.fine("Formation now moving down-right (back to top)");
 			} else if (isAtRightSide) {
 				currentDirection = Direction.UP_LEFT;
-				this.logger.info("Formation now moving up-left (hit right wall)");
+				this.logger.fine("Formation now moving up-left (hit right wall)");
 			}
 		} else if (currentDirection == Direction.UP_LEFT) {
 			if (isAtTop && isAtLeftSide) {
 				currentDirection = Direction.DOWN_RIGHT;
-				this.logger.info("Formation now moving down-right (hit corner)");
+				this.logger.fine("Formation now moving down-right (hit corner)");
 			} else if (isAtTop) {
 				currentDirection = Direction.DOWN_LEFT;
-				this.logger.info("Formation now moving down-left (back to top)");
+				this.logger.fine("Formation now moving down-left (back to top)");
 			} else if (isAtLeftSide) {
 				currentDirection = Direction.UP_RIGHT;
-				this.logger.info("Formation now moving up-right (hit left wall)");
+				this.logger.fine("Formation now moving up-right (hit left wall)");
 			}
 		}
 	}
@@ -409,41 +413,43 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
 	}
 
 	/**
-	 * Cleans empty columns, adjusts the width and height of the formation.
+	 * Adjusts the position, width and height of the formation to the ships
+	 * left in it. Moving the whole formation keeps them right, so they are
+	 * only measured again once ships have left or moved on their own, from
+	 * the highest and lowest ship of every column.
 	 */
 	private void cleanUp() {
-		Set<Integer> emptyColumns = new HashSet<Integer>();
-		int maxColumn = 0;
-		int minPositionY = Integer.MAX_VALUE;
-		for (List<EnemyShip> column : this.enemyShips) {
-			if (!column.isEmpty()) {
-				// Height of this column
-				int columnSize = column.get(column.size() - 1).positionY
-						- this.positionY + this.shipHeight;
-				maxColumn = Math.max(maxColumn, columnSize);
-				minPositionY = Math.min(minPositionY, column.get(0)
-						.getPositionY());
-			} else {
-				// Empty column, we remove it.
-				emptyColumns.add(this.enemyShips.indexOf(column));
-			}
-		}
-		for (int index : emptyColumns) {
-			this.enemyShips.remove(index);
-			logger.info("Removed column " + index);
+		FormationStore ships = this.store;
+		if (!ships.boundsChanged)
+			return;
+		ships.boundsChanged = false;
+
+		if (ships.firstColumn > ships.lastColumn) {
+			this.width = this.shipWidth;
+			this.height = 0;
+			this.positionX = 0;
+			this.positionY = Integer.MAX_VALUE;
+			return;
 		}
 
-		int leftMostPoint = 0;
-		int rightMostPoint = 0;
-
-		for (List<EnemyShip> column : this.enemyShips) {
-			if (!column.isEmpty()) {
-				if (leftMostPoint == 0)
-					leftMostPoint = column.get(0).getPositionX();
-				rightMostPoint = column.get(0).getPositionX();
-			}
+		int minPositionY = Integer.MAX_VALUE;
+		int maxPositionY = Integer.MIN_VALUE;
+		for (int column = ships.firstColumn; column <= ships.lastColumn; column++) {
+			if (ships.columnCount[column] == 0)
+				continue;
+			int start = column * ships.rows;
+			minPositionY = Math.min(minPositionY,
+					ships.positionY[start + ships.top[column]]);
+			maxPositionY = Math.max(maxPositionY,
+					ships.positionY[start + ships.bottom[column]]);
 		}
 
+		int leftMostPoint = ships.positionX[ships.firstColumn * ships.rows
+				+ ships.top[ships.firstColumn]];
+		int rightMostPoint = ships.positionX[ships.lastColumn * ships.rows
+				+ ships.top[ships.lastColumn]];
+		int maxColumn = maxPositionY - minPositionY + this.shipHeight;
+
 		this.width = rightMostPoint - leftMostPoint + this.shipWidth;
 		this.height = maxColumn;
 
@@ -455,18 +461,25 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
 	 * Shoots a bullet downwards.
 	 *
 	 * @param bullets
-	 *            Bullets set to add the bullet being shot.
+	 *            Pool of the bullets on screen, to take the bullet from.
 	 */
-	public final void shoot(final Set<Bullet> bullets) {
+	public final void shoot(final BulletPool bullets) {
+		// Armed here rather than in update(), its variance draws a random number
+		if(this.shootingCooldown == null) {
+			this.shootingCooldown = Core.getVariableCooldown(shootingInterval,
+					shootingVariance, this.random);
+			this.shootingCooldown.reset();
+		}
 		// For now, only ships in the bottom row are able to shoot.
 		if (this.shooters.isEmpty()) {return; }
-		int index = (int) (Math.random() * this.shooters.size());
+		int index = this.random.stream(GameRandom.Stream.ENEMY_FIRE)
+				.nextInt(this.shooters.size());
 		EnemyShip shooter = this.shooters.get(index);
 
 		if (this.shootingCooldown.checkFinished()) {
 			this.shootingCooldown.reset();
-			bullets.add(BulletPool.getBullet(shooter.getPositionX()
-					+ shooter.width / 2, shooter.getPositionY(), BULLET_SPEED));
+			bullets.getBullet(shooter.getPositionX()
+					+ shooter.width / 2, shooter.getPositionY(), BULLET_SPEED);
 		}
 	}
 
@@ -477,34 +490,27 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
 	 *            Ship to be destroyed.
 	 */
 	public final void destroy(final EnemyShip destroyedShip) {
-		for (List<EnemyShip> column : this.enemyShips)
-			for (int i = 0; i < column.size(); i++)
-				if (column.get(i).equals(destroyedShip)) {
-					column.get(i).destroy();
-					this.logger.info("Destroyed ship in ("
-							+ this.enemyShips.indexOf(column) + "," + i + ")");
-				}
+		if (this.store.contains(destroyedShip)) {
+			destroyedShip.destroy();
+			final int rows = this.store.rows;
+			this.logger.fine(() -> "Destroyed ship in ("
+					+ destroyedShip.slot / rows + ","
+					+ destroyedShip.slot % rows + ")");
+		}
 
 		// Updates the list of ships that can shoot the player.
 		if (this.shooters.contains(destroyedShip)) {
 			int destroyedShipIndex = this.shooters.indexOf(destroyedShip);
-			int destroyedShipColumnIndex = -1;
-
-			for (List<EnemyShip> column : this.enemyShips)
-				if (column.contains(destroyedShip)) {
-					destroyedShipColumnIndex = this.enemyShips.indexOf(column);
-					break;
-				}
-
-			EnemyShip nextShooter = getNextShooter(this.enemyShips
-					.get(destroyedShipColumnIndex));
+			EnemyShip nextShooter = getNextShooter(destroyedShip.slot
+					/ this.store.rows);
 
 			if (nextShooter != null)
 				this.shooters.set(destroyedShipIndex, nextShooter);
 			else {
 				this.shooters.remove(destroyedShipIndex);
-				this.logger.info("Shooters list reduced to "
-						+ this.shooters.size() + " members.");
+				final int shooterCount = this.shooters.size();
+				this.logger.fine(() -> "Shooters list reduced to "
+						+ shooterCount + " members.");
 			}
 		}
 
@@ -516,18 +522,15 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
 	 *
 	 * @param column
 	 *            Column to search.
-	 * @return New shooter ship.
+	 * @return New shooter ship, the lowest one alive, null if there is none.
 	 */
-	public final EnemyShip getNextShooter(final List<EnemyShip> column) {
-		Iterator<EnemyShip> iterator = column.iterator();
-		EnemyShip nextShooter = null;
-		while (iterator.hasNext()) {
-			EnemyShip checkShip = iterator.next();
-			if (checkShip != null && !checkShip.isDestroyed())
-				nextShooter = checkShip;
-		}
-
-		return nextShooter;
+	public final EnemyShip getNextShooter(final int column) {
+		FormationStore ships = this.store;
+		for (int slot = (column + 1) * ships.rows - 1; slot >= column
+				* ships.rows; slot--)
+			if (ships.present[slot] && ships.alive[slot])
+				return ships.ships[slot];
+		return null;
 	}
 
 	/**
@@ -537,15 +540,39 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
 	 */
 	@Override
 	public final Iterator<EnemyShip> iterator() {
-		Set<EnemyShip> enemyShipsList = new HashSet<EnemyShip>();
-
-		for (List<EnemyShip> column : this.enemyShips)
-			for (EnemyShip enemyShip : column)
-				enemyShipsList.add(enemyShip);
+		List<EnemyShip> enemyShipsList = new ArrayList<EnemyShip>();
+		FormationStore ships = this.store;
+		for (int slot = 0; slot < ships.ships.length; slot++)
+			if (ships.present[slot])
+				enemyShipsList.add(ships.ships[slot]);
 
 		return enemyShipsList.iterator();
 	}
 
+	/**
+	 * Checks if a ship belongs to the formation.
+	 *
+	 * @param enemyShip
+	 *            Ship to look for.
+	 * @return True if the ship is one of the formation's.
+	 */
+	public final boolean contains(final EnemyShip enemyShip) {
+		return this.store.contains(enemyShip);
+	}
+
+	/**
+	 * Adds the ships that are not destroyed to a collision grid.
+	 *
+	 * @param grid
+	 *            Grid to add the ships to.
+	 */
+	public final void addTo(final SpatialGrid<EnemyShip> grid) {
+		FormationStore ships = this.store;
+		for (int slot = 0; slot < ships.ships.length; slot++)
+			if (ships.present[slot] && ships.alive[slot])
+				grid.insert(ships.ships[slot]);
+	}
+
 	/**
 	 * Destroy all ships in the formation.
 	 *
@@ -554,12 +581,11 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
 
 	public final int destroyAll() {
 		int destroyed = 0;
-		for (List<EnemyShip> column : this.enemyShips) {
-			for (EnemyShip enemyShip : column) {
-				if (!enemyShip.isDestroyed()) {
-					enemyShip.destroy();
-					destroyed++;
-				}
+		FormationStore ships = this.store;
+		for (int slot = 0; slot < ships.ships.length; slot++) {
+			if (ships.present[slot] && ships.alive[slot]) {
+				ships.ships[slot].destroy();
+				destroyed++;
 			}
 		}
 		this.shipCount = 0;
@@ -575,6 +601,16 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
 		return this.shipCount <= 0;
 	}
 
+	/**
+	 * Returns the number of ships the formation was created with, which
+	 * bounds the work of one update.
+	 *
+	 * @return Number of ships the formation started with.
+	 */
+	public final int getCapacity() {
+		return this.store.ships.length;
+	}
+
     /**
      * Activates slowdown effect on the formation.
      */
@@ -612,10 +648,7 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
     }
 
 	public final void clear() {
-		for (List<EnemyShip> column : this.enemyShips) {
-			column.clear();
-		}
-		this.enemyShips.clear();
+		this.store.clear();
 		this.shipCount = 0;
 	}
 
@@ -686,11 +719,10 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
         return columnMajor;
     }
     public void applyEnemyColor(final Color color) {
-        for (java.util.List<EnemyShip> column : this.enemyShips) {
-            for (EnemyShip ship : column) {
-                if (ship != null && !ship.isDestroyed()) {
-                    ship.setColor(color);
-                }
+        FormationStore ships = this.store;
+        for (int slot = 0; slot < ships.ships.length; slot++) {
+            if (ships.present[slot] && ships.alive[slot]) {
+                ships.ships[slot].setColor(color);
             }
         }
     }
@@ -8,7 +8,8 @@ import screen.Screen;
 import engine.level.Level;
 import engine.Cooldown;
 import engine.Core;
-import engine.DrawManager;
+import engine.GameRandom;
+import engine.RenderSnapshot;
 import engine.GameSettings;
 
 /**
@@ -28,10 +29,6 @@ public class EnemyShipSpecialFormation implements Iterable<EnemyShip> {
      */
     private static final int SIDE_MARGIN = 20;
 
-    /**
-     * DrawManager instance.
-     */
-    private DrawManager drawManager;
     /**
      * Application logger.
      */
@@ -62,16 +59,21 @@ public class EnemyShipSpecialFormation implements Iterable<EnemyShip> {
     // Cooldown Field
     private Cooldown enemyShipSpecialCooldown;
     private Cooldown enemyShipSpecialExplosionCooldown;
+    /**
+     * Random numbers of the game.
+     */
+    private final GameRandom random;
 
     /**
      * Constructor, sets the initial conditions.
      *
      * @param gameSettings Current game settings.
      */
-    public EnemyShipSpecialFormation(final GameSettings gameSettings, Cooldown cooldown, Cooldown explosionCooldown) {
+    public EnemyShipSpecialFormation(final GameSettings gameSettings, Cooldown cooldown, Cooldown explosionCooldown,
+                                     final GameRandom random) {
         /** Option **/
-        this.drawManager = Core.getDrawManager();
         this.logger = Core.getLogger();
+        this.random = random;
 
         /** Move **/
 //        this.currentDirectionRed = Direction.RIGHT;
@@ -101,7 +103,8 @@ public class EnemyShipSpecialFormation implements Iterable<EnemyShip> {
      */
     public EnemyShipSpecialFormation(final Level level,
                                      final Cooldown cooldown,
-                                     final Cooldown explosionCooldown) {
+                                     final Cooldown explosionCooldown,
+                                     final GameRandom random) {
         this(
             new GameSettings(
                 level.getFormationWidth(),
@@ -110,7 +113,8 @@ public class EnemyShipSpecialFormation implements Iterable<EnemyShip> {
                 level.getShootingFrecuency()
             ),
             cooldown,
-            explosionCooldown
+            explosionCooldown,
+            random
         );
     }
 
@@ -124,19 +128,16 @@ public class EnemyShipSpecialFormation implements Iterable<EnemyShip> {
     }
 
     /**
-     * Draws every component of the formation.
+     * Adds every component of the formation to the snapshot of the tick.
+     *
+     * @param snapshot Snapshot to add the ships to.
      */
-    public final void draw() {
+    public final void capture(final RenderSnapshot snapshot) {
         if (this.enemyShipSpecialRed != null)
-            drawManager.drawEntity(this.enemyShipSpecialRed,
-                    this.enemyShipSpecialRed.getPositionX(),
-                    this.enemyShipSpecialRed.getPositionY());
+            snapshot.add(this.enemyShipSpecialRed);
 
         if (this.enemyShipSpecialBlue != null)
-            drawManager.drawEntity(this.enemyShipSpecialBlue,
-                    this.enemyShipSpecialBlue.getPositionX(),
-                    this.enemyShipSpecialBlue.getPositionY());
-
+            snapshot.add(this.enemyShipSpecialBlue);
     }
 
     /**
@@ -147,7 +148,7 @@ public class EnemyShipSpecialFormation implements Iterable<EnemyShip> {
         // TO DO 2. Shoot feature
         if (this.shootingCooldown == null) {
             this.shootingCooldown = Core.getVariableCooldown(shootingInterval,
-                    shootingVariance);
+                    shootingVariance, this.random);
             this.shootingCooldown.reset();
         }
 
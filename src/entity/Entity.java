@@ -16,6 +16,10 @@ public class Entity {
 	protected int positionX;
 	/** Position in the y-axis of the upper left corner of the entity. */
 	protected int positionY;
+	/** Position in the x-axis at the start of the current tick. */
+	private int previousPositionX;
+	/** Position in the y-axis at the start of the current tick. */
+	private int previousPositionY;
 	/** Width of the entity. */
 	protected int width;
 	/** Height of the entity. */
@@ -45,6 +49,8 @@ public class Entity {
 			final int height, final Color color) {
 		this.positionX = positionX;
 		this.positionY = positionY;
+		this.previousPositionX = positionX;
+		this.previousPositionY = positionY;
 		this.width = width;
 		this.height = height;
 		this.color = color;
@@ -108,6 +114,41 @@ public class Entity {
 		this.positionY = positionY;
 	}
 
+	/**
+	 * Remembers the current position as the start of the tick, used to
+	 * interpolate the entity between ticks when rendering.
+	 */
+	public final void storePreviousPosition() {
+		this.previousPositionX = this.positionX;
+		this.previousPositionY = this.positionY;
+	}
+
+	/**
+	 * Getter for the X axis position interpolated between the previous tick
+	 * and the current one.
+	 *
+	 * @param alpha
+	 *            Fraction of the next tick already elapsed, between 0 and 1.
+	 * @return Interpolated position of the entity in the X axis.
+	 */
+	public final int getInterpolatedX(final float alpha) {
+		return this.previousPositionX
+				+ Math.round((this.positionX - this.previousPositionX) * alpha);
+	}
+
+	/**
+	 * Getter for the Y axis position interpolated between the previous tick
+	 * and the current one.
+	 *
+	 * @param alpha
+	 *            Fraction of the next tick already elapsed, between 0 and 1.
+	 * @return Interpolated position of the entity in the Y axis.
+	 */
+	public final int getInterpolatedY(final float alpha) {
+		return this.previousPositionY
+				+ Math.round((this.positionY - this.previousPositionY) * alpha);
+	}
+
 	/**
 	 * Getter for the sprite that the entity will be drawn as.
 	 * 
@@ -7,6 +7,7 @@ import audio.SoundManager;
 import engine.Cooldown;
 import engine.Core;
 import engine.DrawManager;
+import engine.GameRandom;
 import engine.GameState;
 
 import screen.GameScreen;
@@ -51,7 +52,8 @@ public class FinalBoss extends Entity implements BossEntity, Collidable {
     private int screenHeight;
     
     /** basic attribute of final boss */
-    public FinalBoss(int positionX, int positionY, int screenWidth, int screenHeight, Ship ship, int difficulty){
+    public FinalBoss(int positionX, int positionY, int screenWidth, int screenHeight, Ship ship, int difficulty,
+            GameRandom random){
 
         super(positionX,positionY,100,80, Color.RED);
         
@@ -84,8 +86,8 @@ public class FinalBoss extends Entity implements BossEntity, Collidable {
         this.animationCooldown = Core.getCooldown(500);
         this.animationPowerUpCooldown = Core.getCooldown(250);
 
-        this.attackManager = new BossAttackManager(this);
-        this.movementManager = new BossMovementManager(this, ship);
+        this.attackManager = new BossAttackManager(this, random);
+        this.movementManager = new BossMovementManager(this, ship, random);
     }
  
     @Override
@@ -0,0 +1,222 @@
+package entity;
+
+import java.util.Arrays;
+
+import engine.DrawManager.SpriteType;
+
+/**
+ * Holds the state of the ships of a formation in parallel arrays, one slot
+ * per ship, so the formation can move, animate and measure all of its ships
+ * in tight loops over primitives. Slots are laid out column by column: the
+ * ship in a given column and row is in slot column * rows + row.
+ *
+ * The store also keeps, as ships leave, which columns and rows still hold
+ * ships, so the bounds of the formation are only measured again when they
+ * may have changed, and only from the ships on its edges.
+ *
+ * The EnemyShip of a slot is a view of it: its position and sprite are
+ * written through whenever the slot changes, so the rest of the game, which
+ * reads ships as entities, always sees them up to date. A ship moved or
+ * destroyed on its own writes back to its slot.
+ */
+final class FormationStore {
+
+	/** Every sprite, indexed by the ids held in the slots. */
+	private static final SpriteType[] SPRITES = SpriteType.values();
+
+	/** Number of columns. */
+	final int columns;
+	/** Number of rows. */
+	final int rows;
+	/** Position of each ship in the X axis. */
+	final int[] positionX;
+	/** Position of each ship in the Y axis. */
+	final int[] positionY;
+	/** If each ship is still part of the formation, destroyed or not. */
+	final boolean[] present;
+	/** If each ship is still alive. */
+	final boolean[] alive;
+	/** Sprite of each ship, as an ordinal of SpriteType. */
+	final byte[] sprite;
+	/** Number of ships still part of each column. */
+	final int[] columnCount;
+	/** Row of the highest ship still part of each column. */
+	final int[] top;
+	/** Row of the lowest ship still part of each column. */
+	final int[] bottom;
+	/** Ship of each slot. */
+	final EnemyShip[] ships;
+	/** Leftmost column still holding ships, columns if there is none. */
+	int firstColumn;
+	/** Rightmost column still holding ships, -1 if there is none. */
+	int lastColumn;
+	/** Number of ships destroyed but still part of the formation. */
+	int exploding;
+	/** If ships have left or moved on their own since the bounds were last measured. */
+	boolean boundsChanged;
+
+	/**
+	 * Constructor, with every slot empty.
+	 *
+	 * @param columns
+	 *            Number of columns.
+	 * @param rows
+	 *            Number of rows.
+	 */
+	FormationStore(final int columns, final int rows) {
+		int capacity = columns * rows;
+		this.columns = columns;
+		this.rows = rows;
+		this.positionX = new int[capacity];
+		this.positionY = new int[capacity];
+		this.present = new boolean[capacity];
+		this.alive = new boolean[capacity];
+		this.sprite = new byte[capacity];
+		this.columnCount = new int[columns];
+		this.top = new int[columns];
+		this.bottom = new int[columns];
+		this.ships = new EnemyShip[capacity];
+		this.firstColumn = columns;
+		this.lastColumn = -1;
+		this.boundsChanged = true;
+	}
+
+	/**
+	 * Puts a ship in a slot, which becomes its view.
+	 *
+	 * @param column
+	 *            Column of the ship.
+	 * @param row
+	 *            Row of the ship.
+	 * @param ship
+	 *            Ship to add.
+	 */
+	void add(final int column, final int row, final EnemyShip ship) {
+		int slot = column * this.rows + row;
+		this.positionX[slot] = ship.positionX;
+		this.positionY[slot] = ship.positionY;
+		this.present[slot] = true;
+		this.alive[slot] = !ship.isDestroyed;
+		this.sprite[slot] = (byte) ship.spriteType.ordinal();
+		this.ships[slot] = ship;
+		if (this.columnCount[column]++ == 0) {
+			this.top[column] = row;
+			this.bottom[column] = row;
+		} else {
+			this.top[column] = Math.min(this.top[column], row);
+			this.bottom[column] = Math.max(this.bottom[column], row);
+		}
+		this.firstColumn = Math.min(this.firstColumn, column);
+		this.lastColumn = Math.max(this.lastColumn, column);
+		this.boundsChanged = true;
+		ship.store = this;
+		ship.slot = slot;
+	}
+
+	/**
+	 * Moves every ship still part of the formation.
+	 *
+	 * @param distanceX
+	 *            Distance to move in the X axis.
+	 * @param distanceY
+	 *            Distance to move in the Y axis.
+	 */
+	void moveAll(final int distanceX, final int distanceY) {
+		for (int slot = 0; slot < this.ships.length; slot++) {
+			if (this.present[slot]) {
+				EnemyShip ship = this.ships[slot];
+				ship.positionX = this.positionX[slot] += distanceX;
+				ship.positionY = this.positionY[slot] += distanceY;
+			}
+		}
+	}
+
+	/**
+	 * Moves one ship.
+	 */
+	void move(final int slot, final int distanceX, final int distanceY) {
+		EnemyShip ship = this.ships[slot];
+		ship.positionX = this.positionX[slot] += distanceX;
+		ship.positionY = this.positionY[slot] += distanceY;
+		this.boundsChanged = true;
+	}
+
+	/**
+	 * Shows the next animation frame of every ship still part of the
+	 * formation.
+	 */
+	void animateAll() {
+		for (int slot = 0; slot < this.ships.length; slot++) {
+			if (this.present[slot]) {
+				SpriteType next = EnemyShip.nextFrame(SPRITES[this.sprite[slot] & 0xFF]);
+				this.sprite[slot] = (byte) next.ordinal();
+				this.ships[slot].spriteType = next;
+			}
+		}
+	}
+
+	/**
+	 * Records that the ship of a slot has been destroyed.
+	 */
+	void destroyed(final int slot) {
+		if (this.present[slot])
+			this.exploding++;
+		this.alive[slot] = false;
+		this.sprite[slot] = (byte) this.ships[slot].spriteType.ordinal();
+	}
+
+	/**
+	 * Takes a ship out of the formation, once its explosion is over. The
+	 * edges only ever move inwards, so keeping them costs nothing more, over
+	 * the life of the formation, than one pass over its ships.
+	 *
+	 * @param slot
+	 *            Slot of a destroyed ship.
+	 * @return True if its column is now empty.
+	 */
+	boolean remove(final int slot) {
+		int column = slot / this.rows;
+		int start = column * this.rows;
+		this.present[slot] = false;
+		this.exploding--;
+		this.boundsChanged = true;
+
+		if (--this.columnCount[column] > 0) {
+			while (!this.present[start + this.top[column]])
+				this.top[column]++;
+			while (!this.present[start + this.bottom[column]])
+				this.bottom[column]--;
+			return false;
+		}
+		while (this.firstColumn <= this.lastColumn
+				&& this.columnCount[this.firstColumn] == 0)
+			this.firstColumn++;
+		while (this.lastColumn >= this.firstColumn
+				&& this.columnCount[this.lastColumn] == 0)
+			this.lastColumn--;
+		if (this.firstColumn > this.lastColumn) {
+			this.firstColumn = this.columns;
+			this.lastColumn = -1;
+		}
+		return true;
+	}
+
+	/**
+	 * Takes every ship out of the formation.
+	 */
+	void clear() {
+		Arrays.fill(this.present, false);
+		Arrays.fill(this.columnCount, 0);
+		this.firstColumn = this.columns;
+		this.lastColumn = -1;
+		this.exploding = 0;
+		this.boundsChanged = true;
+	}
+
+	/**
+	 * Checks if a ship is still part of this formation.
+	 */
+	boolean contains(final EnemyShip ship) {
+		return ship.store == this && this.present[ship.slot];
+	}
+}
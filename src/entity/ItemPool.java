@@ -1,30 +1,44 @@
 package entity;
 
-import java.util.HashSet;
-import java.util.Set;
 import entity.DropItem.ItemType;
 
 /**
- * Implements a pool of recyclable items.
+ * Implements a bounded pool of recyclable items. Every item is created up
+ * front in one array: the first part of the array holds the live items and
+ * the rest is the free list, so taking an item out of the pool, giving it
+ * back and iterating over the live ones never allocate. Releasing an item
+ * swaps the last live item into its slot.
  *
  * @author <a href="mailto:RobertoIA1987@gmail.com">Roberto Izquierdo Amo</a>
  *
  */
 public final class ItemPool {
 
-    /** Set of already created items. */
-    private static Set<DropItem> pool = new HashSet<DropItem>();
+    /** Items of the pool, live ones first. */
+    private final DropItem[] items;
+    /** Number of live items. */
+    private int liveCount;
+    /** Highest number of items live at the same time. */
+    private int highWaterMark;
+    /** Number of requests refused because the pool was exhausted. */
+    private int rejectedCount;
 
     /**
-     * Constructor, not called.
+     * Constructor, creates every item of the pool.
+     *
+     * @param capacity
+     *            Maximum number of items live at the same time.
      */
-    private ItemPool() {
-
+    public ItemPool(final int capacity) {
+        this.items = new DropItem[capacity];
+        for (int i = 0; i < capacity; i++) {
+            this.items[i] = new DropItem(0, 0, 0, ItemType.Heal);
+            this.items[i].poolIndex = i;
+        }
     }
 
     /**
-     * Returns a item from the pool if one is available, a new one if there
-     * isn't.
+     * Takes an item from the free list and makes it live.
      *
      * @param positionX
      *            Requested position of the item in the X axis.
@@ -34,33 +48,119 @@ public final class ItemPool {
      *            Requested speed of the item, positive or negative depending
      *            on direction - positive is down.
      * @param itemType
-     *      * Requested item type.
-     * @return Requested item.
+     *            Requested item type.
+     * @return Requested item, or null if every item is already live.
      */
-    public static DropItem getItem(final int positionX,
-                                   final int positionY, final int speed, final ItemType itemType) {
-        DropItem dropItem;
-        if (!pool.isEmpty()) {
-            dropItem = pool.iterator().next();
-            pool.remove(dropItem);
-            dropItem.setPositionX(positionX - dropItem.getWidth() / 2);
-            dropItem.setPositionY(positionY);
-            dropItem.setSpeed(speed);
-            dropItem.setItemType(itemType);
-        } else {
-            dropItem = new DropItem(positionX, positionY, speed, itemType);
-            dropItem.setPositionX(positionX - dropItem.getWidth() / 2);
+    public DropItem getItem(final int positionX, final int positionY,
+                            final int speed, final ItemType itemType) {
+        if (this.liveCount == this.items.length) {
+            this.rejectedCount++;
+            return null;
         }
+
+        DropItem dropItem = this.items[this.liveCount++];
+        if (this.liveCount > this.highWaterMark)
+            this.highWaterMark = this.liveCount;
+
+        dropItem.setItemType(itemType);
+        dropItem.setPositionX(positionX - dropItem.getWidth() / 2);
+        dropItem.setPositionY(positionY);
+        dropItem.setSpeed(speed);
+        dropItem.storePreviousPosition();
         return dropItem;
     }
 
     /**
-     * Adds one or more items to the list of available ones.
+     * Returns a live item to the free list. The last live item takes its
+     * place, so when iterating by index the same index has to be visited
+     * again.
+     *
+     * @param index
+     *            Index of the live item to release.
+     */
+    public void release(final int index) {
+        int last = --this.liveCount;
+        DropItem released = this.items[index];
+        DropItem moved = this.items[last];
+
+        this.items[index] = moved;
+        moved.poolIndex = index;
+        this.items[last] = released;
+        released.poolIndex = last;
+    }
+
+    /**
+     * Returns a live item to the free list.
      *
      * @param dropItem
-     *            items to recycle.
+     *            Live item to release.
+     */
+    public void release(final DropItem dropItem) {
+        if (dropItem.poolIndex < this.liveCount
+                && this.items[dropItem.poolIndex] == dropItem)
+            release(dropItem.poolIndex);
+    }
+
+    /**
+     * Returns every live item to the free list.
+     */
+    public void releaseAll() {
+        this.liveCount = 0;
+    }
+
+    /**
+     * Getter for a live item.
+     *
+     * @param index
+     *            Index of the item, between 0 and size() - 1.
+     * @return Live item.
+     */
+    public DropItem get(final int index) {
+        return this.items[index];
+    }
+
+    /**
+     * Getter for the number of live items.
+     *
+     * @return Live items.
+     */
+    public int size() {
+        return this.liveCount;
+    }
+
+    /**
+     * Getter for the number of items in the free list.
+     *
+     * @return Free items.
+     */
+    public int getFreeCount() {
+        return this.items.length - this.liveCount;
+    }
+
+    /**
+     * Getter for the highest number of items live at the same time.
+     *
+     * @return High-water mark of live items.
+     */
+    public int getHighWaterMark() {
+        return this.highWaterMark;
+    }
+
+    /**
+     * Getter for the number of requests refused on an exhausted pool.
+     *
+     * @return Refused requests.
+     */
+    public int getRejectedCount() {
+        return this.rejectedCount;
+    }
+
+    /**
+     * Getter for the capacity of the pool.
+     *
+     * @return Maximum number of live items.
      */
-    public static void recycle(final Set<DropItem> dropItem) {
-        pool.addAll(dropItem);
+    public int getCapacity() {
+        return this.items.length;
     }
 }
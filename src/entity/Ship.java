@@ -1,6 +1,5 @@
 package entity;
 import java.awt.Color;
-import java.util.Set;
 
 import audio.SoundManager;
 import engine.Cooldown;
@@ -93,10 +92,10 @@ public class Ship extends Entity {
 	 * Shoots a bullet upwards.
 	 * 
 	 * @param bullets
-	 *            List of bullets on screen, to add the new bullet.
+	 *            Pool of the bullets on screen, to take the new bullet from.
 	 * @return Checks if the bullet was shot correctly.
 	 */
-	public final boolean shoot(final Set<Bullet> bullets) {
+	public final boolean shoot(final BulletPool bullets) {
 		if (this.shootingCooldown.checkFinished()) {
 			this.shootingCooldown.reset();
 
@@ -109,22 +108,20 @@ public class Ship extends Entity {
 
 			if (bulletCount == 1) {
 				// Normal shot (when Spread Shot is not purchased)
-				Bullet b = BulletPool.getBullet(centerX, centerY, BULLET_SPEED);
+				Bullet b = bullets.getBullet(centerX, centerY, BULLET_SPEED);
 				SoundManager.stop("sfx/laser.wav");
                 SoundManager.play("sfx/laser.wav");
-                b.setOwnerId(this.playerId);  // === [ADD] Ownership flag: 1 = P1, 2 = P2, null for legacy logic ===
-
-                bullets.add(b);
+                if (b != null)
+                    b.setOwnerId(this.playerId);  // === [ADD] Ownership flag: 1 = P1, 2 = P2, null for legacy logic ===
 			} else {
 				// Fire Spread Shot
 				int startOffset = -(bulletCount / 2) * spacing;
 
 				for (int i = 0; i < bulletCount; i++) {
 					int offsetX = startOffset + (i * spacing);
-                    Bullet b = BulletPool.getBullet(centerX + offsetX, centerY, BULLET_SPEED);
-                    b.setOwnerId(this.playerId);   // Ownership flag
-
-                    bullets.add(b);
+                    Bullet b = bullets.getBullet(centerX + offsetX, centerY, BULLET_SPEED);
+                    if (b != null)
+                        b.setOwnerId(this.playerId);   // Ownership flag
 
                     // might consider putting a different sound
 					SoundManager.stop("sfx/laser.wav");
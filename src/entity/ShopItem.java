@@ -289,6 +289,15 @@ public class ShopItem {
         return SHIP_SPEED[SHIPSPEEDLEVEL];
     }
 
+    /**
+     * Returns the current Ship Speed level.
+     *
+     * @return The current level (0-5).
+     */
+    public static int getShipSpeedLevel() {
+        return SHIPSPEEDLEVEL;
+    }
+
     public static int getBulletSpeedLevel() {
         return bulletSpeedLevel;
     }
@@ -0,0 +1,145 @@
+package entity;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Uniform grid over the play area used as the broad phase of collision
+ * detection. Entities are bucketed by the cells their bounding box covers,
+ * so a query only has to run the narrow phase, Entity.collidesWith, against
+ * the entities sharing a cell with the queried one instead of against every
+ * entity on screen. The grid is rebuilt every tick; clearing it only touches
+ * the cells used since the last rebuild and neither inserts nor queries
+ * allocate once the buckets have grown to their working size.
+ *
+ * @param <T>
+ *            Type of the indexed entities.
+ */
+public final class SpatialGrid<T extends Entity> {
+
+	/** Side of a cell, in pixels. */
+	private final int cellSize;
+	/** Number of cell columns. */
+	private final int columns;
+	/** Number of cell rows. */
+	private final int rows;
+	/** Entities in each cell, indexed by row * columns + column. */
+	private final List<List<T>> cells;
+	/** Indexes of the cells holding at least one entity. */
+	private final int[] usedCells;
+	/** Number of valid entries in usedCells. */
+	private int usedCellCount;
+	/** Number of entities inserted since the last clear. */
+	private int size;
+
+	/**
+	 * Constructor, establishes the area covered by the grid. Entities
+	 * outside of it are kept in the border cells.
+	 *
+	 * @param width
+	 *            Width of the covered area.
+	 * @param height
+	 *            Height of the covered area.
+	 * @param cellSize
+	 *            Side of a cell, ideally a bit larger than most entities.
+	 */
+	public SpatialGrid(final int width, final int height, final int cellSize) {
+		this.cellSize = cellSize;
+		this.columns = Math.max(1, (width + cellSize - 1) / cellSize);
+		this.rows = Math.max(1, (height + cellSize - 1) / cellSize);
+		this.cells = new ArrayList<List<T>>(this.columns * this.rows);
+		for (int i = 0; i < this.columns * this.rows; i++)
+			this.cells.add(new ArrayList<T>());
+		this.usedCells = new int[this.columns * this.rows];
+	}
+
+	/**
+	 * Removes every entity from the grid.
+	 */
+	public void clear() {
+		for (int i = 0; i < this.usedCellCount; i++)
+			this.cells.get(this.usedCells[i]).clear();
+		this.usedCellCount = 0;
+		this.size = 0;
+	}
+
+	/**
+	 * Adds an entity to every cell its bounding box covers.
+	 *
+	 * @param entity
+	 *            Entity to add.
+	 */
+	public void insert(final T entity) {
+		final int minColumn = column(entity.positionX);
+		final int maxColumn = column(entity.positionX + entity.width);
+		final int minRow = row(entity.positionY);
+		final int maxRow = row(entity.positionY + entity.height);
+
+		for (int r = minRow; r <= maxRow; r++) {
+			for (int c = minColumn; c <= maxColumn; c++) {
+				int index = r * this.columns + c;
+				List<T> cell = this.cells.get(index);
+				if (cell.isEmpty())
+					this.usedCells[this.usedCellCount++] = index;
+				cell.add(entity);
+			}
+		}
+		this.size++;
+	}
+
+	/**
+	 * Collects the entities sharing a cell with the given one. These are
+	 * only candidates: callers still have to check for an actual collision.
+	 *
+	 * @param entity
+	 *            Entity to find neighbours of.
+	 * @param candidates
+	 *            List the candidates are written to, cleared first. Each
+	 *            entity appears once.
+	 */
+	public void query(final Entity entity, final List<T> candidates) {
+		candidates.clear();
+		if (this.size == 0)
+			return;
+
+		final int minColumn = column(entity.positionX);
+		final int maxColumn = column(entity.positionX + entity.width);
+		final int minRow = row(entity.positionY);
+		final int maxRow = row(entity.positionY + entity.height);
+		final boolean singleCell = minColumn == maxColumn && minRow == maxRow;
+
+		for (int r = minRow; r <= maxRow; r++) {
+			for (int c = minColumn; c <= maxColumn; c++) {
+				List<T> cell = this.cells.get(r * this.columns + c);
+				for (int i = 0; i < cell.size(); i++) {
+					T candidate = cell.get(i);
+					if (singleCell || !candidates.contains(candidate))
+						candidates.add(candidate);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Getter for the number of indexed entities.
+	 *
+	 * @return Entities inserted since the last clear.
+	 */
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * Converts an x coordinate to a column, clamped to the grid.
+	 */
+	private int column(final int x) {
+		return Math.min(this.columns - 1, Math.max(0, x / this.cellSize));
+	}
+
+	/**
+	 * Converts a y coordinate to a row, clamped to the grid.
+	 */
+	private int row(final int y) {
+		return Math.min(this.rows - 1, Math.max(0, y / this.cellSize));
+	}
+}
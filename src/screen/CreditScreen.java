@@ -4,10 +4,11 @@ import java.awt.event.KeyEvent;
 import java.util.ArrayList;
 import java.util.List;
 import java.awt.Color;
-import java.util.Random;
+import java.util.SplittableRandom;
 import java.util.Iterator;
 import engine.Cooldown;
 import engine.Core;
+import engine.GameRandom;
 import engine.DrawManager.SpriteType;
 import engine.CelestialBody;
 import engine.StarSpeedManager;
@@ -38,7 +39,7 @@ public class CreditScreen extends Screen {
     private List<TitleScreen.BackgroundEnemy> backgroundEnemies;
     private List<TitleScreen.ShootingStar> shootingStars;
 
-    private Random random;
+    private SplittableRandom random;
     private StarSpeedManager speedManager;
     private StarOriginManager originManager;
     private CelestialManager celestialManager;
@@ -85,7 +86,7 @@ public class CreditScreen extends Screen {
         this.enemySpawnCooldown.reset();
         this.shootingStarCooldown.reset();
 
-        this.random = new Random();
+        this.random = new GameRandom().stream(GameRandom.Stream.EFFECTS);
         this.stars = new ArrayList<TitleScreen.Star>();
         List<Color> starColors = java.util.Arrays.asList(
                 Color.WHITE,
@@ -95,7 +96,7 @@ public class CreditScreen extends Screen {
                 new Color(204, 204, 255)
         );
         for (int i = 0; i < NUM_STARS; i++) {
-            float speed = (float) (Math.random() * 2.5 + 2.0);
+            float speed = (float) (random.nextDouble() * 2.5 + 2.0);
             Color color = starColors.get(random.nextInt(starColors.size()));
             float z = MAX_STAR_Z - (i * (MAX_STAR_Z - MIN_STAR_Z) / NUM_STARS);
             if (z < MIN_STAR_Z) z = MIN_STAR_Z;
@@ -105,7 +106,7 @@ public class CreditScreen extends Screen {
             float initial_screen_y_offset = (random.nextFloat() - 0.5f) * (this.getHeight() * spread_multiplier);
 
             CelestialBody celestialBody = new CelestialBody(z, initial_screen_x_offset, initial_screen_y_offset, speed);
-            this.stars.add(new TitleScreen.Star(celestialBody, color));
+            this.stars.add(new TitleScreen.Star(celestialBody, color, this.random));
         }
         this.backgroundEnemies = new ArrayList<TitleScreen.BackgroundEnemy>();
         this.shootingStars = new ArrayList<TitleScreen.ShootingStar>();
@@ -175,11 +176,11 @@ public class CreditScreen extends Screen {
 
         if (this.enemySpawnCooldown.checkFinished()) {
             this.enemySpawnCooldown.reset();
-            if (Math.random() < ENEMY_SPAWN_CHANCE) {
+            if (random.nextDouble() < ENEMY_SPAWN_CHANCE) {
                 SpriteType[] enemyTypes = { SpriteType.EnemyShipA1, SpriteType.EnemyShipB1, SpriteType.EnemyShipC1 };
                 SpriteType randomEnemyType = enemyTypes[random.nextInt(enemyTypes.length)];
 
-                float speed = (float) (Math.random() * 2.5 + 2.0);
+                float speed = (float) (random.nextDouble() * 2.5 + 2.0);
                 float z = MAX_STAR_Z;
                 float spread_multiplier = 1.5f;
                 float initial_screen_x_offset = (random.nextFloat() - 0.5f) * (this.getWidth() * spread_multiplier);
@@ -192,9 +193,9 @@ public class CreditScreen extends Screen {
 
         if (this.shootingStarCooldown.checkFinished()) {
             this.shootingStarCooldown.reset();
-            if (Math.random() < SHOOTING_STAR_SPAWN_CHANCE) {
-                float speedX = (float) (Math.random() * 7 + 5) * (Math.random() > 0.5 ? 1 : -1);
-                float speedY = (float) (Math.random() * 7 + 5) * (Math.random() > 0.5 ? 1 : -1);
+            if (random.nextDouble() < SHOOTING_STAR_SPAWN_CHANCE) {
+                float speedX = (float) (random.nextDouble() * 7 + 5) * (random.nextDouble() > 0.5 ? 1 : -1);
+                float speedY = (float) (random.nextDouble() * 7 + 5) * (random.nextDouble() > 0.5 ? 1 : -1);
                 this.shootingStars.add(new TitleScreen.ShootingStar(random.nextInt(this.getWidth()), -10, speedX, speedY));
             }
         }
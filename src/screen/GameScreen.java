@@ -4,14 +4,23 @@ import java.awt.Color;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Set;
 import engine.Cooldown;
 import engine.Core;
+import engine.FrameProfiler;
+import engine.GameClock;
+import engine.GameRandom;
 import engine.GameState;
 import engine.GameTimer;
 import engine.AchievementManager;
-import engine.InputManager;
+import engine.InputSnapshot;
 import engine.ItemHUDManager;
+import engine.ReplayPlayer;
+import engine.RenderThread;
+import engine.ReplayRecorder;
+import engine.TickScheduler;
+import engine.TripleBuffer;
 import engine.AuthManager;
 import engine.ApiClient;
 import entity.*;
@@ -29,6 +38,7 @@ import engine.level.LevelEnemyFormation;
 public class GameScreen extends Screen {
     private boolean isPaused = false;
     private boolean escPressedLastFrame = false;
+    private boolean profilerKeyLastFrame = false;
 
     /**
      * Milliseconds until the screen accepts user input.
@@ -67,6 +77,18 @@ public class GameScreen extends Screen {
      */
 
     private static final int ITEMS_SEPARATION_LINE_HEIGHT = 600;
+    /**
+     * Side of a cell of the collision grids, a bit larger than a formation ship.
+     */
+    private static final int COLLISION_CELL_SIZE = 64;
+    /**
+     * Maximum number of bullets on screen at the same time.
+     */
+    private static final int BULLET_POOL_CAPACITY = 1024;
+    /**
+     * Maximum number of dropped items on screen at the same time.
+     */
+    private static final int ITEM_POOL_CAPACITY = 64;
 
     /**
      * Current level data (direct from Level system).
@@ -107,13 +129,13 @@ public class GameScreen extends Screen {
      */
     private MidBoss omegaBoss;
     /**
-     * Set of all bullets fired by on-screen ships.
+     * Pool of all bullets fired by on-screen ships.
      */
-    private Set<Bullet> bullets;
+    private BulletPool bullets;
     /**
-     * Set of all dropItems dropped by on screen ships.
+     * Pool of all dropItems dropped by on screen ships.
      */
-    private Set<DropItem> dropItems;
+    private ItemPool dropItems;
     /**
      * Current score.
      */
@@ -154,6 +176,43 @@ public class GameScreen extends Screen {
      * Current coin.
      */
     private int coin;
+    /**
+     * Random number service of the game.
+     */
+    private GameRandom random;
+    /**
+     * Times the phases of the ticks.
+     */
+    private final FrameProfiler profiler = FrameProfiler.getInstance();
+    /**
+     * Runs the updates of the enemy formations, on several cores if worth it.
+     */
+    private final TickScheduler scheduler = TickScheduler.getInstance();
+    /**
+     * Records the input of the session, if set.
+     */
+    private ReplayRecorder replayRecorder;
+    /**
+     * Feeds recorded input instead of the keyboard, if set.
+     */
+    private ReplayPlayer replayPlayer;
+    /**
+     * Input of the current tick, latched once so the tick and its recording
+     * see the same keys.
+     */
+    private final InputSnapshot input = new InputSnapshot();
+    /**
+     * Ticks run since the screen started.
+     */
+    private long ticks;
+    /**
+     * Snapshots of the ticks, handed from the game thread to the drawing.
+     */
+    private final TripleBuffer<GameSnapshot> snapshots = new TripleBuffer<>(GameSnapshot::new);
+    /**
+     * Draws the snapshots while the screen runs in real time, null otherwise.
+     */
+    private RenderThread<GameSnapshot> renderThread;
 
     private void addPoints(final int points) {
         this.score += points;
@@ -186,6 +245,22 @@ public class GameScreen extends Screen {
     private Cooldown healthPopupCooldown;
     /** A list of all entities that can collide with the player's ship. */
     private List<Collidable> collidableEntities;
+    /** Broad phase for player bullets against formation ships. */
+    private SpatialGrid<EnemyShip> enemyShipGrid;
+    /** Broad phase for player bullets against chasers. */
+    private SpatialGrid<Chaser> chaserGrid;
+    /** Broad phase for the player's ship against collidable entities. */
+    private SpatialGrid<Entity> collidableGrid;
+    /** Broad phase for the player's ship against dropped items. */
+    private SpatialGrid<DropItem> dropItemGrid;
+    /** Reused result list of formation ship grid queries. */
+    private List<EnemyShip> enemyShipCandidates;
+    /** Reused result list of chaser grid queries. */
+    private List<Chaser> chaserCandidates;
+    /** Reused result list of collidable grid queries. */
+    private List<Entity> collidableCandidates;
+    /** Reused result list of dropped item grid queries. */
+    private List<DropItem> dropItemCandidates;
 
     /**
      * Constructor, establishes the properties of the screen.
@@ -203,6 +278,7 @@ public class GameScreen extends Screen {
                       final int width, final int height, final int fps) {
         super(width, height, fps);
 
+        this.fixedTimestep = true;
         this.currentLevel = level;
         this.bonusLife = bonusLife;
         this.currentlevel = level;
@@ -215,6 +291,7 @@ public class GameScreen extends Screen {
             this.lives++;
         this.bulletsShot = gameState.getBulletsShot();
         this.shipsDestroyed = gameState.getShipsDestroyed();
+        this.random = gameState.getRandom();
     }
 
     /**
@@ -222,9 +299,18 @@ public class GameScreen extends Screen {
      */
     public final void initialize() {
         super.initialize();
-        this.bossAttacks = new HashSet<>();
+        DropItem.clearTimeFreeze();
+        this.bossAttacks = new LinkedHashSet<>();
         this.enemyFormations = new ArrayList<>();
         this.collidableEntities = new ArrayList<>();
+        this.enemyShipGrid = new SpatialGrid<>(this.width, this.height, COLLISION_CELL_SIZE);
+        this.chaserGrid = new SpatialGrid<>(this.width, this.height, COLLISION_CELL_SIZE);
+        this.collidableGrid = new SpatialGrid<>(this.width, this.height, COLLISION_CELL_SIZE);
+        this.dropItemGrid = new SpatialGrid<>(this.width, this.height, COLLISION_CELL_SIZE);
+        this.enemyShipCandidates = new ArrayList<>();
+        this.chaserCandidates = new ArrayList<>();
+        this.collidableCandidates = new ArrayList<>();
+        this.dropItemCandidates = new ArrayList<>();
 
         String formationType = "A";
         LevelEnemyFormation formationInfo = this.currentLevel.getEnemyFormation();
@@ -239,7 +325,7 @@ public class GameScreen extends Screen {
         switch (formationType) {
             case "B":
                 this.logger.info("Spawning Formation Type B (2 groups)");
-                EnemyShipFormation formation1 = new EnemyShipFormation(this.currentLevel, 0, 0, EnemyShipFormation.Direction.DOWN_RIGHT);
+                EnemyShipFormation formation1 = new EnemyShipFormation(this.currentLevel, 0, 0, EnemyShipFormation.Direction.DOWN_RIGHT, this.random);
                 formation1.attach(this);
                 formation1.applyEnemyColorByLevel(this.currentLevel);
                 this.enemyFormations.add(formation1);
@@ -247,7 +333,7 @@ public class GameScreen extends Screen {
                     this.collidableEntities.add(ship);
                 }
 
-                EnemyShipFormation formation2 = new EnemyShipFormation(this.currentLevel, (2 * this.width / 3), 0, EnemyShipFormation.Direction.DOWN_LEFT);
+                EnemyShipFormation formation2 = new EnemyShipFormation(this.currentLevel, (2 * this.width / 3), 0, EnemyShipFormation.Direction.DOWN_LEFT, this.random);
                 formation2.attach(this);
                 formation2.applyEnemyColorByLevel(this.currentLevel);
                 this.enemyFormations.add(formation2);
@@ -259,7 +345,7 @@ public class GameScreen extends Screen {
             case "A":
             default:
                 this.logger.info("Spawning Formation Type A (1 group)");
-                EnemyShipFormation formation = new EnemyShipFormation(this.currentLevel, 0, 0, EnemyShipFormation.Direction.DOWN_RIGHT);
+                EnemyShipFormation formation = new EnemyShipFormation(this.currentLevel, 0, 0, EnemyShipFormation.Direction.DOWN_RIGHT, this.random);
                 formation.attach(this);
                 formation.applyEnemyColorByLevel(this.currentLevel);
                 this.enemyFormations.add(formation);
@@ -273,8 +359,8 @@ public class GameScreen extends Screen {
         this.ship = new Ship(this.width / 2, ITEMS_SEPARATION_LINE_HEIGHT - 75, Color.green);
 
         enemyShipSpecialFormation = new EnemyShipSpecialFormation(this.currentLevel,
-                Core.getVariableCooldown(BONUS_SHIP_INTERVAL, BONUS_SHIP_VARIANCE),
-                Core.getCooldown(BONUS_SHIP_EXPLOSION));
+                Core.getVariableCooldown(BONUS_SHIP_INTERVAL, BONUS_SHIP_VARIANCE, this.random),
+                Core.getCooldown(BONUS_SHIP_EXPLOSION), this.random);
         enemyShipSpecialFormation.attach(this);
         for (EnemyShip specialShip : enemyShipSpecialFormation) {
             this.collidableEntities.add(specialShip);
@@ -283,8 +369,8 @@ public class GameScreen extends Screen {
         this.bossExplosionCooldown = Core
                 .getCooldown(BOSS_EXPLOSION);
         this.screenFinishedCooldown = Core.getCooldown(SCREEN_CHANGE_INTERVAL);
-        this.bullets = new HashSet<Bullet>();
-        this.dropItems = new HashSet<DropItem>();
+        this.bullets = new BulletPool(BULLET_POOL_CAPACITY);
+        this.dropItems = new ItemPool(ITEM_POOL_CAPACITY);
 
         this.chaserFormation = new EnemyShipChaserFormation(this.currentLevel, this.width, this.ship);
         this.chaserFormation.attach(this);
@@ -292,7 +378,7 @@ public class GameScreen extends Screen {
             this.collidableEntities.add(chaser);
         }
 
-        this.gameStartTime = System.currentTimeMillis();
+        this.gameStartTime = GameClock.currentTimeMillis();
         this.inputDelay = Core.getCooldown(INPUT_DELAY);
         this.inputDelay.reset();
 
@@ -310,7 +396,13 @@ public class GameScreen extends Screen {
      * @return Next screen code.
      */
     public final int run() {
-        super.run();
+        this.renderThread = new RenderThread<>(this.snapshots, this::drawFrame, this.fps);
+        this.renderThread.start();
+        try {
+            super.run();
+        } finally {
+            stopRenderThread();
+        }
 
         this.score += LIFE_SCORE * (this.lives - 1);
         this.logger.info("Screen cleared with a score of " + this.score);
@@ -323,17 +415,72 @@ public class GameScreen extends Screen {
      */
     @Override
     protected final void update() {
+        tick();
+        render(1f);
+    }
+
+    /**
+     * Advances the game by one fixed step: input, game logic, collisions
+     * and win or lose conditions. The input of the step is recorded, or
+     * replaced by the recorded one, before the step runs.
+     */
+    @Override
+    protected final void tick() {
+        latchInput();
+        runTick();
+    }
+
+    /**
+     * Latches the input of the next tick, then records it or replaces it by
+     * the recorded one. Keys changing afterwards are left to the tick after.
+     */
+    final void latchInput() {
+        this.input.latch(this.inputManager);
+        if (this.replayPlayer != null)
+            this.replayPlayer.apply(this.input, this.ticks);
+        else if (this.replayRecorder != null)
+            this.replayRecorder.record(this.input, this.ticks);
+    }
+
+    /**
+     * Runs a tick on the latched input.
+     */
+    final void runTick() {
+        long tickStart = this.profiler.start();
+        advance();
+        this.profiler.endTick(tickStart);
+
+        this.ticks++;
+        if (this.renderThread != null) {
+            publishSnapshot();
+        }
+        if (!this.isRunning) {
+            if (this.replayPlayer != null)
+                this.replayPlayer.finish(this.ticks, this.score, this.lives);
+            else if (this.replayRecorder != null)
+                this.replayRecorder.finish(this.ticks, this.score, this.lives);
+        }
+    }
+
+    /**
+     * Runs the game part of a tick.
+     */
+    private void advance() {
 
         if (this.returnCode == 1) {
             this.isRunning = false;
             return;
         }
 
-        super.update();
+        super.tick();
+        expirePopups();
+
+        long time = this.profiler.start();
+        storePreviousPositions();
 
         handleInput();
+        time = this.profiler.lap(FrameProfiler.Phase.INPUT, time);
         if (isPaused) {
-            drawPausePopup();
             return;
         }
 
@@ -352,83 +499,202 @@ public class GameScreen extends Screen {
             AchievementManager.getInstance()
                     .onTimeElapsedSeconds((int)(elapsedTime / 1000));
         }
+        time = this.profiler.lap(FrameProfiler.Phase.LOGIC, time);
 
         cleanItems();
+        time = this.profiler.lap(FrameProfiler.Phase.ITEMS, time);
         manageCollisions();
-        ItemHUDManager.getInstance().update(InputManager.getMouseX(), InputManager.getMouseY());
+        ItemHUDManager.getInstance().update(this.input.getMouseX(), this.input.getMouseY());
+        time = this.profiler.lap(FrameProfiler.Phase.COLLISIONS, time);
         cleanBullets();
-
-        draw();
+        time = this.profiler.lap(FrameProfiler.Phase.BULLETS, time);
 
         checkGameStatus();
+        this.profiler.lap(FrameProfiler.Phase.STATUS, time);
     }
 
+    /**
+     * Draws the current frame, unless the render thread draws it. Without
+     * the render thread, as when stepped by the simulator or once the render
+     * thread has failed, the snapshot is captured and drawn right away.
+     *
+     * @param alpha Fraction of the next tick already elapsed, between 0 and 1.
+     */
+    @Override
+    protected final void render(final float alpha) {
+        if (this.renderThread != null) {
+            if (this.renderThread.isAlive()) {
+                return;
+            }
+            this.logger.warning("Render thread died, drawing on the game thread.");
+            this.renderThread = null;
+        }
+        publishSnapshot();
+        drawFrame(this.snapshots.acquire(), alpha);
+    }
 
+    /**
+     * Draws a snapshot of the screen, timing it as the DRAW phase. Called on
+     * the render thread while it runs, otherwise on the game thread.
+     *
+     * @param snapshot Snapshot to draw.
+     * @param alpha    Fraction of the next tick already elapsed.
+     */
+    private void drawFrame(final GameSnapshot snapshot, final float alpha) {
+        long time = this.profiler.start();
+        drawSnapshot(snapshot, alpha);
+        this.profiler.lapDraw(time);
+    }
 
     /**
-     * Draws the elements associated with the screen.
+     * Stops the render thread, if running, so the game thread can draw.
      */
-    private void draw() {
-        drawManager.initDrawing(this);
+    private void stopRenderThread() {
+        if (this.renderThread != null) {
+            this.renderThread.stop();
+            this.renderThread = null;
+        }
+    }
+
+    /**
+     * Captures what the tick left on screen and publishes it for drawing.
+     */
+    private void publishSnapshot() {
+        GameSnapshot snapshot = this.snapshots.getBack();
+        capture(snapshot);
+        this.snapshots.publish();
+    }
+
+    /**
+     * Remembers the positions of the entities that move every tick, so they
+     * can be interpolated when rendering between ticks.
+     */
+    private void storePreviousPositions() {
+        this.ship.storePreviousPosition();
+        for (int i = 0; i < this.bullets.size(); i++)
+            this.bullets.get(i).storePreviousPosition();
+        for (int i = 0; i < this.dropItems.size(); i++)
+            this.dropItems.get(i).storePreviousPosition();
+        for (BossAttack bossAttack : this.bossAttacks)
+            bossAttack.storePreviousPosition();
+    }
+
+    /**
+     * Hides the achievement and health popups once their time is up.
+     */
+    private void expirePopups() {
+        if (this.achievementText != null && this.achievementPopupCooldown.checkFinished()) {
+            this.achievementText = null;
+        }
+        if (this.healthPopupText != null && this.healthPopupCooldown.checkFinished()) {
+            this.healthPopupText = null;
+        }
+    }
+
+    /**
+     * Fills a snapshot with the elements on screen, in drawing order, and
+     * the figures of the HUD.
+     *
+     * @param snapshot Snapshot to fill.
+     */
+    private void capture(final GameSnapshot snapshot) {
+        snapshot.clear(this.ticks);
 
         if (this.lives > 0) {
-            drawManager.drawEntity(this.ship, this.ship.getPositionX(),
-                    this.ship.getPositionY());
+            snapshot.addMoving(this.ship);
         }
 
-        enemyShipSpecialFormation.draw();
+        enemyShipSpecialFormation.capture(snapshot);
 
         if (this.finalBoss != null && !this.finalBoss.isDestroyed()) {
             for (BossAttack bossAttack : bossAttacks) {
-                drawManager.drawEntity(bossAttack, bossAttack.getPositionX(), bossAttack.getPositionY());
+                snapshot.addMoving(bossAttack);
             }
 
-            drawManager.drawEntity(finalBoss, finalBoss.getPositionX(), finalBoss.getPositionY());
+            snapshot.add(finalBoss);
         }
 
         for (EnemyShipFormation formation : this.enemyFormations) {
-            formation.draw();
+            formation.capture(snapshot);
         }
-        chaserFormation.draw();
+        chaserFormation.capture(snapshot);
 
         if (this.omegaBoss != null) {
-            this.omegaBoss.draw(drawManager);
+            snapshot.add(this.omegaBoss);
+        }
+
+        for (int i = 0; i < this.bullets.size(); i++) {
+            snapshot.addMoving(this.bullets.get(i));
         }
 
-        for (Bullet bullet : this.bullets)
-            drawManager.drawEntity(bullet, bullet.getPositionX(),
-                    bullet.getPositionY());
+        for (int i = 0; i < this.dropItems.size(); i++) {
+            snapshot.addMoving(this.dropItems.get(i));
+        }
+
+        snapshot.score = this.score;
+        snapshot.coin = this.coin;
+        snapshot.lives = this.lives;
+        snapshot.invincible = GameState.isInvincible();
+        snapshot.shieldLeft = ItemHUDManager.getShieldLeft(this.ship);
+        snapshot.elapsedTime = this.elapsedTime;
+        snapshot.levelName = this.currentLevel.getLevelName();
+
+        snapshot.achievementText = this.achievementText;
+        snapshot.healthPopupText = this.healthPopupText;
+
+        snapshot.countdown = -1;
+        if (!this.inputDelay.checkFinished()) {
+            snapshot.countdown = (int) ((INPUT_DELAY
+                    - (GameClock.currentTimeMillis()
+                    - this.gameStartTime)) / 1000);
+        }
+        snapshot.level = this.level;
+        snapshot.bonusLife = this.bonusLife;
+        snapshot.paused = this.isPaused;
+        snapshot.profilerLines = this.profiler.isOverlayVisible()
+                ? this.profiler.getOverlayLines() : null;
+    }
+
+    /**
+     * Draws a snapshot of the screen. Called on the render thread while it
+     * runs, so it reads nothing of the game but the snapshot. Besides it,
+     * it only reads the item HUD and the system messages, which guard their
+     * state on their own, and the drawing state of the DrawManager, only
+     * ever touched by the thread drawing the screen.
+     *
+     * @param snapshot Snapshot to draw.
+     * @param alpha    Fraction of the next tick already elapsed, used to
+     *                 interpolate the entities that move every tick.
+     */
+    private void drawSnapshot(final GameSnapshot snapshot, final float alpha) {
+        if (snapshot.paused) {
+            drawPausePopup();
+            return;
+        }
+        drawManager.initDrawing(this);
 
-        for (DropItem dropItem : this.dropItems)
-            drawManager.drawEntity(dropItem, dropItem.getPositionX(), dropItem.getPositionY());
+        drawManager.drawSnapshot(snapshot, alpha);
 
-        drawManager.drawScore(this, this.score);
-        drawManager.drawCoin(this, this.coin);
-        drawManager.drawLives(this, this.lives);
-        drawManager.drawTime(this, this.elapsedTime);
-        drawManager.drawItemsHUD(this);
-        drawManager.drawLevel(this, this.currentLevel.getLevelName());
+        drawManager.drawScore(this, snapshot.score);
+        drawManager.drawCoin(this, snapshot.coin);
+        drawManager.drawLives(this, snapshot.lives, snapshot.invincible);
+        drawManager.drawTime(this, snapshot.elapsedTime);
+        drawManager.drawItemsHUD(this, snapshot.shieldLeft);
+        drawManager.drawLevel(this, snapshot.levelName);
         drawManager.drawHorizontalLine(this, SEPARATION_LINE_HEIGHT - 1);
         drawManager.drawHorizontalLine(this, ITEMS_SEPARATION_LINE_HEIGHT);
 
-        if (this.achievementText != null && !this.achievementPopupCooldown.checkFinished()) {
-            drawManager.drawAchievementPopup(this, this.achievementText);
-        } else {
-            this.achievementText = null;
+        if (snapshot.achievementText != null) {
+            drawManager.drawAchievementPopup(this, snapshot.achievementText);
         }
 
-        if (this.healthPopupText != null && !this.healthPopupCooldown.checkFinished()) {
-            drawManager.drawHealthPopup(this, this.healthPopupText);
-        } else {
-            this.healthPopupText = null;
+        if (snapshot.healthPopupText != null) {
+            drawManager.drawHealthPopup(this, snapshot.healthPopupText);
         }
 
-        if (!this.inputDelay.checkFinished()) {
-            int countdown = (int) ((INPUT_DELAY
-                    - (System.currentTimeMillis()
-                    - this.gameStartTime)) / 1000);
-            drawManager.drawCountDown(this, this.level, countdown,
-                    this.bonusLife);
+        if (snapshot.countdown >= 0) {
+            drawManager.drawCountDown(this, snapshot.level, snapshot.countdown,
+                    snapshot.bonusLife);
             drawManager.drawHorizontalLine(this, this.height / 2 - this.height
                     / 12);
             drawManager.drawHorizontalLine(this, this.height / 2 + this.height
@@ -436,6 +702,8 @@ public class GameScreen extends Screen {
         }
 
         drawManager.drawSystemMessages(this);
+        if (snapshot.profilerLines != null)
+            drawManager.drawProfilerOverlay(this, snapshot.profilerLines);
         drawManager.completeDrawing(this);
     }
 
@@ -444,15 +712,16 @@ public class GameScreen extends Screen {
      * Cleans bullets that go off screen.
      */
     private void cleanBullets() {
-        Set<Bullet> recyclable = new HashSet<Bullet>();
-        for (Bullet bullet : this.bullets) {
+        int i = 0;
+        while (i < this.bullets.size()) {
+            Bullet bullet = this.bullets.get(i);
             bullet.update();
             if (bullet.getPositionY() < SEPARATION_LINE_HEIGHT
                     || bullet.getPositionY() > this.height)
-                recyclable.add(bullet);
+                this.bullets.release(i);
+            else
+                i++;
         }
-        this.bullets.removeAll(recyclable);
-        BulletPool.recycle(recyclable);
     }
 
     /**
@@ -460,42 +729,46 @@ public class GameScreen extends Screen {
      */
 
     private void cleanItems() {
-        Set<DropItem> recyclable = new HashSet<DropItem>();
-        for (DropItem dropItem : this.dropItems) {
+        int i = 0;
+        while (i < this.dropItems.size()) {
+            DropItem dropItem = this.dropItems.get(i);
             dropItem.update();
             if (dropItem.getPositionY() < SEPARATION_LINE_HEIGHT
                     || dropItem.getPositionY() > this.height)
-                recyclable.add(dropItem);
+                this.dropItems.release(i);
+            else
+                i++;
         }
-        this.dropItems.removeAll(recyclable);
-        ItemPool.recycle(recyclable);
     }
 
     /**
      * Manages collisions between bullets and ships.
      */
     private void manageBulletShipCollisions() {
-        Set<Bullet> recyclable = new HashSet<Bullet>();
-        for (Bullet bullet : this.bullets) {
+        int i = 0;
+        while (i < this.bullets.size()) {
+            Bullet bullet = this.bullets.get(i);
+            boolean consumed;
             if (bullet.getSpeed() > 0) {
-                handleEnemyBulletCollision(bullet, recyclable);
+                consumed = handleEnemyBulletCollision(bullet);
             } else {
-                handlePlayerBulletCollision(bullet, recyclable);
+                consumed = handlePlayerBulletCollision(bullet);
             }
+            if (consumed)
+                this.bullets.release(i);
+            else
+                i++;
         }
-        this.bullets.removeAll(recyclable);
-        BulletPool.recycle(recyclable);
     }
 
     /**
      * Handles collisions between enemy bullets and player ships.
      *
      * @param bullet The enemy bullet to check.
-     * @param recyclable A set to add the bullet to if it should be recycled.
+     * @return True if the bullet was consumed and should be recycled.
      */
-    private void handleEnemyBulletCollision(Bullet bullet, Set<Bullet> recyclable) {
+    private boolean handleEnemyBulletCollision(Bullet bullet) {
         if (this.lives > 0 && bullet.collidesWith(this.ship) && !this.levelFinished) {
-            recyclable.add(bullet);
             if (!this.ship.isInvincible() && !GameState.isInvincible()) {
                 if (!this.ship.isShipTemporarilyDestroyed()) {
                     this.ship.destroy();
@@ -504,7 +777,9 @@ public class GameScreen extends Screen {
                     this.logger.info("Hit on player ship, " + this.lives + " lives remaining.");
                 }
             }
+            return true;
         }
+        return false;
     }
 
     /**
@@ -512,14 +787,14 @@ public class GameScreen extends Screen {
      * This method coordinates collision checks with different enemy types.
      *
      * @param bullet     The player bullet to check.
-     * @param recyclable A set to add the bullet to if it should be recycled.
+     * @return True if the bullet was consumed and should be recycled.
      */
-    private void handlePlayerBulletCollision(Bullet bullet, Set<Bullet> recyclable) {
-        boolean consumed = checkCollisionWithNormalEnemies(bullet, recyclable);
+    private boolean handlePlayerBulletCollision(Bullet bullet) {
+        boolean consumed = checkCollisionWithNormalEnemies(bullet);
         if (consumed) {
-            return;
+            return true;
         }
-        checkCollisionWithSpecialEnemiesAndBosses(bullet, recyclable);
+        return checkCollisionWithSpecialEnemiesAndBosses(bullet);
     }
 
     /**
@@ -527,9 +802,10 @@ public class GameScreen extends Screen {
      * Processes damage, awards points, and handles destruction for special enemies, Omega Boss, and Final Boss.
      *
      * @param bullet     The player bullet.
-     * @param recyclable A set to add the bullet to if it is consumed.
+     * @return True if the bullet was consumed.
      */
-    private void checkCollisionWithSpecialEnemiesAndBosses(Bullet bullet, Set<Bullet> recyclable) {
+    private boolean checkCollisionWithSpecialEnemiesAndBosses(Bullet bullet) {
+        boolean consumed = false;
         for (EnemyShip enemyShipSpecial : this.enemyShipSpecialFormation) {
             if (enemyShipSpecial != null && !enemyShipSpecial.isDestroyed()
                     && bullet.collidesWith(enemyShipSpecial)) {
@@ -538,7 +814,7 @@ public class GameScreen extends Screen {
                 this.coin += (pts / 10);
                 this.shipsDestroyed++;
                 this.enemyShipSpecialFormation.destroy(enemyShipSpecial);
-                recyclable.add(bullet);
+                consumed = true;
             }
         }
         if (this.omegaBoss != null
@@ -554,7 +830,7 @@ public class GameScreen extends Screen {
                 AchievementManager.getInstance().unlockAchievement("Boss Slayer");
                 this.bossExplosionCooldown.reset();
             }
-            recyclable.add(bullet);
+            consumed = true;
         }
 
         if (this.finalBoss != null && !this.finalBoss.isDestroyed() && bullet.collidesWith(this.finalBoss)) {
@@ -566,9 +842,11 @@ public class GameScreen extends Screen {
                 this.finalBoss.destroy();
                 AchievementManager.getInstance().unlockAchievement("Boss Slayer");
             }
-            recyclable.add(bullet);
+            consumed = true;
         }
-        for (Chaser currentChaser : this.chaserFormation) {
+        this.chaserGrid.query(bullet, this.chaserCandidates);
+        for (int i = 0; i < this.chaserCandidates.size(); i++) {
+            Chaser currentChaser = this.chaserCandidates.get(i);
             if (!currentChaser.isDestroyed() && bullet.collidesWith(currentChaser)) {
 
                 currentChaser.takeDamage(1);
@@ -579,11 +857,12 @@ public class GameScreen extends Screen {
                     this.shipsDestroyed++;
                 }
                 if (!bullet.penetration()) {
-                    recyclable.add(bullet);
+                    consumed = true;
                     break;
                 }
             }
         }
+        return consumed;
     }
 
     /**
@@ -592,24 +871,22 @@ public class GameScreen extends Screen {
      * Awards points, destroys the enemy, and handles item drops upon collision.
      *
      * @param bullet     The player bullet.
-     * @param recyclable A set to add the bullet to if it is consumed.
      * @return True if the bullet was consumed (hit a non-penetratable target), false otherwise.
      */
-    private boolean checkCollisionWithNormalEnemies(Bullet bullet, Set<Bullet> recyclable) {
-        for (EnemyShipFormation formation : this.enemyFormations) {
-            for (EnemyShip enemyShip : formation) {
-                if (!enemyShip.isDestroyed() && bullet.collidesWith(enemyShip)) {
-                    int pts = enemyShip.getPointValue();
-                    addPoints(pts);
-                    this.coin += (pts / 10);
-                    this.shipsDestroyed++;
-                    handleItemDrop(enemyShip);
-                    formation.destroy(enemyShip);
-                    AchievementManager.getInstance().onEnemyDefeated();
-                    if (!bullet.penetration()) {
-                        recyclable.add(bullet);
-                        return true;
-                    }
+    private boolean checkCollisionWithNormalEnemies(Bullet bullet) {
+        this.enemyShipGrid.query(bullet, this.enemyShipCandidates);
+        for (int i = 0; i < this.enemyShipCandidates.size(); i++) {
+            EnemyShip enemyShip = this.enemyShipCandidates.get(i);
+            if (!enemyShip.isDestroyed() && bullet.collidesWith(enemyShip)) {
+                int pts = enemyShip.getPointValue();
+                addPoints(pts);
+                this.coin += (pts / 10);
+                this.shipsDestroyed++;
+                handleItemDrop(enemyShip);
+                destroyEnemyInFormation(enemyShip);
+                AchievementManager.getInstance().onEnemyDefeated();
+                if (!bullet.penetration()) {
+                    return true;
                 }
             }
         }
@@ -635,24 +912,26 @@ public class GameScreen extends Screen {
 
             List<engine.level.ItemDrop> successfulDrops = new ArrayList<>();
             for (engine.level.ItemDrop itemDrop : potentialDrops) {
-                if (Math.random() < itemDrop.getDropChance()) {
+                if (this.random.stream(GameRandom.Stream.ITEM_DROP).nextDouble()
+                        < itemDrop.getDropChance()) {
                     successfulDrops.add(itemDrop);
                 }
             }
 
             if (!successfulDrops.isEmpty()) {
-                engine.level.ItemDrop selectedDrop = successfulDrops.get((int) (Math.random() * successfulDrops.size()));
+                engine.level.ItemDrop selectedDrop = successfulDrops.get(this.random
+                        .stream(GameRandom.Stream.ITEM_DROP).nextInt(successfulDrops.size()));
                 DropItem.ItemType droppedType = DropItem.ItemType.fromString(selectedDrop.getItemId());
                 if (droppedType != null) {
                     final int ITEM_DROP_SPEED = 3;
-                    DropItem newDropItem = ItemPool.getItem(
+                    DropItem newDropItem = this.dropItems.getItem(
                             enemyShip.getPositionX() + enemyShip.getWidth() / 2,
                             enemyShip.getPositionY() + enemyShip.getHeight() / 2,
                             ITEM_DROP_SPEED,
                             droppedType
                     );
-                    this.dropItems.add(newDropItem);
-                    this.logger.info("An item (" + droppedType + ") dropped");
+                    if (newDropItem != null)
+                        this.logger.fine(() -> "An item (" + droppedType + ") dropped");
                 }
             }
         }
@@ -664,11 +943,42 @@ public class GameScreen extends Screen {
      * ships and enemies, and players and dropped items.
      */
     private void manageCollisions() {
+        rebuildCollisionGrids();
         manageBulletShipCollisions();
         manageShipEnemyCollisions();
         manageItemCollisions();
     }
 
+    /**
+     * Rebuilds the broad phase grids from the current positions of the
+     * entities. Destroyed entities are left out.
+     */
+    private void rebuildCollisionGrids() {
+        this.enemyShipGrid.clear();
+        for (EnemyShipFormation formation : this.enemyFormations) {
+            formation.addTo(this.enemyShipGrid);
+        }
+
+        this.chaserGrid.clear();
+        for (Chaser chaser : this.chaserFormation) {
+            if (!chaser.isDestroyed()) {
+                this.chaserGrid.insert(chaser);
+            }
+        }
+
+        this.collidableGrid.clear();
+        for (Collidable collidable : this.collidableEntities) {
+            if (!collidable.isDestroyed() && collidable instanceof Entity) {
+                this.collidableGrid.insert((Entity) collidable);
+            }
+        }
+
+        this.dropItemGrid.clear();
+        for (int i = 0; i < this.dropItems.size(); i++) {
+            this.dropItemGrid.insert(this.dropItems.get(i));
+        }
+    }
+
     /**
      * Checks the current game status for win or lose conditions.
      * Updates game state and prepares for screen change if the level is finished
@@ -689,7 +999,7 @@ public class GameScreen extends Screen {
 
     private void finishLevelOrGame() {
         boolean isGameOver = (this.lives == 0);
-        boolean isFinalLevel = (this.level == new LevelManager().getNumberOfLevels());
+        boolean isFinalLevel = (this.level == LevelManager.getInstance().getNumberOfLevels());
         boolean isVictory = !isGameOver && isFinalLevel;
 
         if (isGameOver) {
@@ -703,8 +1013,10 @@ public class GameScreen extends Screen {
         this.isRunning = false;
     }
     private void processGameOverVisuals() {
-        draw();
-        Core.lastScreenCapture = drawManager.getBackBuffer();
+        stopRenderThread();
+        publishSnapshot();
+        drawSnapshot(this.snapshots.acquire(), 1f);
+        Core.lastScreenCapture = drawManager.captureBackBuffer();
         this.returnCode = 99;
     }
     private void processLevelClearRewards() {
@@ -725,6 +1037,10 @@ public class GameScreen extends Screen {
     }
 
     private void processBackendSubmission(boolean isGameOver, boolean isVictory) {
+        if (this.replayPlayer != null) {
+            this.logger.info("Replayed session, score not submitted to backend.");
+            return;
+        }
         AuthManager authManager = AuthManager.getInstance();
 
         if (!authManager.isLoggedIn()) {
@@ -739,6 +1055,7 @@ public class GameScreen extends Screen {
             submitScoreToBackend(authManager.getUserId());
         } else {
             this.logger.info("Level " + this.level + " cleared. Score will be saved at the end of the game.");
+            ApiClient.getInstance().getOutbox().send();
         }
     }
 
@@ -760,7 +1077,9 @@ public class GameScreen extends Screen {
      */
     private void manageShipEnemyCollisions() {
         if (isPlayerVulnerable()) {
-            for (Collidable entity : this.collidableEntities) {
+            this.collidableGrid.query(this.ship, this.collidableCandidates);
+            for (int i = 0; i < this.collidableCandidates.size(); i++) {
+                Collidable entity = (Collidable) this.collidableCandidates.get(i);
                 if (!entity.isDestroyed() && entity.collidesWith(this.ship)) {
                     entity.handleCollisionWithShip(this);
                     return;
@@ -795,13 +1114,9 @@ public class GameScreen extends Screen {
      */
     public void destroyEnemyInFormation(EnemyShip enemyShip) {
         for (EnemyShipFormation formation : this.enemyFormations) {
-            // In a real implementation, EnemyShipFormation should have a more efficient way to do this.
-            // For now, we iterate. A 'contains' method would be better.
-            for (EnemyShip shipInFormation : formation) {
-                if (shipInFormation == enemyShip) {
-                    formation.destroy(enemyShip);
-                    return;
-                }
+            if (formation.contains(enemyShip)) {
+                formation.destroy(enemyShip);
+                return;
             }
         }
     }
@@ -819,9 +1134,10 @@ public class GameScreen extends Screen {
      * Applies item effects when player collects them.
      */
     private void manageItemCollisions() {
-        Set<DropItem> acquiredDropItems = new HashSet<DropItem>();
         if (!this.levelFinished && (this.lives > 0 && !this.ship.isShipTemporarilyDestroyed())) {
-            for (DropItem dropItem : this.dropItems) {
+            this.dropItemGrid.query(this.ship, this.dropItemCandidates);
+            for (int i = 0; i < this.dropItemCandidates.size(); i++) {
+                DropItem dropItem = this.dropItemCandidates.get(i);
                 if (this.lives > 0 && !this.ship.isShipTemporarilyDestroyed() && this.ship.collidesWith(dropItem)) {
                     this.logger.info("Player acquired dropItem: " + dropItem.getItemType());
                     ItemHUDManager.getInstance().addActiveItem(dropItem.getItemType());
@@ -858,11 +1174,9 @@ public class GameScreen extends Screen {
                         default:
                             break;
                     }
-                    acquiredDropItems.add(dropItem);
+                    this.dropItems.release(dropItem);
                 }
             }
-            this.dropItems.removeAll(acquiredDropItems);
-            ItemPool.recycle(acquiredDropItems);
         }
     }
 
@@ -888,6 +1202,25 @@ public class GameScreen extends Screen {
         this.healthPopupCooldown.reset();
     }
 
+    /**
+     * Records the input of this session. Must be set before the first tick.
+     *
+     * @param replayRecorder Recorder to feed with the input of every tick.
+     */
+    public final void setReplayRecorder(final ReplayRecorder replayRecorder) {
+        this.replayRecorder = replayRecorder;
+    }
+
+    /**
+     * Plays recorded input back instead of reading the keyboard. Must be set
+     * before the first tick.
+     *
+     * @param replayPlayer Player feeding the input of every tick.
+     */
+    public final void setReplayPlayer(final ReplayPlayer replayPlayer) {
+        this.replayPlayer = replayPlayer;
+    }
+
     /**
      * Returns a GameState object representing the status of the game.
      *
@@ -898,7 +1231,7 @@ public class GameScreen extends Screen {
             AchievementManager.getInstance().unlockAchievement("Mr. Greedy");
         }
         return new GameState(this.level, this.score, this.lives,
-                this.bulletsShot, this.shipsDestroyed, this.coin);
+                this.bulletsShot, this.shipsDestroyed, this.coin, this.random);
     }
 
     /**
@@ -928,12 +1261,12 @@ public class GameScreen extends Screen {
         this.logger.info("Spawning boss: " + bossName);
         switch (bossName) {
             case "finalBoss1":
-                this.finalBoss = new FinalBoss(this.width / 2 - 75, 80, this.width, this.height, this.ship, 1);
+                this.finalBoss = new FinalBoss(this.width / 2 - 75, 80, this.width, this.height, this.ship, 1, this.random);
                 this.collidableEntities.add(this.finalBoss);
                 this.logger.info("Final Boss has spawned!");
                 break;
             case "finalBoss2":
-                this.finalBoss = new FinalBoss(this.width / 2 - 75, 80, this.width, this.height, this.ship, 2);
+                this.finalBoss = new FinalBoss(this.width / 2 - 75, 80, this.width, this.height, this.ship, 2, this.random);
                 this.collidableEntities.add(this.finalBoss);
                 this.logger.info("Final Boss has spawned!");
                 break;
@@ -1040,11 +1373,18 @@ public class GameScreen extends Screen {
     }
 
     /**
-     * Updates and shoots for all enemy formations.
+     * Updates and shoots for all enemy formations. Formations move
+     * independently, possibly in parallel; they then shoot one after another,
+     * in order, as shooting draws random numbers and takes from the bullet
+     * pool, so the bullets are the same however they were moved.
      */
     private void updateEnemyFormations() {
+        int work = 0;
+        for (EnemyShipFormation formation : this.enemyFormations) {
+            work += formation.getCapacity();
+        }
+        this.scheduler.runAll(this.enemyFormations, EnemyShipFormation::update, work);
         for (EnemyShipFormation formation : this.enemyFormations) {
-            formation.update();
             formation.shoot(this.bullets);
         }
     }
@@ -1111,7 +1451,7 @@ public class GameScreen extends Screen {
      */
     private void spawnFinalBossPhaseTwo() {
         this.omegaBoss = null;
-        this.finalBoss = new FinalBoss(this.width / 2 - 50, 50, this.width, this.height, this.ship, 3);
+        this.finalBoss = new FinalBoss(this.width / 2 - 50, 50, this.width, this.height, this.ship, 3, this.random);
         this.logger.info("Omega Boss defeated! Final Boss (Phase 2) has spawned!");
     }
     /**
@@ -1154,7 +1494,7 @@ public class GameScreen extends Screen {
      */
     private void handleInput() {
 
-        boolean escPressed = inputManager.isKeyDown(java.awt.event.KeyEvent.VK_ESCAPE);
+        boolean escPressed = this.input.isKeyDown(java.awt.event.KeyEvent.VK_ESCAPE);
 
         if (escPressed && !escPressedLastFrame) {
             isPaused = !isPaused;
@@ -1162,9 +1502,14 @@ public class GameScreen extends Screen {
 
         escPressedLastFrame = escPressed;
 
+        boolean profilerKey = this.input.isKeyDown(java.awt.event.KeyEvent.VK_F3);
+        if (profilerKey && !profilerKeyLastFrame)
+            this.profiler.toggleOverlay();
+        profilerKeyLastFrame = profilerKey;
+
         if (isPaused) {
 
-            boolean qPressed = inputManager.isKeyDown(java.awt.event.KeyEvent.VK_Q);
+            boolean qPressed = this.input.isKeyDown(java.awt.event.KeyEvent.VK_Q);
 
             if (qPressed) {
                 this.returnCode = 1;
@@ -1178,11 +1523,11 @@ public class GameScreen extends Screen {
 
         if (this.lives > 0 && !this.ship.isShipTemporarilyDestroyed()) {
 
-            boolean p1Right = inputManager.isKeyDown(java.awt.event.KeyEvent.VK_D);
-            boolean p1Left = inputManager.isKeyDown(java.awt.event.KeyEvent.VK_A);
-            boolean p1Up = inputManager.isKeyDown(java.awt.event.KeyEvent.VK_W);
-            boolean p1Down  = inputManager.isKeyDown(java.awt.event.KeyEvent.VK_S);
-            boolean p1Fire = inputManager.isKeyDown(java.awt.event.KeyEvent.VK_SPACE);
+            boolean p1Right = this.input.isKeyDown(java.awt.event.KeyEvent.VK_D);
+            boolean p1Left = this.input.isKeyDown(java.awt.event.KeyEvent.VK_A);
+            boolean p1Up = this.input.isKeyDown(java.awt.event.KeyEvent.VK_W);
+            boolean p1Down  = this.input.isKeyDown(java.awt.event.KeyEvent.VK_S);
+            boolean p1Fire = this.input.isKeyDown(java.awt.event.KeyEvent.VK_SPACE);
 
             boolean isRightBorder = this.ship.getPositionX()
                     + this.ship.getWidth() + this.ship.getSpeed() > this.width - 1;
@@ -0,0 +1,39 @@
+package screen;
+
+import engine.RenderSnapshot;
+
+/**
+ * Snapshot of a game tick: the sprites on screen plus the figures of the
+ * HUD and the popups shown over the game.
+ */
+final class GameSnapshot extends RenderSnapshot {
+
+    /** Current score. */
+    int score;
+    /** Current coins. */
+    int coin;
+    /** Lives left. */
+    int lives;
+    /** If the invincibility cheat is on. */
+    boolean invincible;
+    /** Fraction of the shield of the ship left, -1 if there is none. */
+    double shieldLeft;
+    /** Time played, in milliseconds. */
+    long elapsedTime;
+    /** Name of the level. */
+    String levelName;
+    /** Achievement popup text, null if none is shown. */
+    String achievementText;
+    /** Health popup text, null if none is shown. */
+    String healthPopupText;
+    /** Seconds left before the level starts, -1 once it started. */
+    int countdown;
+    /** Number of the level, for the countdown. */
+    int level;
+    /** If a bonus life was earned, for the countdown. */
+    boolean bonusLife;
+    /** If the game is paused. */
+    boolean paused;
+    /** Lines of the profiler overlay, null if it is hidden. */
+    String[] profilerLines;
+}
@@ -1,10 +1,9 @@
 package screen;
 
 import java.awt.event.KeyEvent;
-import java.io.IOException;
-import java.util.List;
 
-import engine.Score;
+import engine.ApiClient;
+import engine.HighScoreCache;
 
 /**
  * Implements the high scores screen, it shows player records.
@@ -14,8 +13,8 @@ import engine.Score;
  */
 public class HighScoreScreen extends Screen {
 
-	/** List of past high scores. */
-	private List<Score> highScores;
+	/** Cache the high scores are read from. */
+	private HighScoreCache highScoreCache;
 
 	/**
 	 * Constructor, establishes the properties of the screen.
@@ -32,13 +31,10 @@ public class HighScoreScreen extends Screen {
 
 		this.returnCode = 1;
 
-		try {
-			this.highScores = engine.ApiClient.getInstance().getHighScores();
-		} catch (IOException | InterruptedException e) {
-			logger.warning("Couldn't load high scores from API: " + e.getMessage());
-			// Fallback to an empty list if API call fails
-			this.highScores = new java.util.ArrayList<>();
-		}
+		// Shows the cached scores at once, and revalidates them with their
+		// ETag: newer ones appear when fetched, an unchanged board costs a 304.
+		this.highScoreCache = ApiClient.getInstance().getHighScoreCache();
+		this.highScoreCache.refresh();
 	}
 
 	/**
@@ -70,8 +66,11 @@ public class HighScoreScreen extends Screen {
 	private void draw() {
 		drawManager.initDrawing(this);
 
+		HighScoreCache.Snapshot snapshot = this.highScoreCache.getSnapshot();
 		drawManager.drawHighScoreMenu(this);
-		drawManager.drawHighScores(this, this.highScores);
+		drawManager.drawHighScores(this, snapshot.getScores());
+		drawManager.drawHighScoreStatus(this, snapshot.isLoading(),
+				snapshot.isFailed());
 
 		drawManager.completeDrawing(this);
 	}
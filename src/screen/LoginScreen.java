@@ -173,6 +173,8 @@ public class LoginScreen extends Screen {
                             result.loginResponse().username(),
                             result.loginResponse().userId()
                         );
+                        // Sends what the user submitted while logged out
+                        ApiClient.getInstance().getOutbox().send();
                         returnCode = 1; 
                         isRunning = false;
                     } else {
@@ -1,6 +1,7 @@
 package screen;
 
 import java.awt.event.KeyEvent;
+import engine.ApiClient;
 import engine.GameState;
 
 /**
@@ -40,6 +41,9 @@ public class ScoreScreen extends Screen {
 		this.livesRemaining = gameState.getLivesRemaining();
 		this.bulletsShot = gameState.getBulletsShot();
 		this.shipsDestroyed = gameState.getShipsDestroyed();
+
+		// The player will likely look at the high scores next.
+		ApiClient.getInstance().getHighScoreCache().prefetch();
 	}
 
 	/**
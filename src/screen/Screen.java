@@ -7,6 +7,7 @@ import java.util.logging.Logger;
 import engine.Cooldown;
 import engine.Core;
 import engine.DrawManager;
+import engine.GameClock;
 import engine.InputManager;
 
 /**
@@ -19,6 +20,13 @@ public class Screen {
 	
 	/** Milliseconds until the screen accepts user input. */
 	private static final int INPUT_DELAY = 1000;
+	/** Nanoseconds in one second. */
+	private static final long NANOS_PER_SECOND = 1000000000L;
+	/**
+	 * Maximum number of simulation ticks run between two renders. Bounds the
+	 * catch-up work after a long stall so the loop cannot spiral.
+	 */
+	private static final int MAX_TICKS_PER_FRAME = 5;
 
 	/** Draw Manager instance. */
 	protected DrawManager drawManager;
@@ -38,8 +46,15 @@ public class Screen {
 	/** Time until the screen accepts user input. */
 	protected Cooldown inputDelay;
 
+	/**
+	 * If the screen runs its simulation on a fixed timestep, through tick()
+	 * and render(), instead of calling update() once per frame.
+	 */
+	protected boolean fixedTimestep;
 	/** If the screen is running. */
 	protected boolean isRunning;
+	/** If the screen is driven by step() instead of run(). */
+	private boolean stepping;
 	/** What kind of screen goes next. */
 	protected int returnCode;
 
@@ -82,15 +97,19 @@ public class Screen {
 		this.isRunning = true;
 		inputManager.resetKeyState(); // Replaced clearKeyQueue with resetKeyState
 
+		if (this.fixedTimestep)
+			return runFixedTimestep();
+
+		final long frameNanos = NANOS_PER_SECOND / this.fps;
 		while (this.isRunning) {
-			long time = System.currentTimeMillis();
+			long time = System.nanoTime();
 
 			update();
 
-			time = (1000 / this.fps) - (System.currentTimeMillis() - time);
+			time = frameNanos - (System.nanoTime() - time);
 			if (time > 0) {
 				try {
-					TimeUnit.MILLISECONDS.sleep(time);
+					TimeUnit.NANOSECONDS.sleep(time);
 				} catch (InterruptedException e) {
 					return 0;
 				}
@@ -100,12 +119,96 @@ public class Screen {
 		return this.returnCode; // Correctly return the exit code
 	}
 
+	/**
+	 * Runs the screen with a fixed simulation step. Elapsed time is
+	 * accumulated and consumed in ticks of 1 / fps seconds, so the game logic
+	 * advances at a steady rate regardless of how long rendering takes. One
+	 * render is issued per loop, with the fraction of the next tick already
+	 * elapsed so moving entities can be interpolated. When the simulated
+	 * clock is installed, it is advanced by one tick per tick, so the game
+	 * time follows the ticks instead of the wall clock.
+	 *
+	 * @return Next screen code.
+	 */
+	private int runFixedTimestep() {
+		final long tickNanos = NANOS_PER_SECOND / this.fps;
+		long previous = System.nanoTime();
+		long accumulator = tickNanos;
+
+		while (this.isRunning) {
+			long now = System.nanoTime();
+			accumulator += Math.min(now - previous, tickNanos * MAX_TICKS_PER_FRAME);
+			previous = now;
+
+			while (accumulator >= tickNanos && this.isRunning) {
+				tick();
+				if (GameClock.isSimulated())
+					GameClock.advance(tickNanos);
+				accumulator -= tickNanos;
+			}
+			if (!this.isRunning)
+				break;
+
+			render((float) accumulator / tickNanos);
+
+			long sleep = tickNanos - accumulator - (System.nanoTime() - now);
+			if (sleep > 0) {
+				try {
+					TimeUnit.NANOSECONDS.sleep(sleep);
+				} catch (InterruptedException e) {
+					return 0;
+				}
+			}
+		}
+
+		return this.returnCode;
+	}
+
+	/**
+	 * Advances a fixed timestep screen by one tick right away, without
+	 * pacing, for drivers that run the game faster than real time. The
+	 * screen is activated on its first step.
+	 *
+	 * @param draw
+	 *            If the tick is also rendered.
+	 * @return True if the screen is still running.
+	 */
+	public final boolean step(final boolean draw) {
+		if (!this.stepping) {
+			this.stepping = true;
+			this.isRunning = true;
+		}
+		if (!this.isRunning)
+			return false;
+		tick();
+		if (draw && this.isRunning)
+			render(1f);
+		return this.isRunning;
+	}
+
 	/**
 	 * Updates the elements on screen and checks for events.
 	 */
 	protected void update() {
 	}
 
+	/**
+	 * Advances the simulation by one fixed step. Only called when the screen
+	 * runs in fixed timestep mode.
+	 */
+	protected void tick() {
+	}
+
+	/**
+	 * Draws the current state of the screen. Only called when the screen
+	 * runs in fixed timestep mode.
+	 *
+	 * @param alpha
+	 *            Fraction of the next tick already elapsed, between 0 and 1.
+	 */
+	protected void render(final float alpha) {
+	}
+
 	/**
 	 * Getter for screen width.
 	 * 
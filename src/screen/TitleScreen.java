@@ -9,13 +9,15 @@ import java.awt.Desktop;
 import java.awt.Color;
 import java.util.List;
 import java.util.ArrayList;
-import java.util.Random;
+import java.util.SplittableRandom;
 import java.util.Map;
 import java.util.HashMap;
 
 
+import engine.ApiClient;
 import engine.Cooldown;
 import engine.Core;
+import engine.GameRandom;
 import engine.DrawManager.SpriteType;
 import engine.CelestialBody;
 import entity.Entity;
@@ -50,11 +52,11 @@ public class TitleScreen extends Screen {
         public float brightnessOffset;
 		public Color color;
 
-		public Star(CelestialBody celestialBody, Color color) {
+		public Star(CelestialBody celestialBody, Color color, SplittableRandom random) {
 			this.celestialBody = celestialBody;
 			this.color = color;
 			this.brightness = 0;
-			this.brightnessOffset = (float) (Math.random() * Math.PI * 2);
+			this.brightnessOffset = (float) (random.nextDouble() * Math.PI * 2);
 		}
 
         public Color getColor() {
@@ -144,7 +146,7 @@ public class TitleScreen extends Screen {
     private float targetAngle;
 
 		/** Random number generator. */
-	        private Random random;
+	        private SplittableRandom random;
 	        	/** Manages global star speed cycles. */
 	                private StarSpeedManager speedManager;
 	                /** Manages the oscillating origin of the starfield. */
@@ -177,7 +179,7 @@ public class TitleScreen extends Screen {
 		this.enemySpawnCooldown.reset();
 		this.shootingStarCooldown.reset();
 
-		this.random = new Random();
+		this.random = new GameRandom().stream(GameRandom.Stream.EFFECTS);
 		this.stars = new ArrayList<Star>();
 		List<Color> starColors = java.util.Arrays.asList(
 			Color.WHITE,
@@ -187,7 +189,7 @@ public class TitleScreen extends Screen {
 			new Color(204, 204, 255)  // Lavender
 		);
 		for (int i = 0; i < NUM_STARS; i++) {
-			float speed = (float) (Math.random() * 2.5 + 2.0);
+			float speed = (float) (random.nextDouble() * 2.5 + 2.0);
 			Color color = starColors.get(random.nextInt(starColors.size()));
 			float z = MAX_STAR_Z - (i * (MAX_STAR_Z - MIN_STAR_Z) / NUM_STARS);
 			if (z < MIN_STAR_Z) z = MIN_STAR_Z;
@@ -197,7 +199,7 @@ public class TitleScreen extends Screen {
 			float initial_screen_y_offset = (random.nextFloat() - 0.5f) * (this.getHeight() * spread_multiplier);
 			
 			CelestialBody celestialBody = new CelestialBody(z, initial_screen_x_offset, initial_screen_y_offset, speed);
-			this.stars.add(new Star(celestialBody, color));
+			this.stars.add(new Star(celestialBody, color, this.random));
 		}
 		this.backgroundEnemies = new ArrayList<Entity>();
 		this.shootingStars = new ArrayList<ShootingStar>();
@@ -214,6 +216,9 @@ public class TitleScreen extends Screen {
 		this.secretCommandHandler = new SecretCommandHandler();
 		this.setupKeyHandlers();
 		this.inputDelay.reset(); // Defensively reset the input delay to prevent leaked key presses.
+
+		// Fetches the high scores in the background, ready for their screen.
+		ApiClient.getInstance().getHighScoreCache().prefetch();
 	}
 
 	private void setupKeyHandlers() {
@@ -347,12 +352,12 @@ if (this.returnCode == 7) { // Web Dashboard
 		// Spawn and move background enemies
 		if (this.enemySpawnCooldown.checkFinished()) {
 			this.enemySpawnCooldown.reset();
-			if (Math.random() < ENEMY_SPAWN_CHANCE) {
+			if (random.nextDouble() < ENEMY_SPAWN_CHANCE) {
 				SpriteType[] enemyTypes = { SpriteType.EnemyShipA1, SpriteType.EnemyShipB1, SpriteType.EnemyShipC1 };
 				SpriteType randomEnemyType = enemyTypes[random.nextInt(enemyTypes.length)];
 				
 				// Spawn enemies like stars
-				float speed = (float) (Math.random() * 2.5 + 2.0);
+				float speed = (float) (random.nextDouble() * 2.5 + 2.0);
 				float z = MAX_STAR_Z;
 				float spread_multiplier = 1.5f;
 				float initial_screen_x_offset = (random.nextFloat() - 0.5f) * (this.getWidth() * spread_multiplier);
@@ -396,12 +401,12 @@ if (this.returnCode == 7) { // Web Dashboard
 		// Spawn and move background enemies
 		if (this.enemySpawnCooldown.checkFinished()) {
 			this.enemySpawnCooldown.reset();
-			if (Math.random() < ENEMY_SPAWN_CHANCE) {
+			if (random.nextDouble() < ENEMY_SPAWN_CHANCE) {
 				SpriteType[] enemyTypes = { SpriteType.EnemyShipA1, SpriteType.EnemyShipB1, SpriteType.EnemyShipC1 };
 				SpriteType randomEnemyType = enemyTypes[random.nextInt(enemyTypes.length)];
 				
 				// Spawn enemies like stars
-				float speed = (float) (Math.random() * 2.5 + 2.0);
+				float speed = (float) (random.nextDouble() * 2.5 + 2.0);
 				float z = MAX_STAR_Z;
 				float spread_multiplier = 1.5f;
 				float initial_screen_x_offset = (random.nextFloat() - 0.5f) * (this.getWidth() * spread_multiplier);
@@ -417,9 +422,9 @@ if (this.returnCode == 7) { // Web Dashboard
 		// Spawn and move shooting stars
         if (this.shootingStarCooldown.checkFinished()) {
             this.shootingStarCooldown.reset();
-            if (Math.random() < SHOOTING_STAR_SPAWN_CHANCE) {
-                float speedX = (float) (Math.random() * 7 + 5) * (Math.random() > 0.5 ? 1 : -1);
-                float speedY = (float) (Math.random() * 7 + 5) * (Math.random() > 0.5 ? 1 : -1);
+            if (random.nextDouble() < SHOOTING_STAR_SPAWN_CHANCE) {
+                float speedX = (float) (random.nextDouble() * 7 + 5) * (random.nextDouble() > 0.5 ? 1 : -1);
+                float speedY = (float) (random.nextDouble() * 7 + 5) * (random.nextDouble() > 0.5 ? 1 : -1);
                 this.shootingStars.add(new ShootingStar(random.nextInt(this.getWidth()), -10, speedX, speedY));
             }
         }
@@ -8,11 +8,12 @@ import java.awt.image.BufferedImage;
 import java.awt.image.RescaleOp;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
+import java.util.SplittableRandom;
 import java.util.concurrent.TimeUnit;
 
 import engine.Cooldown;
 import engine.Core;
+import engine.GameRandom;
 
 /**
  * Refactored TransitionScreen Class.
@@ -134,10 +135,10 @@ public class TransitionScreen extends Screen {
         };
 
         private final List<Star> stars;
-        private final Random random;
+        private final SplittableRandom random;
 
         public StarfieldEffect(int width, int height) {
-            this.random = new Random();
+            this.random = new GameRandom().stream(GameRandom.Stream.EFFECTS);
             this.stars = new ArrayList<>();
             for (int i = 0; i < NUM_STARS; i++) {
                 this.stars.add(new Star(this.random, width, height));
@@ -209,11 +210,11 @@ public class TransitionScreen extends Screen {
             float px_prev, py_prev;
             Color starColor;
 
-            Star(Random random, int width, int height) {
+            Star(SplittableRandom random, int width, int height) {
                 this.randomize(random, width, height, true);
             }
 
-            void randomize(Random random, int width, int height, boolean isInitial) {
+            void randomize(SplittableRandom random, int width, int height, boolean isInitial) {
                 this.x = (random.nextFloat() - 0.5f) * width;
                 this.y = (random.nextFloat() - 0.5f) * height;
                 this.z = isInitial ? random.nextFloat() * width : width;
@@ -0,0 +1,55 @@
+package engine;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class AsyncLogHandlerTest {
+
+    @Test
+    @DisplayName("Records are written in order by the writer thread")
+    void testWrite(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("log");
+        AsyncLogHandler handler = new AsyncLogHandler(file, 1024);
+        for (int i = 0; i < 100; i++)
+            handler.publish(new LogRecord(Level.INFO, "record " + i));
+        handler.flush();
+
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        assertEquals(100, lines.size());
+        assertTrue(lines.get(0).contains("record 0"), lines.get(0));
+        assertTrue(lines.get(99).contains("record 99"), lines.get(99));
+
+        handler.close();
+        handler.publish(new LogRecord(Level.INFO, "after close"));
+        assertEquals(100, Files.readAllLines(file, StandardCharsets.UTF_8).size());
+    }
+
+    @Test
+    @DisplayName("Structured records are one escaped JSON object per line")
+    void testStructured(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("log");
+        AsyncLogHandler handler = new AsyncLogHandler(file, 16);
+        handler.setFormatter(new StructuredFormatter());
+        LogRecord record = new LogRecord(Level.WARNING, "say \"hi\"\nbye");
+        record.setLoggerName("Core");
+        record.setInstant(Instant.ofEpochMilli(1234));
+        handler.publish(record);
+        handler.close();
+
+        String line = Files.readAllLines(file, StandardCharsets.UTF_8).get(0);
+        assertTrue(line.startsWith("{\"time\":1234,\"level\":\"WARNING\",\"logger\":\"Core\",\"thread\":"), line);
+        assertTrue(line.endsWith(",\"message\":\"say \\\"hi\\\"\\nbye\"}"), line);
+    }
+}
@@ -0,0 +1,115 @@
+package engine;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.sun.net.httpserver.HttpServer;
+
+public class HighScoreCacheTest {
+
+    private static final String ETAG = "W/\"board-1\"";
+    private static final String BOARD = "[{\"username\":\"ace\",\"score\":900},{\"username\":\"bob\",\"score\":400}]";
+
+    @TempDir
+    Path directory;
+
+    private HttpServer server;
+    private HttpTransport transport;
+    private List<String> conditions;
+    private volatile int status;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        conditions = new CopyOnWriteArrayList<>();
+        status = 200;
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/scores", exchange -> {
+            String condition = exchange.getRequestHeaders().getFirst("If-None-Match");
+            conditions.add(String.valueOf(condition));
+            if (status != 200) {
+                exchange.sendResponseHeaders(status, -1);
+            } else if (ETAG.equals(condition)) {
+                exchange.sendResponseHeaders(304, -1);
+            } else {
+                byte[] body = BOARD.getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("ETag", ETAG);
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            }
+            exchange.close();
+        });
+        server.start();
+        transport = new HttpTransport("http://127.0.0.1:" + server.getAddress().getPort() + "/api");
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("A fetched leaderboard is served from disk on the next run, and revalidated with its ETag")
+    void testPersistedAndRevalidated() throws InterruptedException {
+        Path file = directory.resolve("highscores.cache");
+        HighScoreCache cache = new HighScoreCache(file, transport, 60000);
+        assertTrue(cache.awaitIdle(5000));
+        assertTrue(cache.getSnapshot().getScores().isEmpty());
+        cache.prefetch();
+        assertTrue(cache.getSnapshot().isLoading());
+        assertTrue(cache.awaitIdle(5000));
+
+        HighScoreCache.Snapshot snapshot = cache.getSnapshot();
+        assertFalse(snapshot.isLoading());
+        assertEquals(2, snapshot.getScores().size());
+        assertEquals("ace", snapshot.getScores().get(0).getName());
+
+        // Fresh: prefetching again does not hit the backend.
+        cache.prefetch();
+        assertTrue(cache.awaitIdle(5000));
+        assertEquals(List.of("null"), conditions);
+
+        // Prefetching before the file is read waits for it, and finds it fresh.
+        HighScoreCache restarted = new HighScoreCache(file, transport, 60000);
+        restarted.prefetch();
+        assertTrue(restarted.awaitIdle(5000));
+        assertEquals(List.of("null"), conditions);
+        assertEquals(900, restarted.getSnapshot().getScores().get(0).getScore());
+
+        restarted.refresh();
+        assertTrue(restarted.awaitIdle(5000));
+        assertEquals(List.of("null", ETAG), conditions);
+        assertEquals(2, restarted.getSnapshot().getScores().size());
+        assertFalse(restarted.getSnapshot().isFailed());
+    }
+
+    @Test
+    @DisplayName("A failed fetch keeps the cached leaderboard")
+    void testFailureKeepsScores() throws InterruptedException {
+        HighScoreCache cache = new HighScoreCache(directory.resolve("highscores.cache"), transport, 0);
+        cache.refresh();
+        assertTrue(cache.awaitIdle(5000));
+
+        status = 503;
+        cache.refresh();
+        assertTrue(cache.awaitIdle(5000));
+        HighScoreCache.Snapshot snapshot = cache.getSnapshot();
+        assertTrue(snapshot.isFailed());
+        assertFalse(snapshot.isLoading());
+        assertEquals(2, snapshot.getScores().size());
+    }
+}
@@ -0,0 +1,67 @@
+package engine;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.sun.net.httpserver.HttpServer;
+
+public class HttpTransportTest {
+
+    private HttpServer server;
+    private Set<Integer> clientPorts;
+    private HttpTransport transport;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        clientPorts = ConcurrentHashMap.newKeySet();
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/ping", exchange -> {
+            clientPorts.add(exchange.getRemoteAddress().getPort());
+            byte[] body = "{\"ok\":true}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        transport = new HttpTransport("http://127.0.0.1:" + server.getAddress().getPort() + "/api");
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("Consecutive requests reuse one connection and are measured per endpoint")
+    void testConnectionReuse() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            HttpResponse<String> response = transport.send("GET /ping",
+                    transport.request("/ping").GET().build());
+            assertEquals(200, response.statusCode());
+            assertEquals("{\"ok\":true}", response.body());
+        }
+        transport.sendAsync("POST /ping", transport.request("/ping")
+                .POST(HttpRequest.BodyPublishers.noBody()).build()).join();
+
+        assertEquals(1, clientPorts.size());
+        List<String> summary = transport.getLatencySummary();
+        assertEquals(2, summary.size());
+        assertTrue(summary.get(0).startsWith("GET /ping: 5 requests"), summary.get(0));
+        assertTrue(summary.get(1).startsWith("POST /ping: 1 requests"), summary.get(1));
+    }
+}
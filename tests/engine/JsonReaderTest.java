@@ -0,0 +1,161 @@
+package engine;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class JsonReaderTest {
+
+    private static JsonReader reader(String json) {
+        return new JsonReader(new StringReader(json));
+    }
+
+    @Test
+    @DisplayName("Nested objects and arrays are read in document order")
+    void testNestedDocument() throws IOException {
+        JsonReader reader = reader("{\"name\": \"a\", \"list\": [1, true, null, {\"x\": 2.5}], \"empty\": {}}");
+        reader.beginObject();
+        assertEquals("name", reader.nextName());
+        assertEquals("a", reader.nextString());
+        assertEquals("list", reader.nextName());
+        reader.beginArray();
+        assertEquals(1, reader.nextInt());
+        assertTrue(reader.nextBoolean());
+        assertEquals(JsonReader.Token.NULL, reader.peek());
+        reader.nextNull();
+        reader.beginObject();
+        assertEquals("x", reader.nextName());
+        assertEquals(2.5, reader.nextDouble());
+        reader.endObject();
+        assertFalse(reader.hasNext());
+        reader.endArray();
+        assertEquals("empty", reader.nextName());
+        reader.beginObject();
+        reader.endObject();
+        reader.endObject();
+        assertEquals(JsonReader.Token.END_DOCUMENT, reader.peek());
+    }
+
+    @Test
+    @DisplayName("String escapes are decoded")
+    void testEscapes() throws IOException {
+        JsonReader reader = reader("[\"a\\\"b\\\\c\\/d\\n\\t\\u00e9\\u20AC\"]");
+        reader.beginArray();
+        assertEquals("a\"b\\c/d\n\té€", reader.nextString());
+        reader.endArray();
+    }
+
+    @Test
+    @DisplayName("Numbers are read as longs when they fit, as doubles otherwise")
+    void testNumbers() throws IOException {
+        JsonReader reader = reader("[-42, 9223372036854775807, 1e3, 92233720368547758070, 0.5]");
+        reader.beginArray();
+        assertEquals(-42L, reader.nextNumber());
+        assertEquals(Long.MAX_VALUE, reader.nextLong());
+        assertEquals(1000.0, reader.nextNumber());
+        assertEquals(9.223372036854776E19, reader.nextNumber());
+        assertThrows(IOException.class, reader::nextLong);
+    }
+
+    @Test
+    @DisplayName("Skipped values are passed over whole")
+    void testSkipValue() throws IOException {
+        JsonReader reader = reader("{\"skip\": {\"a\": [1, {\"b\": \"}\"}]}, \"keep\": 7}");
+        reader.beginObject();
+        assertEquals("skip", reader.nextName());
+        reader.skipValue();
+        assertEquals("keep", reader.nextName());
+        assertEquals(7, reader.nextInt());
+        reader.endObject();
+    }
+
+    @Test
+    @DisplayName("Names are selected by index, unknown names give -1")
+    void testSelectName() throws IOException {
+        String[] names = { "username", "score" };
+        JsonReader reader = reader("{\"score\": 10, \"other\": 1, \"username\": \"x\"}");
+        reader.beginObject();
+        assertEquals(1, reader.selectName(names));
+        reader.skipValue();
+        assertEquals(-1, reader.selectName(names));
+        reader.skipValue();
+        assertEquals(0, reader.selectName(names));
+        assertEquals("x", reader.nextString());
+        reader.endObject();
+    }
+
+    @Test
+    @DisplayName("Malformed documents fail with an IOException")
+    void testMalformed() {
+        assertThrows(IOException.class, () -> {
+            JsonReader reader = reader("{\"a\" 1}");
+            reader.beginObject();
+            reader.nextName();
+            reader.nextInt();
+        });
+        assertThrows(IOException.class, () -> {
+            JsonReader reader = reader("[\"unterminated");
+            reader.beginArray();
+            reader.nextString();
+        });
+        assertThrows(IOException.class, () -> reader("[1, 2]").beginObject());
+    }
+
+    @Test
+    @DisplayName("A leaderboard streamed from a reader is bound to scores")
+    void testLargeLeaderboard() throws IOException {
+        final int entries = 100000;
+        Reader source = new Reader() {
+            private int entry = -1;
+            private String chunk = "[";
+            private int position;
+
+            @Override
+            public int read(char[] buffer, int offset, int length) {
+                if (position == chunk.length()) {
+                    entry++;
+                    if (entry > entries)
+                        return -1;
+                    chunk = entry == entries ? "]"
+                            : (entry == 0 ? "" : ",") + "{\"id\":" + entry + ",\"username\":\"player"
+                            + entry + "\",\"score\":" + entry + "}";
+                    position = 0;
+                }
+                int count = Math.min(length, chunk.length() - position);
+                chunk.getChars(position, position + count, buffer, offset);
+                position += count;
+                return count;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+
+        List<Score> scores = ApiClient.readScores(new JsonReader(source));
+        assertEquals(entries, scores.size());
+        assertEquals("player99999", scores.get(entries - 1).getName());
+        assertEquals(99999, scores.get(entries - 1).getScore());
+    }
+
+    @Test
+    @DisplayName("Syntax errors and tokens are located by line and column")
+    void testLocation() throws IOException {
+        JsonReader reader = reader("{\n  \"a\": 1,\n  \"b\": ]\n}");
+        reader.beginObject();
+        assertEquals("a", reader.nextName());
+        assertEquals(JsonReader.Token.NUMBER, reader.peek());
+        assertEquals(2, reader.getLine());
+        assertEquals(8, reader.getColumn());
+        reader.nextInt();
+        assertEquals("b", reader.nextName());
+        IOException e = assertThrows(IOException.class, reader::peek);
+        assertTrue(e.getMessage().contains("line 3, column 8"), e.getMessage());
+    }
+}
@@ -0,0 +1,38 @@
+package engine;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class LatencyHistogramTest {
+
+    @Test
+    @DisplayName("Percentiles are within the bucket precision of the exact value")
+    void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long nanos = 1; nanos <= 100000; nanos++)
+            histogram.record(nanos * 1000);
+
+        assertEquals(100000, histogram.getCount());
+        assertEquals(100000000L, histogram.getMax());
+        assertEquals(50000500L, histogram.getMean());
+        assertEquals(50000000L, histogram.getPercentile(50), 50000000L / 16.0);
+        assertEquals(99000000L, histogram.getPercentile(99), 99000000L / 16.0);
+        assertEquals(100000000L, histogram.getPercentile(100));
+    }
+
+    @Test
+    @DisplayName("Reset forgets every recorded duration")
+    void testReset() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(12);
+        histogram.record(Long.MAX_VALUE);
+        assertEquals(Long.MAX_VALUE, histogram.getPercentile(100));
+
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getPercentile(50));
+        assertEquals(0, histogram.getMax());
+    }
+}
@@ -0,0 +1,96 @@
+package engine;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.sun.net.httpserver.HttpServer;
+
+public class LeaderboardPagesTest {
+
+    private HttpServer server;
+    private HttpTransport transport;
+    private List<String> queries;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        queries = new CopyOnWriteArrayList<>();
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        // Five scores, 500 down to 100, served two per page; the cursor is the last rank.
+        server.createContext("/api/scores/weekly", exchange -> {
+            String query = exchange.getRequestURI().getQuery();
+            queries.add(query);
+            int start = query.contains("cursor=") ? Integer.parseInt(query.replaceAll(".*cursor=", "")) : 0;
+            StringBuilder body = new StringBuilder("[");
+            int end = Math.min(start + 2, 5);
+            for (int rank = start + 1; rank <= end; rank++) {
+                if (rank > start + 1)
+                    body.append(',');
+                body.append("{\"rank\":").append(rank).append(",\"username\":\"p").append(rank)
+                        .append("\",\"score\":").append(600 - rank * 100)
+                        .append(",\"created_at\":\"2026-10-01 12:00:00\"}");
+            }
+            byte[] bytes = body.append(']').toString().getBytes(StandardCharsets.UTF_8);
+            if (end < 5)
+                exchange.getResponseHeaders().add("X-Next-Cursor", Integer.toString(end));
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        });
+        server.createContext("/api/scores/yearly", exchange -> {
+            exchange.sendResponseHeaders(500, -1);
+            exchange.close();
+        });
+        server.start();
+        transport = new HttpTransport("http://127.0.0.1:" + server.getAddress().getPort() + "/api");
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("Pages are fetched one by one, following the cursors")
+    void testWalk() {
+        LeaderboardPages pages = new LeaderboardPages(transport, LeaderboardPages.Period.WEEKLY, 2);
+        assertTrue(queries.isEmpty());
+
+        List<Integer> scores = new ArrayList<>();
+        int pageCount = 0;
+        while (pages.hasNext()) {
+            for (Score score : pages.next())
+                scores.add(score.getScore());
+            pageCount++;
+        }
+
+        assertEquals(3, pageCount);
+        assertEquals(List.of(500, 400, 300, 200, 100), scores);
+        assertEquals(List.of("limit=2", "limit=2&cursor=2", "limit=2&cursor=4"), queries);
+        assertThrows(NoSuchElementException.class, pages::next);
+    }
+
+    @Test
+    @DisplayName("A failed page is thrown and can be fetched again")
+    void testFailure() {
+        LeaderboardPages pages = new LeaderboardPages(transport, LeaderboardPages.Period.YEARLY, 10);
+        assertThrows(UncheckedIOException.class, pages::next);
+        assertTrue(pages.hasNext());
+        assertThrows(IllegalArgumentException.class,
+                () -> new LeaderboardPages(transport, LeaderboardPages.Period.YEARLY, 101));
+    }
+}
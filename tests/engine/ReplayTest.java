@@ -0,0 +1,85 @@
+package engine;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.event.KeyEvent;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class ReplayTest {
+
+    private InputManager inputManager;
+
+    @BeforeEach
+    void setUp() {
+        GameClock.useSimulatedTime(1000);
+        inputManager = InputManager.getInstance();
+        inputManager.resetKeyState();
+        InputManager.updateMouseState(0, 0, false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        GameClock.useSystemTime();
+        inputManager.resetKeyState();
+    }
+
+    @Test
+    @DisplayName("Recorded input survives a write and read and plays back tick for tick")
+    void testRecordAndPlayBack() throws IOException {
+        GameState state = new GameState(2, 150, 3, 10, 5, 40, new GameRandom(42));
+        ReplayRecorder recorder = new ReplayRecorder(state, true, 3, 600, 800, 60);
+        InputSnapshot input = new InputSnapshot();
+
+        boolean[][] expected = new boolean[400][];
+        for (int tick = 0; tick < 400; tick++) {
+            boolean shooting = tick % 7 < 3;
+            boolean left = tick >= 130 && tick < 260;
+            inputManager.setKeyState(KeyEvent.VK_SPACE, shooting);
+            inputManager.setKeyState(KeyEvent.VK_A, left);
+            if (tick == 300)
+                InputManager.updateMouseState(-5, 700, true);
+            input.latch(inputManager);
+            recorder.record(input, tick);
+            expected[tick] = new boolean[] { shooting, left };
+        }
+        recorder.finish(400, 900, 2);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        recorder.getReplay().write(bytes);
+        Replay replay = Replay.read(new ByteArrayInputStream(bytes.toByteArray()));
+
+        assertEquals(2, replay.getLevel());
+        assertTrue(replay.hasBonusLife());
+        assertEquals(400, replay.getTicks());
+        assertEquals(900, replay.getFinalScore());
+        assertEquals(42, replay.createGameState().getRandom().getSeed());
+        assertEquals(150, replay.createGameState().getScore());
+
+        InputSnapshot played = new InputSnapshot();
+        ReplayPlayer player = new ReplayPlayer(replay);
+        for (int tick = 0; tick < 400; tick++) {
+            player.apply(played, tick);
+            assertEquals(expected[tick][0], played.isKeyDown(KeyEvent.VK_SPACE), "tick " + tick);
+            assertEquals(expected[tick][1], played.isKeyDown(KeyEvent.VK_A), "tick " + tick);
+        }
+        assertEquals(-5, played.getMouseX());
+        assertTrue(played.isMousePressed());
+
+        player.finish(400, 900, 2);
+        assertTrue(player.isVerified());
+    }
+
+    @Test
+    @DisplayName("Data that is not a replay is rejected")
+    void testRejectsOtherData() {
+        byte[] data = new byte[] { 'J', 'S', 'O', 'N', 0, 1 };
+        assertThrows(IOException.class, () -> Replay.read(new ByteArrayInputStream(data)));
+    }
+}
@@ -0,0 +1,157 @@
+package engine;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.sun.net.httpserver.HttpServer;
+
+public class SubmissionOutboxTest {
+
+    @TempDir
+    Path directory;
+
+    private HttpServer server;
+    private HttpTransport transport;
+    private List<String> requests;
+    private List<String> keys;
+    private AtomicInteger failuresLeft;
+    private CountDownLatch delivered;
+
+    private final SubmissionOutbox.Session session = new SubmissionOutbox.Session() {
+        @Override
+        public String getToken(int userId) {
+            return userId == 7 ? "token" : null;
+        }
+
+        @Override
+        public void invalidate() {
+        }
+    };
+
+    @BeforeEach
+    void setUp() throws IOException {
+        requests = new CopyOnWriteArrayList<>();
+        keys = new CopyOnWriteArrayList<>();
+        failuresLeft = new AtomicInteger();
+        delivered = new CountDownLatch(1);
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/users", exchange -> {
+            String body;
+            try (InputStream in = exchange.getRequestBody()) {
+                body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+            requests.add(exchange.getRequestMethod() + " " + exchange.getRequestURI().getPath() + " " + body);
+            keys.add(exchange.getRequestHeaders().getFirst("Idempotency-Key"));
+            int status = failuresLeft.getAndDecrement() > 0 ? 503 : 200;
+            exchange.sendResponseHeaders(status, 2);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write("{}".getBytes(StandardCharsets.UTF_8));
+            }
+            if (status == 200)
+                delivered.countDown();
+        });
+        server.start();
+        transport = new HttpTransport("http://127.0.0.1:" + server.getAddress().getPort() + "/api");
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("A failed submission is retried with the same idempotency key until delivered")
+    void testRetry() throws Exception {
+        Path journal = directory.resolve("outbox.journal");
+        failuresLeft.set(2);
+        SubmissionOutbox outbox = new SubmissionOutbox(journal, transport, session, 10, 10);
+
+        outbox.submit(7, SubmissionOutbox.Kind.SCORE, "1200");
+
+        assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        assertEquals(0, outbox.getPendingCount());
+        outbox.close(1000);
+
+        assertEquals(3, requests.size());
+        assertEquals("PUT /api/users/7/score {\"score\": 1200}", requests.get(2));
+        assertEquals(1, keys.stream().distinct().count());
+        assertNotNull(keys.get(0));
+        assertEquals(0, Files.size(journal));
+    }
+
+    @Test
+    @DisplayName("Achievements unlocked close together are sent in one request")
+    void testCoalescing() throws Exception {
+        Path journal = directory.resolve("outbox.journal");
+        SubmissionOutbox outbox = new SubmissionOutbox(journal, transport, session, 10, 200);
+
+        outbox.submit(7, SubmissionOutbox.Kind.ACHIEVEMENT, "First Blood");
+        outbox.submit(7, SubmissionOutbox.Kind.ACHIEVEMENT, "Boss Slayer");
+        outbox.submit(7, SubmissionOutbox.Kind.ACHIEVEMENT, "Mr. \"Greedy\"");
+
+        assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        assertEquals(0, outbox.getPendingCount());
+        outbox.close(1000);
+
+        assertEquals(List.of("POST /api/users/7/achievements/batch {\"achievement_names\": "
+                + "[\"First Blood\", \"Boss Slayer\", \"Mr. \\\"Greedy\\\"\"]}"), requests);
+        assertNull(keys.get(0));
+    }
+
+    @Test
+    @DisplayName("Submissions left in the journal are sent on startup, delivered ones are not")
+    void testRecovery() throws Exception {
+        Path journal = directory.resolve("outbox.journal");
+        Files.write(journal, List.of(
+                "A delivered 7 SCORE 500",
+                "A pending 7 ACHIEVEMENT Boss+Slayer",
+                "A other-user 8 SCORE 90",
+                "D delivered"), StandardCharsets.UTF_8);
+
+        SubmissionOutbox outbox = new SubmissionOutbox(journal, transport, session, 10, 10);
+
+        assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        assertEquals(1, outbox.getPendingCount());
+        outbox.close(1000);
+
+        assertEquals(List.of("POST /api/users/7/achievements/batch {\"achievement_names\": [\"Boss Slayer\"]}"), requests);
+        assertEquals(List.of("A other-user 8 SCORE 90"), Files.readAllLines(journal, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Submissions of a user not logged in do not hold back the others")
+    void testLoggedOutUser() throws Exception {
+        Path journal = directory.resolve("outbox.journal");
+        SubmissionOutbox outbox = new SubmissionOutbox(journal, transport, session, 60000, 10);
+        CountDownLatch listened = new CountDownLatch(1);
+        outbox.setScoreListener(listened::countDown);
+
+        outbox.submit(8, SubmissionOutbox.Kind.SCORE, "90");
+        outbox.submit(7, SubmissionOutbox.Kind.SCORE, "1200");
+
+        assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        assertTrue(listened.await(5, TimeUnit.SECONDS));
+        assertEquals(1, outbox.getPendingCount());
+        outbox.close(1000);
+
+        assertEquals(List.of("PUT /api/users/7/score {\"score\": 1200}"), requests);
+    }
+}
@@ -0,0 +1,74 @@
+package engine;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class TickSchedulerTest {
+
+    private static ForkJoinPool pool;
+
+    @BeforeAll
+    static void setUp() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        pool.shutdown();
+    }
+
+    private static List<AtomicInteger> counters(final int size) {
+        List<AtomicInteger> counters = new ArrayList<>();
+        for (int i = 0; i < size; i++)
+            counters.add(new AtomicInteger());
+        return counters;
+    }
+
+    @Test
+    @DisplayName("Every item is updated exactly once in every mode")
+    void testRunAll() {
+        for (TickScheduler.Mode mode : TickScheduler.Mode.values()) {
+            TickScheduler scheduler = new TickScheduler(pool, mode);
+            for (int size = 0; size <= 9; size++) {
+                List<AtomicInteger> counters = counters(size);
+                scheduler.runAll(counters, AtomicInteger::incrementAndGet,
+                        TickScheduler.PARALLEL_THRESHOLD);
+                for (AtomicInteger counter : counters)
+                    assertEquals(1, counter.get(), mode + ", " + size + " items");
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Serial updates run in order on the calling thread")
+    void testSerial() {
+        TickScheduler scheduler = new TickScheduler(pool, TickScheduler.Mode.SERIAL);
+        List<Integer> order = new ArrayList<>();
+        Thread caller = Thread.currentThread();
+        scheduler.runAll(List.of(0, 1, 2, 3), i -> {
+            assertSame(caller, Thread.currentThread());
+            order.add(i);
+        }, Integer.MAX_VALUE);
+        assertEquals(List.of(0, 1, 2, 3), order);
+    }
+
+    @Test
+    @DisplayName("A failing update is thrown back to the caller")
+    void testFailure() {
+        TickScheduler scheduler = new TickScheduler(pool, TickScheduler.Mode.PARALLEL);
+        assertThrows(IllegalStateException.class, () -> scheduler.runAll(
+                List.of(0, 1, 2), i -> {
+                    if (i == 2)
+                        throw new IllegalStateException();
+                }, 0));
+    }
+}
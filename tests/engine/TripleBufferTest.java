@@ -0,0 +1,61 @@
+package engine;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class TripleBufferTest {
+
+    /** Buffer with two fields the writer always sets to the same value. */
+    private static final class Box {
+        long first;
+        long second;
+    }
+
+    private static void write(final TripleBuffer<Box> buffer, final long value) {
+        Box box = buffer.getBack();
+        box.first = value;
+        box.second = value;
+        buffer.publish();
+    }
+
+    @Test
+    @DisplayName("The reader gets the latest published buffer, or keeps its own")
+    void testLatest() {
+        TripleBuffer<Box> buffer = new TripleBuffer<>(Box::new);
+        assertEquals(0, buffer.acquire().first);
+
+        write(buffer, 1);
+        assertEquals(1, buffer.acquire().first);
+        assertEquals(1, buffer.acquire().first);
+
+        write(buffer, 2);
+        write(buffer, 3);
+        write(buffer, 4);
+        Box latest = buffer.acquire();
+        assertEquals(4, latest.first);
+        assertNotSame(latest, buffer.getBack());
+    }
+
+    @Test
+    @DisplayName("Concurrent readers never see a torn or older buffer")
+    void testConcurrent() throws InterruptedException {
+        final long count = 200000;
+        TripleBuffer<Box> buffer = new TripleBuffer<>(Box::new);
+        Thread writer = new Thread(() -> {
+            for (long value = 1; value <= count; value++)
+                write(buffer, value);
+        });
+        writer.start();
+
+        long last = 0;
+        while (last < count) {
+            Box box = buffer.acquire();
+            assertEquals(box.first, box.second);
+            assertTrue(box.first >= last, box.first + " after " + last);
+            last = box.first;
+        }
+        writer.join();
+    }
+}
@@ -0,0 +1,139 @@
+package engine.level;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class LevelCompilerTest {
+
+    private static byte[] shippedSource() throws IOException {
+        return Files.readAllBytes(Paths.get("res/maps/maps.json"));
+    }
+
+    private static List<Level> shippedLevels() throws IOException {
+        return JsonLoader.parse(new String(shippedSource(), StandardCharsets.UTF_8));
+    }
+
+    private static void assertSameLevel(Level expected, Level actual) {
+        assertEquals(expected.getLevel(), actual.getLevel());
+        assertEquals(expected.getFormationWidth(), actual.getFormationWidth());
+        assertEquals(expected.getFormationHeight(), actual.getFormationHeight());
+        assertEquals(expected.getBaseSpeed(), actual.getBaseSpeed());
+        assertEquals(expected.getShootingFrecuency(), actual.getShootingFrecuency());
+        assertEquals(expected.getLevelName(), actual.getLevelName());
+        assertEquals(expected.getSpecialGimmick(), actual.getSpecialGimmick());
+        assertEquals(expected.getUnlockCondition(), actual.getUnlockCondition());
+        assertEquals(expected.getBossId(), actual.getBossId());
+        assertEquals(expected.getAchievementTrigger(), actual.getAchievementTrigger());
+
+        LevelEnemyFormation formation = expected.getEnemyFormation();
+        if (formation == null) {
+            assertNull(actual.getEnemyFormation());
+        } else {
+            assertEquals(formation.getFormationType(), actual.getEnemyFormation().getFormationType());
+            assertEquals(formation.getFormationWidth(), actual.getEnemyFormation().getFormationWidth());
+            assertEquals(formation.getFormationHeight(), actual.getEnemyFormation().getFormationHeight());
+            assertEquals(formation.getBaseSpeed(), actual.getEnemyFormation().getBaseSpeed());
+            assertEquals(formation.getShootingFrecuency(), actual.getEnemyFormation().getShootingFrecuency());
+        }
+        if (expected.getEnemyTypes() == null) {
+            assertNull(actual.getEnemyTypes());
+        } else {
+            assertEquals(expected.getEnemyTypes().size(), actual.getEnemyTypes().size());
+            for (int i = 0; i < expected.getEnemyTypes().size(); i++) {
+                assertEquals(expected.getEnemyTypes().get(i).getType(), actual.getEnemyTypes().get(i).getType());
+                assertEquals(expected.getEnemyTypes().get(i).getCount(), actual.getEnemyTypes().get(i).getCount());
+            }
+        }
+        if (expected.getItemDrops() == null) {
+            assertNull(actual.getItemDrops());
+        } else {
+            assertEquals(expected.getItemDrops().size(), actual.getItemDrops().size());
+            for (int i = 0; i < expected.getItemDrops().size(); i++) {
+                ItemDrop drop = expected.getItemDrops().get(i);
+                assertEquals(drop.getEnemyType(), actual.getItemDrops().get(i).getEnemyType());
+                assertEquals(drop.getBossId(), actual.getItemDrops().get(i).getBossId());
+                assertEquals(drop.getItemId(), actual.getItemDrops().get(i).getItemId());
+                assertEquals(drop.getDropChance(), actual.getItemDrops().get(i).getDropChance());
+            }
+        }
+        if (expected.getCompletionBonus() == null) {
+            assertNull(actual.getCompletionBonus());
+        } else {
+            assertEquals(expected.getCompletionBonus().getCurrency(), actual.getCompletionBonus().getCurrency());
+        }
+    }
+
+    @Test
+    @DisplayName("The shipped levels survive a round trip through a mapped compiled file")
+    void testRoundTrip(@TempDir Path directory) throws IOException {
+        List<Level> levels = shippedLevels();
+        Path file = directory.resolve("maps.bin");
+        long hash = LevelCompiler.sourceHash(shippedSource());
+        Files.write(file, LevelCompiler.toBytes(levels, hash));
+
+        List<Level> read = LevelCompiler.read(file.toUri().toURL(), hash);
+        assertEquals(levels.size(), read.size());
+        for (int i = 0; i < levels.size(); i++) {
+            assertSameLevel(levels.get(i), read.get(i));
+        }
+    }
+
+    @Test
+    @DisplayName("Truncated files and other versions are rejected")
+    void testInvalidFile() throws IOException {
+        byte[] bytes = LevelCompiler.toBytes(shippedLevels(), LevelCompiler.sourceHash(shippedSource()));
+        assertThrows(IOException.class,
+                () -> LevelCompiler.read(ByteBuffer.wrap(Arrays.copyOf(bytes, bytes.length - 3))));
+
+        ByteBuffer otherVersion = ByteBuffer.wrap(bytes.clone());
+        otherVersion.putShort(Integer.BYTES, (short) (LevelCompiler.VERSION + 1));
+        IOException e = assertThrows(IOException.class, () -> LevelCompiler.read(otherVersion));
+        assertTrue(e.getMessage().contains("version"), e.getMessage());
+    }
+
+    @Test
+    @DisplayName("Entry counts the file cannot hold are rejected before anything is allocated")
+    void testCorruptCount() throws IOException {
+        byte[] bytes = LevelCompiler.toBytes(shippedLevels(), LevelCompiler.sourceHash(shippedSource()));
+        int countOffset = Integer.BYTES + Short.BYTES + Long.BYTES;
+        for (int count : new int[] { Integer.MAX_VALUE - 8, -1 }) {
+            ByteBuffer corrupt = ByteBuffer.wrap(bytes.clone());
+            corrupt.putInt(countOffset, count);
+            assertThrows(IOException.class, () -> LevelCompiler.read(corrupt));
+        }
+
+        // A level with only enemy types, its count after the fixed fields and five null strings
+        List<Level> levels = JsonLoader.parse(
+                "{\"levels\": [{\"level\": 1, \"enemyTypes\": [{\"type\": \"a\", \"count\": 1}]}]}");
+        ByteBuffer corrupt = ByteBuffer.wrap(LevelCompiler.toBytes(levels, 0L));
+        int typesOffset = countOffset + Integer.BYTES + 5 * Integer.BYTES + 1 + 5 * Integer.BYTES;
+        assertEquals(1, corrupt.getInt(typesOffset));
+        corrupt.putInt(typesOffset, Integer.MAX_VALUE - 8);
+        assertThrows(IOException.class, () -> LevelCompiler.read(corrupt));
+    }
+
+    @Test
+    @DisplayName("A file compiled from another maps file is only read when the source is not checked")
+    void testStaleFile() throws IOException {
+        byte[] source = shippedSource();
+        byte[] bytes = LevelCompiler.toBytes(shippedLevels(), LevelCompiler.sourceHash(source));
+
+        byte[] edited = Arrays.copyOf(source, source.length + 1);
+        edited[source.length] = '\n';
+        long editedHash = LevelCompiler.sourceHash(edited);
+        assertThrows(IOException.class, () -> LevelCompiler.read(ByteBuffer.wrap(bytes), editedHash));
+        assertEquals(shippedLevels().size(), LevelCompiler.read(ByteBuffer.wrap(bytes)).size());
+    }
+}
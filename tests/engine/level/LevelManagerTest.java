@@ -0,0 +1,82 @@
+package engine.level;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class LevelManagerTest {
+
+    private static final String LEVELS = "{\n"
+            + "  \"levels\": [\n"
+            + "    { \"level\": 1, \"levelName\": \"One\",\n"
+            + "      \"enemyFormation\": { \"formationType\": \"A\", \"formationWidth\": 5,\n"
+            + "        \"formationHeight\": 4, \"baseSpeed\": 60, \"shootingFrecuency\": 2000 },\n"
+            + "      \"enemyTypes\": [ { \"type\": \"enemyA\", \"count\": 20 } ] },\n"
+            + "    { \"level\": 2, \"completionBonus\": { \"currency\": 10 } }\n"
+            + "  ]\n"
+            + "}";
+
+    @Test
+    @DisplayName("Levels are looked up by number and cannot be changed")
+    void testLoad() throws IOException {
+        LevelManager manager = LevelManager.fromJson(LEVELS);
+        assertEquals(2, manager.getNumberOfLevels());
+        assertEquals("One", manager.getLevel(1).getLevelName());
+        assertEquals(5, manager.getLevel(1).getFormationWidth());
+        assertEquals(10, manager.getLevel(2).getCompletionBonus().getCurrency());
+        assertNull(manager.getLevel(3));
+        assertThrows(UnsupportedOperationException.class, () -> manager.getLevels().clear());
+        assertThrows(UnsupportedOperationException.class,
+                () -> manager.getLevel(1).getEnemyTypes().clear());
+    }
+
+    @Test
+    @DisplayName("A level missing a required field is reported with its line and column")
+    void testInvalidLevel() {
+        String json = LEVELS.replace("\"formationHeight\": 4", "\"formationHeight\": \"4\"");
+        IOException e = assertThrows(IOException.class, () -> LevelManager.fromJson(json));
+        assertTrue(e.getMessage().contains("Level 1 at line 3, column 5"), e.getMessage());
+        assertTrue(e.getMessage().contains("enemyFormation.formationHeight"), e.getMessage());
+
+        String duplicate = LEVELS.replace("\"level\": 2", "\"level\": 1");
+        e = assertThrows(IOException.class, () -> LevelManager.fromJson(duplicate));
+        assertTrue(e.getMessage().contains("Level 1 at line 7, column 5: duplicate"), e.getMessage());
+    }
+
+    @Test
+    @DisplayName("The maps resource is parsed once and shared")
+    void testSharedInstance() {
+        LevelManager manager = LevelManager.getInstance();
+        assertSame(manager, LevelManager.getInstance());
+        assertTrue(manager.getNumberOfLevels() > 0);
+    }
+
+    @Test
+    @DisplayName("A watched maps file is reloaded when saved, unless it is invalid")
+    void testWatch(@TempDir Path directory) throws Exception {
+        Path file = directory.resolve("maps.json");
+        Files.write(file, LEVELS.getBytes(StandardCharsets.UTF_8));
+        LevelManager manager = LevelManager.fromJson("{\"levels\": []}");
+        manager.watch(file);
+        assertEquals(2, manager.getNumberOfLevels());
+
+        Files.write(file, "{\"levels\": [ {\"level\": \"x\"} ]}".getBytes(StandardCharsets.UTF_8));
+        Thread.sleep(500);
+        assertEquals(2, manager.getNumberOfLevels());
+
+        Files.write(file, LEVELS.replace("\"One\"", "\"Uno\"").getBytes(StandardCharsets.UTF_8));
+        long deadline = System.currentTimeMillis() + 10000;
+        while (!"Uno".equals(manager.getLevel(1).getLevelName())
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals("Uno", manager.getLevel(1).getLevelName());
+    }
+}
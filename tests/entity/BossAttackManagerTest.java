@@ -10,6 +10,8 @@ import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import engine.GameRandom;
+
 public class BossAttackManagerTest {
     
     private BossAttackManager attackManager;
@@ -23,7 +25,7 @@ public class BossAttackManagerTest {
 
         when(mockBoss.getDifficulty()).thenReturn(2);
         when(mockBoss.getMaxHp()).thenReturn(90);
-        attackManager = new BossAttackManager(mockBoss);
+        attackManager = new BossAttackManager(mockBoss, new GameRandom(1));
     }
 
     @Test
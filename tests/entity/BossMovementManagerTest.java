@@ -9,6 +9,8 @@ import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import engine.GameRandom;
+
 public class BossMovementManagerTest {
     private BossMovementManager movementManager;
 
@@ -20,7 +22,7 @@ public class BossMovementManagerTest {
         MockitoAnnotations.openMocks(this);
         when(mockBoss.getDifficulty()).thenReturn(2);
 
-        movementManager = new BossMovementManager(mockBoss, mockShip);
+        movementManager = new BossMovementManager(mockBoss, mockShip, new GameRandom(1));
     }
 
     @Test
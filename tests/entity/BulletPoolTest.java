@@ -0,0 +1,59 @@
+package entity;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class BulletPoolTest {
+
+    private BulletPool pool;
+
+    @BeforeEach
+    void setUp() {
+        pool = new BulletPool(3);
+    }
+
+    @Test
+    @DisplayName("Acquired bullets are live and reuse the preallocated instances")
+    void testAcquireAndRelease() {
+        Bullet first = pool.getBullet(10, 20, -6);
+        Bullet second = pool.getBullet(30, 40, 6);
+
+        assertEquals(2, pool.size());
+        assertEquals(1, pool.getFreeCount());
+        assertEquals(20, first.getPositionY());
+        assertEquals(6, second.getSpeed());
+
+        pool.release(first);
+        assertEquals(1, pool.size());
+        assertSame(second, pool.get(0));
+
+        Bullet third = pool.getBullet(50, 60, -6);
+        assertSame(first, third);
+        assertEquals(2, pool.getHighWaterMark());
+    }
+
+    @Test
+    @DisplayName("Exhausted pool refuses new bullets instead of allocating")
+    void testExhaustedPool() {
+        for (int i = 0; i < pool.getCapacity(); i++)
+            assertNotNull(pool.getBullet(0, 0, 1));
+
+        assertNull(pool.getBullet(0, 0, 1));
+        assertEquals(1, pool.getRejectedCount());
+        assertEquals(0, pool.getFreeCount());
+    }
+
+    @Test
+    @DisplayName("Releasing an already released bullet is ignored")
+    void testDoubleRelease() {
+        Bullet bullet = pool.getBullet(0, 0, 1);
+        pool.getBullet(0, 0, 1);
+
+        pool.release(bullet);
+        pool.release(bullet);
+        assertEquals(1, pool.size());
+    }
+}
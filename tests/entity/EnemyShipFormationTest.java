@@ -0,0 +1,123 @@
+package entity;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import engine.GameClock;
+import engine.GameRandom;
+import engine.level.Level;
+import screen.Screen;
+
+public class EnemyShipFormationTest {
+
+    private static final long FRAME_NANOS = 1000000000L / 60;
+
+    @BeforeEach
+    void setUp() {
+        System.setProperty("java.awt.headless", "true");
+        GameClock.useSimulatedTime(1000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        GameClock.useSystemTime();
+    }
+
+    private static EnemyShipFormation formation(int width, int height) {
+        EnemyShipFormation formation = new EnemyShipFormation(new Level(1, width, height, 1, 1000),
+                new GameRandom(1));
+        formation.attach(new Screen(672, 780, 60));
+        return formation;
+    }
+
+    private static List<EnemyShip> ships(EnemyShipFormation formation) {
+        List<EnemyShip> ships = new ArrayList<>();
+        formation.forEach(ships::add);
+        return ships;
+    }
+
+    @Test
+    @DisplayName("Ships move with the formation and stay in sync when moved on their own")
+    void testMove() {
+        EnemyShipFormation formation = formation(10, 5);
+        EnemyShip first = ships(formation).get(0);
+        int startX = first.getPositionX();
+        int startY = first.getPositionY();
+
+        for (int i = 0; i < 30; i++) {
+            GameClock.advance(FRAME_NANOS);
+            formation.update();
+        }
+        assertNotEquals(startX, first.getPositionX());
+        assertEquals(50, ships(formation).size());
+
+        int movedY = first.getPositionY();
+        DropItem.PushbackItem(formation, 20);
+        assertEquals(movedY - 20, first.getPositionY());
+        assertNotEquals(startY - 20, first.getPositionY());
+    }
+
+    @Test
+    @DisplayName("Destroyed ships stop colliding, pass the shot up their column and leave after exploding")
+    void testDestroy() {
+        EnemyShipFormation formation = formation(2, 3);
+        List<EnemyShip> ships = ships(formation);
+        // Column by column, top to bottom
+        EnemyShip bottom = ships.get(2);
+        EnemyShip middle = ships.get(1);
+
+        formation.destroy(bottom);
+        assertTrue(bottom.isDestroyed());
+        assertTrue(formation.contains(bottom));
+        assertSame(middle, formation.getNextShooter(0));
+
+        SpatialGrid<EnemyShip> grid = new SpatialGrid<>(672, 780, 40);
+        formation.addTo(grid);
+        assertEquals(5, grid.size());
+
+        for (int i = 0; i < 120; i++) {
+            GameClock.advance(FRAME_NANOS);
+            formation.update();
+        }
+        assertFalse(formation.contains(bottom));
+        assertEquals(5, ships(formation).size());
+        assertFalse(formation.isEmpty());
+
+        assertEquals(5, formation.destroyAll());
+        assertTrue(formation.isEmpty());
+    }
+
+    @Test
+    @DisplayName("The store keeps the edges of the formation as ships leave")
+    void testStoreEdges() {
+        FormationStore store = new FormationStore(3, 3);
+        for (int column = 0; column < 3; column++)
+            for (int row = 0; row < 3; row++)
+                store.add(column, row, new EnemyShip(column * 40, row * 40,
+                        engine.DrawManager.SpriteType.EnemyShipA1));
+        store.boundsChanged = false;
+
+        // Top of the middle column, then the whole left column
+        for (int slot : new int[] { 3, 0, 1, 2 }) {
+            store.ships[slot].destroy();
+            store.remove(slot);
+        }
+        assertTrue(store.boundsChanged);
+        assertEquals(0, store.exploding);
+        assertEquals(1, store.firstColumn);
+        assertEquals(2, store.lastColumn);
+        assertEquals(1, store.top[1]);
+        assertEquals(2, store.bottom[1]);
+
+        store.moveAll(8, 4);
+        assertEquals(48, store.ships[4].getPositionX());
+        assertEquals(44, store.ships[4].getPositionY());
+    }
+}
@@ -0,0 +1,56 @@
+package entity;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.Color;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import audio.SoundManager;
+import engine.GameClock;
+import engine.GameRandom;
+
+/**
+ * Tests that a boss fight depends on nothing but the seed of the game.
+ */
+class FinalBossDeterminismTest {
+
+    private static final long TICK_NANOS = 1000000000L / 60;
+    private static final int TICKS = 1200;
+
+    @BeforeEach
+    void setUp() {
+        SoundManager.cutAllSound();
+    }
+
+    @AfterEach
+    void tearDown() {
+        GameClock.useSystemTime();
+    }
+
+    /** Runs a boss in its dash phase, returning its position every tick. */
+    private static int[] fight(long seed) {
+        GameClock.useSimulatedTime(1000);
+        Ship ship = new Ship(200, 450, Color.green);
+        FinalBoss boss = new FinalBoss(150, 80, 448, 520, ship, 3, new GameRandom(seed));
+        boss.takeDamage((int) (boss.getMaxHp() * (1 - FinalBoss.PHASE_3_HP_THRESHOLD)) + 1);
+
+        int[] positions = new int[TICKS * 2];
+        for (int tick = 0; tick < TICKS; tick++) {
+            boss.update();
+            positions[tick * 2] = boss.getPositionX();
+            positions[tick * 2 + 1] = boss.getPositionY();
+            GameClock.advance(TICK_NANOS);
+        }
+        return positions;
+    }
+
+    @Test
+    @DisplayName("A boss dashing and shaking moves the same way on the same seed")
+    void testSameSeedSameFight() {
+        assertArrayEquals(fight(42), fight(42));
+    }
+}
@@ -8,6 +8,8 @@ import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import engine.GameRandom;
+
 class FinalBossTest {
 
     private FinalBoss finalBoss;
@@ -20,7 +22,7 @@ class FinalBossTest {
     void setUp() {
         MockitoAnnotations.openMocks(this);
 
-        finalBoss = new FinalBoss(0, 0, 800, 600, mockShip, 2);
+        finalBoss = new FinalBoss(0, 0, 800, 600, mockShip, 2, new GameRandom(1));
 
         injectMock(finalBoss, "attackManager", mockAttackManager);
         injectMock(finalBoss, "movementManager", mockMovementManager);
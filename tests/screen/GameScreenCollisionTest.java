@@ -92,7 +92,7 @@ class GameScreenCollisionTest {
     @Test
     @DisplayName("Collision with FinalBoss")
     void testCollisionWithFinalBoss() throws Exception {
-        FinalBoss enemy = new FinalBoss(0, 0, WIDTH, HEIGHT, null, 1);
+        FinalBoss enemy = new FinalBoss(0, 0, WIDTH, HEIGHT, null, 1, gameState.getRandom());
         performCollisionTest(enemy);
     }
 
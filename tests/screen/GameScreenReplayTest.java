@@ -0,0 +1,78 @@
+package screen;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.event.KeyEvent;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import audio.SoundManager;
+import engine.GameClock;
+import engine.GameRandom;
+import engine.GameState;
+import engine.InputManager;
+import engine.InputSnapshot;
+import engine.ReplayPlayer;
+import engine.ReplayRecorder;
+import engine.level.LevelManager;
+
+/**
+ * Tests that a recorded game screen session runs on the input it recorded.
+ */
+class GameScreenReplayTest {
+
+    private static final long TICK_NANOS = 1000000000L / 60;
+
+    private InputManager inputManager;
+
+    @BeforeEach
+    void setUp() {
+        SoundManager.cutAllSound();
+        GameClock.useSimulatedTime(1000);
+        inputManager = InputManager.getInstance();
+        inputManager.resetKeyState();
+        InputManager.updateMouseState(0, 0, false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        GameClock.useSystemTime();
+        inputManager.resetKeyState();
+    }
+
+    @Test
+    @DisplayName("A key changed between recording and running a tick is left to the next tick")
+    void testKeyChangedMidTick() {
+        GameState state = new GameState(1, 0, 3, 0, 0, 0, new GameRandom(7));
+        ReplayRecorder recorder = new ReplayRecorder(state, false, 3, 448, 520, 60);
+        GameScreen screen = new GameScreen(state, LevelManager.getInstance().getLevel(1),
+                false, 3, 448, 520, 60);
+        screen.setReplayRecorder(recorder);
+        screen.initialize();
+        int startX = screen.getShip().getPositionX();
+
+        // D is down when the tick latches its input, and released, as the
+        // event thread would, before the tick runs.
+        inputManager.setKeyState(KeyEvent.VK_D, true);
+        screen.latchInput();
+        inputManager.setKeyState(KeyEvent.VK_D, false);
+        screen.runTick();
+        GameClock.advance(TICK_NANOS);
+        int movedX = screen.getShip().getPositionX();
+        assertTrue(movedX > startX, "the tick ran without the recorded key");
+
+        screen.tick();
+        assertEquals(movedX, screen.getShip().getPositionX());
+        recorder.finish(2, 0, 3);
+
+        ReplayPlayer player = new ReplayPlayer(recorder.getReplay());
+        InputSnapshot played = new InputSnapshot();
+        player.apply(played, 0);
+        assertTrue(played.isKeyDown(KeyEvent.VK_D), "the key the tick ran with was not recorded");
+        player.apply(played, 1);
+        assertFalse(played.isKeyDown(KeyEvent.VK_D));
+    }
+}